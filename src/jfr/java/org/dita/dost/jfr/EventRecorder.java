@@ -0,0 +1,40 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.jfr;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Flight Recorder implementation of pipeline events. Loaded by {@link PipelineEvents} only if the runtime supports
+ * Flight Recorder.
+ *
+ * @since 3.5
+ */
+final class EventRecorder implements PipelineEvents.Recorder {
+
+    @Override
+    public PipelineEvents.Span startModule(final PipelineEvents context) {
+        return ModuleEvent.start(context);
+    }
+
+    @Override
+    public PipelineEvents.Span startFile(final PipelineEvents context, final URI file) {
+        return FileEvent.start(context, file);
+    }
+
+    @Override
+    public PipelineEvents.Span startTransform(final PipelineEvents context, final URI file, final URI stylesheet) {
+        return TransformEvent.start(context, file, stylesheet);
+    }
+
+    @Override
+    public PipelineEvents.Span startTransform(final PipelineEvents context, final URI file, final List<?> filters) {
+        return TransformEvent.start(context, file, filters);
+    }
+}
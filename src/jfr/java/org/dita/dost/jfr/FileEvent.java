@@ -0,0 +1,55 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.net.URI;
+
+/**
+ * Flight Recorder event for processing a single file in a pipeline module. Events are started with
+ * {@link PipelineEvents#startFile(URI)}.
+ *
+ * @since 3.5
+ */
+@Name("org.dita.dost.File")
+@Label("Pipeline File")
+@Category({"DITA-OT", "Pipeline"})
+@Description("Processing of a single file in a pipeline module")
+public final class FileEvent extends Event implements PipelineEvents.Span {
+
+    @Label("Module")
+    public String module;
+    @Label("File")
+    public String file;
+    @Label("Transtype")
+    public String transtype;
+
+    static FileEvent start(final PipelineEvents context, final URI file) {
+        final FileEvent event = new FileEvent();
+        event.begin();
+        if (event.isEnabled()) {
+            event.module = context.module;
+            event.transtype = context.transtype;
+            event.file = file.toString();
+        }
+        return event;
+    }
+
+    @Override
+    public void finish() {
+        end();
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
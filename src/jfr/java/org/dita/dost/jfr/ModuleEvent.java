@@ -0,0 +1,52 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for pipeline module execution. Events are started with {@link PipelineEvents#startModule()}.
+ *
+ * @since 3.5
+ */
+@Name("org.dita.dost.Module")
+@Label("Pipeline Module")
+@Category({"DITA-OT", "Pipeline"})
+@Description("Pipeline module execution")
+public final class ModuleEvent extends Event implements PipelineEvents.Span {
+
+    @Label("Target")
+    public String target;
+    @Label("Module")
+    public String module;
+    @Label("Transtype")
+    public String transtype;
+
+    static ModuleEvent start(final PipelineEvents context) {
+        final ModuleEvent event = new ModuleEvent();
+        event.begin();
+        if (event.isEnabled()) {
+            event.target = context.target;
+            event.module = context.module;
+            event.transtype = context.transtype;
+        }
+        return event;
+    }
+
+    @Override
+    public void finish() {
+        end();
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Flight Recorder event for an XSLT or SAX filter transformation of a single file. Events are started with
+ * {@link PipelineEvents#startTransform(URI, URI)} and {@link PipelineEvents#startTransform(URI, List)}.
+ *
+ * @since 3.5
+ */
+@Name("org.dita.dost.Transform")
+@Label("Transform")
+@Category({"DITA-OT", "Transform"})
+@Description("XSLT or SAX filter transformation of a single file")
+public final class TransformEvent extends Event implements PipelineEvents.Span {
+
+    @Label("Module")
+    public String module;
+    @Label("File")
+    public String file;
+    @Label("Transtype")
+    public String transtype;
+    @Label("Stylesheet")
+    public String stylesheet;
+    @Label("Filters")
+    public String filters;
+
+    static TransformEvent start(final PipelineEvents context, final URI file, final URI stylesheet) {
+        final TransformEvent event = new TransformEvent();
+        event.begin();
+        if (event.isEnabled()) {
+            event.module = context.module;
+            event.transtype = context.transtype;
+            event.file = file.toString();
+            event.stylesheet = stylesheet.toString();
+        }
+        return event;
+    }
+
+    static TransformEvent start(final PipelineEvents context, final URI file, final List<?> filters) {
+        final TransformEvent event = new TransformEvent();
+        event.begin();
+        if (event.isEnabled()) {
+            event.module = context.module;
+            event.transtype = context.transtype;
+            event.file = file.toString();
+            final StringBuilder buf = new StringBuilder();
+            for (final Object filter : filters) {
+                if (buf.length() > 0) {
+                    buf.append(' ');
+                }
+                buf.append(filter.getClass().getSimpleName());
+            }
+            event.filters = buf.toString();
+        }
+        return event;
+    }
+
+    @Override
+    public void finish() {
+        end();
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class PipelineEventsTest {
+
+    @Before
+    public void setUp() {
+        assumeTrue("Flight Recorder not available", PipelineEvents.isAvailable());
+    }
+
+    @Test
+    public void recordedWithModuleContext() throws IOException {
+        final Path dump = Files.createTempFile("PipelineEventsTest", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ModuleEvent.class);
+            recording.enable(FileEvent.class);
+            recording.start();
+            final PipelineEvents first = PipelineEvents.create("target", "first", "html5");
+            final PipelineEvents second = PipelineEvents.create("target", "second", "pdf");
+            final PipelineEvents.Span module = first.startModule();
+            final PipelineEvents.Span firstFile = first.startFile(URI.create("file:/foo.dita"));
+            final PipelineEvents.Span secondFile = second.startFile(URI.create("file:/bar.dita"));
+            secondFile.finish();
+            firstFile.finish();
+            module.finish();
+            recording.stop();
+            recording.dump(dump);
+
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                    .filter(e -> e.getEventType().getName().startsWith("org.dita.dost."))
+                    .collect(Collectors.toList());
+            assertEquals(3, events.size());
+            final RecordedEvent fileEvent = getFileEvent(events, "file:/foo.dita");
+            assertEquals("first", fileEvent.getString("module"));
+            assertEquals("html5", fileEvent.getString("transtype"));
+            final RecordedEvent otherFileEvent = getFileEvent(events, "file:/bar.dita");
+            assertEquals("second", otherFileEvent.getString("module"));
+            assertEquals("pdf", otherFileEvent.getString("transtype"));
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    private static RecordedEvent getFileEvent(final List<RecordedEvent> events, final String file) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals("org.dita.dost.File"))
+                .filter(e -> e.getString("file").equals(file))
+                .findFirst()
+                .get();
+    }
+
+    @Test
+    public void notRecorded() {
+        final PipelineEvents.Span span = PipelineEvents.create("target", "module", "html5")
+                .startFile(URI.create("file:/foo.dita"));
+        span.finish();
+        assertNull(((FileEvent) span).file);
+    }
+
+    @Test
+    public void disabled() {
+        final PipelineEvents.Span span = PipelineEvents.DISABLED.startFile(URI.create("file:/foo.dita"));
+        span.finish();
+        assertFalse(span instanceof FileEvent);
+    }
+}
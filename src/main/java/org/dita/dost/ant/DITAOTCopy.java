@@ -13,17 +13,31 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.apache.tools.ant.BuildException;
+import org.apache.tools.ant.Project;
 import org.apache.tools.ant.Task;
-import org.apache.tools.ant.util.FileUtils;
+import org.apache.tools.ant.types.Resource;
+import org.apache.tools.ant.types.ResourceCollection;
+import org.apache.tools.ant.types.resources.FileProvider;
+import org.apache.tools.ant.util.FileNameMapper;
+import org.dita.dost.util.ParallelUtils;
+
+import static java.nio.file.StandardCopyOption.COPY_ATTRIBUTES;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
 /**
- * Class description goes here.
+ * Copy files to destination directory.
+ *
+ * <p>Files are copied in parallel. Destination files that have the same size and modification time as the source
+ * are not copied again. In link mode, files are hard linked instead of copied when possible.</p>
  *
  * @author Wu, Zhi Qiang
  */
@@ -34,6 +48,10 @@ public final class DITAOTCopy extends Task {
     private String relativePaths = null;
     /** Destination directory */
     private File destDir = null;
+    private final List<ResourceCollection> resources = new ArrayList<>();
+    private FileNameMapper mapper = null;
+    private boolean link = false;
+    private boolean failOnError = true;
 
     /**
      * Default Constructor.
@@ -76,12 +94,48 @@ public final class DITAOTCopy extends Task {
         }
     }
 
+    /**
+     * Set whether files are hard linked instead of copied. If linking fails, e.g. because source and
+     * destination are on different file systems, the file is copied.
+     * @param link {@code true} to use hard links
+     */
+    public void setLink(final boolean link) {
+        this.link = link;
+    }
+
+    /**
+     * Set whether copy failure fails the build.
+     * @param failOnError {@code true} to fail on error, {@code false} to log a warning
+     */
+    public void setFailonerror(final boolean failOnError) {
+        this.failOnError = failOnError;
+    }
+
+    /**
+     * Add resources to copy.
+     * @param rc resource collection
+     */
+    public void add(final ResourceCollection rc) {
+        resources.add(rc);
+    }
+
+    /**
+     * Set mapper for nested resource names.
+     * @param mapper file name mapper
+     */
+    public void add(final FileNameMapper mapper) {
+        if (this.mapper != null) {
+            throw new BuildException("Only one mapper may be defined");
+        }
+        this.mapper = mapper;
+    }
+
     /**
      * @see org.apache.tools.ant.Task#execute()
      */
     @Override
     public void execute() throws BuildException {
-        if (includes == null && includesFile == null) {
+        if (includes == null && includesFile == null && resources.isEmpty()) {
             return;
         }
         if (destDir == null) {
@@ -90,36 +144,123 @@ public final class DITAOTCopy extends Task {
         if (!destDir.exists() && !destDir.mkdirs()) {
             throw new BuildException(new IOException("Destination directory " + destDir + " cannot be created"));
         }
+        final Map<File, Object> copies;
         try {
-            final FileUtils fileUtils = FileUtils.newFileUtils();
-            final List<String> incs = getIncludes();
-            if (relativePaths == null) {
-                for (final String inc: incs) {
-                    final File srcFile = new File(inc);
-                    if (srcFile.exists()) {
-                        final File destFile = new File(destDir, srcFile.getName());
-                        fileUtils.copyFile(srcFile, destFile);
-                    }
+            copies = getCopies();
+        } catch (final IOException e) {
+            throw new BuildException(e.getMessage(), e);
+        }
+        final Queue<IOException> errors = new ConcurrentLinkedQueue<>();
+        ParallelUtils.forEach(copies.entrySet(), e -> {
+            try {
+                if (e.getValue() instanceof File) {
+                    copy(((File) e.getValue()).toPath(), e.getKey().toPath());
+                } else {
+                    copy((Resource) e.getValue(), e.getKey().toPath());
                 }
-            } else {
-                for (final String inc: incs) {
-                    final File srcFile = new File(inc);
-                    File destFile = null;
-                    for (final String rel: relativePaths.split(COMMA)) {
-                        final File temp = new File(destDir, rel);
-                        if (temp.getName().equalsIgnoreCase(srcFile.getName())) {
-                            destFile = temp;
-                            break;
-                        }
-                    }
-                    if (srcFile.exists() && destFile != null) {
-                        fileUtils.copyFile(srcFile, destFile);
-                    }
+            } catch (final IOException | UncheckedIOException ex) {
+                errors.add(ex instanceof UncheckedIOException ? ((UncheckedIOException) ex).getCause() : (IOException) ex);
+            }
+        });
+        if (!errors.isEmpty()) {
+            if (failOnError) {
+                final IOException e = errors.peek();
+                throw new BuildException(e.getMessage(), e);
+            }
+            for (final IOException e : errors) {
+                log("Failed to copy: " + e.getMessage(), Project.MSG_WARN);
+            }
+        }
+    }
+
+    /**
+     * Collect copy operations.
+     *
+     * @return map of destination files to source files or resources
+     */
+    private Map<File, Object> getCopies() throws IOException {
+        final Map<File, Object> copies = new LinkedHashMap<>();
+        final List<String> incs = getIncludes();
+        if (relativePaths == null) {
+            for (final String inc: incs) {
+                final File srcFile = new File(inc);
+                if (srcFile.exists()) {
+                    copies.put(new File(destDir, srcFile.getName()), srcFile);
                 }
             }
-        } catch (final IOException e) {
-            throw new BuildException(e.getMessage(), e);
+        } else {
+            final Map<String, File> destFiles = new HashMap<>();
+            for (final String rel: relativePaths.split(COMMA)) {
+                final File temp = new File(destDir, rel);
+                destFiles.putIfAbsent(temp.getName().toLowerCase(Locale.ROOT), temp);
+            }
+            for (final String inc: incs) {
+                final File srcFile = new File(inc);
+                final File destFile = destFiles.get(srcFile.getName().toLowerCase(Locale.ROOT));
+                if (srcFile.exists() && destFile != null) {
+                    copies.put(destFile, srcFile);
+                }
+            }
+        }
+        for (final ResourceCollection rc : resources) {
+            for (final Resource r : rc) {
+                if (!r.isExists()) {
+                    log("Resource " + r + " not found", Project.MSG_VERBOSE);
+                    continue;
+                }
+                final String[] names = mapper != null ? mapper.mapFileName(r.getName()) : new String[] {r.getName()};
+                if (names == null || names.length == 0) {
+                    continue;
+                }
+                final FileProvider fp = r.as(FileProvider.class);
+                copies.put(new File(destDir, names[0]), fp != null ? fp.getFile() : r);
+            }
+        }
+        return copies;
+    }
+
+    private void copy(final Path src, final Path dst) throws IOException {
+        if (isIdentical(src, dst)) {
+            log("Skip identical " + dst, Project.MSG_VERBOSE);
+            return;
+        }
+        Files.createDirectories(dst.getParent());
+        if (link) {
+            try {
+                Files.deleteIfExists(dst);
+                Files.createLink(dst, src);
+                log("Link " + src + " to " + dst, Project.MSG_VERBOSE);
+                return;
+            } catch (final UnsupportedOperationException | IOException e) {
+                log("Failed to link " + src + ", copying instead: " + e.getMessage(), Project.MSG_DEBUG);
+            }
+        }
+        log("Copy " + src + " to " + dst, Project.MSG_VERBOSE);
+        Files.copy(src, dst, REPLACE_EXISTING, COPY_ATTRIBUTES);
+    }
+
+    private void copy(final Resource src, final Path dst) throws IOException {
+        Files.createDirectories(dst.getParent());
+        log("Copy " + src + " to " + dst, Project.MSG_VERBOSE);
+        try (InputStream in = src.getInputStream()) {
+            Files.copy(in, dst, REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Test if destination file is a link to or a copy of source file.
+     */
+    private boolean isIdentical(final Path src, final Path dst) throws IOException {
+        if (!Files.exists(dst)) {
+            return false;
+        }
+        if (Files.isSameFile(src, dst)) {
+            return true;
         }
+        final BasicFileAttributes srcAttrs = Files.readAttributes(src, BasicFileAttributes.class);
+        final BasicFileAttributes dstAttrs = Files.readAttributes(dst, BasicFileAttributes.class);
+        return srcAttrs.size() == dstAttrs.size()
+                && srcAttrs.lastModifiedTime().equals(dstAttrs.lastModifiedTime());
     }
 
     private List<String> getIncludes() throws IOException {
@@ -15,8 +15,11 @@ import org.apache.tools.ant.Task;
 import org.apache.tools.ant.types.Mapper;
 import org.apache.tools.ant.types.XMLCatalog;
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.jfr.PipelineEvents;
 import org.dita.dost.log.DITAOTAntLogger;
 import org.dita.dost.log.MessageUtils;
+import org.dita.dost.log.MetricsListener;
+import org.dita.dost.log.TraceListener;
 import org.dita.dost.module.AbstractPipelineModule;
 import org.dita.dost.module.ModuleFactory;
 import org.dita.dost.module.XmlFilterModule;
@@ -26,6 +29,8 @@ import org.dita.dost.pipeline.PipelineHashIO;
 import org.dita.dost.util.Constants;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.Metrics;
+import org.dita.dost.util.Metrics.Measurement;
 import org.dita.dost.writer.AbstractXMLFilter;
 
 import java.io.BufferedReader;
@@ -167,6 +172,9 @@ public final class ExtensibleAntInvoker extends Task {
         initialize();
 
         final Job job = getJob(tempDir, getProject());
+        final Metrics metrics = getMetrics(getProject());
+        final String target = getOwningTarget() != null ? getOwningTarget().getName() : null;
+        final String transtype = getProject().getProperty(ANT_INVOKER_EXT_PARAM_TRANSTYPE);
         try {
             for (final ModuleElem m : modules) {
                 m.setProject(getProject());
@@ -179,7 +187,16 @@ public final class ExtensibleAntInvoker extends Task {
                 long start = System.currentTimeMillis();
                 mod.setLogger(logger);
                 mod.setJob(job);
-                mod.execute(pipelineInput);
+                mod.setMetrics(metrics);
+                final String moduleName = getModuleName(m, mod);
+                final PipelineEvents events = PipelineEvents.create(target, moduleName, transtype);
+                mod.setEvents(events);
+                final PipelineEvents.Span event = events.startModule();
+                try (Measurement measurement = metrics.startModule(target, moduleName)) {
+                    mod.execute(pipelineInput);
+                } finally {
+                    event.finish();
+                }
                 long end = System.currentTimeMillis();
                 logger.debug("{0} processing took {1} ms", mod.getClass().getSimpleName(), end - start);
             }
@@ -188,6 +205,13 @@ public final class ExtensibleAntInvoker extends Task {
         }
     }
 
+    private static String getModuleName(final ModuleElem m, final AbstractPipelineModule mod) {
+        if (m instanceof XsltElem && ((XsltElem) m).style != null) {
+            return mod.getClass().getSimpleName() + ":" + ((XsltElem) m).style.getName();
+        }
+        return mod.getClass().getSimpleName();
+    }
+
     private AbstractPipelineModule getPipelineModule(final ModuleElem m, final PipelineHashIO pipelineInput) throws DITAOTException {
         if (m instanceof XsltElem) {
             final XsltElem xm = (XsltElem) m;
@@ -209,6 +233,7 @@ public final class ExtensibleAntInvoker extends Task {
             module.setFilenameParam(xm.filenameparameter);
             module.setFiledirParam(xm.filedirparameter);
             module.setReloadstylesheet(xm.reloadstylesheet);
+            module.setCacheDocuments(xm.cachedocuments);
             module.setXMLCatalog(xm.xmlcatalog);
             if (xm.mapper != null) {
                 module.setMapper(xm.mapper.getImplementation());
@@ -306,6 +331,35 @@ public final class ExtensibleAntInvoker extends Task {
         return job;
     }
 
+    /**
+     * Get metrics collector from Ant project reference or create new. Metrics are only collected if
+     * {@value Constants#ANT_METRICS_FILE} or {@value Constants#ANT_TRACE_FILE} property is set, and they are written
+     * to those files when the build finishes.
+     *
+     * @param project Ant project
+     * @return metrics collector
+     */
+    public static Metrics getMetrics(final Project project) {
+        Metrics metrics = project.getReference(ANT_REFERENCE_METRICS);
+        if (metrics == null) {
+            final String file = project.getProperty(ANT_METRICS_FILE);
+            final String trace = project.getProperty(ANT_TRACE_FILE);
+            if ((file == null || file.isEmpty()) && (trace == null || trace.isEmpty())) {
+                return Metrics.DISABLED;
+            }
+            metrics = new Metrics();
+            project.addReference(ANT_REFERENCE_METRICS, metrics);
+            if (file != null && !file.isEmpty()) {
+                project.addBuildListener(new MetricsListener(metrics, project.resolveFile(file)));
+            }
+            if (trace != null && !trace.isEmpty()
+                    && project.getBuildListeners().stream().noneMatch(l -> l instanceof TraceListener)) {
+                project.addBuildListener(new TraceListener(project.resolveFile(trace)));
+            }
+        }
+        return metrics;
+    }
+
     private Set<File> readListFile(final List<IncludesFileElem> includes, final DITAOTAntLogger logger) {
         final Set<File> inc = new HashSet<>();
         for (final IncludesFileElem i : includes) {
@@ -435,6 +489,7 @@ public final class ExtensibleAntInvoker extends Task {
         private String filedirparameter;
         private XMLCatalog xmlcatalog;
         private boolean reloadstylesheet;
+        private boolean cachedocuments;
 
         // Ant setters
 
@@ -465,6 +520,10 @@ public final class ExtensibleAntInvoker extends Task {
             this.reloadstylesheet = reloadstylesheet;
         }
 
+        public void setCachedocuments(final boolean cachedocuments) {
+            this.cachedocuments = cachedocuments;
+        }
+
         public void setIn(final File in) {
             this.in = in;
         }
@@ -549,6 +608,12 @@ public final class ExtensibleAntInvoker extends Task {
         private Boolean isInput;
         private Boolean isInputResource;
         private Boolean isResourceOnly;
+        private Boolean hasProfiling;
+        private Boolean hasFragmentLink;
+        private Boolean hasIndexterm;
+        private Boolean hasTable;
+        private Boolean hasCoderef;
+        private Boolean hasCodeblock;
 
         public void setFormat(final String format) {
             final ImmutableSet.Builder<String> builder = ImmutableSet.<String>builder().add(format);
@@ -575,12 +640,42 @@ public final class ExtensibleAntInvoker extends Task {
             this.isResourceOnly = processingRole.equals(Constants.ATTR_PROCESSING_ROLE_VALUE_RESOURCE_ONLY);
         }
 
+        public void setProfiling(final boolean hasProfiling) {
+            this.hasProfiling = hasProfiling;
+        }
+
+        public void setFragmentLink(final boolean hasFragmentLink) {
+            this.hasFragmentLink = hasFragmentLink;
+        }
+
+        public void setIndexterm(final boolean hasIndexterm) {
+            this.hasIndexterm = hasIndexterm;
+        }
+
+        public void setTable(final boolean hasTable) {
+            this.hasTable = hasTable;
+        }
+
+        public void setCoderef(final boolean hasCoderef) {
+            this.hasCoderef = hasCoderef;
+        }
+
+        public void setCodeblock(final boolean hasCodeblock) {
+            this.hasCodeblock = hasCodeblock;
+        }
+
         public Predicate<FileInfo> toFilter() {
             return f -> (formats.isEmpty() || formats.contains(f.format != null ? f.format : ATTR_FORMAT_VALUE_DITA)) &&
                     (hasConref == null || f.hasConref == hasConref) &&
                     (isInput == null || f.isInput == isInput) &&
                     (isInputResource == null || f.isInputResource == isInputResource) &&
-                    (isResourceOnly == null || f.isResourceOnly == isResourceOnly);
+                    (isResourceOnly == null || f.isResourceOnly == isResourceOnly) &&
+                    (hasProfiling == null || f.mayContain(f.hasProfiling) == hasProfiling) &&
+                    (hasFragmentLink == null || f.mayContain(f.hasFragmentLink) == hasFragmentLink) &&
+                    (hasIndexterm == null || f.mayContain(f.hasIndexterm) == hasIndexterm) &&
+                    (hasTable == null || f.mayContain(f.hasTable) == hasTable) &&
+                    (hasCoderef == null || f.mayContain(f.hasCoderef) == hasCoderef) &&
+                    (hasCodeblock == null || f.mayContain(f.hasCodeblock) == hasCodeblock);
         }
     }
 
@@ -613,10 +708,14 @@ public final class ExtensibleAntInvoker extends Task {
                             fc.setParam(p.getName(), p.getValue());
                         }
                     }
-                    final List<FileInfoFilterElem> predicates = new ArrayList<>(f.fileInfoFilters);
-                    predicates.addAll(getFormat());
-                    assert !predicates.isEmpty();
-                    Predicate<FileInfo> fs = combine(predicates);
+                    final Predicate<FileInfo> fs;
+                    if (f.restrict) {
+                        fs = combine(getFormat()).and(combine(f.fileInfoFilters));
+                    } else {
+                        final List<FileInfoFilterElem> predicates = new ArrayList<>(f.fileInfoFilters);
+                        predicates.addAll(getFormat());
+                        fs = combine(predicates);
+                    }
                     res.add(new FilterPair(fc, fs));
                 }
             }
@@ -637,17 +736,31 @@ public final class ExtensibleAntInvoker extends Task {
 
     /**
      * Nested pipeline SAX filter element configuration.
+     *
+     * <p>By default the filter's own {@code ditafileset} elements add files to the files selected by the SAX pipe.
+     * With {@code restrict="true"} they restrict the filter to the pipe's files that also match one of them.</p>
      */
     public static class XmlFilterElem extends ConfElem {
 
         public final List<FileInfoFilterElem> fileInfoFilters = new ArrayList<>();
         public final List<ParamElem> params = new ArrayList<>();
         private Class<? extends AbstractXMLFilter> cls;
+        private boolean restrict;
 
         public void setClass(final Class<? extends AbstractXMLFilter> cls) {
             this.cls = cls;
         }
 
+        /**
+         * Set whether filter file sets restrict the files selected by the SAX pipe instead of adding to them.
+         *
+         * @param restrict restrict pipe file selection
+         * @since 3.5
+         */
+        public void setRestrict(final boolean restrict) {
+            this.restrict = restrict;
+        }
+
         public void addConfiguredParam(final ParamElem p) {
             params.add(p);
         }
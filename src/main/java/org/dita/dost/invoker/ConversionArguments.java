@@ -23,6 +23,8 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.dita.dost.invoker.ArgumentParser.getPluginArguments;
+import static org.dita.dost.util.Constants.ANT_METRICS_FILE;
+import static org.dita.dost.util.Constants.ANT_TRACE_FILE;
 import static org.dita.dost.util.Constants.ANT_TEMP_DIR;
 import static org.dita.dost.util.XMLUtils.toList;
 
@@ -59,6 +61,8 @@ public class ConversionArguments extends Arguments {
         ARGUMENTS.put("--temp", new AbsoluteFileArgument(ANT_TEMP_DIR, null));
         ARGUMENTS.put("-p", new AbsoluteFileArgument("project.file", null));
         ARGUMENTS.put("--project", new AbsoluteFileArgument("project.file", null));
+        ARGUMENTS.put("--metrics", new AbsoluteFileArgument(ANT_METRICS_FILE, null));
+        ARGUMENTS.put("--trace", new AbsoluteFileArgument(ANT_TRACE_FILE, null));
         for (final Map.Entry<String, Argument> e : new HashSet<>(ARGUMENTS.entrySet())) {
             if (e.getKey().startsWith("--")) {
                 ARGUMENTS.put(e.getKey().substring(1), e.getValue());
@@ -359,6 +363,8 @@ public class ConversionArguments extends Arguments {
                 .options("r", "resource", "file", "resource file")
                 .options(null, "filter", "files", "filter and flagging files")
                 .options("l", "logfile", "file", "use given file for log")
+                .options(null, "metrics", "file", "write processing metrics to JSON or CSV file")
+                .options(null, "trace", "file", "write build timeline in Chrome trace format")
                 .options("o", "output", "dir", "output directory")
 //                .options(null, "<property>", "value", "use value for given property")
                 .options(null, "propertyfile", "file", "load all properties from file")
@@ -35,6 +35,7 @@ import org.apache.tools.ant.property.ResolvePropertyMap;
 import org.apache.tools.ant.util.ClasspathUtils;
 import org.apache.tools.ant.util.FileUtils;
 import org.apache.tools.ant.util.ProxySetup;
+import org.dita.dost.log.TraceListener;
 import org.dita.dost.platform.Plugins;
 import org.dita.dost.project.Project.Context;
 import org.dita.dost.project.Project.Publication;
@@ -52,6 +53,7 @@ import java.util.stream.Collectors;
 import static org.dita.dost.invoker.Arguments.*;
 import static org.dita.dost.util.Configuration.transtypes;
 import static org.dita.dost.util.Constants.ANT_TEMP_DIR;
+import static org.dita.dost.util.Constants.ANT_TRACE_FILE;
 
 /**
  * Command line entry point into DITA-OT. This class is entered via the canonical
@@ -577,6 +579,7 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
 
         try {
             addBuildListeners(project);
+            addTraceListener(project, definedProps);
             addInputHandler(project);
 
             final PrintStream savedErr = System.err;
@@ -699,6 +702,20 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
         }
     }
 
+    /**
+     * Adds trace listener to the project if trace output file is defined. The listener is added before the build
+     * starts in order to record all targets.
+     *
+     * @param project      The project to add listener to.
+     * @param definedProps Set of properties that can be used by tasks.
+     */
+    private void addTraceListener(final Project project, final Map<String, Object> definedProps) {
+        final Object trace = definedProps.get(ANT_TRACE_FILE);
+        if (trace != null) {
+            project.addBuildListener(new TraceListener(new File(trace.toString())));
+        }
+    }
+
     /**
      * Creates the InputHandler and adds it to the project.
      *
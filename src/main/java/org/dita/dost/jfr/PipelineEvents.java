@@ -0,0 +1,130 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.jfr;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Flight Recorder event context of a single pipeline module execution.
+ *
+ * <p>Module, file and transform events started from a context carry the target, module and transtype of the
+ * context. Flight Recorder event classes are compiled separately from the rest of the toolkit and only loaded if
+ * the runtime supports Flight Recorder; on runtimes without it, e.g. Java 8 before update 262, or if the toolkit was
+ * built with a JDK without Flight Recorder, all events are no-op. Instances are thread-safe.</p>
+ *
+ * @since 3.5
+ */
+public final class PipelineEvents {
+
+    /** Event context that doesn't record any events. */
+    public static final PipelineEvents DISABLED = new PipelineEvents(false, null, null, null);
+
+    /** Started event. */
+    public interface Span {
+        /**
+         * End event and commit it if recording is active.
+         */
+        void finish();
+    }
+
+    /** Event factory implemented with Flight Recorder event classes. */
+    interface Recorder {
+        Span startModule(PipelineEvents context);
+
+        Span startFile(PipelineEvents context, URI file);
+
+        Span startTransform(PipelineEvents context, URI file, URI stylesheet);
+
+        Span startTransform(PipelineEvents context, URI file, List<?> filters);
+    }
+
+    private static final Span NOOP = () -> {};
+    private static final Recorder recorder = loadRecorder();
+
+    private final boolean enabled;
+    final String target;
+    final String module;
+    final String transtype;
+
+    private PipelineEvents(final boolean enabled, final String target, final String module, final String transtype) {
+        this.enabled = enabled;
+        this.target = target;
+        this.module = module;
+        this.transtype = transtype;
+    }
+
+    /**
+     * Create event context for module execution.
+     *
+     * @param target Ant target name, may be {@code null}
+     * @param module module name
+     * @param transtype transformation type, may be {@code null}
+     * @return event context, {@link #DISABLED} if Flight Recorder is not available
+     */
+    public static PipelineEvents create(final String target, final String module, final String transtype) {
+        return recorder != null ? new PipelineEvents(true, target, module, transtype) : DISABLED;
+    }
+
+    /**
+     * Test if Flight Recorder events are available.
+     */
+    static boolean isAvailable() {
+        return recorder != null;
+    }
+
+    private static Recorder loadRecorder() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return (Recorder) Class.forName("org.dita.dost.jfr.EventRecorder").getDeclaredConstructor().newInstance();
+        } catch (final ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Start module event.
+     *
+     * @return started event
+     */
+    public Span startModule() {
+        return enabled ? recorder.startModule(this) : NOOP;
+    }
+
+    /**
+     * Start file event.
+     *
+     * @param file absolute URI of the processed file
+     * @return started event
+     */
+    public Span startFile(final URI file) {
+        return enabled ? recorder.startFile(this, file) : NOOP;
+    }
+
+    /**
+     * Start XSLT transformation event.
+     *
+     * @param file absolute URI of the transformed file
+     * @param stylesheet absolute URI of the stylesheet
+     * @return started event
+     */
+    public Span startTransform(final URI file, final URI stylesheet) {
+        return enabled ? recorder.startTransform(this, file, stylesheet) : NOOP;
+    }
+
+    /**
+     * Start SAX filter transformation event.
+     *
+     * @param file absolute URI of the transformed file
+     * @param filters SAX filters used in the transformation
+     * @return started event
+     */
+    public Span startTransform(final URI file, final List<?> filters) {
+        return enabled ? recorder.startTransform(this, file, filters) : NOOP;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.log;
+
+import org.apache.tools.ant.BuildEvent;
+import org.apache.tools.ant.BuildListener;
+import org.apache.tools.ant.Project;
+import org.dita.dost.util.Metrics;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Build listener that writes collected metrics when the build finishes.
+ */
+public final class MetricsListener implements BuildListener {
+
+    private final Metrics metrics;
+    private final File file;
+
+    public MetricsListener(final Metrics metrics, final File file) {
+        this.metrics = metrics;
+        this.file = file;
+    }
+
+    @Override
+    public void buildStarted(BuildEvent event) {
+        // NOOP
+    }
+
+    @Override
+    public void buildFinished(BuildEvent event) {
+        try {
+            metrics.write(file);
+            event.getProject().log("Wrote metrics to " + file.getAbsolutePath(), Project.MSG_VERBOSE);
+        } catch (final IOException e) {
+            event.getProject().log("Failed to write metrics to " + file.getAbsolutePath() + ": " + e.getMessage(),
+                    Project.MSG_WARN);
+        }
+    }
+
+    @Override
+    public void targetStarted(BuildEvent event) {
+        // NOOP
+    }
+
+    @Override
+    public void targetFinished(BuildEvent event) {
+        // NOOP
+    }
+
+    @Override
+    public void taskStarted(BuildEvent event) {
+        // NOOP
+    }
+
+    @Override
+    public void taskFinished(BuildEvent event) {
+        // NOOP
+    }
+
+    @Override
+    public void messageLogged(BuildEvent event) {
+        // NOOP
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.log;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.tools.ant.BuildEvent;
+import org.apache.tools.ant.BuildListener;
+import org.apache.tools.ant.Project;
+import org.dita.dost.util.Metrics;
+import org.dita.dost.util.Metrics.Record;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.dita.dost.util.Constants.ANT_REFERENCE_METRICS;
+
+/**
+ * Build listener that writes a build timeline in Chrome Trace Event Format when the build finishes.
+ *
+ * <p>Ant targets are recorded by the listener, module and file spans are read from the {@link Metrics} collector
+ * of the project. The output can be viewed with {@code chrome://tracing} or Perfetto.</p>
+ *
+ * @since 3.5
+ */
+public final class TraceListener implements BuildListener {
+
+    private static final String CATEGORY_TARGET = "target";
+
+    private final File file;
+    private final long start = System.nanoTime();
+    private final ConcurrentLinkedQueue<Span> spans = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Deque<Long>> running = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public TraceListener(final File file) {
+        this.file = file;
+    }
+
+    @Override
+    public void buildStarted(BuildEvent event) {
+        // NOOP
+    }
+
+    @Override
+    public void buildFinished(BuildEvent event) {
+        final Project project = event.getProject();
+        final Metrics metrics = project.getReference(ANT_REFERENCE_METRICS);
+        try {
+            write(metrics != null ? metrics.getRecords() : Collections.emptyList());
+            project.log("Wrote trace to " + file.getAbsolutePath(), Project.MSG_VERBOSE);
+        } catch (final IOException e) {
+            project.log("Failed to write trace to " + file.getAbsolutePath() + ": " + e.getMessage(),
+                    Project.MSG_WARN);
+        }
+    }
+
+    @Override
+    public void targetStarted(BuildEvent event) {
+        running.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void targetFinished(BuildEvent event) {
+        final Long targetStart = running.get().poll();
+        if (targetStart != null) {
+            final Thread thread = Thread.currentThread();
+            spans.add(new Span(CATEGORY_TARGET, event.getTarget().getName(), null, thread.getId(), thread.getName(),
+                    targetStart, System.nanoTime() - targetStart));
+        }
+    }
+
+    @Override
+    public void taskStarted(BuildEvent event) {
+        // NOOP
+    }
+
+    @Override
+    public void taskFinished(BuildEvent event) {
+        // NOOP
+    }
+
+    @Override
+    public void messageLogged(BuildEvent event) {
+        // NOOP
+    }
+
+    /**
+     * Write trace file.
+     *
+     * @param records module and file measurements to include in addition to targets
+     * @throws IOException if writing failed
+     */
+    void write(final Collection<Record> records) throws IOException {
+        final List<Span> all = new ArrayList<>(spans);
+        for (final Record r : records) {
+            final String name = r.file != null ? r.file.toString() : r.module;
+            final String parent = r.file != null ? r.module : r.target;
+            all.add(new Span(r.type, name, parent, r.threadId, r.thread, r.startTime, r.wallTime));
+        }
+        all.sort(Comparator.comparingLong((Span s) -> s.startTime).thenComparing(s -> -s.duration));
+
+        final File dir = file.getAbsoluteFile().getParentFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Failed to create directory " + dir);
+        }
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            final JsonGenerator gen = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+            gen.writeStartObject();
+            gen.writeArrayFieldStart("traceEvents");
+            final Map<Long, String> threads = new TreeMap<>();
+            for (final Span span : all) {
+                threads.putIfAbsent(span.threadId, span.thread);
+            }
+            for (final Map.Entry<Long, String> thread : threads.entrySet()) {
+                gen.writeStartObject();
+                gen.writeStringField("name", "thread_name");
+                gen.writeStringField("ph", "M");
+                gen.writeNumberField("pid", 1);
+                gen.writeNumberField("tid", thread.getKey());
+                gen.writeObjectFieldStart("args");
+                gen.writeStringField("name", thread.getValue());
+                gen.writeEndObject();
+                gen.writeEndObject();
+            }
+            for (final Span span : all) {
+                gen.writeStartObject();
+                gen.writeStringField("name", span.name);
+                gen.writeStringField("cat", span.category);
+                gen.writeStringField("ph", "X");
+                gen.writeNumberField("ts", Math.max(0L, span.startTime - start) / 1000L);
+                gen.writeNumberField("dur", span.duration / 1000L);
+                gen.writeNumberField("pid", 1);
+                gen.writeNumberField("tid", span.threadId);
+                if (span.parent != null) {
+                    gen.writeObjectFieldStart("args");
+                    gen.writeStringField(span.category.equals("file") ? "module" : "target", span.parent);
+                    gen.writeEndObject();
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeStringField("displayTimeUnit", "ms");
+            gen.writeEndObject();
+            gen.flush();
+        }
+    }
+
+    private static final class Span {
+        final String category;
+        final String name;
+        final String parent;
+        final long threadId;
+        final String thread;
+        final long startTime;
+        final long duration;
+
+        Span(final String category, final String name, final String parent, final long threadId,
+             final String thread, final long startTime, final long duration) {
+            this.category = category;
+            this.name = name;
+            this.parent = parent;
+            this.threadId = threadId;
+            this.thread = thread;
+            this.startTime = startTime;
+            this.duration = duration;
+        }
+    }
+}
@@ -9,12 +9,14 @@
 package org.dita.dost.module;
 
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.jfr.PipelineEvents;
 import org.dita.dost.log.DITAOTLogger;
 import org.dita.dost.pipeline.AbstractPipelineInput;
 import org.dita.dost.pipeline.AbstractPipelineOutput;
 import org.dita.dost.pipeline.PipelineHashIO;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.Metrics;
 
 import java.util.List;
 import java.util.Map;
@@ -65,6 +67,22 @@ public interface AbstractPipelineModule {
 
     void setFileInfoFilter(Predicate<FileInfo> fileInfoFilter);
 
+    /**
+     * Set metrics collector for module.
+     *
+     * @param metrics metrics collector to record file measurements to
+     */
+    default void setMetrics(Metrics metrics) {
+    }
+
+    /**
+     * Set Flight Recorder event context for module.
+     *
+     * @param events event context to start file and transform events from
+     */
+    default void setEvents(PipelineEvents events) {
+    }
+
     default void setProcessingPipe(List<XmlFilterModule.FilterPair> pipe) {
     }
 
@@ -8,11 +8,13 @@
 package org.dita.dost.module;
 
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.jfr.PipelineEvents;
 import org.dita.dost.log.DITAOTLogger;
 import org.dita.dost.pipeline.AbstractPipelineInput;
 import org.dita.dost.pipeline.AbstractPipelineOutput;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.Metrics;
 
 import java.util.List;
 import java.util.function.Predicate;
@@ -24,6 +26,8 @@ public abstract class AbstractPipelineModuleImpl implements AbstractPipelineModu
 
     protected DITAOTLogger logger;
     protected Job job;
+    protected Metrics metrics = Metrics.DISABLED;
+    protected PipelineEvents events = PipelineEvents.DISABLED;
     Predicate<FileInfo> fileInfoFilter;
     List<XmlFilterModule.FilterPair> filters;
 
@@ -37,6 +41,16 @@ public abstract class AbstractPipelineModuleImpl implements AbstractPipelineModu
         this.job = job;
     }
 
+    @Override
+    public void setMetrics(final Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void setEvents(final PipelineEvents events) {
+        this.events = events;
+    }
+
     @Override
     public AbstractPipelineOutput execute(AbstractPipelineInput input) throws DITAOTException {
         return this.execute(input.getAttributes());
@@ -9,8 +9,10 @@ package org.dita.dost.module;
 
 import org.apache.commons.io.FilenameUtils;
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.jfr.PipelineEvents;
 import org.dita.dost.log.DITAOTLogger;
 import org.dita.dost.log.MessageUtils;
+import org.dita.dost.module.filter.TopicFilterBatch;
 import org.dita.dost.module.reader.TempFileNameScheme;
 import org.dita.dost.pipeline.AbstractPipelineInput;
 import org.dita.dost.pipeline.AbstractPipelineOutput;
@@ -21,24 +23,21 @@ import org.dita.dost.util.FilterUtils.Flag;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.Job.FileInfo;
 import org.dita.dost.util.XMLUtils;
-import org.dita.dost.writer.ProfilingFilter;
 import org.w3c.dom.*;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
-import org.xml.sax.XMLFilter;
 
 import javax.xml.namespace.QName;
-import javax.xml.parsers.DocumentBuilder;
 import javax.xml.transform.*;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static java.util.Collections.singletonList;
 import static org.dita.dost.util.Constants.*;
 import static org.dita.dost.util.StringUtils.getExtProps;
 import static org.dita.dost.util.StringUtils.getExtPropsFromSpecializations;
@@ -66,7 +65,6 @@ public class BranchFilterModule extends AbstractPipelineModuleImpl {
     private static final String BRANCH_COPY_TO = "filter-copy-to";
 
     private final XMLUtils xmlUtils;
-    private final DocumentBuilder builder;
     private final DitaValReader ditaValReader;
     private TempFileNameScheme tempFileNameScheme;
     private final Map<URI, FilterUtils> filterCache = new HashMap<>();
@@ -75,9 +73,10 @@ public class BranchFilterModule extends AbstractPipelineModuleImpl {
     /** Absolute URI to map being processed. */
     protected URI currentFile;
     private final Set<URI> filtered = new HashSet<>();
+    /** Topic filtering operations for current map. */
+    private TopicFilterBatch filterBatch;
 
     public BranchFilterModule() {
-        builder = XMLUtils.getDocumentBuilder();
         ditaValReader = new DitaValReader();
         xmlUtils = new XMLUtils();
     }
@@ -89,6 +88,12 @@ public class BranchFilterModule extends AbstractPipelineModuleImpl {
         xmlUtils.setLogger(logger);
     }
 
+    @Override
+    public void setEvents(final PipelineEvents events) {
+        super.setEvents(events);
+        xmlUtils.setEvents(events);
+    }
+
     @Override
     public void setJob(final Job job) {
         super.setJob(job);
@@ -124,15 +129,22 @@ public class BranchFilterModule extends AbstractPipelineModuleImpl {
         assert !map.isAbsolute();
         this.map = map;
         currentFile = job.tempDirURI.resolve(map);
+        filterBatch = new TopicFilterBatch(job, logger, xmlUtils);
         // parse
         logger.info("Processing " + currentFile);
+        final File mapFile = new File(currentFile);
+        final Document cached = job.getMapDocumentCache().take(mapFile);
         final Document doc;
-        try {
-            logger.debug("Reading " + currentFile);
-            doc = builder.parse(new InputSource(currentFile.toString()));
-        } catch (final SAXException | IOException e) {
-            logger.error("Failed to parse " + currentFile, e);
-            return;
+        if (cached != null) {
+            doc = cached;
+        } else {
+            try {
+                logger.debug("Reading " + currentFile);
+                doc = XMLUtils.parseCompact(new InputSource(currentFile.toString()), null);
+            } catch (final SAXException | IOException e) {
+                logger.error("Failed to parse " + currentFile, e);
+                return;
+            }
         }
 
         logger.debug("Split branches and generate copy-to");
@@ -145,25 +157,24 @@ public class BranchFilterModule extends AbstractPipelineModuleImpl {
         generateCopies(doc.getDocumentElement(), Collections.emptyList());
         logger.debug("Filter existing topics");
         filterTopics(doc.getDocumentElement(), Collections.emptyList());
+        logger.debug("Filter topics");
+        filterBatch.run();
 
         logger.debug("Writing " + currentFile);
-        Result result = null;
+        job.getMapDocumentCache().invalidate(mapFile);
         try {
-            Transformer serializer = TransformerFactory.newInstance().newTransformer();
-            result = new StreamResult(currentFile.toString());
-            serializer.transform(new DOMSource(doc), result);
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(mapFile))) {
+                XMLUtils.writeDocument(doc, out);
+            }
+            job.getMapDocumentCache().put(mapFile, doc);
         } catch (final RuntimeException e) {
             throw e;
         } catch (final TransformerConfigurationException | TransformerFactoryConfigurationError e) {
             throw new RuntimeException(e);
         } catch (final TransformerException e) {
             logger.error("Failed to serialize " + map.toString() + ": " + e.getMessageAndLocation(), e);
-        } finally {
-            try {
-                close(result);
-            } catch (final IOException e) {
-                logger.error("Failed to close result stream for " + map.toString() + ": " + e.getMessage(), e);
-            }
+        } catch (final IOException e) {
+            logger.error("Failed to write " + map.toString() + ": " + e.getMessage(), e);
         }
     }
 
@@ -363,25 +374,7 @@ public class BranchFilterModule extends AbstractPipelineModuleImpl {
 //                final FileInfo fi = new FileInfo.Builder(srcFileInfo).uri(dstUri).build();
 //                 TODO: Maybe Job should be updated earlier?
 //                job.add(fi);
-                logger.info("Filtering " + srcAbsUri + " to " + dstAbsUri);
-                final ProfilingFilter writer = new ProfilingFilter();
-                writer.setLogger(logger);
-                writer.setJob(job);
-                writer.setFilterUtils(fs);
-                writer.setCurrentFile(dstAbsUri);
-                final List<XMLFilter> pipe = singletonList(writer);
-
-                final File dstDirUri = new File(dstAbsUri.resolve("."));
-                if (!dstDirUri.exists() && !dstDirUri.mkdirs()) {
-                    logger.error("Failed to create directory " + dstDirUri);
-                }
-                try {
-                    xmlUtils.transform(srcAbsUri,
-                                       dstAbsUri,
-                                       pipe);
-                } catch (final DITAOTException e) {
-                    logger.error("Failed to filter " + srcAbsUri + " to " + dstAbsUri + ": " + e.getMessage(), e);
-                }
+                filterBatch.addCopy(srcAbsUri, dstAbsUri, fs);
                 topicref.setAttribute(ATTRIBUTE_NAME_HREF, copyTo);
                 topicref.removeAttribute(BRANCH_COPY_TO);
                 // disable filtering again
@@ -409,19 +402,7 @@ public class BranchFilterModule extends AbstractPipelineModuleImpl {
                 && !ATTR_SCOPE_VALUE_EXTERNAL.equals(topicref.getAttribute(ATTRIBUTE_NAME_SCOPE))
                 && !ATTR_PROCESSING_ROLE_VALUE_RESOURCE_ONLY.equals(topicref.getAttribute(ATTRIBUTE_NAME_PROCESSING_ROLE))
                 && isDitaFormat(topicref.getAttributeNode(ATTRIBUTE_NAME_FORMAT))) {
-            final ProfilingFilter writer = new ProfilingFilter();
-            writer.setLogger(logger);
-            writer.setJob(job);
-            writer.setFilterUtils(fs);
-            writer.setCurrentFile(srcAbsUri);
-            final List<XMLFilter> pipe = singletonList(writer);
-
-            logger.info("Filtering " + srcAbsUri);
-            try {
-                xmlUtils.transform(srcAbsUri, pipe);
-            } catch (final DITAOTException e) {
-                logger.error("Failed to filter " + srcAbsUri + ": " + e.getMessage(), e);
-            }
+            filterBatch.addFilter(srcAbsUri, fs);
             filtered.add(srcAbsUri);
         }
         if (skipFilter != null) {
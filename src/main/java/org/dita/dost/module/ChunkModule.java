@@ -87,6 +87,9 @@ final public class ChunkModule extends AbstractPipelineModuleImpl {
         }
 
         final Map<URI, URI> changeTable = mapReader.getChangeTable();
+        if (!changeTable.isEmpty()) {
+            clearContentFlags();
+        }
         if (hasChanges(changeTable)) {
             final Map<URI, URI> conflicTable = mapReader.getConflicTable();
             updateList(changeTable, conflicTable, mapReader);
@@ -96,6 +99,20 @@ final public class ChunkModule extends AbstractPipelineModuleImpl {
         return null;
     }
 
+    /**
+     * Clear content feature flags, because chunked topics combine content from several files.
+     */
+    private void clearContentFlags() {
+        for (final FileInfo f : job.getFileInfo()) {
+            f.hasContentFlags = false;
+        }
+        try {
+            job.write();
+        } catch (final IOException ex) {
+            logger.error(ex.getMessage(), ex);
+        }
+    }
+
     /**
      * Test whether there are changes that require topic rewriting.
      */
@@ -13,8 +13,10 @@ import net.sf.saxon.trans.UncheckedXPathException;
 import org.apache.commons.io.FileUtils;
 import org.apache.xml.resolver.tools.CatalogResolver;
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.jfr.PipelineEvents;
 import org.dita.dost.log.DITAOTLogger;
 import org.dita.dost.pipeline.AbstractPipelineOutput;
+import org.dita.dost.util.BinaryXMLReader;
 import org.dita.dost.util.CatalogUtils;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.Job.FileInfo;
@@ -47,6 +49,7 @@ import java.util.stream.IntStream;
 import static java.util.Collections.emptyMap;
 import static org.dita.dost.util.Constants.ATTR_FORMAT_VALUE_DITA;
 import static org.dita.dost.util.Constants.ATTR_FORMAT_VALUE_DITAMAP;
+import static org.dita.dost.util.Constants.TEMP_FILE_FORMAT_XML;
 
 /**
  * Move temporary files not based on output URI to match output URI structure.
@@ -69,6 +72,13 @@ public class CleanPreprocessModule extends AbstractPipelineModuleImpl {
     public void setLogger(final DITAOTLogger logger) {
         super.setLogger(logger);
         xmlUtils.setLogger(logger);
+        xmlUtils.setKeepBinaryFormat(false);
+    }
+
+    @Override
+    public void setEvents(final PipelineEvents events) {
+        super.setEvents(events);
+        xmlUtils.setEvents(events);
     }
 
     private void init(final Map<String, String> input) {
@@ -79,7 +89,7 @@ public class CleanPreprocessModule extends AbstractPipelineModuleImpl {
                 .map(file -> URLUtils.toURI(file).toString())
                 .map(f -> {
                     try {
-                        final TransformerFactory factory = TransformerFactory.newInstance();
+                        final TransformerFactory factory = XMLUtils.getTransformerFactory();
                         final CatalogResolver catalogResolver = CatalogUtils.getCatalogResolver();
                         factory.setURIResolver(catalogResolver);
                         return factory.newTransformer(catalogResolver.resolve(f, null));
@@ -110,6 +120,7 @@ public class CleanPreprocessModule extends AbstractPipelineModuleImpl {
     public AbstractPipelineOutput execute(final Map<String, String> input) throws DITAOTException {
         init(input);
         final URI base = getBaseDir();
+        final boolean binary = job.isBinaryTempFileFormat();
         if (useResultFilename) {
             // collect and relativize result
             final Collection<FileInfo> original = job.getFileInfo().stream()
@@ -133,7 +144,8 @@ public class CleanPreprocessModule extends AbstractPipelineModuleImpl {
                         if (srcFile.exists()) {
                             final File destFile = new File(job.tempDirURI.resolve(fi.result));
                             final List<XMLFilter> processingPipe = getProcessingPipe(fi, srcFile, destFile);
-                            if (!processingPipe.isEmpty()) {
+                            if (!processingPipe.isEmpty()
+                                    || (binary && BinaryXMLReader.isBinary(srcFile))) {
                                 logger.info("Processing " + srcFile.toURI() + " to " + destFile.toURI());
                                 xmlUtils.transform(srcFile.toURI(), destFile.toURI(), processingPipe);
                                 if (!srcFile.equals(destFile)) {
@@ -155,6 +167,11 @@ public class CleanPreprocessModule extends AbstractPipelineModuleImpl {
                     logger.error("Failed to clean " + job.tempDirURI.resolve(fi.uri) + ": " + e.getMessage(), e);
                 }
             }
+        } else if (binary) {
+            serializeBinaryFiles();
+        }
+        if (binary) {
+            job.setTempFileFormat(TEMP_FILE_FORMAT_XML);
         }
 
         job.setProperty("uplevels", getUplevels(base));
@@ -175,6 +192,21 @@ public class CleanPreprocessModule extends AbstractPipelineModuleImpl {
         return null;
     }
 
+    /** Serialize binary SAX event temporary files as XML. */
+    private void serializeBinaryFiles() throws DITAOTException {
+        for (final FileInfo fi : job.getFileInfo(fi -> fi.uri != null)) {
+            final File file = new File(job.tempDirURI.resolve(fi.uri));
+            try {
+                if (BinaryXMLReader.isBinary(file)) {
+                    logger.debug("Serializing " + file.toURI());
+                    xmlUtils.transform(file, Collections.emptyList());
+                }
+            } catch (final IOException e) {
+                logger.error("Failed to serialize " + file.toURI() + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
     private Collection<FileInfo> rewrite(final Collection<FileInfo> fis) throws DITAOTException {
         if (rewriteClass != null) {
             return rewriteClass.rewrite(fis);
@@ -8,6 +8,7 @@
 package org.dita.dost.module;
 
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.jfr.PipelineEvents;
 import org.dita.dost.log.DITAOTLogger;
 import org.dita.dost.log.MessageUtils;
 import org.dita.dost.module.reader.TempFileNameScheme;
@@ -62,6 +63,12 @@ public final class CopyToModule extends AbstractPipelineModuleImpl {
         xmlUtils.setLogger(logger);
     }
 
+    @Override
+    public void setEvents(final PipelineEvents events) {
+        super.setEvents(events);
+        xmlUtils.setEvents(events);
+    }
+
     @Override
     public AbstractPipelineOutput execute(final AbstractPipelineInput input) throws DITAOTException {
         if (logger == null) {
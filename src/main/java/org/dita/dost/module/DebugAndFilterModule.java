@@ -31,8 +31,6 @@ import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.sax.SAXTransformerFactory;
-import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamResult;
 
 import net.sf.saxon.trans.UncheckedXPathException;
@@ -156,10 +154,6 @@ public final class DebugAndFilterModule extends SourceReaderModule {
         try {
             reader.setErrorHandler(new DITAOTXMLErrorHandler(currentFile.toString(), logger));
 
-            final TransformerFactory tf = TransformerFactory.newInstance();
-            final SAXTransformerFactory stf = (SAXTransformerFactory) tf;
-            final TransformerHandler serializer = stf.newTransformerHandler();
-
             XMLReader parser = getXmlReader(f.format);
             XMLReader xmlSource = parser;
             for (final XMLFilter filter: getProcessingPipe(currentFile)) {
@@ -177,9 +171,9 @@ public final class DebugAndFilterModule extends SourceReaderModule {
             } catch (final SAXNotRecognizedException e) {}
 
             in = new InputSource(f.src.toString());
-            out = new StreamResult(new FileOutputStream(outputFile));
-            serializer.setResult(out);
-            xmlSource.setContentHandler(serializer);
+            final OutputStream outStream = new FileOutputStream(outputFile);
+            out = new StreamResult(outStream);
+            xmlSource.setContentHandler(new Utf8XMLWriter(outStream));
             xmlSource.parse(new InputSource(f.src.toString()));
         } catch (final RuntimeException e) {
             throw e;
@@ -504,7 +498,7 @@ public final class DebugAndFilterModule extends SourceReaderModule {
         try {
             res = new StreamResult(new FileOutputStream(filename));
             final DOMSource ds = new DOMSource(root);
-            final TransformerFactory tff = TransformerFactory.newInstance();
+            final TransformerFactory tff = XMLUtils.getTransformerFactory();
             final Transformer tf = tff.newTransformer();
             tf.transform(ds, res);
         } catch (final UncheckedXPathException e) {
@@ -72,6 +72,10 @@ final class FilterModule extends AbstractPipelineModuleImpl {
 
         for (final FileInfo f: job.getFileInfo(fileInfoFilter)) {
             final File file = new File(job.tempDir, f.file.getPath());
+            if ((f.format == null || ATTR_FORMAT_VALUE_DITA.equals(f.format)) && !f.mayContain(f.hasProfiling)) {
+                logger.debug("Skip " + file.getAbsolutePath() + " without profiling attributes");
+                continue;
+            }
             logger.info("Processing " + file.getAbsolutePath());
 
             subjectSchemeReader.reset();
@@ -25,6 +25,7 @@ import org.dita.dost.writer.DebugFilter;
 import org.dita.dost.writer.ExportAnchorsFilter;
 import org.dita.dost.writer.ProfilingFilter;
 import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXParseException;
 import org.xml.sax.XMLFilter;
 import org.xml.sax.XMLReader;
@@ -74,6 +75,9 @@ public final class GenMapAndTopicListModule extends SourceReaderModule {
     /** Set of topic files containing coderef */
     private final Set<URI> coderefSet;
 
+    /** Map of dita files to content feature flags */
+    private final Map<URI, ContentFlags> contentFlagsMap;
+
     /** Set of all images */
     private final Set<Reference> formatSet;
 
@@ -133,6 +137,10 @@ public final class GenMapAndTopicListModule extends SourceReaderModule {
     private ContentHandler nullHandler;
     private FilterUtils filterUtils;
     private TempFileNameScheme tempFileNameScheme;
+    /** Maximum number of files in wait list to read ahead. */
+    private static final int PREFETCH_WINDOW = Runtime.getRuntime().availableProcessors() * 2;
+    /** Read ahead for files in wait list, {@code null} if not processing wait list. */
+    private FilePrefetcher prefetcher;
 
     /** Absolute path to input file. */
     private URI rootFile;
@@ -177,6 +185,7 @@ public final class GenMapAndTopicListModule extends SourceReaderModule {
         conrefpushSet = new HashSet<>(128);
         keyrefSet = new HashSet<>(128);
         coderefSet = new HashSet<>(128);
+        contentFlagsMap = new HashMap<>(128);
 
         schemeDictionary = new HashMap<>();
 
@@ -347,8 +356,14 @@ public final class GenMapAndTopicListModule extends SourceReaderModule {
     }
 
     private void processWaitList() throws DITAOTException {
-        while (!waitList.isEmpty()) {
-            processFile(waitList.remove());
+        try (final FilePrefetcher prefetcher = new FilePrefetcher(PREFETCH_WINDOW, logger)) {
+            this.prefetcher = prefetcher;
+            while (!waitList.isEmpty()) {
+                prefetcher.prefetch(() -> waitList.stream().map(ref -> ref.filename).iterator());
+                processFile(waitList.remove());
+            }
+        } finally {
+            this.prefetcher = null;
         }
     }
 
@@ -416,7 +431,12 @@ public final class GenMapAndTopicListModule extends SourceReaderModule {
             }
             xmlSource.setContentHandler(nullHandler);
 
-            xmlSource.parse(currentFile.toString());
+            final InputSource in = prefetcher != null ? prefetcher.take(currentFile) : null;
+            if (in != null) {
+                xmlSource.parse(in);
+            } else {
+                xmlSource.parse(currentFile.toString());
+            }
 
             if (listFilter.isValidInput()) {
                 processParseResult(currentFile);
@@ -588,6 +608,8 @@ public final class GenMapAndTopicListModule extends SourceReaderModule {
             coderefSet.add(currentFile);
         }
 
+        contentFlagsMap.put(currentFile, listFilter.getContentFlags());
+
         if (listFilter.isDitaTopic()) {
             if (ref.format != null && !ref.format.equals(ATTR_FORMAT_VALUE_DITA)) {
                 assert currentFile.getFragment() == null;
@@ -849,6 +871,9 @@ public final class GenMapAndTopicListModule extends SourceReaderModule {
         for (final URI file: coderefSet) {
             getOrCreateFileInfo(fileinfos, file).hasCoderef = true;
         }
+        for (final Map.Entry<URI, ContentFlags> e: contentFlagsMap.entrySet()) {
+            e.getValue().setTo(getOrCreateFileInfo(fileinfos, e.getKey()));
+        }
         for (final URI file: resourceOnlySet) {
             getOrCreateFileInfo(fileinfos, file).isResourceOnly = true;
         }
@@ -102,7 +102,7 @@ public class IndexTermExtractModule extends AbstractPipelineModuleImpl {
          */
         topicList = new ArrayList<>();
         for (final FileInfo f: job.getFileInfo()) {
-            if (ATTR_FORMAT_VALUE_DITA.equals(f.format) && !f.isResourceOnly) {
+            if (ATTR_FORMAT_VALUE_DITA.equals(f.format) && !f.isResourceOnly && f.mayContain(f.hasIndexterm)) {
                 topicList.add(job.tempDirURI.resolve(f.uri));
             }
         }
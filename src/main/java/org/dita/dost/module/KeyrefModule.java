@@ -10,6 +10,7 @@ package org.dita.dost.module;
 
 import net.sf.saxon.trans.UncheckedXPathException;
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.jfr.PipelineEvents;
 import org.dita.dost.log.DITAOTLogger;
 import org.dita.dost.module.reader.TempFileNameScheme;
 import org.dita.dost.pipeline.AbstractPipelineInput;
@@ -27,10 +28,7 @@ import org.xml.sax.InputSource;
 import org.xml.sax.XMLFilter;
 
 import javax.xml.transform.*;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
 import java.net.URI;
 import java.util.*;
 import java.util.function.Function;
@@ -77,6 +75,12 @@ final class KeyrefModule extends AbstractPipelineModuleImpl {
         xmlUtils.setLogger(logger);
     }
 
+    @Override
+    public void setEvents(final PipelineEvents events) {
+        super.setEvents(events);
+        xmlUtils.setEvents(events);
+    }
+
     /**
      * Entry point of KeyrefModule.
      *
@@ -400,6 +404,7 @@ final class KeyrefModule extends AbstractPipelineModuleImpl {
 
         try {
             logger.debug("Using " + (r.scope.name != null ? r.scope.name + " scope" : "root scope"));
+            job.getMapDocumentCache().invalidate(new File(job.tempDir, (r.out != null ? r.out : r.in).file.getPath()));
             if (r.out != null) {
                 logger.info("Processing " + job.tempDirURI.resolve(r.in.uri) +
                         " to " + job.tempDirURI.resolve(r.out.uri));
@@ -431,10 +436,14 @@ final class KeyrefModule extends AbstractPipelineModuleImpl {
     }
 
     private Document readMap(final FileInfo input) throws DITAOTException {
+        final Document cached = job.getMapDocumentCache().take(new File(job.tempDirURI.resolve(input.uri)));
+        if (cached != null) {
+            return cached;
+        }
         InputSource in = null;
         try {
             in = new InputSource(job.tempDirURI.resolve(input.uri).toString());
-            return XMLUtils.getDocumentBuilder().parse(in);
+            return XMLUtils.parseCompact(in, null);
         } catch (final Exception e) {
             throw new DITAOTException("Failed to parse map: " + e.getMessage(), e);
         } finally {
@@ -447,23 +456,18 @@ final class KeyrefModule extends AbstractPipelineModuleImpl {
     }
 
     private void writeMap(final FileInfo in, final Document doc) throws DITAOTException {
-        Result out = null;
-        try {
-            final Transformer serializer = TransformerFactory.newInstance().newTransformer();
-            out = new StreamResult(job.tempDirURI.resolve(in.uri).toString());
-            serializer.transform(new DOMSource(doc), out);
+        final File outputFile = new File(job.tempDirURI.resolve(in.uri));
+        job.getMapDocumentCache().invalidate(outputFile);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outputFile))) {
+            XMLUtils.writeDocument(doc, out);
         } catch (final UncheckedXPathException e) {
             throw new DITAOTException("Failed to write map", e);
         } catch (final TransformerConfigurationException e) {
             throw new RuntimeException(e);
         } catch (final TransformerException e) {
             throw new DITAOTException("Failed to write map: " + e.getMessageAndLocation(), e);
-        } finally {
-            try {
-                close(out);
-            } catch (IOException e) {
-                logger.error("Failed to close result: " + e.getMessage(), e);
-            }
+        } catch (final IOException e) {
+            throw new DITAOTException("Failed to write map: " + e.getMessage(), e);
         }
     }
 
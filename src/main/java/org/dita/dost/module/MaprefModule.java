@@ -13,16 +13,16 @@ import org.dita.dost.exception.DITAOTException;
 import org.dita.dost.pipeline.AbstractPipelineInput;
 import org.dita.dost.pipeline.AbstractPipelineOutput;
 import org.dita.dost.util.CatalogUtils;
+import org.dita.dost.util.CompactDOMBuilder;
 import org.dita.dost.util.Job.FileInfo;
 import org.dita.dost.util.XMLUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
 import javax.xml.transform.*;
-import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXResult;
 import javax.xml.transform.sax.SAXTransformerFactory;
-import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import java.io.*;
 import java.util.Collection;
@@ -45,7 +45,7 @@ final class MaprefModule extends AbstractPipelineModuleImpl {
     private Transformer serializer;
 
     public MaprefModule() {
-        transformerFactory = (SAXTransformerFactory) TransformerFactory.newInstance();
+        transformerFactory = (SAXTransformerFactory) XMLUtils.getTransformerFactory();
         transformerFactory.setURIResolver(CatalogUtils.getCatalogResolver());
     }
 
@@ -98,13 +98,15 @@ final class MaprefModule extends AbstractPipelineModuleImpl {
         logger.info("Processing " + inputFile.toURI());
         Document doc;
         try (InputStream in = new BufferedInputStream(new FileInputStream(inputFile))) {
-            doc = XMLUtils.getDocumentBuilder().newDocument();
+            final CompactDOMBuilder builder = new CompactDOMBuilder();
             final Source source = new StreamSource(in, inputFile.toURI().toString());
-            final Result result = new DOMResult(doc);
+            final SAXResult result = new SAXResult(builder);
+            result.setLexicalHandler(builder);
             final Transformer transformer = withLogger(templates.newTransformer(), logger);
             transformer.setURIResolver(CatalogUtils.getCatalogResolver());
             transformer.setParameter("file-being-processed", inputFile.getName());
             transformer.transform(source, result);
+            doc = builder.getDocument();
         } catch (final UncheckedXPathException e) {
             throw new DITAOTException("Failed to merge map " + inputFile, e);
         } catch (final RuntimeException e) {
@@ -118,10 +120,11 @@ final class MaprefModule extends AbstractPipelineModuleImpl {
         final FileInfo updated = collectJobInfo(input, doc);
         job.add(updated);
 
+        doc.setDocumentURI(outputFile.toURI().toString());
+        job.getMapDocumentCache().invalidate(outputFile);
         try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outputFile))) {
             final Source source = new DOMSource(doc);
-            final Result result = new StreamResult(out);
-            serializer.transform(source, result);
+            serializer.transform(source, XMLUtils.getTextResult(out));
         } catch (final UncheckedXPathException e) {
             throw new DITAOTException("Failed to serialize map " + inputFile, e);
         } catch (final RuntimeException e) {
@@ -131,6 +134,7 @@ final class MaprefModule extends AbstractPipelineModuleImpl {
         } catch (final Exception e) {
             throw new DITAOTException("Failed to serialize map " + inputFile + ": " + e.getMessage(), e);
         }
+        job.getMapDocumentCache().put(outputFile, doc);
     }
 
     private FileInfo collectJobInfo(FileInfo fileInfo, Document doc) {
@@ -161,11 +165,17 @@ final class MaprefModule extends AbstractPipelineModuleImpl {
     private void replace(final FileInfo input) throws DITAOTException {
         final File inputFile = new File(job.tempDir, input.file.getPath() + FILE_EXTENSION_TEMP);
         final File outputFile = new File(job.tempDir, input.file.getPath());
+        final Document doc = job.getMapDocumentCache().take(inputFile);
+        job.getMapDocumentCache().invalidate(outputFile);
         try {
             Files.move(inputFile, outputFile);
         } catch (final IOException e) {
             throw new DITAOTException("Failed to replace temporary file " + inputFile + ": " + e.getMessage(), e);
         }
+        if (doc != null) {
+            doc.setDocumentURI(outputFile.toURI().toString());
+            job.getMapDocumentCache().put(outputFile, doc);
+        }
     }
 
 }
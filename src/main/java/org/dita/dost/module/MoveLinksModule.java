@@ -62,7 +62,7 @@ final class MoveLinksModule extends AbstractPipelineModuleImpl {
         InputStream in = null;
         try {
             doc = XMLUtils.getDocumentBuilder().newDocument();
-            final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+            final TransformerFactory transformerFactory = XMLUtils.getTransformerFactory();
             transformerFactory.setURIResolver(CatalogUtils.getCatalogResolver());
             final Transformer transformer = withLogger(transformerFactory.newTransformer(new StreamSource(styleFile)), logger);
             transformer.setURIResolver(CatalogUtils.getCatalogResolver());
@@ -18,10 +18,13 @@ import org.dita.dost.reader.MapMetaReader;
 import org.dita.dost.util.CatalogUtils;
 import org.dita.dost.util.Configuration;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.ParallelUtils;
 import org.dita.dost.util.XMLUtils;
 import org.dita.dost.util.XMLUtils.DebugURIResolver;
+import org.dita.dost.writer.AbstractDomFilter;
 import org.dita.dost.writer.DitaMapMetaWriter;
 import org.dita.dost.writer.DitaMetaWriter;
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
 import javax.xml.transform.*;
@@ -30,7 +33,12 @@ import javax.xml.transform.stream.StreamSource;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -64,6 +72,11 @@ final class MoveMetaModule extends AbstractPipelineModuleImpl {
             final Map<URI, Map<String, Element>> mapSet = getMapMetadata(fis);
             pushMetadata(mapSet);
             pullTopicMetadata(input, fis);
+            try {
+                job.write();
+            } catch (final IOException e) {
+                throw new DITAOTException("Failed to serialize job configuration: " + e.getMessage(), e);
+            }
         }
 
         return null;
@@ -75,6 +88,9 @@ final class MoveMetaModule extends AbstractPipelineModuleImpl {
     private void pullTopicMetadata(final AbstractPipelineInput input, final Collection<FileInfo> fis) throws DITAOTException {
         // Pull metadata (such as navtitle) into the map from the referenced topics
         final File styleFile = new File(input.getAttribute(ANT_INVOKER_EXT_PARAM_STYLE));
+        final CatalogResolver xmlCatalog = CatalogUtils.getCatalogResolver();
+        final URIResolver resolver = Configuration.DEBUG ? new DebugURIResolver(xmlCatalog) : xmlCatalog;
+        final Templates templates = compileStylesheet(styleFile, xmlCatalog);
         for (final FileInfo f : fis) {
             final File inputFile = new File(job.tempDir, f.file.getPath());
             final File tmp = new File(inputFile.getAbsolutePath() + ".tmp" + Long.toString(System.currentTimeMillis()));
@@ -90,17 +106,7 @@ final class MoveMetaModule extends AbstractPipelineModuleImpl {
                 source = new StreamSource(inputFile.toURI().toString());
                 result = new StreamResult(tmp);
 
-                logger.info("Loading stylesheet " + styleFile);
-                final TransformerFactory tf = TransformerFactory.newInstance();
-                final CatalogResolver xmlCatalog = CatalogUtils.getCatalogResolver();
-                tf.setURIResolver(xmlCatalog);
-                final Transformer t = withLogger(tf.newTransformer(new StreamSource(styleFile)), logger);
-                final URIResolver resolver;
-                if (Configuration.DEBUG) {
-                    resolver = new DebugURIResolver(xmlCatalog);
-                } else {
-                    resolver = xmlCatalog;
-                }
+                final Transformer t = withLogger(templates.newTransformer(), logger);
                 t.setURIResolver(resolver);
                 for (Entry<String, String> e : input.getAttributes().entrySet()) {
                     logger.debug("Set parameter " + e.getKey() + " to '" + e.getValue() + "'");
@@ -112,8 +118,6 @@ final class MoveMetaModule extends AbstractPipelineModuleImpl {
                 throw new DITAOTException("Failed to transform document", e);
             } catch (final RuntimeException e) {
                 throw e;
-            } catch (final TransformerConfigurationException e) {
-                throw new RuntimeException("Failed to compile stylesheet '" + styleFile.toURI() + "': " + e.getMessage(), e);
             } catch (final TransformerException e) {
                 throw new DITAOTException("Failed to transform document: " + e.getMessageAndLocation(), e);
             } catch (final Exception e) {
@@ -147,10 +151,27 @@ final class MoveMetaModule extends AbstractPipelineModuleImpl {
         }
     }
 
+    /**
+     * Compile stylesheet with a transformer factory created for this compilation only. The URI resolver is set
+     * on that factory, so other factories and their transformers are not affected.
+     */
+    private Templates compileStylesheet(final File styleFile, final URIResolver resolver) {
+        logger.info("Loading stylesheet " + styleFile);
+        final TransformerFactory tf = XMLUtils.getTransformerFactory();
+        tf.setURIResolver(resolver);
+        try {
+            return tf.newTemplates(new StreamSource(styleFile));
+        } catch (final UncheckedXPathException e) {
+            throw new RuntimeException("Failed to compile stylesheet '" + styleFile.toURI() + "': " + e.getXPathException().getMessageAndLocation(), e);
+        } catch (final TransformerConfigurationException e) {
+            throw new RuntimeException("Failed to compile stylesheet '" + styleFile.toURI() + "': " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Push information from topicmeta in the map into the corresponding topics and maps.
      */
-    private void pushMetadata(final Map<URI, Map<String, Element>> mapSet) {
+    void pushMetadata(final Map<URI, Map<String, Element>> mapSet) {
         if (!mapSet.isEmpty()) {
             //process map first
             final DitaMapMetaWriter mapInserter = new DitaMapMetaWriter();
@@ -181,9 +202,7 @@ final class MoveMetaModule extends AbstractPipelineModuleImpl {
                 }
             }
             //process topic
-            final DitaMetaWriter topicInserter = new DitaMetaWriter();
-            topicInserter.setLogger(logger);
-            topicInserter.setJob(job);
+            final Map<File, List<Entry<String, Map<String, Element>>>> topics = new LinkedHashMap<>();
             for (final Entry<URI, Map<String, Element>> entry : mapSet.entrySet()) {
                 final URI key = stripFragment(entry.getKey());
                 final FileInfo fi = job.getFileInfo(key);
@@ -194,22 +213,60 @@ final class MoveMetaModule extends AbstractPipelineModuleImpl {
                 final URI targetFileName = job.tempDirURI.resolve(fi.uri);
                 assert targetFileName.isAbsolute();
                 if (fi.format == null || fi.format.equals(ATTR_FORMAT_VALUE_DITA)) {
+                    // pushed metadata is not included in content feature flags
+                    fi.hasContentFlags = false;
                     final String topicid = entry.getKey().getFragment();
-                    topicInserter.setTopicId(topicid);
-                    topicInserter.setMetaTable(entry.getValue());
-                    if (toFile(targetFileName).exists()) {
-                        try {
-                            topicInserter.read(toFile(targetFileName));
-                        } catch (DITAOTException e) {
-                            logger.error("Failed to read " + targetFileName + ": " + e.getMessage(), e);
-                        }
-                    } else {
-                        logger.error("File " + targetFileName + " does not exist");
-                    }
+                    topics.computeIfAbsent(toFile(targetFileName), k -> new ArrayList<>())
+                            .add(new SimpleImmutableEntry<>(topicid, copyMetadata(entry.getValue())));
+                }
+            }
+            ParallelUtils.forEach(topics.entrySet(), entry -> pushTopicMetadata(entry.getKey(), entry.getValue()));
+        }
+    }
 
+    /**
+     * Push metadata into topic file. Topics in the same file are processed with a single parse and serialization.
+     *
+     * @param targetFile absolute topic file
+     * @param metadata metadata tables by topic ID
+     */
+    private void pushTopicMetadata(final File targetFile, final List<Entry<String, Map<String, Element>>> metadata) {
+        if (!targetFile.exists()) {
+            logger.error("File " + targetFile.toURI() + " does not exist");
+            return;
+        }
+        final AbstractDomFilter topicInserter = new AbstractDomFilter() {
+            @Override
+            protected Document process(final Document doc) {
+                final DitaMetaWriter writer = new DitaMetaWriter();
+                for (final Entry<String, Map<String, Element>> topic : metadata) {
+                    writer.setTopicId(topic.getKey());
+                    writer.setMetaTable(topic.getValue());
+                    writer.process(doc);
                 }
+                return doc;
             }
+        };
+        topicInserter.setLogger(logger);
+        topicInserter.setJob(job);
+        try {
+            topicInserter.read(targetFile);
+        } catch (DITAOTException e) {
+            logger.error("Failed to read " + targetFile.toURI() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copy metadata elements into a new document. DOM is not thread-safe even for reads, so each topic file gets
+     * its own copy of the metadata before processing in parallel.
+     */
+    private Map<String, Element> copyMetadata(final Map<String, Element> metaTable) {
+        final Document doc = XMLUtils.getDocumentBuilder().newDocument();
+        final Map<String, Element> res = new HashMap<>(metaTable.size());
+        for (final Entry<String, Element> e : metaTable.entrySet()) {
+            res.put(e.getKey(), (Element) doc.importNode(e.getValue(), true));
         }
+        return res;
     }
 
     /**
@@ -17,6 +17,7 @@ import org.dita.dost.pipeline.AbstractPipelineOutput;
 import org.dita.dost.reader.MergeMapParser;
 import org.dita.dost.util.CatalogUtils;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.XMLUtils;
 
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -72,37 +73,34 @@ final class TopicMergeModule extends AbstractPipelineModuleImpl {
         mapParser.setJob(job);
         mapParser.setOutput(out);
 
-        final ByteArrayOutputStream midBuffer = new ByteArrayOutputStream();
-        try {
-            midBuffer.write(XML_HEAD.getBytes(StandardCharsets.UTF_8));
-            midBuffer.write(("<dita-merge " + ATTRIBUTE_NAMESPACE_PREFIX_DITAARCHVERSION + "='" + DITA_NAMESPACE + "' "
+        final File outputDir = out.getParentFile();
+        if (!outputDir.exists() && !outputDir.mkdirs()) {
+            logger.error("Failed to create directory " + outputDir.getAbsolutePath());
+        }
+        // Write merged topics directly to output, or to a temporary file if postprocessed with stylesheet
+        final File merged = style != null ? new File(out.getAbsolutePath() + FILE_EXTENSION_TEMP) : out;
+        try (final OutputStream mergeOutput = new BufferedOutputStream(new FileOutputStream(merged))) {
+            mergeOutput.write(XML_HEAD.getBytes(StandardCharsets.UTF_8));
+            mergeOutput.write(("<dita-merge " + ATTRIBUTE_NAMESPACE_PREFIX_DITAARCHVERSION + "='" + DITA_NAMESPACE + "' "
                     + XMLNS_ATTRIBUTE + ":" + DITA_OT_NS_PREFIX + "='" + DITA_OT_NS + "'>").getBytes(StandardCharsets.UTF_8));
-            mapParser.setOutputStream(midBuffer);
+            mapParser.setOutputStream(mergeOutput);
             mapParser.read(ditaInput, job.tempDir);
-            midBuffer.write("</dita-merge>".getBytes(StandardCharsets.UTF_8));
-        } catch (final UnsupportedEncodingException e) {
-            throw new RuntimeException(e);
+            mergeOutput.write("</dita-merge>".getBytes(StandardCharsets.UTF_8));
         } catch (final IOException e) {
             throw new DITAOTException("Failed to merge topics: " + e.getMessage(), e);
         }
-
-        final File outputDir = out.getParentFile();
-        if (!outputDir.exists() && !outputDir.mkdirs()) {
-            logger.error("Failed to create directory " + outputDir.getAbsolutePath());
+        if (style == null) {
+            return null;
         }
+
         try (final OutputStream output = new BufferedOutputStream(new FileOutputStream(out))) {
-            if (style != null) {
-                final TransformerFactory factory = TransformerFactory.newInstance();
-                factory.setURIResolver(CatalogUtils.getCatalogResolver());
-                final StreamSource styleSource = new StreamSource(style);
-                final Transformer transformer = withLogger(factory.newTransformer(styleSource), logger);
-                final StreamSource source = new StreamSource(new ByteArrayInputStream(midBuffer.toByteArray()));
-                final StreamResult result = new StreamResult(output);
-                transformer.transform(source, result);
-            } else {
-                output.write(midBuffer.toByteArray());
-                output.flush();
-            }
+            final TransformerFactory factory = XMLUtils.getTransformerFactory();
+            factory.setURIResolver(CatalogUtils.getCatalogResolver());
+            final StreamSource styleSource = new StreamSource(style);
+            final Transformer transformer = withLogger(factory.newTransformer(styleSource), logger);
+            final StreamSource source = new StreamSource(merged);
+            final StreamResult result = new StreamResult(output);
+            transformer.transform(source, result);
         } catch (final UncheckedXPathException e) {
             throw new DITAOTException("Failed to process merged topics", e);
         } catch (final RuntimeException e) {
@@ -111,6 +109,10 @@ final class TopicMergeModule extends AbstractPipelineModuleImpl {
             throw new DITAOTException("Failed to process merged topics: " + e.getMessageAndLocation(), e);
         } catch (final Exception e) {
             throw new DITAOTException("Failed to process merged topics: " + e.getMessage(), e);
+        } finally {
+            if (!merged.delete()) {
+                logger.debug("Failed to delete " + merged.getAbsolutePath());
+            }
         }
 
         return null;
@@ -8,14 +8,17 @@
 package org.dita.dost.module;
 
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.jfr.PipelineEvents;
 import org.dita.dost.log.DITAOTLogger;
 import org.dita.dost.pipeline.AbstractPipelineInput;
 import org.dita.dost.pipeline.AbstractPipelineOutput;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.Metrics.Measurement;
 import org.dita.dost.util.XMLUtils;
 import org.dita.dost.writer.AbstractXMLFilter;
 import org.xml.sax.XMLFilter;
 
+import java.io.File;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -36,6 +39,12 @@ public final class XmlFilterModule extends AbstractPipelineModuleImpl {
         xmlUtils.setLogger(logger);
     }
 
+    @Override
+    public void setEvents(final PipelineEvents events) {
+        super.setEvents(events);
+        xmlUtils.setEvents(events);
+    }
+
     /**
      * Filter files through XML filters.
      *
@@ -48,11 +57,21 @@ public final class XmlFilterModule extends AbstractPipelineModuleImpl {
         final Collection<FileInfo> fis = job.getFileInfo(fileInfoFilter);
         for (final FileInfo f: fis) {
             final URI file = job.tempDirURI.resolve(f.uri);
+            final List<XMLFilter> pipe = getProcessingPipe(f);
+            if (pipe.isEmpty()) {
+                logger.debug("Skip " + file + " without applicable filters");
+                continue;
+            }
             logger.info("Processing " + file);
-            try {
-                xmlUtils.transform(file, getProcessingPipe(f));
+            final PipelineEvents.Span event = events.startFile(file);
+            try (Measurement measurement = metrics.startFile(file)) {
+                measurement.read(new File(file));
+                xmlUtils.transform(file, pipe);
+                measurement.written(new File(file));
             } catch (final DITAOTException e) {
                 logger.error("Failed to process XML filter: " + e.getMessage(), e);
+            } finally {
+                event.finish();
             }
         }
         return null;
@@ -7,22 +7,21 @@
  */
 package org.dita.dost.module;
 
-import com.google.common.annotations.VisibleForTesting;
 import net.sf.saxon.jaxp.SaxonTransformerFactory;
-import net.sf.saxon.lib.CollationURIResolver;
-import net.sf.saxon.lib.ExtensionFunctionDefinition;
 import net.sf.saxon.trans.UncheckedXPathException;
 import org.apache.tools.ant.types.XMLCatalog;
 import org.apache.tools.ant.util.FileNameMapper;
 import org.apache.tools.ant.util.FileUtils;
 import org.apache.xml.resolver.tools.CatalogResolver;
 import org.dita.dost.exception.DITAOTException;
-import org.dita.dost.module.saxon.DelegatingCollationUriResolver;
+import org.dita.dost.jfr.PipelineEvents;
+import org.dita.dost.module.saxon.DocumentCache;
 import org.dita.dost.pipeline.AbstractPipelineInput;
 import org.dita.dost.pipeline.AbstractPipelineOutput;
 import org.dita.dost.util.CatalogUtils;
 import org.dita.dost.util.Configuration;
 import org.dita.dost.util.Job;
+import org.dita.dost.util.Metrics.Measurement;
 import org.dita.dost.util.XMLUtils;
 import org.xml.sax.EntityResolver;
 import org.xml.sax.InputSource;
@@ -72,6 +71,8 @@ public final class XsltModule extends AbstractPipelineModuleImpl {
     private String extension;
     private Transformer t;
     private XMLReader parser;
+    private boolean cacheDocuments;
+    private DocumentCache documentCache;
 
     private void init() {
         if (entityResolver == null || uriResolver == null) {
@@ -99,10 +100,12 @@ public final class XsltModule extends AbstractPipelineModuleImpl {
         if (destDir != null) {
             logger.info("Transforming into " + destDir.getAbsolutePath());
         }
-        final TransformerFactory tf = TransformerFactory.newInstance();
-        configureExtensions(tf);
-        configureCollationResolvers(tf);
+        final TransformerFactory tf = XMLUtils.getTransformerFactory();
         tf.setURIResolver(uriResolver);
+        if (cacheDocuments && tf instanceof SaxonTransformerFactory) {
+            documentCache = new DocumentCache(((SaxonTransformerFactory) tf).getConfiguration(), uriResolver,
+                    entityResolver, job.tempDir);
+        }
         try {
             templates = tf.newTemplates(new StreamSource(style));
         } catch (TransformerConfigurationException e) {
@@ -136,6 +139,10 @@ public final class XsltModule extends AbstractPipelineModuleImpl {
                 transform(in, out);
             }
         }
+        if (documentCache != null) {
+            documentCache.invalidateAll();
+            documentCache = null;
+        }
         return null;
     }
 
@@ -144,9 +151,10 @@ public final class XsltModule extends AbstractPipelineModuleImpl {
             logger.info("Loading stylesheet " + style.getAbsolutePath());
             try {
                 t = withLogger(templates.newTransformer(), logger);
+                final URIResolver base = documentCache != null ? documentCache : uriResolver;
                 final URIResolver resolver = Configuration.DEBUG
-                        ? new XMLUtils.DebugURIResolver(uriResolver)
-                        : uriResolver;
+                        ? new XMLUtils.DebugURIResolver(base)
+                        : base;
                 t.setURIResolver(resolver);
             } catch (final TransformerConfigurationException e) {
                 throw new DITAOTException("Failed to create Transformer: " + e.getMessage(), e);
@@ -177,11 +185,14 @@ public final class XsltModule extends AbstractPipelineModuleImpl {
             logger.info("Processing " + in.getAbsolutePath() + " to " + tmp.getAbsolutePath());
         }
         final Source source = new SAXSource(parser, new InputSource(in.toURI().toString()));
-        try {
+        final PipelineEvents.Span event = events.startTransform(in.toURI(), style.toURI());
+        try (Measurement measurement = metrics.startFile(in.toURI())) {
             if (!tmp.getParentFile().exists() && !tmp.getParentFile().mkdirs()) {
                 throw new IOException("Failed to create directory " + tmp.getParent());
             }
+            measurement.read(in);
             t.transform(source, new StreamResult(tmp));
+            measurement.written(tmp);
             if (same) {
                 logger.debug("Moving " + tmp.getAbsolutePath() + " to " + out.getAbsolutePath());
                 if (!out.delete()) {
@@ -191,6 +202,9 @@ public final class XsltModule extends AbstractPipelineModuleImpl {
                     throw new IOException("Failed to to replace input file " + out.getAbsolutePath());
                 }
             }
+            if (documentCache != null) {
+                documentCache.invalidate(out.toURI());
+            }
         } catch (final UncheckedXPathException e) {
             logger.error("Failed to transform document: " + e.getXPathException().getMessageAndLocation(), e);
             logger.debug("Remove " + tmp.getAbsolutePath());
@@ -205,6 +219,8 @@ public final class XsltModule extends AbstractPipelineModuleImpl {
             logger.error("Failed to transform document: " + e.getMessage(), e);
             logger.debug("Remove " + tmp.getAbsolutePath());
             FileUtils.delete(tmp);
+        } finally {
+            event.finish();
         }
     }
 
@@ -244,6 +260,15 @@ public final class XsltModule extends AbstractPipelineModuleImpl {
         this.reloadstylesheet = reloadstylesheet;
     }
 
+    /**
+     * Share documents in temporary directory read with {@code document()} between transformations.
+     *
+     * @param cacheDocuments {@code true} to cache documents
+     */
+    public void setCacheDocuments(final boolean cacheDocuments) {
+        this.cacheDocuments = cacheDocuments;
+    }
+
     public void setSource(final File in) {
         this.in = in;
     }
@@ -265,62 +290,4 @@ public final class XsltModule extends AbstractPipelineModuleImpl {
         this.extension = extension.startsWith(".") ? extension : ("." + extension);
     }
 
-    @VisibleForTesting
-    void configureExtensions(TransformerFactory tf) {
-        if (tf instanceof SaxonTransformerFactory) {
-            configureSaxonExtensions((SaxonTransformerFactory) tf);
-        }
-    }
-
-    /**
-     * Registers Saxon full integrated function definitions.
-     * The intgrated function should be an instance of net.sf.saxon.lib.ExtensionFunctionDefinition abstract class.
-     * @see <a href="https://www.saxonica.com/html/documentation/extensibility/integratedfunctions/ext-full-J.html">Saxon
-     *      Java extension functions: full interface</a>
-     */
-    private void configureSaxonExtensions(SaxonTransformerFactory tfi) {
-        final net.sf.saxon.Configuration conf = tfi.getConfiguration();
-        for (ExtensionFunctionDefinition def : ServiceLoader.load(ExtensionFunctionDefinition.class)) {
-            try {
-                conf.registerExtensionFunction(def.getClass().newInstance());
-            } catch (InstantiationException e) {
-                throw new RuntimeException("Failed to register " + def.getFunctionQName().getDisplayName()
-                        + ". Cannot create instance of " + def.getClass().getName() + ": " + e.getMessage(), e);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
-        }
-    }
-
-    /**
-     * Registers collation URI resolvers.
-     * 
-     * @param tf The transformer factory to configure.
-     */
-    @VisibleForTesting
-    void configureCollationResolvers(TransformerFactory tf) {
-        if (tf instanceof SaxonTransformerFactory) {
-            configureSaxonCollationResolvers((SaxonTransformerFactory) tf);
-        }
-    }
-
-    private void configureSaxonCollationResolvers(SaxonTransformerFactory tf) {
-        final net.sf.saxon.Configuration conf = tf.getConfiguration();
-        for (DelegatingCollationUriResolver resolver : ServiceLoader.load(DelegatingCollationUriResolver.class)) {
-            try {
-                final DelegatingCollationUriResolver newResolver = resolver.getClass().newInstance();
-                final CollationURIResolver currentResolver = conf.getCollationURIResolver();
-                if (currentResolver != null) {
-                    newResolver.setBaseResolver(currentResolver);
-                }
-                conf.setCollationURIResolver(newResolver);
-            } catch (InstantiationException e) {
-                throw new RuntimeException("Failed to register " + resolver.getClass().getSimpleName()
-                        + ". Cannot create instance of " + resolver.getClass().getName() + ": " + e.getMessage(), e);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
-        }
-    }
-
 }
@@ -22,12 +22,12 @@ import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 import javax.xml.namespace.QName;
-import javax.xml.parsers.DocumentBuilder;
 import javax.xml.transform.*;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -38,7 +38,6 @@ import static org.dita.dost.util.StringUtils.getExtProps;
 import static org.dita.dost.util.StringUtils.getExtPropsFromSpecializations;
 import static org.dita.dost.util.URLUtils.stripFragment;
 import static org.dita.dost.util.URLUtils.toURI;
-import static org.dita.dost.util.XMLUtils.close;
 import static org.dita.dost.util.XMLUtils.getChildElements;
 
 /**
@@ -58,7 +57,6 @@ public class MapBranchFilterModule extends AbstractBranchFilterModule {
 
     private static final String BRANCH_COPY_TO = "filter-copy-to";
 
-    private final DocumentBuilder builder;
 
     /** Current map being processed, relative to temporary directory */
     private URI map;
@@ -67,7 +65,6 @@ public class MapBranchFilterModule extends AbstractBranchFilterModule {
 
     public MapBranchFilterModule() {
         super();
-        builder = XMLUtils.getDocumentBuilder();
     }
 
     @Override
@@ -99,13 +96,19 @@ public class MapBranchFilterModule extends AbstractBranchFilterModule {
                 .orElse(null);
 
         logger.info("Processing " + currentFile);
+        final File mapFile = new File(currentFile);
+        final Document cached = job.getMapDocumentCache().take(mapFile);
         final Document doc;
-        try {
-            logger.debug("Reading " + currentFile);
-            doc = builder.parse(new InputSource(currentFile.toString()));
-        } catch (final SAXException | IOException e) {
-            logger.error("Failed to parse " + currentFile, e);
-            return;
+        if (cached != null) {
+            doc = cached;
+        } else {
+            try {
+                logger.debug("Reading " + currentFile);
+                doc = XMLUtils.parseCompact(new InputSource(currentFile.toString()), null);
+            } catch (final SAXException | IOException e) {
+                logger.error("Failed to parse " + currentFile, e);
+                return;
+            }
         }
 
         logger.debug("Split branches and generate copy-to");
@@ -116,21 +119,18 @@ public class MapBranchFilterModule extends AbstractBranchFilterModule {
         rewriteDuplicates(doc.getDocumentElement());
 
         logger.debug("Writing " + currentFile);
-        Result result = null;
+        job.getMapDocumentCache().invalidate(mapFile);
         try {
-            Transformer serializer = TransformerFactory.newInstance().newTransformer();
-            result = new StreamResult(currentFile.toString());
-            serializer.transform(new DOMSource(doc), result);
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(mapFile))) {
+                XMLUtils.writeDocument(doc, out);
+            }
+            job.getMapDocumentCache().put(mapFile, doc);
         } catch (final TransformerConfigurationException | TransformerFactoryConfigurationError e) {
             throw new RuntimeException(e);
         } catch (final TransformerException e) {
             logger.error("Failed to serialize " + map.toString() + ": " + e.getMessageAndLocation(), e);
-        } finally {
-            try {
-                close(result);
-            } catch (final IOException e) {
-                logger.error("Failed to close result stream for " + map.toString() + ": " + e.getMessage(), e);
-            }
+        } catch (final IOException e) {
+            logger.error("Failed to write " + map.toString() + ": " + e.getMessage(), e);
         }
     }
 
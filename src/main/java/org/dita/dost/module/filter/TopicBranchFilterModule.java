@@ -8,30 +8,27 @@
 package org.dita.dost.module.filter;
 
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.jfr.PipelineEvents;
 import org.dita.dost.log.DITAOTLogger;
 import org.dita.dost.pipeline.AbstractPipelineInput;
 import org.dita.dost.pipeline.AbstractPipelineOutput;
 import org.dita.dost.util.FilterUtils;
 import org.dita.dost.util.Job.FileInfo;
 import org.dita.dost.util.XMLUtils;
-import org.dita.dost.writer.ProfilingFilter;
 import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
-import org.xml.sax.XMLFilter;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.transform.*;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
-import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.util.*;
 
-import static java.util.Collections.singletonList;
 import static org.dita.dost.util.Constants.*;
 import static org.dita.dost.util.XMLUtils.*;
 
@@ -56,6 +53,8 @@ public final class TopicBranchFilterModule extends AbstractBranchFilterModule {
     /** Current map being processed, relative to temporary directory */
     private URI map;
     private final Set<URI> filtered = new HashSet<>();
+    /** Topic filtering operations for current map. */
+    private TopicFilterBatch filterBatch;
 
     public TopicBranchFilterModule() {
         super();
@@ -68,6 +67,12 @@ public final class TopicBranchFilterModule extends AbstractBranchFilterModule {
         xmlUtils.setLogger(logger);
     }
 
+    @Override
+    public void setEvents(final PipelineEvents events) {
+        super.setEvents(events);
+        xmlUtils.setEvents(events);
+    }
+
     @Override
     public AbstractPipelineOutput execute(final AbstractPipelineInput input) throws DITAOTException {
         final FileInfo in = job.getFileInfo(fi -> fi.isInput).iterator().next();
@@ -91,6 +96,7 @@ public final class TopicBranchFilterModule extends AbstractBranchFilterModule {
         assert !map.isAbsolute();
         this.map = map;
         currentFile = job.tempDirURI.resolve(map);
+        filterBatch = new TopicFilterBatch(job, logger, xmlUtils);
 
         logger.info("Processing " + currentFile);
         final Document doc;
@@ -107,11 +113,13 @@ public final class TopicBranchFilterModule extends AbstractBranchFilterModule {
         generateCopies(doc.getDocumentElement(), Collections.emptyList(), subjectSchemeMap);
         logger.debug("Filter existing topics");
         filterTopics(doc.getDocumentElement(), Collections.emptyList(), subjectSchemeMap);
+        logger.debug("Filter topics");
+        filterBatch.run();
 
         logger.debug("Writing " + currentFile);
         Result result = null;
         try {
-            Transformer serializer = TransformerFactory.newInstance().newTransformer();
+            Transformer serializer = XMLUtils.getTransformerFactory().newTransformer();
             result = new StreamResult(currentFile.toString());
             serializer.transform(new DOMSource(doc), result);
         } catch (final TransformerConfigurationException | TransformerFactoryConfigurationError e) {
@@ -148,25 +156,7 @@ public final class TopicBranchFilterModule extends AbstractBranchFilterModule {
                             .build();
                     job.add(updatedDstFileInfo);
                 }
-                logger.info("Filtering " + srcAbsUri + " to " + dstAbsUri);
-                final ProfilingFilter writer = new ProfilingFilter();
-                writer.setLogger(logger);
-                writer.setJob(job);
-                writer.setFilterUtils(fs);
-                writer.setCurrentFile(dstAbsUri);
-                final List<XMLFilter> pipe = singletonList(writer);
-
-                final File dstDirUri = new File(dstAbsUri.resolve("."));
-                if (!dstDirUri.exists() && !dstDirUri.mkdirs()) {
-                    logger.error("Failed to create directory " + dstDirUri);
-                }
-                try {
-                    xmlUtils.transform(srcAbsUri,
-                                       dstAbsUri,
-                                       pipe);
-                } catch (final DITAOTException e) {
-                    logger.error("Failed to filter " + srcAbsUri + " to " + dstAbsUri + ": " + e.getMessage(), e);
-                }
+                filterBatch.addCopy(srcAbsUri, dstAbsUri, fs);
                 topicref.setAttribute(ATTRIBUTE_NAME_HREF, copyTo);
                 topicref.removeAttribute(BRANCH_COPY_TO);
                 // disable filtering again
@@ -193,19 +183,7 @@ public final class TopicBranchFilterModule extends AbstractBranchFilterModule {
                 && !filtered.contains(srcAbsUri)
                 && !href.isEmpty()
                 && !ATTR_SCOPE_VALUE_EXTERNAL.equals(topicref.getAttribute(ATTRIBUTE_NAME_SCOPE))) {
-            final ProfilingFilter writer = new ProfilingFilter();
-            writer.setLogger(logger);
-            writer.setJob(job);
-            writer.setFilterUtils(fs);
-            writer.setCurrentFile(srcAbsUri);
-            final List<XMLFilter> pipe = singletonList(writer);
-
-            logger.info("Filtering " + srcAbsUri);
-            try {
-                xmlUtils.transform(srcAbsUri, pipe);
-            } catch (final DITAOTException e) {
-                logger.error("Failed to filter " + srcAbsUri + ": " + e.getMessage(), e);
-            }
+            filterBatch.addFilter(srcAbsUri, fs);
             filtered.add(srcAbsUri);
         }
         if (skipFilter != null) {
@@ -0,0 +1,266 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.module.filter;
+
+import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.log.DITAOTLogger;
+import org.dita.dost.util.DitaClass;
+import org.dita.dost.util.FilterUtils;
+import org.dita.dost.util.Job;
+import org.dita.dost.util.ParallelUtils;
+import org.dita.dost.util.StringUtils;
+import org.dita.dost.util.XMLUtils;
+import org.dita.dost.writer.ProfilingFilter;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLFilter;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+import javax.xml.namespace.QName;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.*;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.dita.dost.util.Constants.*;
+
+/**
+ * Batch of branch filtering operations on topics.
+ *
+ * <p>Operations are collected while the map is walked and run in parallel by {@link #run()}. Branch copies are run
+ * before topics are filtered in place, so that copies are made from unfiltered topics.</p>
+ *
+ * <p>When a topic is copied for multiple branches, the first copy is filtered through a probe that checks which
+ * branch filters would exclude or flag any element in the topic. Filtering does not change the topic for the other
+ * branches, so their copies are made from a single unchanged copy as plain file copies instead of parsing and
+ * serializing the topic again.</p>
+ *
+ * @since 3.5
+ */
+public final class TopicFilterBatch {
+
+    private final Job job;
+    private final DITAOTLogger logger;
+    private final XMLUtils xmlUtils;
+    /** Branch copies grouped by absolute source URI. */
+    private final Map<URI, List<Copy>> copies = new LinkedHashMap<>();
+    /** In place filters by absolute topic URI. */
+    private final Map<URI, List<FilterUtils>> filters = new LinkedHashMap<>();
+
+    /**
+     * Create new filter batch.
+     *
+     * @param job job configuration
+     * @param logger logger
+     * @param xmlUtils XML utilities used to filter topics
+     */
+    public TopicFilterBatch(final Job job, final DITAOTLogger logger, final XMLUtils xmlUtils) {
+        this.job = job;
+        this.logger = logger;
+        this.xmlUtils = xmlUtils;
+    }
+
+    /**
+     * Add branch copy of a topic.
+     *
+     * @param src absolute source topic URI
+     * @param dst absolute destination topic URI
+     * @param fs branch filters
+     */
+    public void addCopy(final URI src, final URI dst, final List<FilterUtils> fs) {
+        copies.computeIfAbsent(src, k -> new ArrayList<>()).add(new Copy(src, dst, fs));
+    }
+
+    /**
+     * Add in place filtering of a topic.
+     *
+     * @param file absolute topic URI
+     * @param fs branch filters
+     */
+    public void addFilter(final URI file, final List<FilterUtils> fs) {
+        filters.put(file, fs);
+    }
+
+    /**
+     * Run and clear collected operations.
+     */
+    public void run() {
+        ParallelUtils.forEach(copies.values(), group -> {
+            final Copy first = group.get(0);
+            if (group.size() == 1) {
+                filter(first, null);
+            } else {
+                filter(first, new ProfilingProbe(group));
+            }
+        });
+
+        final List<Copy> filterCopies = new ArrayList<>();
+        final List<Copy> sharedCopies = new ArrayList<>();
+        for (final List<Copy> group : copies.values()) {
+            if (group.get(0).failed) {
+                // probe did not complete
+                filterCopies.addAll(group.subList(1, group.size()));
+                continue;
+            }
+            Copy shared = group.get(0).affected ? null : group.get(0);
+            for (final Copy copy : group.subList(1, group.size())) {
+                if (copy.affected) {
+                    filterCopies.add(copy);
+                } else if (shared == null) {
+                    shared = copy;
+                    filterCopies.add(copy);
+                } else {
+                    copy.shared = shared;
+                    sharedCopies.add(copy);
+                }
+            }
+        }
+        ParallelUtils.forEach(filterCopies, copy -> filter(copy, null));
+        ParallelUtils.forEach(sharedCopies, this::copy);
+
+        ParallelUtils.forEach(filters.entrySet(), e -> filter(e.getKey(), e.getValue()));
+
+        copies.clear();
+        filters.clear();
+    }
+
+    private void filter(final Copy copy, final XMLFilter probe) {
+        logger.info("Filtering " + copy.src + " to " + copy.dst);
+        final List<XMLFilter> pipe = new ArrayList<>(2);
+        if (probe != null) {
+            pipe.add(probe);
+        }
+        pipe.add(getProfilingFilter(copy.fs, copy.dst));
+        try {
+            xmlUtils.transform(copy.src, copy.dst, pipe);
+        } catch (final DITAOTException e) {
+            copy.failed = true;
+            logger.error("Failed to filter " + copy.src + " to " + copy.dst + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void copy(final Copy copy) {
+        if (!copy.shared.failed) {
+            logger.debug("Copying " + copy.shared.dst + " to " + copy.dst);
+            final File dst = new File(copy.dst);
+            try {
+                Files.createDirectories(dst.getParentFile().toPath());
+                Files.copy(new File(copy.shared.dst).toPath(), dst.toPath(), REPLACE_EXISTING);
+                return;
+            } catch (final IOException e) {
+                logger.debug("Failed to copy " + copy.shared.dst + " to " + copy.dst + ": " + e.getMessage());
+            }
+        }
+        filter(copy, null);
+    }
+
+    private void filter(final URI file, final List<FilterUtils> fs) {
+        logger.info("Filtering " + file);
+        try {
+            xmlUtils.transform(file, Collections.singletonList(getProfilingFilter(fs, file)));
+        } catch (final DITAOTException e) {
+            logger.error("Failed to filter " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private ProfilingFilter getProfilingFilter(final List<FilterUtils> fs, final URI currentFile) {
+        final ProfilingFilter writer = new ProfilingFilter();
+        writer.setLogger(logger);
+        writer.setJob(job);
+        writer.setFilterUtils(fs);
+        writer.setCurrentFile(currentFile);
+        return writer;
+    }
+
+    /**
+     * Branch copy operation.
+     */
+    private static final class Copy {
+        final URI src;
+        final URI dst;
+        final List<FilterUtils> fs;
+        /** Filtering excludes or flags content. */
+        boolean affected;
+        /** Unchanged copy of the source this copy is copied from. */
+        Copy shared;
+        volatile boolean failed;
+
+        Copy(final URI src, final URI dst, final List<FilterUtils> fs) {
+            this.src = src;
+            this.dst = dst;
+            this.fs = fs;
+        }
+    }
+
+    /**
+     * Pass-through filter that marks the copies whose filters would exclude or flag an element. Checks match the
+     * ones done by {@link ProfilingFilter}, except that descendants of excluded elements are also checked.
+     */
+    private static final class ProfilingProbe extends XMLFilterImpl {
+
+        private final List<Copy> group;
+        /** Contains the attribution specialization paths for {@code props} attribute */
+        private QName[][] props;
+        private int unaffected;
+
+        ProfilingProbe(final List<Copy> group) {
+            this.group = group;
+        }
+
+        @Override
+        public void startDocument() throws SAXException {
+            props = null;
+            unaffected = group.size();
+            for (final Copy copy : group) {
+                copy.affected = false;
+            }
+            super.startDocument();
+        }
+
+        @Override
+        public void startElement(final String uri, final String localName, final String qName, final Attributes atts)
+                throws SAXException {
+            if (unaffected > 0) {
+                final String classValue = atts.getValue(ATTRIBUTE_NAME_CLASS);
+                final DitaClass cls = classValue != null ? new DitaClass(classValue) : null;
+                if (cls != null && cls.isValid()) {
+                    if (TOPIC_TOPIC.matches(cls) || MAP_MAP.matches(cls)) {
+                        final String domains = atts.getValue(ATTRIBUTE_NAME_DOMAINS);
+                        if (domains != null) {
+                            props = StringUtils.getExtProps(domains);
+                        } else {
+                            final String specializations = atts.getValue(ATTRIBUTE_NAME_SPECIALIZATIONS);
+                            if (specializations != null) {
+                                props = StringUtils.getExtPropsFromSpecializations(specializations);
+                            }
+                        }
+                    }
+                    for (final Copy copy : group) {
+                        if (!copy.affected && isAffected(copy.fs, atts)) {
+                            copy.affected = true;
+                            unaffected--;
+                        }
+                    }
+                }
+            }
+            super.startElement(uri, localName, qName, atts);
+        }
+
+        private boolean isAffected(final List<FilterUtils> fs, final Attributes atts) {
+            for (final FilterUtils f : fs) {
+                if (f.needExclude(atts, props) || !f.getFlags(atts, props).isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+}
@@ -14,11 +14,13 @@ import com.google.common.collect.SetMultimap;
 import org.apache.commons.io.FileUtils;
 import org.apache.xerces.xni.grammars.XMLGrammarPool;
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.jfr.PipelineEvents;
 import org.dita.dost.log.MessageUtils;
 import org.dita.dost.module.AbstractPipelineModuleImpl;
 import org.dita.dost.pipeline.AbstractPipelineInput;
 import org.dita.dost.reader.*;
 import org.dita.dost.util.*;
+import org.dita.dost.util.Metrics.Measurement;
 import org.dita.dost.writer.DitaWriterFilter;
 import org.dita.dost.writer.ExportAnchorsFilter;
 import org.dita.dost.writer.TopicFragmentFilter;
@@ -28,9 +30,6 @@ import org.xml.sax.helpers.DefaultHandler;
 
 import javax.xml.namespace.QName;
 import javax.xml.transform.Result;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.sax.SAXTransformerFactory;
-import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamResult;
 import java.io.*;
 import java.net.URI;
@@ -39,6 +38,7 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.dita.dost.reader.GenListModuleReader.ContentFlags;
 import static org.dita.dost.reader.GenListModuleReader.ROOT_URI;
 import static org.dita.dost.reader.GenListModuleReader.Reference;
 import static org.dita.dost.util.Configuration.*;
@@ -68,6 +68,8 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
     final Set<URI> conrefSet = new HashSet<>(128);
     /** Set of topic files containing coderef */
     private final Set<URI> coderefSet = new HashSet<>(128);
+    /** Map of dita files to content feature flags */
+    private final Map<URI, ContentFlags> contentFlagsMap = new HashMap<>(128);
     /** Set of all images */
     final Set<Reference> formatSet = new HashSet<>();
     /** Set of all images used for flagging */
@@ -119,6 +121,8 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
     boolean genDebugInfo;
     /** use grammar pool cache */
     private boolean gramcache = true;
+    /** Write topic temporary files in binary SAX event format */
+    private boolean binaryTopics;
     /** Profiling is enabled. */
     private boolean profilingEnabled;
     String transtype;
@@ -132,6 +136,10 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
     Map<QName, Map<String, String>> defaultValueMap;
     /** XMLReader instance for parsing dita file */
     private XMLReader reader;
+    /** Maximum number of files in wait list to read ahead. */
+    private static final int PREFETCH_WINDOW = Runtime.getRuntime().availableProcessors() * 2;
+    /** Read ahead for files in wait list, {@code null} if not processing wait list. */
+    private FilePrefetcher prefetcher;
     /** Absolute path to current source file. */
     URI currentFile;
     DitaWriterFilter ditaWriterFilter;
@@ -251,6 +259,7 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
                 .map(Mode::valueOf)
                 .orElse(Mode.LAX);
         genDebugInfo = Boolean.valueOf(input.getAttribute(ANT_INVOKER_EXT_PARAM_GENERATE_DEBUG_ATTR));
+        binaryTopics = TEMP_FILE_FORMAT_BINARY.equals(input.getAttribute(ANT_INVOKER_EXT_PARAM_TEMP_FILE_FORMAT));
 
         // For the output control
         job.setGeneratecopyouter(input.getAttribute(ANT_INVOKER_EXT_PARAM_GENERATECOPYOUTTER));
@@ -258,6 +267,9 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
         job.setOnlyTopicInMap(Boolean.valueOf(input.getAttribute(ANT_INVOKER_EXT_PARAM_ONLYTOPICINMAP)));
         job.setCrawl(Optional.ofNullable(input.getAttribute(ANT_INVOKER_EXT_PARAM_CRAWL))
                 .orElse(ANT_INVOKER_EXT_PARAM_CRAWL_VALUE_TOPIC));
+        if (binaryTopics) {
+            job.setTempFileFormat(TEMP_FILE_FORMAT_BINARY);
+        }
 
         // Set the OutputDir
         final File path = toFile(input.getAttribute(ANT_INVOKER_EXT_PARAM_OUTPUTDIR));
@@ -319,8 +331,14 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
     }
 
     void processWaitList() throws DITAOTException {
-        while (!waitList.isEmpty()) {
-            readFile(waitList.remove(), null);
+        try (final FilePrefetcher prefetcher = new FilePrefetcher(PREFETCH_WINDOW, logger)) {
+            this.prefetcher = prefetcher;
+            while (!waitList.isEmpty()) {
+                prefetcher.prefetch(() -> waitList.stream().map(ref -> ref.filename).iterator());
+                readFile(waitList.remove(), null);
+            }
+        } finally {
+            this.prefetcher = null;
         }
     }
 
@@ -369,11 +387,9 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
 
 //        InputSource in = null;
         Result out = null;
+        final PipelineEvents.Span event = events.startFile(currentFile);
+        final Measurement measurement = metrics.startFile(currentFile);
         try {
-            final TransformerFactory tf = TransformerFactory.newInstance();
-            final SAXTransformerFactory stf = (SAXTransformerFactory) tf;
-            final TransformerHandler serializer = stf.newTransformerHandler();
-
             XMLReader parser = getXmlReader(ref.format);
             XMLReader xmlSource = parser;
             for (final XMLFilter f: getProcessingPipe(currentFile)) {
@@ -389,10 +405,19 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
             } catch (final SAXNotRecognizedException e) {}
 
 //            in = new InputSource(src.toString());
-            out = new StreamResult(new FileOutputStream(outputFile));
-            serializer.setResult(out);
-            xmlSource.setContentHandler(serializer);
-            xmlSource.parse(src.toString());
+            final OutputStream outStream = new FileOutputStream(outputFile);
+            out = new StreamResult(outStream);
+            if (binaryTopics && (ref.format == null || ATTR_FORMAT_VALUE_DITA.equals(ref.format))) {
+                xmlSource.setContentHandler(new BinaryXMLWriter(outStream));
+            } else {
+                xmlSource.setContentHandler(new Utf8XMLWriter(outStream));
+            }
+            final InputSource in = prefetcher != null ? prefetcher.take(src) : null;
+            if (in != null) {
+                xmlSource.parse(in);
+            } else {
+                xmlSource.parse(src.toString());
+            }
 
             if (listFilter.isValidInput()) {
                 processParseResult(currentFile);
@@ -452,7 +477,14 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
             }
             if (failureList.contains(currentFile)) {
                 FileUtils.deleteQuietly(outputFile);
+            } else {
+                if ("file".equals(src.getScheme())) {
+                    measurement.read(new File(src));
+                }
+                measurement.written(outputFile);
             }
+            measurement.close();
+            event.finish();
         }
 
         if (!listFilter.isValidInput() && currentFile.equals(rootFile)) {
@@ -465,6 +497,9 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
             }
         }
 
+        if (!failureList.contains(currentFile)) {
+            job.getElementIdIndex().put(rel, listFilter.getElementIds());
+        }
         doneList.add(currentFile);
         listFilter.reset();
         keydefFilter.reset();
@@ -555,6 +590,8 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
             coderefSet.add(currentFile);
         }
 
+        contentFlagsMap.put(currentFile, listFilter.getContentFlags());
+
         if (listFilter.isDitaTopic()) {
             if (ref.format != null && !ref.format.equals(ATTR_FORMAT_VALUE_DITA)) {
                 assert currentFile.getFragment() == null;
@@ -723,6 +760,9 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
         for (final URI file: coderefSet) {
             getOrCreateFileInfo(fileinfos, file).hasCoderef = true;
         }
+        for (final Map.Entry<URI, ContentFlags> e: contentFlagsMap.entrySet()) {
+            e.getValue().setTo(getOrCreateFileInfo(fileinfos, e.getKey()));
+        }
         for (final URI file: resourceOnlySet) {
             getOrCreateFileInfo(fileinfos, file).isResourceOnly = true;
         }
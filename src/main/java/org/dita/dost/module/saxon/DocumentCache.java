@@ -0,0 +1,153 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.module.saxon;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.sf.saxon.Configuration;
+import net.sf.saxon.om.TreeInfo;
+import net.sf.saxon.trans.XPathException;
+import org.dita.dost.util.XMLUtils;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.transform.Source;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.URIResolver;
+import javax.xml.transform.sax.SAXSource;
+import java.io.File;
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+
+import static org.dita.dost.util.URLUtils.setFragment;
+import static org.dita.dost.util.URLUtils.toURI;
+
+/**
+ * URI resolver that caches parsed documents in a directory across transformations.
+ *
+ * <p>Documents are parsed into Saxon trees with the configuration of the transformer factory and shared by all
+ * transformations that use the resolver. The cache is bounded by the total size of the source files and least
+ * recently used documents are evicted first. Documents should be {@link #invalidate(URI) invalidated} when
+ * they are rewritten; a cached document is also reparsed if the size or modification time of the file has changed
+ * since it was parsed.</p>
+ *
+ * <p>The cache is thread-safe and a document is parsed only once even if it is requested concurrently. Cached
+ * documents are immutable and can be shared between transformations running in parallel.</p>
+ *
+ * @since 3.5
+ */
+public final class DocumentCache implements URIResolver {
+
+    /** Default cache size as total bytes of source files. */
+    private static final long DEFAULT_MAX_WEIGHT = Runtime.getRuntime().maxMemory() / 16;
+
+    private final Configuration configuration;
+    private final URIResolver resolver;
+    private final EntityResolver entityResolver;
+    private final URI baseDir;
+    private final Cache<URI, Entry> cache;
+
+    /**
+     * Create new document cache.
+     *
+     * @param configuration Saxon configuration to build documents with
+     * @param resolver URI resolver for documents that are not cached
+     * @param entityResolver entity resolver for parsing cached documents
+     * @param baseDir directory of cacheable documents
+     */
+    public DocumentCache(final Configuration configuration, final URIResolver resolver,
+                         final EntityResolver entityResolver, final File baseDir) {
+        this.configuration = configuration;
+        this.resolver = resolver;
+        this.entityResolver = entityResolver;
+        this.baseDir = baseDir.getAbsoluteFile().toURI();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(DEFAULT_MAX_WEIGHT)
+                .weigher((URI uri, Entry entry) -> (int) Math.min(Integer.MAX_VALUE, entry.length))
+                .build();
+    }
+
+    @Override
+    public Source resolve(final String href, final String base) throws TransformerException {
+        final URI uri = resolveURI(href, base);
+        if (uri == null || !isCacheable(uri)) {
+            return resolver != null ? resolver.resolve(href, base) : null;
+        }
+        try {
+            final File file = new File(uri);
+            Entry entry = cache.get(uri, () -> build(uri));
+            if (entry.lastModified != file.lastModified() || entry.length != file.length()) {
+                cache.asMap().remove(uri, entry);
+                entry = cache.get(uri, () -> build(uri));
+            }
+            return entry.doc.getRootNode();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof TransformerException) {
+                throw (TransformerException) e.getCause();
+            }
+            throw new TransformerException("Failed to parse " + uri + ": " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Remove document from cache.
+     *
+     * @param uri absolute document URI
+     */
+    public void invalidate(final URI uri) {
+        cache.invalidate(uri.normalize());
+    }
+
+    /**
+     * Remove all documents from cache.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private URI resolveURI(final String href, final String base) {
+        try {
+            final URI uri = base != null ? toURI(base).resolve(toURI(href)) : toURI(href);
+            return setFragment(uri, null).normalize();
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private boolean isCacheable(final URI uri) {
+        return uri.isAbsolute() && "file".equals(uri.getScheme())
+                && uri.getPath().startsWith(baseDir.getPath())
+                && new File(uri).isFile();
+    }
+
+    private Entry build(final URI uri) throws XPathException, SAXException {
+        final File file = new File(uri);
+        final long lastModified = file.lastModified();
+        final long length = file.length();
+        final XMLReader reader = XMLUtils.getXMLReader();
+        if (entityResolver != null) {
+            reader.setEntityResolver(entityResolver);
+        }
+        final TreeInfo doc = configuration.buildDocumentTree(new SAXSource(reader, new InputSource(uri.toString())));
+        return new Entry(doc, lastModified, length);
+    }
+
+    private static final class Entry {
+        final TreeInfo doc;
+        final long lastModified;
+        final long length;
+
+        Entry(final TreeInfo doc, final long lastModified, final long length) {
+            this.doc = doc;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.module.saxon;
+
+import net.sf.saxon.expr.XPathContext;
+import net.sf.saxon.lib.ExtensionFunctionCall;
+import net.sf.saxon.lib.ExtensionFunctionDefinition;
+import net.sf.saxon.om.*;
+import net.sf.saxon.pattern.NodeKindTest;
+import net.sf.saxon.trans.XPathException;
+import net.sf.saxon.tree.iter.AxisIterator;
+import net.sf.saxon.value.EmptySequence;
+import net.sf.saxon.value.SequenceExtent;
+import net.sf.saxon.value.SequenceType;
+
+import java.util.*;
+
+import static org.dita.dost.util.Constants.ATTRIBUTE_NAME_ID;
+import static org.dita.dost.util.Constants.DITA_OT_NS;
+
+/**
+ * Extension function {@code dita-ot:element-by-id($node as node(), $id as xs:string) as element()*} that returns
+ * elements with the given {@code id} attribute in the document of the node, in document order.
+ *
+ * <p>The ID index is built once per document tree and kept with the tree, so documents shared between
+ * transformations with {@link DocumentCache} are indexed only once.</p>
+ *
+ * @since 3.5
+ */
+public final class ElementByIdFunction extends ExtensionFunctionDefinition {
+
+    private static final String USER_DATA_KEY = ElementByIdFunction.class.getName();
+
+    @Override
+    public StructuredQName getFunctionQName() {
+        return new StructuredQName("dita-ot", DITA_OT_NS, "element-by-id");
+    }
+
+    @Override
+    public SequenceType[] getArgumentTypes() {
+        return new SequenceType[] {SequenceType.SINGLE_NODE, SequenceType.SINGLE_STRING};
+    }
+
+    @Override
+    public SequenceType getResultType(final SequenceType[] suppliedArgumentTypes) {
+        return SequenceType.NODE_SEQUENCE;
+    }
+
+    @Override
+    public ExtensionFunctionCall makeCallExpression() {
+        return new ExtensionFunctionCall() {
+            @Override
+            public Sequence call(final XPathContext context, final Sequence[] arguments) throws XPathException {
+                final NodeInfo node = (NodeInfo) arguments[0].head();
+                final String id = arguments[1].head().getStringValue();
+                final List<NodeInfo> res = getElementsById(node.getTreeInfo(), id);
+                return res.isEmpty() ? EmptySequence.getInstance() : new SequenceExtent(res);
+            }
+        };
+    }
+
+    /**
+     * Get elements by ID.
+     *
+     * @param tree document tree
+     * @param id element ID
+     * @return elements in document order, empty list if no elements found
+     */
+    @SuppressWarnings("unchecked")
+    static List<NodeInfo> getElementsById(final TreeInfo tree, final String id) {
+        Map<String, List<NodeInfo>> index;
+        synchronized (tree) {
+            index = (Map<String, List<NodeInfo>>) tree.getUserData(USER_DATA_KEY);
+            if (index == null) {
+                index = buildIndex(tree.getRootNode());
+                tree.setUserData(USER_DATA_KEY, index);
+            }
+        }
+        return index.getOrDefault(id, Collections.emptyList());
+    }
+
+    private static Map<String, List<NodeInfo>> buildIndex(final NodeInfo root) {
+        final Map<String, List<NodeInfo>> index = new HashMap<>();
+        final AxisIterator elements = root.iterateAxis(AxisInfo.DESCENDANT, NodeKindTest.ELEMENT);
+        NodeInfo elem;
+        while ((elem = elements.next()) != null) {
+            final String id = elem.getAttributeValue("", ATTRIBUTE_NAME_ID);
+            if (id != null) {
+                index.computeIfAbsent(id, k -> new ArrayList<>(1)).add(elem);
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.module.saxon;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
+import net.sf.saxon.expr.XPathContext;
+import net.sf.saxon.lib.ExtensionFunctionCall;
+import net.sf.saxon.lib.ExtensionFunctionDefinition;
+import net.sf.saxon.om.Item;
+import net.sf.saxon.om.NodeInfo;
+import net.sf.saxon.om.Sequence;
+import net.sf.saxon.om.StructuredQName;
+import net.sf.saxon.trans.XPathException;
+import net.sf.saxon.type.Type;
+import net.sf.saxon.value.BooleanValue;
+import net.sf.saxon.value.SequenceType;
+
+import java.util.Set;
+
+import static org.dita.dost.util.Constants.ATTRIBUTE_NAME_CLASS;
+import static org.dita.dost.util.Constants.DITA_OT_NS;
+
+/**
+ * Extension function {@code dita-ot:has-class($node as node()?, $class as xs:string) as xs:boolean} that tests
+ * if the {@code class} attribute of an element contains the given DITA class token, e.g. {@code topic/p}.
+ *
+ * <p>Equivalent to {@code contains($node/@class, concat(' ', normalize-space($class), ' '))}, but class attribute
+ * values are split into sets of space delimited tokens once and shared by all transformations. As with
+ * {@code contains}, a token must have a space on both sides, so the last token of a class value without a trailing
+ * space does not match. The most recently used token sets are cached.</p>
+ *
+ * @since 3.5
+ */
+public final class HasClassFunction extends ExtensionFunctionDefinition {
+
+    /** Maximum number of distinct class attribute values to cache. */
+    private static final int MAX_CACHE_SIZE = 4096;
+    private static final LoadingCache<String, Set<String>> tokens = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHE_SIZE)
+            .build(CacheLoader.from(HasClassFunction::parse));
+
+    @Override
+    public StructuredQName getFunctionQName() {
+        return new StructuredQName("dita-ot", DITA_OT_NS, "has-class");
+    }
+
+    @Override
+    public SequenceType[] getArgumentTypes() {
+        return new SequenceType[] {SequenceType.OPTIONAL_NODE, SequenceType.SINGLE_STRING};
+    }
+
+    @Override
+    public SequenceType getResultType(final SequenceType[] suppliedArgumentTypes) {
+        return SequenceType.SINGLE_BOOLEAN;
+    }
+
+    @Override
+    public ExtensionFunctionCall makeCallExpression() {
+        return new ExtensionFunctionCall() {
+            @Override
+            public Sequence call(final XPathContext context, final Sequence[] arguments) throws XPathException {
+                final Item node = arguments[0].head();
+                if (!(node instanceof NodeInfo) || ((NodeInfo) node).getNodeKind() != Type.ELEMENT) {
+                    return BooleanValue.FALSE;
+                }
+                final String cls = ((NodeInfo) node).getAttributeValue("", ATTRIBUTE_NAME_CLASS);
+                final String token = arguments[1].head().getStringValue();
+                return BooleanValue.get(hasClass(cls, token));
+            }
+        };
+    }
+
+    /**
+     * Test if class attribute value contains a class token.
+     *
+     * @param cls class attribute value, may be {@code null}
+     * @param token class token, whitespace is normalized
+     * @return {@code true} if class contains the token, otherwise {@code false}
+     */
+    static boolean hasClass(final String cls, final String token) {
+        if (cls == null) {
+            return false;
+        }
+        if (!isNormalized(token)) {
+            return cls.contains(' ' + token.trim().replaceAll("[ \\t\\r\\n]+", " ") + ' ');
+        }
+        return tokens.getUnchecked(cls).contains(token);
+    }
+
+    /**
+     * Test if token is non-empty and contains no whitespace.
+     */
+    private static boolean isNormalized(final String token) {
+        if (token.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            switch (token.charAt(i)) {
+                case ' ':
+                case '\t':
+                case '\r':
+                case '\n':
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Split class attribute value into tokens that have a space on both sides.
+     */
+    private static Set<String> parse(final String cls) {
+        final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+        int start = cls.indexOf(' ');
+        while (start != -1) {
+            final int end = cls.indexOf(' ', start + 1);
+            if (end == -1) {
+                break;
+            }
+            if (end > start + 1) {
+                builder.add(cls.substring(start + 1, end));
+            }
+            start = end;
+        }
+        return builder.build();
+    }
+}
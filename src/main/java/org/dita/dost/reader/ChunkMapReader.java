@@ -18,6 +18,7 @@ import org.dita.dost.util.DitaClass;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.Job.FileInfo;
 import org.dita.dost.util.XMLSerializer;
+import org.dita.dost.util.XMLUtils;
 import org.dita.dost.writer.AbstractDomFilter;
 import org.dita.dost.writer.ChunkTopicParser;
 import org.dita.dost.writer.SeparateChunkTopicParser;
@@ -26,12 +27,8 @@ import org.xml.sax.SAXException;
 
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamWriter;
-import javax.xml.transform.Result;
-import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -287,11 +284,8 @@ public final class ChunkMapReader extends AbstractDomFilter {
     }
 
     private void outputMapFile(final URI file, final Document doc) {
-        Result result = null;
-        try {
-            final Transformer serializer = TransformerFactory.newInstance().newTransformer();
-            result = new StreamResult(new FileOutputStream(new File(file)));
-            serializer.transform(new DOMSource(doc), result);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(new File(file)))) {
+            XMLUtils.writeDocument(doc, out);
         } catch (final UncheckedXPathException e) {
             logger.error(e.getXPathException().getMessageAndLocation(), e);
         } catch (final RuntimeException e) {
@@ -300,12 +294,6 @@ public final class ChunkMapReader extends AbstractDomFilter {
             logger.error(e.getMessageAndLocation(), e);
         } catch (final Exception e) {
             logger.error(e.getMessage(), e);
-        } finally {
-            try {
-                close(result);
-            } catch (final IOException e) {
-                logger.error(e.getMessage(), e);
-            }
         }
     }
 
@@ -0,0 +1,161 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.reader;
+
+import org.dita.dost.exception.DITAOTXMLErrorHandler;
+import org.dita.dost.log.DITAOTLogger;
+import org.dita.dost.util.ParallelUtils;
+import org.dita.dost.util.SaxCache.*;
+import org.dita.dost.util.XMLUtils;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.dita.dost.util.Constants.FEATURE_NAMESPACE_PREFIX;
+
+/**
+ * Parses documents in parallel into SAX event buffers ahead of use. Documents are expected to be taken in the
+ * order they were given, and at most a fixed number of parsed documents is buffered at a time. Instances are not
+ * thread-safe.
+ */
+final class DocumentPrefetcher implements AutoCloseable {
+
+    private final Iterator<Path> pending;
+    private final Deque<Entry<Path, CompletableFuture<List<SaxEvent>>>> queue = new ArrayDeque<>();
+    private final int window;
+    private final DITAOTLogger logger;
+
+    /**
+     * Create new prefetcher and start parsing.
+     *
+     * @param files absolute files in expected read order
+     * @param window maximum number of documents to parse ahead
+     * @param logger logger
+     */
+    DocumentPrefetcher(final Collection<File> files, final int window, final DITAOTLogger logger) {
+        final List<Path> paths = new ArrayList<>(files.size());
+        for (final File file : files) {
+            paths.add(file.toPath().normalize());
+        }
+        this.pending = paths.iterator();
+        this.window = window;
+        this.logger = logger;
+        fill();
+    }
+
+    /**
+     * Take parsed document. Documents queued before the requested document are discarded.
+     *
+     * @param file absolute file
+     * @return SAX events of the document, {@code null} if document has not been prefetched
+     */
+    List<SaxEvent> take(final File file) throws IOException, SAXException {
+        final Path key = file.toPath().normalize();
+        if (queue.stream().noneMatch(e -> e.getKey().equals(key))) {
+            return null;
+        }
+        while (true) {
+            final Entry<Path, CompletableFuture<List<SaxEvent>>> head = queue.poll();
+            fill();
+            if (head.getKey().equals(key)) {
+                try {
+                    return head.getValue().join();
+                } catch (final CompletionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    } else if (e.getCause() instanceof SAXException) {
+                        throw (SAXException) e.getCause();
+                    }
+                    throw e;
+                }
+            }
+            head.getValue().cancel(false);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (final Entry<Path, CompletableFuture<List<SaxEvent>>> e : queue) {
+            e.getValue().cancel(false);
+        }
+        queue.clear();
+    }
+
+    private void fill() {
+        while (queue.size() < window && pending.hasNext()) {
+            final Path file = pending.next();
+            queue.add(new SimpleImmutableEntry<>(file, CompletableFuture.supplyAsync(() -> parse(file.toFile()),
+                    ParallelUtils.getExecutor())));
+        }
+    }
+
+    private List<SaxEvent> parse(final File file) {
+        final List<SaxEvent> events = new ArrayList<>();
+        try {
+            final XMLReader reader = XMLUtils.getXMLReader();
+            reader.setFeature(FEATURE_NAMESPACE_PREFIX, true);
+            reader.setErrorHandler(new DITAOTXMLErrorHandler(file.getAbsolutePath(), logger));
+            reader.setContentHandler(new DefaultHandler() {
+                @Override
+                public void startPrefixMapping(final String prefix, final String uri) {
+                    events.add(new StartPrefixMappingEvent(prefix, uri));
+                }
+
+                @Override
+                public void endPrefixMapping(final String prefix) {
+                    events.add(new EndPrefixMappingEvent(prefix));
+                }
+
+                @Override
+                public void startElement(final String uri, final String localName, final String qName,
+                                         final Attributes atts) {
+                    events.add(new StartElementEvent(uri, localName, qName, atts));
+                }
+
+                @Override
+                public void endElement(final String uri, final String localName, final String qName) {
+                    events.add(new EndElementEvent(uri, localName, qName));
+                }
+
+                @Override
+                public void characters(final char[] ch, final int start, final int length) {
+                    events.add(new CharactersEvent(ch, start, length));
+                }
+
+                @Override
+                public void ignorableWhitespace(final char[] ch, final int start, final int length) {
+                    events.add(new IgnorableWhitespaceEvent(ch, start, length));
+                }
+
+                @Override
+                public void processingInstruction(final String target, final String data) {
+                    events.add(new ProcessingInstructionEvent(target, data));
+                }
+            });
+            reader.parse(file.toURI().toString());
+        } catch (final IOException | SAXException e) {
+            throw new CompletionException(e);
+        }
+        return events;
+    }
+}
@@ -12,12 +12,17 @@ import org.dita.dost.exception.DITAOTException;
 import org.dita.dost.log.MessageBean;
 import org.dita.dost.log.MessageUtils;
 import org.dita.dost.util.DitaClass;
+import org.dita.dost.util.ElementIdIndex;
+import org.dita.dost.util.FilterUtils;
 import org.dita.dost.util.Job;
+import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.StringUtils;
 import org.dita.dost.writer.AbstractXMLFilter;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
+import javax.xml.namespace.QName;
 import java.net.URI;
 import java.util.*;
 import java.util.function.Predicate;
@@ -63,6 +68,34 @@ public final class GenListModuleReader extends AbstractXMLFilter {
      * Flag for whether parsing file contains coderef
      */
     private boolean hasCodeRef = false;
+    /**
+     * Flag for whether parsing file contains profiling or flagging attributes
+     */
+    private boolean hasProfiling = false;
+    /**
+     * Flag for whether parsing file contains same topic fragment links
+     */
+    private boolean hasFragmentLink = false;
+    /**
+     * Flag for whether parsing file contains index terms
+     */
+    private boolean hasIndexterm = false;
+    /**
+     * Flag for whether parsing file contains tables
+     */
+    private boolean hasTable = false;
+    /**
+     * Flag for whether parsing file contains code blocks
+     */
+    private boolean hasCodeblock = false;
+    /**
+     * Profiling and flagging attributes
+     */
+    private final Set<QName> profilingAttributes = FilterUtils.getProfilingAttributes();
+    /**
+     * Attribution specialization paths for {@code props} attribute
+     */
+    private QName[][] props;
     /**
      * Set of all targets referred in current parsing file except conref and copy-to
      */
@@ -99,6 +132,14 @@ public final class GenListModuleReader extends AbstractXMLFilter {
      * DITA class values for open elements
      **/
     private final Deque<DitaClass> classes = new LinkedList<>();
+    /**
+     * IDs of open topic elements
+     **/
+    private final Deque<String> topicIds = new LinkedList<>();
+    /**
+     * Elements with an ID in document order
+     */
+    private final List<ElementIdIndex.Element> elementIds = new ArrayList<>(64);
     /**
      * Flag used to mark if current file is still valid after filtering
      */
@@ -252,6 +293,15 @@ public final class GenListModuleReader extends AbstractXMLFilter {
         return hasCodeRef;
     }
 
+    /**
+     * Get content feature flags of the parsed file.
+     *
+     * @return content feature flags
+     */
+    public ContentFlags getContentFlags() {
+        return new ContentFlags(hasProfiling, hasFragmentLink, hasIndexterm, hasTable, hasCodeblock);
+    }
+
     /**
      * To see if the parsed file has href inside.
      *
@@ -350,6 +400,15 @@ public final class GenListModuleReader extends AbstractXMLFilter {
         return nonTopicrefReferenceSet;
     }
 
+    /**
+     * Get elements with an ID in the current file.
+     *
+     * @return elements in document order
+     */
+    public List<ElementIdIndex.Element> getElementIds() {
+        return elementIds;
+    }
+
     /**
      * Reset the internal variables.
      */
@@ -358,8 +417,16 @@ public final class GenListModuleReader extends AbstractXMLFilter {
         hasConRef = false;
         hasHref = false;
         hasCodeRef = false;
+        hasProfiling = false;
+        hasFragmentLink = false;
+        hasIndexterm = false;
+        hasTable = false;
+        hasCodeblock = false;
+        props = null;
         currentDir = null;
         classes.clear();
+        topicIds.clear();
+        elementIds.clear();
         isValidInput = false;
         hasconaction = false;
         coderefTargetSet.clear();
@@ -423,6 +490,7 @@ public final class GenListModuleReader extends AbstractXMLFilter {
         } else {
             classes.addFirst(null);
         }
+        handleId(atts, classes.peek());
 
         if (!(cls != null && cls.isValid()) && !ELEMENT_NAME_DITA.equals(localName)) {
             if (nonDitaContext(classes)) {
@@ -437,6 +505,7 @@ public final class GenListModuleReader extends AbstractXMLFilter {
                 isValidInput = true;
             }
 
+            handleContentFlags(atts, cls, href);
             parseConrefAttr(atts);
             if (PR_D_CODEREF.matches(cls)) {
                 parseCoderef(atts);
@@ -456,6 +525,51 @@ public final class GenListModuleReader extends AbstractXMLFilter {
         getContentHandler().startElement(uri, localName, qName, atts);
     }
 
+    private void handleContentFlags(final Attributes atts, final DitaClass cls, final URI href) {
+        if (TOPIC_TOPIC.matches(cls) || MAP_MAP.matches(cls)) {
+            final String domains = atts.getValue(ATTRIBUTE_NAME_DOMAINS);
+            if (domains != null) {
+                props = StringUtils.getExtProps(domains);
+            } else {
+                final String specializations = atts.getValue(ATTRIBUTE_NAME_SPECIALIZATIONS);
+                if (specializations != null) {
+                    props = StringUtils.getExtPropsFromSpecializations(specializations);
+                }
+            }
+        }
+        if (!hasProfiling) {
+            hasProfiling = hasProfilingAttribute(atts);
+        }
+        if (TOPIC_INDEXTERM.matches(cls)) {
+            hasIndexterm = true;
+        } else if (TOPIC_TGROUP.matches(cls)) {
+            hasTable = true;
+        } else if (PR_D_CODEBLOCK.matches(cls)) {
+            hasCodeblock = true;
+        }
+        if (href != null && href.getFragment() != null && href.getFragment().startsWith(".")) {
+            hasFragmentLink = true;
+        }
+    }
+
+    private boolean hasProfilingAttribute(final Attributes atts) {
+        for (final QName attr : profilingAttributes) {
+            if (atts.getValue(attr.getNamespaceURI(), attr.getLocalPart()) != null) {
+                return true;
+            }
+        }
+        if (props != null) {
+            for (final QName[] propList : props) {
+                for (final QName attr : propList) {
+                    if (atts.getValue(attr.getNamespaceURI(), attr.getLocalPart()) != null) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
     private void parseCoderef(final Attributes atts) {
         final URI href = toURI(atts.getValue(ATTRIBUTE_NAME_HREF));
         if (href == null) {
@@ -518,6 +632,16 @@ public final class GenListModuleReader extends AbstractXMLFilter {
         }
     }
 
+    private void handleId(final Attributes atts, final DitaClass cls) {
+        final String id = atts.getValue(ATTRIBUTE_NAME_ID);
+        if (id != null) {
+            elementIds.add(new ElementIdIndex.Element(id, atts.getValue(ATTRIBUTE_NAME_CLASS), topicIds.peek()));
+        }
+        if (TOPIC_TOPIC.matches(cls)) {
+            topicIds.push(id);
+        }
+    }
+
     private void handleRootElement(final Attributes atts) {
         if (isRootElement) {
             isRootElement = false;
@@ -532,7 +656,9 @@ public final class GenListModuleReader extends AbstractXMLFilter {
     public void endElement(final String uri, final String localName, final String qName) throws SAXException {
         // @processing-role
         processRoleStack.pop();
-        classes.pop();
+        if (TOPIC_TOPIC.matches(classes.pop())) {
+            topicIds.pop();
+        }
 
         getContentHandler().endElement(uri, localName, qName);
     }
@@ -836,4 +962,43 @@ public final class GenListModuleReader extends AbstractXMLFilter {
         }
     }
 
+    /**
+     * Content feature flags of a parsed file.
+     */
+    public static final class ContentFlags {
+        /** File has profiling or flagging attributes. */
+        public final boolean hasProfiling;
+        /** File has same topic fragment links. */
+        public final boolean hasFragmentLink;
+        /** File has index terms. */
+        public final boolean hasIndexterm;
+        /** File has tables. */
+        public final boolean hasTable;
+        /** File has code blocks. */
+        public final boolean hasCodeblock;
+
+        ContentFlags(final boolean hasProfiling, final boolean hasFragmentLink, final boolean hasIndexterm,
+                     final boolean hasTable, final boolean hasCodeblock) {
+            this.hasProfiling = hasProfiling;
+            this.hasFragmentLink = hasFragmentLink;
+            this.hasIndexterm = hasIndexterm;
+            this.hasTable = hasTable;
+            this.hasCodeblock = hasCodeblock;
+        }
+
+        /**
+         * Set content feature flags to file info.
+         *
+         * @param fi file info to update
+         */
+        public void setTo(final FileInfo fi) {
+            fi.hasContentFlags = true;
+            fi.hasProfiling = hasProfiling;
+            fi.hasFragmentLink = hasFragmentLink;
+            fi.hasIndexterm = hasIndexterm;
+            fi.hasTable = hasTable;
+            fi.hasCodeblock = hasCodeblock;
+        }
+    }
+
 }
\ No newline at end of file
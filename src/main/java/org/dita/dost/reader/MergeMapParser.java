@@ -12,17 +12,25 @@ import static javax.xml.transform.OutputKeys.*;
 import static org.dita.dost.util.Constants.*;
 import static org.dita.dost.util.URLUtils.*;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.file.Files;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.Stack;
+import java.util.stream.Collectors;
 
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.sax.SAXTransformerFactory;
 import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamResult;
 
+import org.xml.sax.helpers.DefaultHandler;
 import org.xml.sax.helpers.XMLFilterImpl;
 import org.xml.sax.helpers.AttributesImpl;
 
@@ -47,6 +55,8 @@ import org.xml.sax.XMLReader;
 public final class MergeMapParser extends XMLFilterImpl {
 
     private static final String ATTRIBUTE_NAME_FIRST_TOPIC_ID = "first_topic_id";
+    /** Number of topics to parse ahead of merge. */
+    private static final int PREFETCH_WINDOW = Runtime.getRuntime().availableProcessors() * 2;
     public static final String ATTRIBUTE_NAME_OHREF = "ohref";
     public static final String ATTRIBUTE_NAME_OID = "oid";
 
@@ -58,7 +68,6 @@ public final class MergeMapParser extends XMLFilterImpl {
 
     private final Stack<String> processStack;
     private int processLevel;
-    private final ByteArrayOutputStream topicBuffer;
     private final SAXTransformerFactory stf;
     private OutputStream output;
     private DITAOTLogger logger;
@@ -72,21 +81,16 @@ public final class MergeMapParser extends XMLFilterImpl {
         processLevel = 0;
         util = new MergeUtils();
         topicParser = new MergeTopicParser(util);
-        topicBuffer = new ByteArrayOutputStream();
         try {
             reader = XMLUtils.getXMLReader();
             reader.setContentHandler(this);
             reader.setFeature(FEATURE_NAMESPACE_PREFIX, true);
 
-            final TransformerFactory tf = TransformerFactory.newInstance();
+            final TransformerFactory tf = XMLUtils.getTransformerFactory();
             if (!tf.getFeature(SAXTransformerFactory.FEATURE)) {
                 throw new RuntimeException("SAX transformation factory not supported");
             }
             stf = (SAXTransformerFactory) tf;
-            final TransformerHandler s = stf.newTransformerHandler();
-            s.getTransformer().setOutputProperty(OMIT_XML_DECLARATION , "yes");
-            s.setResult(new StreamResult(topicBuffer));
-            topicParser.setContentHandler(s);
         } catch (final RuntimeException e) {
             throw e;
         } catch (final Exception e) {
@@ -101,6 +105,7 @@ public final class MergeMapParser extends XMLFilterImpl {
 
     public final void setJob(final Job job) {
         this.job = job;
+        util.setJob(job);
     }
 
     /**
@@ -122,30 +127,95 @@ public final class MergeMapParser extends XMLFilterImpl {
     }
 
     /**
-     * Read map.
+     * Read map. Topics are parsed in parallel ahead of merge and merged topics are buffered into a temporary file
+     * before they are appended to output.
      *
      * @param filename map file path
      * @param tmpDir temporary directory path, may be {@code null}
      */
     public void read(final File filename, final File tmpDir) {
         tempdir = tmpDir != null ? tmpDir : filename.getParentFile();
+        File topicFile = null;
         try {
-            final TransformerHandler s = stf.newTransformerHandler();
-            s.getTransformer().setOutputProperty(OMIT_XML_DECLARATION, "yes");
-            s.setResult(new StreamResult(output));
-            setContentHandler(s);
             dirPath = filename.getParentFile();
-            reader.setErrorHandler(new DITAOTXMLErrorHandler(filename.getAbsolutePath(), logger));
-            topicParser.getContentHandler().startDocument();
-            logger.info("Processing " + filename.getAbsolutePath());
-            reader.parse(filename.toURI().toString());
-            topicParser.getContentHandler().endDocument();
-            output.write(topicBuffer.toByteArray());
+            topicFile = File.createTempFile("merge", ".xml", tempdir);
+            try (final OutputStream topicOutput = new BufferedOutputStream(new FileOutputStream(topicFile));
+                 final DocumentPrefetcher prefetcher = new DocumentPrefetcher(getTopicFiles(filename), PREFETCH_WINDOW, logger)) {
+                final TransformerHandler ts = stf.newTransformerHandler();
+                ts.getTransformer().setOutputProperty(OMIT_XML_DECLARATION, "yes");
+                ts.setResult(new StreamResult(topicOutput));
+                topicParser.setContentHandler(ts);
+                topicParser.setPrefetcher(prefetcher);
+
+                final TransformerHandler s = stf.newTransformerHandler();
+                s.getTransformer().setOutputProperty(OMIT_XML_DECLARATION, "yes");
+                s.setResult(new StreamResult(output));
+                setContentHandler(s);
+                reader.setErrorHandler(new DITAOTXMLErrorHandler(filename.getAbsolutePath(), logger));
+                topicParser.getContentHandler().startDocument();
+                logger.info("Processing " + filename.getAbsolutePath());
+                reader.parse(filename.toURI().toString());
+                topicParser.getContentHandler().endDocument();
+            } finally {
+                topicParser.setPrefetcher(null);
+            }
+            Files.copy(topicFile.toPath(), output);
         } catch (final RuntimeException e) {
             throw e;
         } catch (final Exception e) {
             logger.error(e.getMessage(), e) ;
+        } finally {
+            if (topicFile != null && !topicFile.delete()) {
+                logger.debug("Failed to delete " + topicFile.getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Collect topic files in the order they will be merged.
+     *
+     * @param filename map file
+     * @return existing topic files
+     */
+    private List<File> getTopicFiles(final File filename) throws IOException, SAXException {
+        final Set<File> res = new LinkedHashSet<>();
+        final XMLReader mapReader = XMLUtils.getXMLReader();
+        mapReader.setContentHandler(new DefaultHandler() {
+            @Override
+            public void startElement(final String uri, final String localName, final String qName, final Attributes atts) {
+                if (MAP_TOPICREF.matches(atts)) {
+                    URI href = toURI(atts.getValue(ATTRIBUTE_NAME_HREF));
+                    final String scopeValue = atts.getValue(ATTRIBUTE_NAME_SCOPE);
+                    final String formatValue = atts.getValue(ATTRIBUTE_NAME_FORMAT);
+                    if (href != null
+                            && (scopeValue == null || ATTR_SCOPE_VALUE_LOCAL.equals(scopeValue))
+                            && (formatValue == null || ATTR_FORMAT_VALUE_DITA.equals(formatValue))) {
+                        final URI copyToValue = toURI(atts.getValue(ATTRIBUTE_NAME_COPY_TO));
+                        if (copyToValue != null && !copyToValue.toString().isEmpty()) {
+                            href = copyToValue;
+                        }
+                        final URI target = stripFragment(dirPath.toURI().resolve(href));
+                        if ("file".equals(target.getScheme())) {
+                            res.add(new File(target));
+                        }
+                    }
+                }
+            }
+        });
+        mapReader.parse(filename.toURI().toString());
+        for (final FileInfo f: job.getFileInfo()) {
+            if (f.isTarget && !f.isResourceOnly) {
+                String element = f.file.getPath();
+                if (!dirPath.equals(tempdir)) {
+                    element = FileUtils.getRelativeUnixPath(new File(dirPath,"a.ditamap").getAbsolutePath(),
+                                                               new File(tempdir, element).getAbsolutePath());
+                }
+                res.add(new File(dirPath, element));
+            }
         }
+        return res.stream()
+                .filter(File::exists)
+                .collect(Collectors.toList());
     }
 
     @Override
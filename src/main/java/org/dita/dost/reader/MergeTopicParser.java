@@ -16,10 +16,12 @@ import static org.dita.dost.util.URLUtils.*;
 
 import java.io.File;
 import java.net.URI;
+import java.util.List;
 
 import org.dita.dost.exception.DITAOTXMLErrorHandler;
 import org.dita.dost.log.DITAOTLogger;
 import org.dita.dost.util.MergeUtils;
+import org.dita.dost.util.SaxCache.SaxEvent;
 import org.dita.dost.util.XMLUtils;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
@@ -45,6 +47,7 @@ public final class MergeTopicParser extends XMLFilterImpl {
     private final MergeUtils util;
     private DITAOTLogger logger;
     private File output;
+    private DocumentPrefetcher prefetcher;
     private final String GENERATED_DITA_ELEMENT_ID = "GENERATED-DITA-ID";
 
     /**
@@ -78,6 +81,15 @@ public final class MergeTopicParser extends XMLFilterImpl {
         this.output = output;
     }
 
+    /**
+     * Set prefetcher for parsed topics.
+     *
+     * @param prefetcher topic prefetcher, may be {@code null}
+     */
+    void setPrefetcher(final DocumentPrefetcher prefetcher) {
+        this.prefetcher = prefetcher;
+    }
+
     /**
      * Get ID of the first topic
      *
@@ -180,9 +192,18 @@ public final class MergeTopicParser extends XMLFilterImpl {
         dirPath = dir;
         try {
             final File f = new File(dir, filePath);
-            reader.setErrorHandler(new DITAOTXMLErrorHandler(f.getAbsolutePath(), logger));
             logger.info("Processing " + f.getAbsolutePath());
-            reader.parse(f.toURI().toString());
+            final List<SaxEvent> events = prefetcher != null ? prefetcher.take(f) : null;
+            if (events != null) {
+                startDocument();
+                for (final SaxEvent event : events) {
+                    event.write(this);
+                }
+                endDocument();
+            } else {
+                reader.setErrorHandler(new DITAOTXMLErrorHandler(f.getAbsolutePath(), logger));
+                reader.parse(f.toURI().toString());
+            }
         } catch (final RuntimeException e) {
             throw e;
         } catch (final Exception e) {
@@ -0,0 +1,289 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import org.xml.sax.*;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.LocatorImpl;
+
+import java.io.*;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Parser for binary SAX event format written by {@link BinaryXMLWriter}.
+ *
+ * @since 3.5
+ */
+public final class BinaryXMLReader implements XMLReader {
+
+    static final byte[] MAGIC = {0, 'D', 'B', 'X'};
+    static final int VERSION = 1;
+
+    static final int END_DOCUMENT = 0;
+    static final int START_PREFIX_MAPPING = 1;
+    static final int END_PREFIX_MAPPING = 2;
+    static final int START_ELEMENT = 3;
+    static final int END_ELEMENT = 4;
+    static final int CHARACTERS = 5;
+    static final int IGNORABLE_WHITESPACE = 6;
+    static final int PROCESSING_INSTRUCTION = 7;
+    static final int COMMENT = 8;
+
+    private static final String FEATURE_NAMESPACE_PREFIX = "http://xml.org/sax/features/namespace-prefixes";
+    private static final String PROPERTY_LEXICAL_HANDLER = "http://xml.org/sax/properties/lexical-handler";
+
+    private final Map<String, Boolean> features = new HashMap<>();
+    private final Map<String, Object> properties = new HashMap<>();
+    private ContentHandler contentHandler;
+    private DTDHandler dtdHandler;
+    private EntityResolver entityResolver;
+    private ErrorHandler errorHandler;
+
+    /**
+     * Test if input stream contains binary SAX events. Stream position is not changed.
+     *
+     * @param in input stream that supports mark and reset
+     * @return {@code true} if stream starts with binary format header, otherwise {@code false}
+     */
+    public static boolean isBinary(final InputStream in) throws IOException {
+        assert in.markSupported();
+        in.mark(MAGIC.length);
+        try {
+            final byte[] buf = new byte[MAGIC.length];
+            int read = 0;
+            while (read < buf.length) {
+                final int i = in.read(buf, read, buf.length - read);
+                if (i == -1) {
+                    return false;
+                }
+                read += i;
+            }
+            return Arrays.equals(buf, MAGIC);
+        } finally {
+            in.reset();
+        }
+    }
+
+    /**
+     * Test if file contains binary SAX events.
+     *
+     * @param file file to test
+     * @return {@code true} if file starts with binary format header, otherwise {@code false}
+     */
+    public static boolean isBinary(final File file) throws IOException {
+        if (!file.isFile()) {
+            return false;
+        }
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), MAGIC.length)) {
+            return isBinary(in);
+        }
+    }
+
+    @Override
+    public boolean getFeature(final String name) {
+        return features.getOrDefault(name, false);
+    }
+
+    @Override
+    public void setFeature(final String name, final boolean value) {
+        features.put(name, value);
+    }
+
+    @Override
+    public Object getProperty(final String name) {
+        return properties.get(name);
+    }
+
+    @Override
+    public void setProperty(final String name, final Object value) {
+        properties.put(name, value);
+    }
+
+    @Override
+    public void setEntityResolver(final EntityResolver resolver) {
+        this.entityResolver = resolver;
+    }
+
+    @Override
+    public EntityResolver getEntityResolver() {
+        return entityResolver;
+    }
+
+    @Override
+    public void setDTDHandler(final DTDHandler handler) {
+        this.dtdHandler = handler;
+    }
+
+    @Override
+    public DTDHandler getDTDHandler() {
+        return dtdHandler;
+    }
+
+    @Override
+    public void setContentHandler(final ContentHandler handler) {
+        this.contentHandler = handler;
+    }
+
+    @Override
+    public ContentHandler getContentHandler() {
+        return contentHandler;
+    }
+
+    @Override
+    public void setErrorHandler(final ErrorHandler handler) {
+        this.errorHandler = handler;
+    }
+
+    @Override
+    public ErrorHandler getErrorHandler() {
+        return errorHandler;
+    }
+
+    @Override
+    public void parse(final String systemId) throws IOException, SAXException {
+        parse(new InputSource(systemId));
+    }
+
+    @Override
+    public void parse(final InputSource input) throws IOException, SAXException {
+        final InputStream in = input.getByteStream() != null
+                ? input.getByteStream()
+                : new URL(input.getSystemId()).openStream();
+        try {
+            parse(new DataInputStream(new BufferedInputStream(in)), input);
+        } finally {
+            if (input.getByteStream() == null) {
+                in.close();
+            }
+        }
+    }
+
+    private void parse(final DataInputStream in, final InputSource input) throws IOException, SAXException {
+        final LocatorImpl locator = new LocatorImpl();
+        locator.setSystemId(input.getSystemId());
+        locator.setPublicId(input.getPublicId());
+        locator.setLineNumber(-1);
+        locator.setColumnNumber(-1);
+
+        final byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        final int version = in.readUnsignedByte();
+        if (!Arrays.equals(magic, MAGIC) || version != VERSION) {
+            throw new SAXParseException("Not a binary XML document", locator);
+        }
+
+        final ContentHandler handler = contentHandler;
+        final LexicalHandler lexicalHandler = (LexicalHandler) properties.get(PROPERTY_LEXICAL_HANDLER);
+        final boolean namespacePrefixes = getFeature(FEATURE_NAMESPACE_PREFIX);
+        final List<String> names = new ArrayList<>();
+        final Deque<String[]> elements = new ArrayDeque<>();
+        final AttributesImpl atts = new AttributesImpl();
+
+        handler.setDocumentLocator(locator);
+        handler.startDocument();
+        while (true) {
+            final int event = in.readUnsignedByte();
+            switch (event) {
+                case END_DOCUMENT:
+                    handler.endDocument();
+                    return;
+                case START_PREFIX_MAPPING:
+                    handler.startPrefixMapping(readName(in, names), readName(in, names));
+                    break;
+                case END_PREFIX_MAPPING:
+                    handler.endPrefixMapping(readName(in, names));
+                    break;
+                case START_ELEMENT: {
+                    final String[] name = {readName(in, names), readName(in, names), readName(in, names)};
+                    atts.clear();
+                    final int length = readInt(in);
+                    for (int i = 0; i < length; i++) {
+                        final String uri = readName(in, names);
+                        final String localName = readName(in, names);
+                        final String qName = readName(in, names);
+                        final String type = readName(in, names);
+                        final String value = readText(in);
+                        if (namespacePrefixes || !(qName.equals("xmlns") || qName.startsWith("xmlns:"))) {
+                            atts.addAttribute(uri, localName, qName, type, value);
+                        }
+                    }
+                    elements.push(name);
+                    handler.startElement(name[0], name[1], name[2], atts);
+                    break;
+                }
+                case END_ELEMENT: {
+                    final String[] name = elements.pop();
+                    handler.endElement(name[0], name[1], name[2]);
+                    break;
+                }
+                case CHARACTERS: {
+                    final char[] ch = readText(in).toCharArray();
+                    handler.characters(ch, 0, ch.length);
+                    break;
+                }
+                case IGNORABLE_WHITESPACE: {
+                    final char[] ch = readText(in).toCharArray();
+                    handler.ignorableWhitespace(ch, 0, ch.length);
+                    break;
+                }
+                case PROCESSING_INSTRUCTION:
+                    handler.processingInstruction(readName(in, names), readText(in));
+                    break;
+                case COMMENT: {
+                    final char[] ch = readText(in).toCharArray();
+                    if (lexicalHandler != null) {
+                        lexicalHandler.comment(ch, 0, ch.length);
+                    }
+                    break;
+                }
+                default:
+                    throw new SAXParseException("Unsupported binary XML event " + event, locator);
+            }
+        }
+    }
+
+    /** Read name table reference, adding the name to the table on first use. */
+    private static String readName(final DataInputStream in, final List<String> names) throws IOException {
+        final int index = readInt(in);
+        if (index < names.size()) {
+            return names.get(index);
+        }
+        final String name = readText(in);
+        names.add(name);
+        return name;
+    }
+
+    private static String readText(final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[readInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /** Read unsigned variable length integer. */
+    private static int readInt(final DataInputStream in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.LexicalHandler;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.dita.dost.util.BinaryXMLReader.*;
+
+/**
+ * Serializer for binary SAX event format used for intermediate temporary files.
+ *
+ * <p>Names, namespace URIs and prefixes are written once into a name table and later referenced by index. Character
+ * data is written as length-prefixed UTF-8. DTD, entity and CDATA section boundaries are not retained. The output
+ * stream is flushed at the end of the document, but not closed.</p>
+ *
+ * @see BinaryXMLReader
+ * @since 3.5
+ */
+public final class BinaryXMLWriter implements ContentHandler, LexicalHandler {
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> names = new HashMap<>();
+
+    /**
+     * Create new binary serializer.
+     *
+     * @param out output stream to write to
+     */
+    public BinaryXMLWriter(final OutputStream out) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+    }
+
+    @Override
+    public void setDocumentLocator(final Locator locator) {
+        // NOOP
+    }
+
+    @Override
+    public void startDocument() throws SAXException {
+        try {
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+        } catch (final IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        try {
+            out.writeByte(END_DOCUMENT);
+            out.flush();
+        } catch (final IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void startPrefixMapping(final String prefix, final String uri) throws SAXException {
+        try {
+            out.writeByte(START_PREFIX_MAPPING);
+            writeName(prefix);
+            writeName(uri);
+        } catch (final IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void endPrefixMapping(final String prefix) throws SAXException {
+        try {
+            out.writeByte(END_PREFIX_MAPPING);
+            writeName(prefix);
+        } catch (final IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void startElement(final String uri, final String localName, final String qName, final Attributes atts)
+            throws SAXException {
+        try {
+            out.writeByte(START_ELEMENT);
+            writeName(uri);
+            writeName(localName);
+            writeName(qName);
+            final int length = atts.getLength();
+            writeInt(length);
+            for (int i = 0; i < length; i++) {
+                writeName(atts.getURI(i));
+                writeName(atts.getLocalName(i));
+                writeName(atts.getQName(i));
+                writeName(atts.getType(i));
+                writeText(atts.getValue(i));
+            }
+        } catch (final IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+        try {
+            out.writeByte(END_ELEMENT);
+        } catch (final IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void characters(final char[] ch, final int start, final int length) throws SAXException {
+        try {
+            out.writeByte(CHARACTERS);
+            writeText(new String(ch, start, length));
+        } catch (final IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void ignorableWhitespace(final char[] ch, final int start, final int length) throws SAXException {
+        try {
+            out.writeByte(IGNORABLE_WHITESPACE);
+            writeText(new String(ch, start, length));
+        } catch (final IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void processingInstruction(final String target, final String data) throws SAXException {
+        try {
+            out.writeByte(PROCESSING_INSTRUCTION);
+            writeName(target);
+            writeText(data);
+        } catch (final IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void skippedEntity(final String name) throws SAXException {
+        // NOOP
+    }
+
+    @Override
+    public void comment(final char[] ch, final int start, final int length) throws SAXException {
+        try {
+            out.writeByte(COMMENT);
+            writeText(new String(ch, start, length));
+        } catch (final IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void startDTD(final String name, final String publicId, final String systemId) {
+        // NOOP
+    }
+
+    @Override
+    public void endDTD() {
+        // NOOP
+    }
+
+    @Override
+    public void startEntity(final String name) {
+        // NOOP
+    }
+
+    @Override
+    public void endEntity(final String name) {
+        // NOOP
+    }
+
+    @Override
+    public void startCDATA() {
+        // NOOP
+    }
+
+    @Override
+    public void endCDATA() {
+        // NOOP
+    }
+
+    /** Write name table reference, adding the name to the table on first use. */
+    private void writeName(final String name) throws IOException {
+        final String value = name != null ? name : "";
+        final Integer index = names.get(value);
+        if (index != null) {
+            writeInt(index);
+        } else {
+            final int next = names.size();
+            names.put(value, next);
+            writeInt(next);
+            writeText(value);
+        }
+    }
+
+    private void writeText(final String text) throws IOException {
+        final byte[] bytes = (text != null ? text : "").getBytes(UTF_8);
+        writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /** Write unsigned variable length integer. */
+    private void writeInt(final int value) throws IOException {
+        int v = value;
+        while ((v & ~0x7F) != 0) {
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.LexicalHandler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static javax.xml.XMLConstants.*;
+
+/**
+ * SAX handler that builds a DOM document with shared strings.
+ *
+ * <p>Large maps repeat the same attribute values and indentation on every element, e.g. {@code class} and
+ * {@code xtrf}. A DOM built by a parser holds a separate string for each occurrence; this builder shares equal
+ * attribute values and whitespace-only text nodes. Most of the retained size of a document is in the DOM nodes
+ * themselves, so sharing strings reduces it only moderately. The resulting document is a regular mutable DOM.
+ * Entity references are expanded and the document type declaration is not retained.</p>
+ *
+ * <p><strong>Not thread-safe.</strong></p>
+ *
+ * @since 3.5
+ */
+public final class CompactDOMBuilder implements ContentHandler, LexicalHandler {
+
+    /** Longest string that is shared. */
+    private static final int MAX_SHARED_LENGTH = 256;
+    /** Maximum number of distinct shared strings. */
+    private static final int MAX_SHARED_COUNT = 1 << 16;
+
+    private final Map<String, String> strings = new HashMap<>();
+    private final List<String[]> pendingMappings = new ArrayList<>();
+    private final StringBuilder text = new StringBuilder();
+    private Document document;
+    private Node current;
+    private boolean inCDATA;
+    private boolean inDTD;
+
+    /**
+     * Get built document.
+     *
+     * @return document, {@code null} if document has not been parsed
+     */
+    public Document getDocument() {
+        return document;
+    }
+
+    @Override
+    public void setDocumentLocator(final Locator locator) {
+        // NOOP
+    }
+
+    @Override
+    public void startDocument() throws SAXException {
+        document = XMLUtils.getDocumentBuilder().newDocument();
+        document.setStrictErrorChecking(false);
+        current = document;
+        strings.clear();
+        pendingMappings.clear();
+        text.setLength(0);
+        inCDATA = false;
+        inDTD = false;
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        flushText();
+        document.setStrictErrorChecking(true);
+        strings.clear();
+        current = null;
+    }
+
+    @Override
+    public void startPrefixMapping(final String prefix, final String uri) throws SAXException {
+        pendingMappings.add(new String[] {prefix, uri});
+    }
+
+    @Override
+    public void endPrefixMapping(final String prefix) throws SAXException {
+        // NOOP
+    }
+
+    @Override
+    public void startElement(final String uri, final String localName, final String qName, final Attributes atts)
+            throws SAXException {
+        flushText();
+        final Element elem = document.createElementNS(uri.isEmpty() ? null : uri, qName);
+        for (final String[] mapping : pendingMappings) {
+            final String prefix = mapping[0];
+            final String name = prefix.isEmpty() ? XMLNS_ATTRIBUTE : (XMLNS_ATTRIBUTE + ":" + prefix);
+            elem.setAttributeNS(XMLNS_ATTRIBUTE_NS_URI, name, share(mapping[1]));
+        }
+        pendingMappings.clear();
+        for (int i = 0; i < atts.getLength(); i++) {
+            final String attQName = atts.getQName(i);
+            if (attQName.equals(XMLNS_ATTRIBUTE) || attQName.startsWith(XMLNS_ATTRIBUTE + ":")) {
+                continue;
+            }
+            final String attUri = atts.getURI(i);
+            elem.setAttributeNS(attUri.isEmpty() ? null : attUri, attQName, share(atts.getValue(i)));
+        }
+        current.appendChild(elem);
+        current = elem;
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+        flushText();
+        current = current.getParentNode();
+    }
+
+    @Override
+    public void characters(final char[] ch, final int start, final int length) throws SAXException {
+        text.append(ch, start, length);
+    }
+
+    @Override
+    public void ignorableWhitespace(final char[] ch, final int start, final int length) throws SAXException {
+        text.append(ch, start, length);
+    }
+
+    @Override
+    public void processingInstruction(final String target, final String data) throws SAXException {
+        flushText();
+        current.appendChild(document.createProcessingInstruction(target, data != null ? data : ""));
+    }
+
+    @Override
+    public void skippedEntity(final String name) throws SAXException {
+        // NOOP
+    }
+
+    // LexicalHandler methods
+
+    @Override
+    public void startDTD(final String name, final String publicId, final String systemId) throws SAXException {
+        inDTD = true;
+    }
+
+    @Override
+    public void endDTD() throws SAXException {
+        inDTD = false;
+    }
+
+    @Override
+    public void startEntity(final String name) throws SAXException {
+        // NOOP
+    }
+
+    @Override
+    public void endEntity(final String name) throws SAXException {
+        // NOOP
+    }
+
+    @Override
+    public void startCDATA() throws SAXException {
+        flushText();
+        inCDATA = true;
+    }
+
+    @Override
+    public void endCDATA() throws SAXException {
+        current.appendChild(document.createCDATASection(text.toString()));
+        text.setLength(0);
+        inCDATA = false;
+    }
+
+    @Override
+    public void comment(final char[] ch, final int start, final int length) throws SAXException {
+        if (inDTD) {
+            return;
+        }
+        flushText();
+        current.appendChild(document.createComment(new String(ch, start, length)));
+    }
+
+    // Private methods
+
+    private void flushText() {
+        if (text.length() == 0 || inCDATA) {
+            return;
+        }
+        final String value = text.toString();
+        text.setLength(0);
+        if (current == document) {
+            return;
+        }
+        current.appendChild(document.createTextNode(isWhitespace(value) ? share(value) : value));
+    }
+
+    private static boolean isWhitespace(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c != ' ' && c != '\n' && c != '\t' && c != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get shared instance of string.
+     */
+    private String share(final String value) {
+        if (value.length() > MAX_SHARED_LENGTH) {
+            return value;
+        }
+        final String shared = strings.get(value);
+        if (shared != null) {
+            return shared;
+        }
+        if (strings.size() < MAX_SHARED_COUNT) {
+            strings.put(value, value);
+        }
+        return value;
+    }
+}
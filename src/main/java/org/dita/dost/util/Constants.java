@@ -916,6 +916,13 @@ public final class Constants {
     public static final String ANT_INVOKER_EXT_PARAN_FORCE_UNIQUE = "force-unique";
     public static final String ANT_INVOKER_EXT_PARAM_GENERATE_DEBUG_ATTR = "generate-debug-attributes";
     public static final String ANT_INVOKER_EXT_PARAM_PROCESSING_MODE = "processing-mode";
+    /**
+     * Temporary file format, either {@value #TEMP_FILE_FORMAT_XML} or {@value #TEMP_FILE_FORMAT_BINARY}. Binary
+     * temporary files do not retain the document type declaration or CDATA sections.
+     */
+    public static final String ANT_INVOKER_EXT_PARAM_TEMP_FILE_FORMAT = "temp-file-format";
+    public static final String TEMP_FILE_FORMAT_XML = "xml";
+    public static final String TEMP_FILE_FORMAT_BINARY = "binary";
     /**Constants for line separator.*/
     public static final String LINE_SEPARATOR = System.getProperty("line.separator");
 
@@ -1109,6 +1116,12 @@ public final class Constants {
     public static final String ANT_REFERENCE_JOB = "job";
     /** Temporary directory Ant property name. */
     public static final String ANT_TEMP_DIR = "dita.temp.dir";
+    /** Project reference name for metrics collector object. */
+    public static final String ANT_REFERENCE_METRICS = "metrics";
+    /** Metrics output file Ant property name. */
+    public static final String ANT_METRICS_FILE = "dita.metrics.file";
+    /** Trace output file Ant property name. */
+    public static final String ANT_TRACE_FILE = "dita.trace.file";
 
     /** OASIS catalog file namespace. */
     public static final String OASIS_CATALOG_NAMESPACE = "urn:oasis:names:tc:entity:xmlns:xml:catalog";
@@ -82,6 +82,12 @@ public final class DelayConrefUtils {
         if (!absolutePathToFile.exists()) {
             return false;
         }
+        if (job != null) {
+            final Boolean found = job.getElementIdIndex().hasTopicId(absolutePathToFile.toURI(), id);
+            if (found != null) {
+                return found;
+            }
+        }
         try {
             //load the file
             final DocumentBuilder builder = XMLUtils.getDocumentBuilder();
@@ -251,7 +257,7 @@ public final class DelayConrefUtils {
             entry.setAttribute("key", key);
             entry.appendChild(doc.createTextNode(prop.getProperty(key)));
         }
-        final TransformerFactory tf = TransformerFactory.newInstance();
+        final TransformerFactory tf = XMLUtils.getTransformerFactory();
         Transformer t;
         try {
             t = withLogger(tf.newTransformer(), logger);
@@ -0,0 +1,239 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import org.xml.sax.*;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * XML reader that parses both XML and binary SAX event documents. Binary documents are detected from the file header
+ * and parsed with {@link BinaryXMLReader}, all other input is passed to the wrapped XML parser.
+ *
+ * <p>Only byte streams and {@code file} scheme system IDs are inspected. Readers created by {@link XMLUtils} only
+ * inspect files in temporary directories of jobs that use the binary temporary file format, other documents are
+ * passed to the XML parser without reading the header.</p>
+ *
+ * @since 3.5
+ */
+public final class DetectingXMLReader implements XMLReader {
+
+    @FunctionalInterface
+    interface Parser<T> {
+        T parse(InputSource input) throws IOException, SAXException;
+    }
+
+    /** URI paths of job temporary directories that use the binary format, with a trailing slash. */
+    private static final Set<String> binaryDirectories = ConcurrentHashMap.newKeySet();
+
+    private final XMLReader reader;
+    private final BinaryXMLReader binaryReader = new BinaryXMLReader();
+    private final boolean scoped;
+
+    /**
+     * Create new reader that uses the default XML parser and only inspects files in temporary directories of jobs
+     * that use the binary format. Used when configured as Saxon source parser.
+     */
+    public DetectingXMLReader() throws SAXException {
+        this(XMLUtils.newXMLReader(), true);
+    }
+
+    /**
+     * Create new reader that inspects all input.
+     *
+     * @param reader XML parser to use for XML documents
+     */
+    public DetectingXMLReader(final XMLReader reader) {
+        this(reader, false);
+    }
+
+    /**
+     * Create new reader.
+     *
+     * @param reader XML parser to use for XML documents
+     * @param scoped only inspect files in temporary directories of jobs that use the binary format
+     */
+    DetectingXMLReader(final XMLReader reader, final boolean scoped) {
+        this.reader = reader;
+        this.scoped = scoped;
+    }
+
+    /**
+     * Set whether a job temporary directory contains binary SAX event documents.
+     *
+     * @param tempDir absolute temporary directory URI
+     * @param binary temporary directory uses the binary format
+     */
+    static void setBinaryDirectory(final URI tempDir, final boolean binary) {
+        final String path = tempDir.getPath();
+        if (path == null) {
+            return;
+        }
+        final String dir = path.endsWith("/") ? path : path + "/";
+        if (binary) {
+            binaryDirectories.add(dir);
+        } else {
+            binaryDirectories.remove(dir);
+        }
+    }
+
+    /**
+     * Test whether document is in the temporary directory of a job that uses the binary format.
+     *
+     * @param systemId document system ID, may be {@code null}
+     * @return {@code true} if the document may be a binary SAX event document, otherwise {@code false}
+     */
+    static boolean isBinaryDirectory(final String systemId) {
+        if (binaryDirectories.isEmpty() || systemId == null || !systemId.startsWith("file:")) {
+            return false;
+        }
+        final String path;
+        try {
+            path = new URI(systemId).getPath();
+        } catch (final URISyntaxException e) {
+            return false;
+        }
+        if (path == null) {
+            return false;
+        }
+        for (final String dir : binaryDirectories) {
+            if (path.startsWith(dir)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parse input with XML or binary parser.
+     *
+     * @param input input source
+     * @param scoped only inspect files in temporary directories of jobs that use the binary format
+     * @param xml XML document parser
+     * @param binary binary document parser
+     * @return parse result
+     */
+    static <T> T parse(final InputSource input, final boolean scoped, final Parser<T> xml, final Parser<T> binary)
+            throws IOException, SAXException {
+        if (input.getCharacterStream() != null || (scoped && !isBinaryDirectory(input.getSystemId()))) {
+            return xml.parse(input);
+        }
+        InputStream in = input.getByteStream();
+        final boolean open = in == null;
+        if (open) {
+            final String systemId = input.getSystemId();
+            if (systemId == null || !systemId.startsWith("file:")) {
+                return xml.parse(input);
+            }
+            in = new URL(systemId).openStream();
+        }
+        try {
+            final InputStream buf = in.markSupported() ? in : new BufferedInputStream(in);
+            final InputSource src = new InputSource(buf);
+            src.setSystemId(input.getSystemId());
+            src.setPublicId(input.getPublicId());
+            src.setEncoding(input.getEncoding());
+            return BinaryXMLReader.isBinary(buf) ? binary.parse(src) : xml.parse(src);
+        } finally {
+            if (open) {
+                in.close();
+            }
+        }
+    }
+
+    @Override
+    public void parse(final InputSource input) throws IOException, SAXException {
+        parse(input, scoped,
+                src -> {
+                    reader.parse(src);
+                    return null;
+                },
+                src -> {
+                    binaryReader.parse(src);
+                    return null;
+                });
+    }
+
+    @Override
+    public void parse(final String systemId) throws IOException, SAXException {
+        parse(new InputSource(systemId));
+    }
+
+    @Override
+    public boolean getFeature(final String name) throws SAXNotRecognizedException, SAXNotSupportedException {
+        return reader.getFeature(name);
+    }
+
+    @Override
+    public void setFeature(final String name, final boolean value) throws SAXNotRecognizedException, SAXNotSupportedException {
+        reader.setFeature(name, value);
+        binaryReader.setFeature(name, value);
+    }
+
+    @Override
+    public Object getProperty(final String name) throws SAXNotRecognizedException, SAXNotSupportedException {
+        return reader.getProperty(name);
+    }
+
+    @Override
+    public void setProperty(final String name, final Object value) throws SAXNotRecognizedException, SAXNotSupportedException {
+        reader.setProperty(name, value);
+        binaryReader.setProperty(name, value);
+    }
+
+    @Override
+    public void setEntityResolver(final EntityResolver resolver) {
+        reader.setEntityResolver(resolver);
+        binaryReader.setEntityResolver(resolver);
+    }
+
+    @Override
+    public EntityResolver getEntityResolver() {
+        return reader.getEntityResolver();
+    }
+
+    @Override
+    public void setDTDHandler(final DTDHandler handler) {
+        reader.setDTDHandler(handler);
+        binaryReader.setDTDHandler(handler);
+    }
+
+    @Override
+    public DTDHandler getDTDHandler() {
+        return reader.getDTDHandler();
+    }
+
+    @Override
+    public void setContentHandler(final ContentHandler handler) {
+        reader.setContentHandler(handler);
+        binaryReader.setContentHandler(handler);
+    }
+
+    @Override
+    public ContentHandler getContentHandler() {
+        return reader.getContentHandler();
+    }
+
+    @Override
+    public void setErrorHandler(final ErrorHandler handler) {
+        reader.setErrorHandler(handler);
+        binaryReader.setErrorHandler(handler);
+    }
+
+    @Override
+    public ErrorHandler getErrorHandler() {
+        return reader.getErrorHandler();
+    }
+}
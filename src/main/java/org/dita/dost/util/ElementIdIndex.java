@@ -0,0 +1,298 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import javax.xml.stream.*;
+import java.io.*;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.dita.dost.util.Constants.TOPIC_TOPIC;
+import static org.dita.dost.util.URLUtils.toURI;
+
+/**
+ * Index of element IDs in temporary files.
+ *
+ * <p>The index is collected when source files are parsed into the temporary directory and stores for each file
+ * the elements with an ID in document order, their class and the ID of the closest ancestor topic. Entries are
+ * stamped the same way as {@link MapDocumentCache} entries, with the size and modification time of the temporary
+ * file and a checksum of its contents while the modification time is recent. Lookups for files that have been
+ * rewritten after indexing return {@code null} so that callers can fall back to parsing the file.</p>
+ *
+ * @since 3.5
+ */
+public final class ElementIdIndex {
+
+    private static final String ELEMENT_INDEX = "ids";
+    private static final String ELEMENT_FILE = "file";
+    private static final String ELEMENT_ELEMENT = "element";
+    private static final String ATTRIBUTE_URI = "uri";
+    private static final String ATTRIBUTE_LAST_MODIFIED = "last-modified";
+    private static final String ATTRIBUTE_LENGTH = "length";
+    private static final String ATTRIBUTE_CHECKSUM = "checksum";
+    private static final String ATTRIBUTE_ID = "id";
+    private static final String ATTRIBUTE_CLASS = "class";
+    private static final String ATTRIBUTE_TOPIC = "topic";
+
+    private final URI tempDirURI;
+    private final Map<URI, Entries> files = new ConcurrentHashMap<>();
+    private volatile boolean modified;
+
+    /**
+     * Create new empty index.
+     *
+     * @param tempDir temporary directory
+     */
+    public ElementIdIndex(final File tempDir) {
+        this.tempDirURI = tempDir.getAbsoluteFile().toURI();
+    }
+
+    /**
+     * Element with an ID.
+     */
+    public static final class Element {
+        /** Element ID. */
+        public final String id;
+        /** Element class, may be {@code null}. */
+        public final String cls;
+        /** ID of the closest ancestor topic, {@code null} if not within a topic. */
+        public final String topic;
+
+        public Element(final String id, final String cls, final String topic) {
+            this.id = id;
+            this.cls = cls;
+            this.topic = topic;
+        }
+
+        /**
+         * Test if element is a topic.
+         *
+         * @return {@code true} if element is a topic, otherwise {@code false}
+         */
+        public boolean isTopic() {
+            return cls != null && TOPIC_TOPIC.matches(cls);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Element element = (Element) o;
+            return Objects.equals(id, element.id) &&
+                    Objects.equals(cls, element.cls) &&
+                    Objects.equals(topic, element.topic);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, cls, topic);
+        }
+
+        @Override
+        public String toString() {
+            return "Element{id='" + id + "', cls='" + cls + "', topic='" + topic + "'}";
+        }
+    }
+
+    private static final class Entries {
+        final FileStamp stamp;
+        final List<Element> elements;
+
+        Entries(final FileStamp stamp, final List<Element> elements) {
+            this.stamp = stamp;
+            this.elements = elements;
+        }
+    }
+
+    /**
+     * Add or replace entries for a temporary file. The file must already be written.
+     *
+     * @param file file URI, relative to temporary directory or absolute
+     * @param elements elements with an ID in document order
+     */
+    public void put(final URI file, final List<Element> elements) {
+        final URI rel = relativize(file);
+        final FileStamp stamp = FileStamp.of(new File(tempDirURI.resolve(rel)));
+        if (stamp != null) {
+            files.put(rel, new Entries(stamp, Collections.unmodifiableList(new ArrayList<>(elements))));
+        } else {
+            files.remove(rel);
+        }
+        modified = true;
+    }
+
+    /**
+     * Get elements with an ID in a temporary file.
+     *
+     * @param file file URI, relative to temporary directory or absolute
+     * @return elements in document order, {@code null} if file has not been indexed or has changed after indexing
+     */
+    public List<Element> get(final URI file) {
+        final URI rel = relativize(file);
+        final Entries entries = files.get(rel);
+        if (entries == null) {
+            return null;
+        }
+        final FileStamp stamp = entries.stamp.check(new File(tempDirURI.resolve(rel)));
+        if (stamp == null) {
+            return null;
+        }
+        if (stamp != entries.stamp && files.replace(rel, entries, new Entries(stamp, entries.elements))) {
+            modified = true;
+        }
+        return entries.elements;
+    }
+
+    /**
+     * Get the first ID in a temporary file.
+     *
+     * @param file file URI, relative to temporary directory or absolute
+     * @return first ID, empty string if file has no IDs, or {@code null} if file is not indexed
+     */
+    public String getFirstId(final URI file) {
+        final List<Element> elements = get(file);
+        if (elements == null) {
+            return null;
+        }
+        return elements.isEmpty() ? "" : elements.get(0).id;
+    }
+
+    /**
+     * Test if a temporary file contains a topic with the given ID.
+     *
+     * @param file file URI, relative to temporary directory or absolute
+     * @param id topic ID
+     * @return {@code true} or {@code false} if known, {@code null} if file is not indexed
+     */
+    public Boolean hasTopicId(final URI file, final String id) {
+        final List<Element> elements = get(file);
+        if (elements == null) {
+            return null;
+        }
+        for (final Element element : elements) {
+            if (element.isTopic() && element.id.equals(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Test if index has changes that have not been written.
+     *
+     * @return {@code true} if index has been modified after it was read or written
+     */
+    public boolean isModified() {
+        return modified;
+    }
+
+    private URI relativize(final URI file) {
+        final URI uri = file.normalize();
+        return uri.isAbsolute() ? tempDirURI.relativize(uri) : uri;
+    }
+
+    /**
+     * Read index from file.
+     *
+     * @param file index file
+     * @param tempDir temporary directory
+     * @return index read from file
+     * @throws IOException if reading failed
+     */
+    public static ElementIdIndex read(final File file, final File tempDir) throws IOException {
+        final ElementIdIndex index = new ElementIdIndex(tempDir);
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            final XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+            try {
+                URI uri = null;
+                long lastModified = 0L;
+                long length = 0L;
+                long checksum = FileStamp.NO_CHECKSUM;
+                List<Element> elements = null;
+                while (reader.hasNext()) {
+                    switch (reader.next()) {
+                        case XMLStreamConstants.START_ELEMENT:
+                            if (ELEMENT_FILE.equals(reader.getLocalName())) {
+                                uri = toURI(reader.getAttributeValue(null, ATTRIBUTE_URI));
+                                lastModified = Long.parseLong(reader.getAttributeValue(null, ATTRIBUTE_LAST_MODIFIED));
+                                length = Long.parseLong(reader.getAttributeValue(null, ATTRIBUTE_LENGTH));
+                                final String crc = reader.getAttributeValue(null, ATTRIBUTE_CHECKSUM);
+                                checksum = crc != null ? Long.parseLong(crc) : FileStamp.NO_CHECKSUM;
+                                elements = new ArrayList<>();
+                            } else if (ELEMENT_ELEMENT.equals(reader.getLocalName()) && elements != null) {
+                                elements.add(new Element(reader.getAttributeValue(null, ATTRIBUTE_ID),
+                                        reader.getAttributeValue(null, ATTRIBUTE_CLASS),
+                                        reader.getAttributeValue(null, ATTRIBUTE_TOPIC)));
+                            }
+                            break;
+                        case XMLStreamConstants.END_ELEMENT:
+                            if (ELEMENT_FILE.equals(reader.getLocalName()) && uri != null) {
+                                index.files.put(uri, new Entries(new FileStamp(lastModified, length, checksum),
+                                        Collections.unmodifiableList(elements)));
+                                uri = null;
+                                elements = null;
+                            }
+                            break;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException | NumberFormatException e) {
+            throw new IOException("Failed to read element ID index " + file + ": " + e.getMessage(), e);
+        }
+        return index;
+    }
+
+    /**
+     * Write index to file.
+     *
+     * @param file index file
+     * @throws IOException if writing failed
+     */
+    public void write(final File file) throws IOException {
+        try (OutputStream outStream = new BufferedOutputStream(new FileOutputStream(file))) {
+            final XMLStreamWriter out = XMLOutputFactory.newInstance().createXMLStreamWriter(outStream, "UTF-8");
+            out.writeStartDocument();
+            out.writeStartElement(ELEMENT_INDEX);
+            final Map<URI, Entries> sorted = new TreeMap<>(files);
+            for (final Map.Entry<URI, Entries> e : sorted.entrySet()) {
+                out.writeStartElement(ELEMENT_FILE);
+                out.writeAttribute(ATTRIBUTE_URI, e.getKey().toString());
+                final FileStamp stamp = e.getValue().stamp;
+                out.writeAttribute(ATTRIBUTE_LAST_MODIFIED, Long.toString(stamp.lastModified));
+                out.writeAttribute(ATTRIBUTE_LENGTH, Long.toString(stamp.length));
+                if (stamp.checksum != FileStamp.NO_CHECKSUM) {
+                    out.writeAttribute(ATTRIBUTE_CHECKSUM, Long.toString(stamp.checksum));
+                }
+                for (final Element element : e.getValue().elements) {
+                    out.writeEmptyElement(ELEMENT_ELEMENT);
+                    out.writeAttribute(ATTRIBUTE_ID, element.id);
+                    if (element.cls != null) {
+                        out.writeAttribute(ATTRIBUTE_CLASS, element.cls);
+                    }
+                    if (element.topic != null) {
+                        out.writeAttribute(ATTRIBUTE_TOPIC, element.topic);
+                    }
+                }
+                out.writeEndElement(); //file
+            }
+            out.writeEndElement(); //ids
+            out.writeEndDocument();
+            out.close();
+        } catch (final XMLStreamException e) {
+            throw new IOException("Failed to write element ID index " + file + ": " + e.getMessage(), e);
+        }
+        modified = false;
+    }
+}
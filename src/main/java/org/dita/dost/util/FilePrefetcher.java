@@ -0,0 +1,136 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import org.dita.dost.log.DITAOTLogger;
+import org.xml.sax.InputSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Reads files ahead of parsing into memory buffers on a small I/O thread pool.
+ *
+ * <p>Reading source files from a high latency file system, e.g. a network mount, blocks the parsing thread on every
+ * file. The prefetcher reads the files that are expected to be parsed next in the background, so that reading
+ * overlaps with parsing even when files are parsed one at a time. Files are expected to be taken in the order they
+ * were requested, and at most a fixed number of files is read ahead at a time. Only {@code file} URIs are
+ * prefetched, and files that cannot be read or are too large are left for the parser to read.</p>
+ *
+ * <p><strong>Not thread-safe.</strong></p>
+ *
+ * @since 3.5
+ */
+public final class FilePrefetcher implements AutoCloseable {
+
+    /** Largest file that is read into memory. */
+    private static final long MAX_FILE_SIZE = 4 * 1024 * 1024;
+    /** Maximum number of I/O threads. */
+    private static final int MAX_THREADS = 4;
+
+    private final int window;
+    private final DITAOTLogger logger;
+    private final ExecutorService executor;
+    /** Files read ahead in request order. Values are file contents, or {@code null} if not read. */
+    private final Map<URI, CompletableFuture<byte[]>> queue = new LinkedHashMap<>();
+
+    /**
+     * Create new prefetcher.
+     *
+     * @param window maximum number of files to read ahead
+     * @param logger logger
+     */
+    public FilePrefetcher(final int window, final DITAOTLogger logger) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Window must be positive: " + window);
+        }
+        this.window = window;
+        this.logger = logger;
+        this.executor = Executors.newFixedThreadPool(Math.min(window, MAX_THREADS), r -> {
+            final Thread thread = new Thread(r, "dita-ot-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Request files to be read ahead. Only the files within the read ahead window from the start of the upcoming
+     * files are read; files that have already been requested are not read again.
+     *
+     * @param upcoming absolute file URIs in expected read order
+     */
+    public void prefetch(final Iterable<URI> upcoming) {
+        final Iterator<URI> files = upcoming.iterator();
+        for (int i = 0; i < window && files.hasNext() && queue.size() < window; i++) {
+            final URI file = files.next();
+            if (!queue.containsKey(file) && "file".equals(file.getScheme())) {
+                queue.put(file, CompletableFuture.supplyAsync(() -> read(file), executor));
+            }
+        }
+    }
+
+    /**
+     * Take input source for file. Files requested before the requested file are discarded.
+     *
+     * @param file absolute file URI
+     * @return input source with the contents of the file, {@code null} if file has not been read ahead
+     */
+    public InputSource take(final URI file) {
+        if (!queue.containsKey(file)) {
+            return null;
+        }
+        final Iterator<Map.Entry<URI, CompletableFuture<byte[]>>> it = queue.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<URI, CompletableFuture<byte[]>> head = it.next();
+            it.remove();
+            if (head.getKey().equals(file)) {
+                final byte[] content = head.getValue().join();
+                if (content == null) {
+                    return null;
+                }
+                final InputSource in = new InputSource(new ByteArrayInputStream(content));
+                in.setSystemId(file.toString());
+                return in;
+            }
+            head.getValue().cancel(false);
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        for (final CompletableFuture<byte[]> f : queue.values()) {
+            f.cancel(false);
+        }
+        queue.clear();
+        executor.shutdownNow();
+    }
+
+    private byte[] read(final URI file) {
+        try {
+            final Path path = new File(file).toPath();
+            if (Files.size(path) > MAX_FILE_SIZE) {
+                return null;
+            }
+            return Files.readAllBytes(path);
+        } catch (final IOException | IllegalArgumentException e) {
+            logger.debug("Failed to read ahead " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
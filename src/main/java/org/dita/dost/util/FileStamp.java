@@ -0,0 +1,141 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Version stamp of a temporary file, used to detect if the file has been rewritten after something derived from it
+ * was cached.
+ *
+ * <p>File modification time may have a resolution of one or two seconds, so a rewrite with the same size soon after
+ * the file was stamped cannot be detected from file attributes alone. A stamp taken within {@link #RACY_WINDOW} of
+ * the file modification time also records a checksum of the file contents, and the checksum is compared when the
+ * stamp is checked. Once the window has passed, any rewrite will change the modification time, and the checksum is
+ * no longer needed.</p>
+ *
+ * @since 3.5
+ */
+final class FileStamp {
+
+    /** Coarsest supported file modification time resolution in milliseconds. */
+    static final long RACY_WINDOW = 2000L;
+    /** Checksum value of a stamp that doesn't record a checksum. */
+    static final long NO_CHECKSUM = -1L;
+
+    final long lastModified;
+    final long length;
+    /** CRC-32 of file contents, {@link #NO_CHECKSUM} if the stamp is not racy. */
+    final long checksum;
+
+    FileStamp(final long lastModified, final long length, final long checksum) {
+        this.lastModified = lastModified;
+        this.length = length;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Read version stamp of file.
+     *
+     * @param file file to stamp
+     * @return version stamp, {@code null} if file cannot be read or was modified while stamping
+     */
+    static FileStamp of(final File file) {
+        try {
+            final BasicFileAttributes attrs = readAttributes(file);
+            final long lastModified = attrs.lastModifiedTime().toMillis();
+            if (!isRacy(lastModified)) {
+                return new FileStamp(lastModified, attrs.size(), NO_CHECKSUM);
+            }
+            final long checksum = checksum(file);
+            final BasicFileAttributes after = readAttributes(file);
+            if (after.lastModifiedTime().toMillis() != lastModified || after.size() != attrs.size()) {
+                return null;
+            }
+            return new FileStamp(lastModified, attrs.size(), checksum);
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Check if file is unchanged after it was stamped.
+     *
+     * @param file stamped file
+     * @return stamp for the unchanged file, either this stamp or a stamp that no longer needs a checksum;
+     *         {@code null} if the file has changed or cannot be read
+     */
+    FileStamp check(final File file) {
+        final BasicFileAttributes attrs;
+        try {
+            attrs = readAttributes(file);
+        } catch (final IOException e) {
+            return null;
+        }
+        if (attrs.lastModifiedTime().toMillis() != lastModified || attrs.size() != length) {
+            return null;
+        }
+        if (checksum == NO_CHECKSUM) {
+            return this;
+        }
+        try {
+            if (checksum(file) != checksum) {
+                return null;
+            }
+        } catch (final IOException e) {
+            return null;
+        }
+        return isRacy(lastModified) ? this : new FileStamp(lastModified, length, NO_CHECKSUM);
+    }
+
+    private static boolean isRacy(final long lastModified) {
+        final long age = System.currentTimeMillis() - lastModified;
+        return age < RACY_WINDOW;
+    }
+
+    private static BasicFileAttributes readAttributes(final File file) throws IOException {
+        return Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+    }
+
+    private static long checksum(final File file) throws IOException {
+        final CRC32 crc = new CRC32();
+        final byte[] buf = new byte[8192];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int len;
+            while ((len = in.read(buf)) != -1) {
+                crc.update(buf, 0, len);
+            }
+        }
+        return crc.getValue();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final FileStamp stamp = (FileStamp) o;
+        return lastModified == stamp.lastModified
+                && length == stamp.length
+                && checksum == stamp.checksum;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lastModified, length, checksum);
+    }
+}
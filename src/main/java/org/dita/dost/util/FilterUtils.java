@@ -16,6 +16,7 @@ import static org.dita.dost.util.Constants.*;
 import java.io.IOException;
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -55,7 +56,7 @@ public final class FilterUtils {
     /** Actions for filter keys. */
     private final Map<FilterKey, Action> filterMap;
     /** Set of filter keys for which an error has already been thrown. */
-    private final Set<FilterKey> notMappingRules = new HashSet<>();
+    private final Set<FilterKey> notMappingRules = ConcurrentHashMap.newKeySet();
     private boolean logMissingAction;
     private final String foregroundConflictColor;
     private final String backgroundConflictColor;
@@ -125,6 +126,17 @@ public final class FilterUtils {
         return filterMap.toString();
     }
 
+    /**
+     * Get configured profiling and flagging attributes.
+     *
+     * @return attributes that may exclude or flag an element
+     * @since 3.5
+     */
+    public static Set<QName> getProfilingAttributes() {
+        return Sets.union(getProfileAttributes(Configuration.configuration.get("filter-attributes")),
+                getFlaggingAttributes(Configuration.configuration.get("flag-attributes")));
+    }
+
     private static Set<QName> getProfileAttributes(final String conf) {
         final ImmutableSet.Builder<QName> res = ImmutableSet.<QName>builder()
                 .add(QName.valueOf(ATTRIBUTE_NAME_AUDIENCE),
@@ -480,11 +492,7 @@ public final class FilterUtils {
     }
 
     private boolean alreadyShowed(final FilterKey notMappingKey) {
-        if (!notMappingRules.contains(notMappingKey)) {
-            notMappingRules.add(notMappingKey);
-            return false;
-        }
-        return true;
+        return !notMappingRules.add(notMappingKey);
     }
 
     /**
@@ -835,7 +843,7 @@ public final class FilterUtils {
         }
 
         private static Element writeToElement(final Consumer<ContentHandler> writer) {
-            final TransformerFactory factory = TransformerFactory.newInstance();
+            final TransformerFactory factory = XMLUtils.getTransformerFactory();
             final Transformer transformer;
             try {
                 transformer = factory.newTransformer();
@@ -72,6 +72,12 @@ public final class Job {
     private static final String ATTRIBUTE_HAS_CONREF = "has-conref";
     private static final String ATTRIBUTE_HAS_KEYREF = "has-keyref";
     private static final String ATTRIBUTE_HAS_CODEREF = "has-coderef";
+    private static final String ATTRIBUTE_CONTENT_FLAGS = "content-flags";
+    private static final String ATTRIBUTE_HAS_PROFILING = "has-profiling";
+    private static final String ATTRIBUTE_HAS_FRAGMENT_LINK = "has-fragment-link";
+    private static final String ATTRIBUTE_HAS_INDEXTERM = "has-indexterm";
+    private static final String ATTRIBUTE_HAS_TABLE = "has-table";
+    private static final String ATTRIBUTE_HAS_CODEBLOCK = "has-codeblock";
     private static final String ATTRIBUTE_RESOURCE_ONLY = "resource-only";
     private static final String ATTRIBUTE_TARGET = "target";
     private static final String ATTRIBUTE_CONREF_TARGET = "conref-target";
@@ -89,6 +95,7 @@ public final class Job {
     private static final String PROPERTY_ONLY_TOPIC_IN_MAP = ANT_INVOKER_EXT_PARAM_ONLYTOPICINMAP;
     private static final String PROPERTY_LINK_CRAWLER = ANT_INVOKER_EXT_PARAM_CRAWL;
     private static final String PROPERTY_GENERATE_COPY_OUTER = ANT_INVOKER_EXT_PARAM_GENERATECOPYOUTTER;
+    private static final String PROPERTY_TEMP_FILE_FORMAT = ANT_INVOKER_EXT_PARAM_TEMP_FILE_FORMAT;
     private static final String PROPERTY_OUTPUT_DIR = ANT_INVOKER_EXT_PARAM_OUTPUTDIR;
     /** Deprecated since 2.2 */
     @Deprecated
@@ -101,6 +108,8 @@ public final class Job {
     public static final String SUBJECT_SCHEME_KEYDEF_LIST_FILE = "schemekeydef.xml";
     /** File name for temporary input file list file */
     public static final String USER_INPUT_FILE_LIST_FILE = "usr.input.file.list";
+    /** File name for element ID index file */
+    public static final String ELEMENT_ID_INDEX_FILE = "element-ids.xml";
 
     /** Map of serialization attributes to file info boolean fields. */
     private static final Map<String, Field> attrToFieldMap = new HashMap<>();
@@ -112,6 +121,12 @@ public final class Job {
             attrToFieldMap.put(ATTRIBUTE_HAS_CONREF, FileInfo.class.getField("hasConref"));
             attrToFieldMap.put(ATTRIBUTE_HAS_KEYREF, FileInfo.class.getField("hasKeyref"));
             attrToFieldMap.put(ATTRIBUTE_HAS_CODEREF, FileInfo.class.getField("hasCoderef"));
+            attrToFieldMap.put(ATTRIBUTE_CONTENT_FLAGS, FileInfo.class.getField("hasContentFlags"));
+            attrToFieldMap.put(ATTRIBUTE_HAS_PROFILING, FileInfo.class.getField("hasProfiling"));
+            attrToFieldMap.put(ATTRIBUTE_HAS_FRAGMENT_LINK, FileInfo.class.getField("hasFragmentLink"));
+            attrToFieldMap.put(ATTRIBUTE_HAS_INDEXTERM, FileInfo.class.getField("hasIndexterm"));
+            attrToFieldMap.put(ATTRIBUTE_HAS_TABLE, FileInfo.class.getField("hasTable"));
+            attrToFieldMap.put(ATTRIBUTE_HAS_CODEBLOCK, FileInfo.class.getField("hasCodeblock"));
             attrToFieldMap.put(ATTRIBUTE_RESOURCE_ONLY, FileInfo.class.getField("isResourceOnly"));
             attrToFieldMap.put(ATTRIBUTE_TARGET, FileInfo.class.getField("isTarget"));
             attrToFieldMap.put(ATTRIBUTE_CONREF_PUSH, FileInfo.class.getField("isConrefPush"));
@@ -130,6 +145,8 @@ public final class Job {
     private final File jobFile;
     private final Map<URI, FileInfo> files = new ConcurrentHashMap<>();
     private long lastModified;
+    private ElementIdIndex elementIdIndex;
+    private final MapDocumentCache mapDocumentCache = new MapDocumentCache();
 
     /**
      * Create new job configuration instance. Initialise by reading temporary configuration files.
@@ -152,6 +169,7 @@ public final class Job {
                 prop.put(e.getKey(), e.getValue());
             }
         }
+        DetectingXMLReader.setBinaryDirectory(tempDirURI, isBinaryTempFileFormat());
     }
 
     public Job(final File tempDir, final Map<String, Object> prop, final Collection<FileInfo> files) {
@@ -160,6 +178,7 @@ public final class Job {
         this.jobFile = new File(tempDir, JOB_FILE);
         this.prop = prop;
         this.files.putAll(files.stream().collect(Collectors.toMap(fi -> fi.uri, Function.identity())));
+        DetectingXMLReader.setBinaryDirectory(tempDirURI, isBinaryTempFileFormat());
     }
 
     /**
@@ -337,6 +356,42 @@ public final class Job {
             }
         }
         lastModified = jobFile.lastModified();
+        synchronized (this) {
+            if (elementIdIndex != null && elementIdIndex.isModified()) {
+                elementIdIndex.write(new File(tempDir, ELEMENT_ID_INDEX_FILE));
+            }
+        }
+    }
+
+    /**
+     * Get element ID index of temporary files. The index is read from the temporary directory on first use and
+     * written with the job configuration.
+     *
+     * @return element ID index, empty if index file doesn't exist or cannot be read
+     */
+    public synchronized ElementIdIndex getElementIdIndex() {
+        if (elementIdIndex == null) {
+            final File indexFile = new File(tempDir, ELEMENT_ID_INDEX_FILE);
+            if (indexFile.exists()) {
+                try {
+                    elementIdIndex = ElementIdIndex.read(indexFile, tempDir);
+                } catch (final IOException e) {
+                    elementIdIndex = new ElementIdIndex(tempDir);
+                }
+            } else {
+                elementIdIndex = new ElementIdIndex(tempDir);
+            }
+        }
+        return elementIdIndex;
+    }
+
+    /**
+     * Get cache of parsed map documents shared by map processing stages.
+     *
+     * @return map document cache
+     */
+    public MapDocumentCache getMapDocumentCache() {
+        return mapDocumentCache;
     }
 
     public Document serialize() throws IOException {
@@ -637,6 +692,18 @@ public final class Job {
         public boolean hasKeyref;
         /** File has coderef. */
         public boolean hasCoderef;
+        /** Content feature flags have been recorded for the file. */
+        public boolean hasContentFlags;
+        /** File has profiling or flagging attributes. Only valid if {@link #hasContentFlags} is set. */
+        public boolean hasProfiling;
+        /** File has same topic fragment links. Only valid if {@link #hasContentFlags} is set. */
+        public boolean hasFragmentLink;
+        /** File has index terms. Only valid if {@link #hasContentFlags} is set. */
+        public boolean hasIndexterm;
+        /** File has tables. Only valid if {@link #hasContentFlags} is set. */
+        public boolean hasTable;
+        /** File has code blocks. Only valid if {@link #hasContentFlags} is set. */
+        public boolean hasCodeblock;
         /** File is a subject scheme. */
         public boolean isSubjectScheme;
         /** File is a coderef target. */
@@ -665,6 +732,18 @@ public final class Job {
             this.result = src;
         }
 
+        /**
+         * Test whether file may contain content marked by a content feature flag. Files without recorded content
+         * flags and files with conref or keyref may contain anything, because their content is not known until
+         * references have been resolved.
+         *
+         * @param flag content feature flag value, e.g. {@link #hasTable}
+         * @return {@code true} if file may contain the content, otherwise {@code false}
+         */
+        public boolean mayContain(final boolean flag) {
+            return flag || !hasContentFlags || hasConref || hasKeyref;
+        }
+
         @Override
         public String toString() {
             return "FileInfo{" +
@@ -683,6 +762,12 @@ public final class Job {
                     ", isInputResource=" + isInputResource +
                     ", hasKeyref=" + hasKeyref +
                     ", hasCoderef=" + hasCoderef +
+                    ", hasContentFlags=" + hasContentFlags +
+                    ", hasProfiling=" + hasProfiling +
+                    ", hasFragmentLink=" + hasFragmentLink +
+                    ", hasIndexterm=" + hasIndexterm +
+                    ", hasTable=" + hasTable +
+                    ", hasCodeblock=" + hasCodeblock +
                     ", isSubjectScheme=" + isSubjectScheme +
                     ", isSubtarget=" + isSubtarget +
                     ", isFlagImage=" + isFlagImage +
@@ -703,6 +788,12 @@ public final class Job {
                     isConrefPush == fileInfo.isConrefPush &&
                     hasKeyref == fileInfo.hasKeyref &&
                     hasCoderef == fileInfo.hasCoderef &&
+                    hasContentFlags == fileInfo.hasContentFlags &&
+                    hasProfiling == fileInfo.hasProfiling &&
+                    hasFragmentLink == fileInfo.hasFragmentLink &&
+                    hasIndexterm == fileInfo.hasIndexterm &&
+                    hasTable == fileInfo.hasTable &&
+                    hasCodeblock == fileInfo.hasCodeblock &&
                     isSubjectScheme == fileInfo.isSubjectScheme &&
                     isSubtarget == fileInfo.isSubtarget &&
                     isFlagImage == fileInfo.isFlagImage &&
@@ -720,7 +811,8 @@ public final class Job {
         public int hashCode() {
             return Objects.hash(src, uri, file, result, format, hasConref, isChunked, hasLink, isResourceOnly, isTarget,
                     isConrefPush, hasKeyref, hasCoderef, isSubjectScheme, isSubtarget, isFlagImage, isOutDita, isInput,
-                    isInputResource);
+                    isInputResource, hasContentFlags, hasProfiling, hasFragmentLink, hasIndexterm, hasTable,
+                    hasCodeblock);
         }
 
         public static Builder builder() {
@@ -746,6 +838,12 @@ public final class Job {
             private boolean isConrefPush;
             private boolean hasKeyref;
             private boolean hasCoderef;
+            private boolean hasContentFlags;
+            private boolean hasProfiling;
+            private boolean hasFragmentLink;
+            private boolean hasIndexterm;
+            private boolean hasTable;
+            private boolean hasCodeblock;
             private boolean isSubjectScheme;
             private boolean isSubtarget;
             private boolean isFlagImage;
@@ -768,6 +866,12 @@ public final class Job {
                 isConrefPush = orig.isConrefPush;
                 hasKeyref = orig.hasKeyref;
                 hasCoderef = orig.hasCoderef;
+                hasContentFlags = orig.hasContentFlags;
+                hasProfiling = orig.hasProfiling;
+                hasFragmentLink = orig.hasFragmentLink;
+                hasIndexterm = orig.hasIndexterm;
+                hasTable = orig.hasTable;
+                hasCodeblock = orig.hasCodeblock;
                 isSubjectScheme = orig.isSubjectScheme;
                 isSubtarget = orig.isSubtarget;
                 isFlagImage = orig.isFlagImage;
@@ -793,6 +897,12 @@ public final class Job {
                 if (orig.isConrefPush) isConrefPush = orig.isConrefPush;
                 if (orig.hasKeyref) hasKeyref = orig.hasKeyref;
                 if (orig.hasCoderef) hasCoderef = orig.hasCoderef;
+                if (orig.hasContentFlags) hasContentFlags = orig.hasContentFlags;
+                if (orig.hasProfiling) hasProfiling = orig.hasProfiling;
+                if (orig.hasFragmentLink) hasFragmentLink = orig.hasFragmentLink;
+                if (orig.hasIndexterm) hasIndexterm = orig.hasIndexterm;
+                if (orig.hasTable) hasTable = orig.hasTable;
+                if (orig.hasCodeblock) hasCodeblock = orig.hasCodeblock;
                 if (orig.isSubjectScheme) isSubjectScheme = orig.isSubjectScheme;
                 if (orig.isSubtarget) isSubtarget = orig.isSubtarget;
                 if (orig.isFlagImage) isFlagImage = orig.isFlagImage;
@@ -816,6 +926,12 @@ public final class Job {
                 if (orig.isConrefPush) isConrefPush = orig.isConrefPush;
                 if (orig.hasKeyref) hasKeyref = orig.hasKeyref;
                 if (orig.hasCoderef) hasCoderef = orig.hasCoderef;
+                if (orig.hasContentFlags) hasContentFlags = orig.hasContentFlags;
+                if (orig.hasProfiling) hasProfiling = orig.hasProfiling;
+                if (orig.hasFragmentLink) hasFragmentLink = orig.hasFragmentLink;
+                if (orig.hasIndexterm) hasIndexterm = orig.hasIndexterm;
+                if (orig.hasTable) hasTable = orig.hasTable;
+                if (orig.hasCodeblock) hasCodeblock = orig.hasCodeblock;
 //                if (orig.isSubjectScheme) isSubjectScheme = orig.isSubjectScheme;
 //                if (orig.isSubtarget) isSubtarget = orig.isSubtarget;
 //                if (orig.isFlagImage) isFlagImage = orig.isFlagImage;
@@ -836,6 +952,12 @@ public final class Job {
             public Builder isConrefPush(final boolean isConrefPush) { this.isConrefPush = isConrefPush; return this; }
             public Builder hasKeyref(final boolean hasKeyref) { this.hasKeyref = hasKeyref; return this; }
             public Builder hasCoderef(final boolean hasCoderef) { this.hasCoderef = hasCoderef; return this; }
+            public Builder hasContentFlags(final boolean hasContentFlags) { this.hasContentFlags = hasContentFlags; return this; }
+            public Builder hasProfiling(final boolean hasProfiling) { this.hasProfiling = hasProfiling; return this; }
+            public Builder hasFragmentLink(final boolean hasFragmentLink) { this.hasFragmentLink = hasFragmentLink; return this; }
+            public Builder hasIndexterm(final boolean hasIndexterm) { this.hasIndexterm = hasIndexterm; return this; }
+            public Builder hasTable(final boolean hasTable) { this.hasTable = hasTable; return this; }
+            public Builder hasCodeblock(final boolean hasCodeblock) { this.hasCodeblock = hasCodeblock; return this; }
             public Builder isSubjectScheme(final boolean isSubjectScheme) { this.isSubjectScheme = isSubjectScheme; return this; }
             public Builder isSubtarget(final boolean isSubtarget) { this.isSubtarget = isSubtarget; return this; }
             public Builder isFlagImage(final boolean isFlagImage) { this.isFlagImage = isFlagImage; return this; }
@@ -860,6 +982,12 @@ public final class Job {
                 fi.isConrefPush = isConrefPush;
                 fi.hasKeyref = hasKeyref;
                 fi.hasCoderef = hasCoderef;
+                fi.hasContentFlags = hasContentFlags;
+                fi.hasProfiling = hasProfiling;
+                fi.hasFragmentLink = hasFragmentLink;
+                fi.hasIndexterm = hasIndexterm;
+                fi.hasTable = hasTable;
+                fi.hasCodeblock = hasCodeblock;
                 fi.isSubjectScheme = isSubjectScheme;
                 fi.isSubtarget = isSubtarget;
                 fi.isFlagImage = isFlagImage;
@@ -958,6 +1086,28 @@ public final class Job {
         }
     }
 
+    /**
+     * Test whether temporary topic files may be in binary SAX event format.
+     *
+     * @return {@code true} if temporary file format is binary, otherwise {@code false}
+     * @since 3.5
+     */
+    public boolean isBinaryTempFileFormat() {
+        return TEMP_FILE_FORMAT_BINARY.equals(prop.get(PROPERTY_TEMP_FILE_FORMAT));
+    }
+
+    /**
+     * Set temporary file format. Parsers created by {@link XMLUtils} only detect binary SAX event documents in
+     * temporary directories of jobs that use the binary format.
+     *
+     * @param format {@link Constants#TEMP_FILE_FORMAT_XML} or {@link Constants#TEMP_FILE_FORMAT_BINARY}
+     * @since 3.5
+     */
+    public void setTempFileFormat(final String format) {
+        prop.put(PROPERTY_TEMP_FILE_FORMAT, format);
+        DetectingXMLReader.setBinaryDirectory(tempDirURI, isBinaryTempFileFormat());
+    }
+
     public Generate getGeneratecopyouter() {
         return Generate.valueOf(prop.get(PROPERTY_GENERATE_COPY_OUTER).toString());
     }
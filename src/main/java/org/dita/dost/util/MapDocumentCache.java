@@ -0,0 +1,115 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.w3c.dom.Document;
+
+import java.io.File;
+
+/**
+ * Job scoped cache of parsed map documents shared by consecutive map processing stages.
+ *
+ * <p>A stage that writes a map also puts the document it wrote into the cache, and the next stage that reads the
+ * map takes the document instead of parsing the file again. The file is always written, so stages that do not use
+ * the cache, e.g. XSLT and plug-in stages, see the current map on disk. Each cached document is stamped with the
+ * modification time and size of the file it was written to, and with a checksum of its contents while the
+ * modification time is too recent to tell rewrites apart; if the file has changed since, the cached document is
+ * discarded and the file must be parsed. Stages that write a map without putting the document into the cache must
+ * {@link #invalidate(File) invalidate} the map before writing it.</p>
+ *
+ * <p>Documents are mutable, so {@link #take(File)} transfers ownership of the document to the caller and removes it
+ * from the cache. Cached documents are softly referenced and the cache is bounded by the total size of the map
+ * files. The cache is thread-safe, but documents are not.</p>
+ *
+ * @since 3.5
+ */
+public final class MapDocumentCache {
+
+    /** Default cache size as total bytes of map files. */
+    private static final long DEFAULT_MAX_WEIGHT = Runtime.getRuntime().maxMemory() / 32;
+
+    private final Cache<File, Entry> cache;
+
+    /**
+     * Create new map document cache.
+     */
+    public MapDocumentCache() {
+        this(DEFAULT_MAX_WEIGHT);
+    }
+
+    /**
+     * Create new map document cache.
+     *
+     * @param maxWeight maximum total size of cached map files in bytes
+     */
+    MapDocumentCache(final long maxWeight) {
+        cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((File file, Entry entry) -> (int) Math.min(Integer.MAX_VALUE, entry.stamp.length))
+                .softValues()
+                .build();
+    }
+
+    /**
+     * Take map document from cache. The document is removed from the cache.
+     *
+     * @param file absolute map file
+     * @return cached document, {@code null} if not cached or the file has changed after the document was cached
+     */
+    public Document take(final File file) {
+        final Entry entry = cache.asMap().remove(file.getAbsoluteFile());
+        if (entry == null || entry.stamp.check(file) == null) {
+            return null;
+        }
+        return entry.document;
+    }
+
+    /**
+     * Put map document into cache. The document must have just been written to the file and must not be modified
+     * after it has been put into the cache.
+     *
+     * @param file absolute map file the document was written to
+     * @param document map document
+     */
+    public void put(final File file, final Document document) {
+        final FileStamp stamp = FileStamp.of(file);
+        if (stamp == null) {
+            invalidate(file);
+            return;
+        }
+        cache.put(file.getAbsoluteFile(), new Entry(document, stamp));
+    }
+
+    /**
+     * Remove map document from cache.
+     *
+     * @param file absolute map file
+     */
+    public void invalidate(final File file) {
+        cache.invalidate(file.getAbsoluteFile());
+    }
+
+    /**
+     * Remove all map documents from cache.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static final class Entry {
+        final Document document;
+        final FileStamp stamp;
+
+        Entry(final Document document, final FileStamp stamp) {
+            this.document = document;
+            this.stamp = stamp;
+        }
+    }
+}
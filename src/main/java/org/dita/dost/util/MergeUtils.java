@@ -31,6 +31,7 @@ public final class MergeUtils {
     /** Set of visited topic files. */
     private final Set<URI> visitSet;
     private DITAOTLogger logger;
+    private Job job;
 
     /**
      * Default Constructor
@@ -46,6 +47,10 @@ public final class MergeUtils {
         this.logger = logger;
     }
 
+    public void setJob(final Job job) {
+        this.job = job;
+    }
+
     /**
      * Resets all internal data structures.
      */
@@ -138,6 +143,12 @@ public final class MergeUtils {
         if (!(new File(file).exists())) {
             return null;
         }
+        if (job != null) {
+            final String id = job.getElementIdIndex().getFirstId(file);
+            if (id != null) {
+                return id;
+            }
+        }
         final StringBuilder firstTopicId = new StringBuilder();
         final TopicIdParser parser = new TopicIdParser(firstTopicId);
         try {
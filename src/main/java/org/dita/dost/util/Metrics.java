@@ -0,0 +1,360 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per module and per file processing metrics.
+ *
+ * <p>Measurements record wall time, thread CPU time, thread allocated bytes and bytes read and written.
+ * File measurements are attributed to the module that is currently running. Instances are thread-safe.</p>
+ *
+ * @since 3.5
+ */
+public final class Metrics {
+
+    /** Metrics collector that doesn't record any measurements. */
+    public static final Metrics DISABLED = new Metrics(false);
+
+    private static final String TYPE_MODULE = "module";
+    private static final String TYPE_FILE = "file";
+
+    private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private static final boolean cpuTimeSupported = threadMXBean.isCurrentThreadCpuTimeSupported();
+    private static final com.sun.management.ThreadMXBean allocationMXBean =
+            threadMXBean instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported()
+                    ? (com.sun.management.ThreadMXBean) threadMXBean
+                    : null;
+
+    private final boolean enabled;
+    private final ConcurrentLinkedQueue<Record> records = new ConcurrentLinkedQueue<>();
+    private final LongAdder totalRead = new LongAdder();
+    private final LongAdder totalWritten = new LongAdder();
+    private volatile String currentTarget;
+    private volatile String currentModule;
+
+    /**
+     * Create new enabled metrics collector.
+     */
+    public Metrics() {
+        this(true);
+    }
+
+    private Metrics(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Test if measurements are recorded.
+     *
+     * @return {@code true} if measurements are recorded, otherwise {@code false}
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start module measurement. File measurements started before the returned measurement is closed are
+     * attributed to the module.
+     *
+     * @param target Ant target name, may be {@code null}
+     * @param module module name
+     * @return started measurement
+     */
+    public Measurement startModule(final String target, final String module) {
+        if (!enabled) {
+            return Measurement.NOOP;
+        }
+        currentTarget = target;
+        currentModule = module;
+        return new Measurement(this, TYPE_MODULE, target, module, null);
+    }
+
+    /**
+     * Start file measurement on current thread. The measurement must be closed on the same thread.
+     *
+     * @param file absolute URI of the processed file
+     * @return started measurement
+     */
+    public Measurement startFile(final URI file) {
+        if (!enabled) {
+            return Measurement.NOOP;
+        }
+        return new Measurement(this, TYPE_FILE, currentTarget, currentModule, file);
+    }
+
+    /**
+     * Get recorded measurements.
+     *
+     * @return list of measurements in the order they were completed
+     */
+    public List<Record> getRecords() {
+        return new ArrayList<>(records);
+    }
+
+    /**
+     * Write measurements to a file. Files with {@code .csv} extension are written as CSV, all others as JSON.
+     *
+     * @param file output file
+     * @throws IOException if writing failed
+     */
+    public void write(final File file) throws IOException {
+        final File dir = file.getAbsoluteFile().getParentFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Failed to create directory " + dir);
+        }
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            if (file.getName().toLowerCase().endsWith(".csv")) {
+                writeCsv(out);
+            } else {
+                writeJson(out);
+            }
+        }
+    }
+
+    private void writeJson(final OutputStream out) throws IOException {
+        final JsonGenerator gen = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+        gen.useDefaultPrettyPrinter();
+        gen.writeStartArray();
+        for (final Record r : records) {
+            gen.writeStartObject();
+            gen.writeStringField("type", r.type);
+            if (r.target != null) {
+                gen.writeStringField("target", r.target);
+            }
+            if (r.module != null) {
+                gen.writeStringField("module", r.module);
+            }
+            if (r.file != null) {
+                gen.writeStringField("file", r.file.toString());
+            }
+            gen.writeStringField("thread", r.thread);
+            gen.writeNumberField("wallTime", r.wallTime);
+            gen.writeNumberField("cpuTime", r.cpuTime);
+            gen.writeNumberField("allocatedBytes", r.allocatedBytes);
+            gen.writeNumberField("bytesRead", r.bytesRead);
+            gen.writeNumberField("bytesWritten", r.bytesWritten);
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.flush();
+    }
+
+    private void writeCsv(final OutputStream out) throws IOException {
+        final Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        w.write("type,target,module,file,thread,wallTime,cpuTime,allocatedBytes,bytesRead,bytesWritten\n");
+        for (final Record r : records) {
+            w.write(r.type);
+            w.write(',');
+            w.write(escapeCsv(r.target));
+            w.write(',');
+            w.write(escapeCsv(r.module));
+            w.write(',');
+            w.write(escapeCsv(r.file != null ? r.file.toString() : null));
+            w.write(',');
+            w.write(escapeCsv(r.thread));
+            w.write(',');
+            w.write(Long.toString(r.wallTime));
+            w.write(',');
+            w.write(Long.toString(r.cpuTime));
+            w.write(',');
+            w.write(Long.toString(r.allocatedBytes));
+            w.write(',');
+            w.write(Long.toString(r.bytesRead));
+            w.write(',');
+            w.write(Long.toString(r.bytesWritten));
+            w.write('\n');
+        }
+        w.flush();
+    }
+
+    private static String escapeCsv(final String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') != -1 || value.indexOf('"') != -1 || value.indexOf('\n') != -1) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    private static long cpuTime() {
+        return cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : 0L;
+    }
+
+    private static long allocatedBytes() {
+        return allocationMXBean != null ? allocationMXBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0L;
+    }
+
+    /**
+     * Running measurement.
+     */
+    public static final class Measurement implements AutoCloseable {
+
+        static final Measurement NOOP = new Measurement(null, null, null, null, null);
+
+        private final Metrics metrics;
+        private final String type;
+        private final String target;
+        private final String module;
+        private final URI file;
+        private final long startWall;
+        private final long startCpu;
+        private final long startAllocated;
+        private final long startRead;
+        private final long startWritten;
+        private long bytesRead;
+        private long bytesWritten;
+
+        private Measurement(final Metrics metrics, final String type, final String target, final String module,
+                            final URI file) {
+            this.metrics = metrics;
+            this.type = type;
+            this.target = target;
+            this.module = module;
+            this.file = file;
+            if (metrics != null) {
+                startWall = System.nanoTime();
+                startCpu = cpuTime();
+                startAllocated = allocatedBytes();
+                startRead = metrics.totalRead.sum();
+                startWritten = metrics.totalWritten.sum();
+            } else {
+                startWall = 0L;
+                startCpu = 0L;
+                startAllocated = 0L;
+                startRead = 0L;
+                startWritten = 0L;
+            }
+        }
+
+        /**
+         * Add number of bytes read.
+         *
+         * @param bytes number of bytes read
+         * @return this measurement
+         */
+        public Measurement read(final long bytes) {
+            bytesRead += bytes;
+            return this;
+        }
+
+        /**
+         * Add number of bytes read from a file.
+         *
+         * @param file file that was read
+         * @return this measurement
+         */
+        public Measurement read(final File file) {
+            return metrics != null ? read(file.length()) : this;
+        }
+
+        /**
+         * Add number of bytes written.
+         *
+         * @param bytes number of bytes written
+         * @return this measurement
+         */
+        public Measurement written(final long bytes) {
+            bytesWritten += bytes;
+            return this;
+        }
+
+        /**
+         * Add number of bytes written to a file.
+         *
+         * @param file file that was written
+         * @return this measurement
+         */
+        public Measurement written(final File file) {
+            return metrics != null ? written(file.length()) : this;
+        }
+
+        /**
+         * Stop measurement and record results.
+         */
+        @Override
+        public void close() {
+            if (metrics == null) {
+                return;
+            }
+            final Record record;
+            if (type.equals(TYPE_MODULE)) {
+                metrics.currentTarget = null;
+                metrics.currentModule = null;
+                record = new Record(type, target, module, file, startWall, System.nanoTime() - startWall,
+                        cpuTime() - startCpu, allocatedBytes() - startAllocated,
+                        bytesRead + metrics.totalRead.sum() - startRead,
+                        bytesWritten + metrics.totalWritten.sum() - startWritten);
+            } else {
+                metrics.totalRead.add(bytesRead);
+                metrics.totalWritten.add(bytesWritten);
+                record = new Record(type, target, module, file, startWall, System.nanoTime() - startWall,
+                        cpuTime() - startCpu, allocatedBytes() - startAllocated,
+                        bytesRead, bytesWritten);
+            }
+            metrics.records.add(record);
+        }
+    }
+
+    /**
+     * Completed measurement. Times are in nanoseconds.
+     */
+    public static final class Record {
+        /** Measurement type, either {@code module} or {@code file}. */
+        public final String type;
+        /** Ant target name, may be {@code null}. */
+        public final String target;
+        /** Module name, may be {@code null}. */
+        public final String module;
+        /** Absolute file URI, {@code null} for module measurements. */
+        public final URI file;
+        /** Thread name. */
+        public final String thread;
+        /** Thread ID. */
+        public final long threadId;
+        /** Start time as returned by {@link System#nanoTime()}. */
+        public final long startTime;
+        public final long wallTime;
+        public final long cpuTime;
+        public final long allocatedBytes;
+        public final long bytesRead;
+        public final long bytesWritten;
+
+        Record(final String type, final String target, final String module, final URI file, final long startTime,
+               final long wallTime, final long cpuTime, final long allocatedBytes, final long bytesRead,
+               final long bytesWritten) {
+            this.type = type;
+            this.target = target;
+            this.module = module;
+            this.file = file;
+            this.thread = Thread.currentThread().getName();
+            this.threadId = Thread.currentThread().getId();
+            this.startTime = startTime;
+            this.wallTime = wallTime;
+            this.cpuTime = cpuTime;
+            this.allocatedBytes = allocatedBytes;
+            this.bytesRead = bytesRead;
+            this.bytesWritten = bytesWritten;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.dita.dost.util.Configuration.configuration;
+
+/**
+ * Shared bounded thread pool for processing files in parallel.
+ *
+ * <p>Processing stages that read and write files in parallel run on this pool instead of the common fork-join pool,
+ * which is sized for CPU bound tasks and shared with the rest of the JVM. The number of threads is set with the
+ * {@value #CONF_PARALLEL_THREADS} configuration property and defaults to the number of available processors. Setting
+ * it to {@code 1} processes files sequentially in the calling thread.</p>
+ *
+ * @since 3.5
+ */
+public final class ParallelUtils {
+
+    /** Configuration property for the number of threads. */
+    public static final String CONF_PARALLEL_THREADS = "parallel.threads";
+
+    private static final int threads = getThreadCount();
+
+    private ParallelUtils() {
+        throw new AssertionError();
+    }
+
+    /** Pool created on first use. */
+    private static final class Pool {
+        private static final ExecutorService executor = Executors.newFixedThreadPool(threads, Worker::new);
+    }
+
+    /** Pool thread. Tasks started from a pool thread are run in the same thread to avoid starving the pool. */
+    private static final class Worker extends Thread {
+        private static final AtomicInteger count = new AtomicInteger();
+
+        Worker(final Runnable runnable) {
+            super(runnable, "dita-ot-worker-" + count.incrementAndGet());
+            setDaemon(true);
+        }
+    }
+
+    private static int getThreadCount() {
+        final String value = configuration.get(CONF_PARALLEL_THREADS);
+        if (value != null && !value.trim().isEmpty()) {
+            try {
+                return Math.max(1, Integer.parseInt(value.trim()));
+            } catch (final NumberFormatException e) {
+                System.err.println("Invalid " + CONF_PARALLEL_THREADS + " configuration value " + value);
+            }
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Test whether tasks are run in parallel.
+     *
+     * @return {@code true} if tasks are run on the shared pool, {@code false} if in the calling thread
+     */
+    public static boolean isParallel() {
+        return threads > 1 && !(Thread.currentThread() instanceof Worker);
+    }
+
+    /**
+     * Get executor for asynchronous tasks.
+     *
+     * @return shared pool, or an executor that runs tasks in the calling thread if parallel processing is disabled
+     */
+    public static Executor getExecutor() {
+        return isParallel() ? Pool.executor : Runnable::run;
+    }
+
+    /**
+     * Perform action for each item in parallel and wait for all actions to complete. The calling thread processes
+     * items together with the pool threads. If an action throws an exception, the remaining items are still
+     * processed and the first exception is rethrown.
+     *
+     * @param items items to process
+     * @param action action to perform for each item
+     * @param <T> item type
+     */
+    public static <T> void forEach(final Collection<? extends T> items, final Consumer<? super T> action) {
+        final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        final Consumer<T> guarded = item -> {
+            try {
+                action.accept(item);
+            } catch (final RuntimeException | Error e) {
+                failures.add(e);
+            }
+        };
+        if (!isParallel() || items.size() < 2) {
+            items.forEach(guarded);
+        } else {
+            final List<? extends T> list = new ArrayList<>(items);
+            final AtomicInteger next = new AtomicInteger();
+            final Runnable task = () -> {
+                for (int i = next.getAndIncrement(); i < list.size(); i = next.getAndIncrement()) {
+                    guarded.accept(list.get(i));
+                }
+            };
+            final int workers = Math.min(threads, list.size()) - 1;
+            final List<Future<?>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(Pool.executor.submit(task));
+            }
+            task.run();
+            try {
+                for (final Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (final ExecutionException e) {
+                failures.add(e.getCause());
+            }
+        }
+        final Throwable failure = failures.poll();
+        if (failure != null) {
+            failures.forEach(failure::addSuppressed);
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw (RuntimeException) failure;
+        }
+    }
+}
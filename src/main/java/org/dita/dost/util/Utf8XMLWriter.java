@@ -0,0 +1,437 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.NamespaceSupport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static javax.xml.XMLConstants.*;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Lean UTF-8 XML serializer for intermediate temporary files.
+ *
+ * <p>Output follows the identity serialization used for temporary files: an XML declaration without a trailing line
+ * break, empty elements as {@code <e/>}, redundant namespace declarations removed and missing ones added. Markup
+ * characters, carriage returns and C1 control characters are escaped, and attribute values also escape quotes and
+ * whitespace other than space. DTD, entity and CDATA section boundaries are not retained.</p>
+ *
+ * <p>Output is encoded into a byte buffer that is reused by the writers of the current thread. The output stream is
+ * flushed at the end of the document, but not closed.</p>
+ *
+ * <p><strong>Not thread-safe.</strong></p>
+ *
+ * @since 3.5
+ */
+public final class Utf8XMLWriter implements ContentHandler, LexicalHandler {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final byte[] XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>".getBytes(US_ASCII);
+    /** Escapes for ASCII characters in text, {@code null} if the character is written as is. */
+    private static final byte[][] TEXT_ESCAPES = new byte[128][];
+    /** Escapes for ASCII characters in attribute values, {@code null} if the character is written as is. */
+    private static final byte[][] ATTRIBUTE_ESCAPES = new byte[128][];
+    static {
+        for (final byte[][] escapes : new byte[][][] {TEXT_ESCAPES, ATTRIBUTE_ESCAPES}) {
+            escapes['&'] = "&amp;".getBytes(US_ASCII);
+            escapes['<'] = "&lt;".getBytes(US_ASCII);
+            escapes['>'] = "&gt;".getBytes(US_ASCII);
+            escapes['\r'] = "&#xD;".getBytes(US_ASCII);
+            escapes[0x7F] = "&#x7F;".getBytes(US_ASCII);
+        }
+        ATTRIBUTE_ESCAPES['"'] = "&quot;".getBytes(US_ASCII);
+        ATTRIBUTE_ESCAPES['\n'] = "&#xA;".getBytes(US_ASCII);
+        ATTRIBUTE_ESCAPES['\t'] = "&#x9;".getBytes(US_ASCII);
+    }
+    /** Idle output buffer of the current thread. */
+    private static final ThreadLocal<byte[]> bufferPool = new ThreadLocal<>();
+
+    private final OutputStream out;
+    private final NamespaceSupport namespaces = new NamespaceSupport();
+    /** Namespace mappings started for the next element. */
+    private final List<String[]> pendingMappings = new ArrayList<>();
+    private byte[] buf;
+    private int pos;
+    private boolean openStartTag;
+    private boolean inDTD;
+    /** High surrogate at the end of the previous text event, {@code 0} if none. */
+    private char pendingHighSurrogate;
+
+    /**
+     * Create new serializer.
+     *
+     * @param out output stream to write to
+     */
+    public Utf8XMLWriter(final OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void setDocumentLocator(final Locator locator) {
+        // NOOP
+    }
+
+    @Override
+    public void startDocument() throws SAXException {
+        namespaces.reset();
+        pendingMappings.clear();
+        openStartTag = false;
+        inDTD = false;
+        pendingHighSurrogate = 0;
+        write(XML_DECLARATION);
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        checkPendingSurrogate();
+        closeStartTag();
+        try {
+            flushBuffer();
+            out.flush();
+        } catch (final IOException e) {
+            throw new SAXException(e);
+        } finally {
+            if (buf != null) {
+                bufferPool.set(buf);
+                buf = null;
+            }
+        }
+    }
+
+    @Override
+    public void startPrefixMapping(final String prefix, final String uri) throws SAXException {
+        pendingMappings.add(new String[] {prefix, uri});
+    }
+
+    @Override
+    public void endPrefixMapping(final String prefix) throws SAXException {
+        // NOOP
+    }
+
+    @Override
+    public void startElement(final String uri, final String localName, final String qName, final Attributes atts)
+            throws SAXException {
+        checkPendingSurrogate();
+        closeStartTag();
+        write('<');
+        writeAscii(qName);
+        namespaces.pushContext();
+        for (final String[] mapping : pendingMappings) {
+            declareNamespace(mapping[0], mapping[1]);
+        }
+        pendingMappings.clear();
+        declareNamespace(getPrefix(qName), uri);
+        for (int i = 0; i < atts.getLength(); i++) {
+            final String attQName = atts.getQName(i);
+            // unprefixed attributes are never in a namespace
+            if (attQName.indexOf(':') == -1 || isNamespaceDeclaration(attQName)) {
+                continue;
+            }
+            declareNamespace(getPrefix(attQName), atts.getURI(i));
+        }
+        for (int i = 0; i < atts.getLength(); i++) {
+            final String attQName = atts.getQName(i);
+            if (isNamespaceDeclaration(attQName)) {
+                continue;
+            }
+            write(' ');
+            writeAscii(attQName);
+            write('=');
+            write('"');
+            writeEscaped(atts.getValue(i), ATTRIBUTE_ESCAPES);
+            write('"');
+        }
+        openStartTag = true;
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+        checkPendingSurrogate();
+        if (openStartTag) {
+            write('/');
+            write('>');
+            openStartTag = false;
+        } else {
+            write('<');
+            write('/');
+            writeAscii(qName);
+            write('>');
+        }
+        namespaces.popContext();
+    }
+
+    @Override
+    public void characters(final char[] ch, final int start, final int length) throws SAXException {
+        closeStartTag();
+        int i = start;
+        int end = start + length;
+        if (pendingHighSurrogate != 0 && i < end) {
+            if (!Character.isLowSurrogate(ch[i])) {
+                checkPendingSurrogate();
+            }
+            writeCodePoint(Character.toCodePoint(pendingHighSurrogate, ch[i++]));
+            pendingHighSurrogate = 0;
+        }
+        // surrogate pair may be split between text events
+        if (i < end && Character.isHighSurrogate(ch[end - 1])) {
+            pendingHighSurrogate = ch[--end];
+        }
+        writeEscaped(ch, i, end, TEXT_ESCAPES);
+    }
+
+    @Override
+    public void ignorableWhitespace(final char[] ch, final int start, final int length) throws SAXException {
+        characters(ch, start, length);
+    }
+
+    @Override
+    public void processingInstruction(final String target, final String data) throws SAXException {
+        checkPendingSurrogate();
+        closeStartTag();
+        write('<');
+        write('?');
+        writeAscii(target);
+        if (data != null && !data.isEmpty()) {
+            write(' ');
+            writeRaw(data);
+        }
+        write('?');
+        write('>');
+    }
+
+    @Override
+    public void skippedEntity(final String name) throws SAXException {
+        // NOOP
+    }
+
+    // LexicalHandler methods
+
+    @Override
+    public void startDTD(final String name, final String publicId, final String systemId) throws SAXException {
+        inDTD = true;
+    }
+
+    @Override
+    public void endDTD() throws SAXException {
+        inDTD = false;
+    }
+
+    @Override
+    public void startEntity(final String name) throws SAXException {
+        // NOOP
+    }
+
+    @Override
+    public void endEntity(final String name) throws SAXException {
+        // NOOP
+    }
+
+    @Override
+    public void startCDATA() throws SAXException {
+        // NOOP
+    }
+
+    @Override
+    public void endCDATA() throws SAXException {
+        // NOOP
+    }
+
+    @Override
+    public void comment(final char[] ch, final int start, final int length) throws SAXException {
+        if (inDTD) {
+            return;
+        }
+        checkPendingSurrogate();
+        closeStartTag();
+        write('<');
+        write('!');
+        write('-');
+        write('-');
+        writeRaw(ch, start, start + length);
+        write('-');
+        write('-');
+        write('>');
+    }
+
+    // Private methods
+
+    private static String getPrefix(final String qName) {
+        final int i = qName.indexOf(':');
+        return i != -1 ? qName.substring(0, i) : DEFAULT_NS_PREFIX;
+    }
+
+    private static boolean isNamespaceDeclaration(final String qName) {
+        return qName.startsWith(XMLNS_ATTRIBUTE)
+                && (qName.length() == XMLNS_ATTRIBUTE.length() || qName.charAt(XMLNS_ATTRIBUTE.length()) == ':');
+    }
+
+    /**
+     * Write namespace declaration if prefix is not already bound to the URI in scope.
+     */
+    private void declareNamespace(final String prefix, final String uri) throws SAXException {
+        if (XML_NS_PREFIX.equals(prefix) || (!prefix.isEmpty() && uri.isEmpty())) {
+            return;
+        }
+        final String current = namespaces.getURI(prefix);
+        if (uri.equals(current != null ? current : NULL_NS_URI)) {
+            return;
+        }
+        namespaces.declarePrefix(prefix, uri);
+        write(' ');
+        writeAscii(XMLNS_ATTRIBUTE);
+        if (!prefix.isEmpty()) {
+            write(':');
+            writeAscii(prefix);
+        }
+        write('=');
+        write('"');
+        writeEscaped(uri, ATTRIBUTE_ESCAPES);
+        write('"');
+    }
+
+    private void checkPendingSurrogate() throws SAXException {
+        if (pendingHighSurrogate != 0) {
+            throw new SAXException("Unpaired surrogate 0x" + Integer.toHexString(pendingHighSurrogate));
+        }
+    }
+
+    private void closeStartTag() throws SAXException {
+        if (openStartTag) {
+            write('>');
+            openStartTag = false;
+        }
+    }
+
+    /**
+     * Write name. Names are usually ASCII, so encoding is only used for non-ASCII names.
+     */
+    private void writeAscii(final String name) throws SAXException {
+        final int length = name.length();
+        for (int i = 0; i < length; i++) {
+            final char c = name.charAt(i);
+            if (c >= 0x80) {
+                writeRaw(name);
+                return;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            write(name.charAt(i));
+        }
+    }
+
+    private void writeRaw(final String text) throws SAXException {
+        final char[] ch = text.toCharArray();
+        writeRaw(ch, 0, ch.length);
+    }
+
+    private void writeRaw(final char[] ch, final int start, final int end) throws SAXException {
+        writeEscaped(ch, start, end, null);
+    }
+
+    private void writeEscaped(final String text, final byte[][] escapes) throws SAXException {
+        final char[] ch = text.toCharArray();
+        writeEscaped(ch, 0, ch.length, escapes);
+    }
+
+    /**
+     * Encode characters as UTF-8.
+     *
+     * @param escapes escapes for ASCII characters, {@code null} to write characters as is
+     */
+    private void writeEscaped(final char[] ch, final int start, final int end, final byte[][] escapes)
+            throws SAXException {
+        for (int i = start; i < end; i++) {
+            final char c = ch[i];
+            if (c < 0x80) {
+                final byte[] escape = escapes != null ? escapes[c] : null;
+                if (escape != null) {
+                    write(escape);
+                } else if (c < 0x20 && c != '\t' && c != '\n' && c != '\r') {
+                    throw new SAXException("Illegal XML character 0x" + Integer.toHexString(c));
+                } else {
+                    write(c);
+                }
+            } else if (c < 0x800) {
+                if (c < 0xA0 && escapes != null) {
+                    writeCharacterReference(c);
+                } else {
+                    write(0xC0 | (c >> 6));
+                    write(0x80 | (c & 0x3F));
+                }
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(ch[i + 1])) {
+                writeCodePoint(Character.toCodePoint(c, ch[++i]));
+            } else if (Character.isSurrogate(c)) {
+                throw new SAXException("Unpaired surrogate 0x" + Integer.toHexString(c));
+            } else if (c >= 0xFFFE) {
+                throw new SAXException("Illegal XML character 0x" + Integer.toHexString(c));
+            } else {
+                write(0xE0 | (c >> 12));
+                write(0x80 | ((c >> 6) & 0x3F));
+                write(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Encode supplementary code point as UTF-8.
+     */
+    private void writeCodePoint(final int cp) throws SAXException {
+        write(0xF0 | (cp >> 18));
+        write(0x80 | ((cp >> 12) & 0x3F));
+        write(0x80 | ((cp >> 6) & 0x3F));
+        write(0x80 | (cp & 0x3F));
+    }
+
+    private void writeCharacterReference(final char c) throws SAXException {
+        write('&');
+        write('#');
+        write('x');
+        writeAscii(Integer.toHexString(c).toUpperCase());
+        write(';');
+    }
+
+    private void write(final byte[] bytes) throws SAXException {
+        for (final byte b : bytes) {
+            write(b);
+        }
+    }
+
+    private void write(final int b) throws SAXException {
+        if (buf == null) {
+            buf = bufferPool.get();
+            if (buf != null) {
+                bufferPool.remove();
+            } else {
+                buf = new byte[BUFFER_SIZE];
+            }
+        } else if (pos == buf.length) {
+            try {
+                flushBuffer();
+            } catch (final IOException e) {
+                throw new SAXException(e);
+            }
+        }
+        buf[pos++] = (byte) b;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (pos > 0) {
+            out.write(buf, 0, pos);
+            pos = 0;
+        }
+    }
+}
@@ -24,12 +24,14 @@ import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamResult;
 
 import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
 import org.xml.sax.SAXException;
+import org.xml.sax.ext.LexicalHandler;
 import org.xml.sax.helpers.AttributesImpl;
 
 /**
- * XML serializer. Users a {@link javax.xml.transform.sax.TransformerHandler
- * TransformerHandler} as the underlying serializer.
+ * XML serializer. Output streams are written as UTF-8 with {@link Utf8XMLWriter}, writers use a
+ * {@link javax.xml.transform.sax.TransformerHandler TransformerHandler} as the underlying serializer.
  *
  * <p>When possible, use {@link javax.xml.stream.XMLStreamWriter XMLStreamWriter} instead.</p>
  *
@@ -46,7 +48,9 @@ public class XMLSerializer {
 
     // Variables ---------------------------------------------------------------
 
-    private final TransformerHandler transformer;
+    private ContentHandler transformer;
+    private LexicalHandler lexicalHandler;
+    private boolean started;
 
     private OutputStream outStream;
     private Writer outWriter;
@@ -59,18 +63,21 @@ public class XMLSerializer {
 
     private XMLSerializer(final OutputStream out) {
         outStream = out;
-        transformer = initializeTransformerHandler();
-        transformer.setResult(new StreamResult(out));
+        final Utf8XMLWriter writer = new Utf8XMLWriter(out);
+        transformer = writer;
+        lexicalHandler = writer;
     }
 
     private XMLSerializer(final Writer out) {
         outWriter = out;
-        transformer = initializeTransformerHandler();
-        transformer.setResult(new StreamResult(out));
+        final TransformerHandler handler = initializeTransformerHandler();
+        handler.setResult(new StreamResult(out));
+        transformer = handler;
+        lexicalHandler = handler;
     }
 
     private TransformerHandler initializeTransformerHandler() throws TransformerFactoryConfigurationError {
-        final TransformerFactory tf = TransformerFactory.newInstance();
+        final TransformerFactory tf = XMLUtils.getTransformerFactory();
         if (tf.getFeature(SAXTransformerFactory.FEATURE)) {
             final SAXTransformerFactory stf = (SAXTransformerFactory) tf;
             try {
@@ -104,12 +111,23 @@ public class XMLSerializer {
     // Public methods ----------------------------------------------------------
 
     /**
-     * Get underlying serializer.
+     * Get underlying serializer. For output stream serializers, this switches serialization to a transformer handler
+     * so that output properties can be configured.
      *
      * @return serialization handler
+     * @throws IllegalStateException if output stream serializer has already started writing
      */
     public TransformerHandler getTransformerHandler() {
-        return transformer;
+        if (!(transformer instanceof TransformerHandler)) {
+            if (started) {
+                throw new IllegalStateException("Serializer already started");
+            }
+            final TransformerHandler handler = initializeTransformerHandler();
+            handler.setResult(new StreamResult(outStream));
+            transformer = handler;
+            lexicalHandler = handler;
+        }
+        return (TransformerHandler) transformer;
     }
 
     /**
@@ -135,6 +153,7 @@ public class XMLSerializer {
      * @throws SAXException if processing the event failed
      */
     public void writeStartDocument() throws SAXException {
+        started = true;
         transformer.startDocument();
     }
 
@@ -297,7 +316,7 @@ public class XMLSerializer {
     public void writeComment(final String data) throws SAXException {
         processStartElement();
         final char[] ch = data.toCharArray();
-        transformer.comment(ch, 0, ch.length);
+        lexicalHandler.comment(ch, 0, ch.length);
     }
 
 
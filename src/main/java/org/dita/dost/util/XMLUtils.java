@@ -22,12 +22,19 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.*;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXResult;
 import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
+import net.sf.saxon.TransformerFactoryImpl;
 import net.sf.saxon.event.ProxyReceiver;
+import net.sf.saxon.jaxp.SaxonTransformerFactory;
 import net.sf.saxon.jaxp.TransformerImpl;
+import net.sf.saxon.lib.CollationURIResolver;
+import net.sf.saxon.lib.ExtensionFunctionDefinition;
 import net.sf.saxon.serialize.Emitter;
 import net.sf.saxon.serialize.MessageWarner;
 import net.sf.saxon.trans.UncheckedXPathException;
@@ -35,12 +42,16 @@ import net.sf.saxon.trans.XPathException;
 import net.sf.saxon.trans.XsltController;
 
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.jfr.PipelineEvents;
 import org.dita.dost.log.DITAOTLogger;
 import org.dita.dost.log.LoggingErrorListener;
+import org.dita.dost.module.saxon.DelegatingCollationUriResolver;
 import org.w3c.dom.*;
 
 import org.xml.sax.*;
+import org.xml.sax.ext.DefaultHandler2;
 import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * XML utility methods.
@@ -60,17 +71,47 @@ public final class XMLUtils {
         saxParserFactory = SAXParserFactory.newInstance();
         saxParserFactory.setNamespaceAware(true);
     }
+    /** Maximum number of idle parsers pooled per thread. */
+    private static final int MAX_POOLED_READERS = 4;
+    /** Idle parsers, one pool per thread. */
+    private static final ThreadLocal<Deque<XMLReader>> readerPool = ThreadLocal.withInitial(ArrayDeque::new);
+    /** Saxon configuration that transformer factory configurations are copied from, {@code null} if not initialized. */
+    private static net.sf.saxon.Configuration saxonConfiguration;
     private DITAOTLogger logger;
     private final TransformerFactory transformerFactory;
+    /** Idle identity transformer for each thread, configured with the current logger. */
+    private ThreadLocal<Transformer> identityTransformer = new ThreadLocal<>();
+    private boolean keepBinaryFormat = true;
+    private PipelineEvents events = PipelineEvents.DISABLED;
 
     public static final Attributes EMPTY_ATTRIBUTES = new AttributesImpl();
 
     public XMLUtils() {
-        transformerFactory = TransformerFactory.newInstance();
+        transformerFactory = getTransformerFactory();
     }
 
     public void setLogger(final DITAOTLogger logger) {
         this.logger = logger;
+        identityTransformer = new ThreadLocal<>();
+    }
+
+    /**
+     * Set Flight Recorder event context for transformations.
+     *
+     * @param events event context to start transform events from
+     */
+    public void setEvents(final PipelineEvents events) {
+        this.events = events;
+    }
+
+    /**
+     * Set whether transforming a binary SAX event temporary file writes the result in binary format. If disabled,
+     * the result is always serialized as XML. Defaults to {@code true}.
+     *
+     * @param keepBinaryFormat keep binary temporary file format
+     */
+    public void setKeepBinaryFormat(final boolean keepBinaryFormat) {
+        this.keepBinaryFormat = keepBinaryFormat;
     }
 
     /** Convert DOM NodeList to List. */
@@ -526,13 +567,17 @@ public final class XMLUtils {
             throw new DITAOTException("Failed to create output directory " + outputFile.getParentFile().getAbsolutePath());
         }
 
+        final PipelineEvents.Span event = events.startTransform(inputFile.toURI(), filters);
+        Transformer transformer = null;
+        XMLReader parser = null;
         try (final InputStream in = new BufferedInputStream(new FileInputStream(inputFile));
              final OutputStream out = new BufferedOutputStream(new FileOutputStream(outputFile))) {
-            Transformer transformer = transformerFactory.newTransformer();
-            if (logger != null) {
-                transformer = withLogger(transformer, logger);
-            }
-            XMLReader reader = getXMLReader();
+            final boolean binary = keepBinaryFormat
+                    && DetectingXMLReader.isBinaryDirectory(inputFile.toURI().toString())
+                    && BinaryXMLReader.isBinary(in);
+            transformer = borrowIdentityTransformer();
+            parser = borrowXMLReader();
+            XMLReader reader = parser;
             for (final XMLFilter filter : filters) {
                 // ContentHandler must be reset so e.g. Saxon 9.1 will reassign ContentHandler
                 // when reusing filter with multiple Transformers.
@@ -542,8 +587,9 @@ public final class XMLUtils {
             }
             final Source source = new SAXSource(reader, new InputSource(in));
             source.setSystemId(inputFile.toURI().toString());
-            final Result result = new StreamResult(out);
+            final Result result = binary ? getBinaryResult(out) : getTextResult(out);
             transformer.transform(source, result);
+            releaseIdentityTransformer(transformer);
         } catch (final UncheckedXPathException e) {
             throw new DITAOTException("Failed to transform " + inputFile, e);
         } catch (final RuntimeException e) {
@@ -552,6 +598,11 @@ public final class XMLUtils {
             throw new DITAOTException("Failed to transform " + inputFile + ": " + e.getMessageAndLocation(), e);
         } catch (final Exception e) {
             throw new DITAOTException("Failed to transform " + inputFile + ": " + e.getMessage(), e);
+        } finally {
+            if (parser != null) {
+                releaseXMLReader(parser);
+            }
+            event.finish();
         }
     }
 
@@ -577,13 +628,14 @@ public final class XMLUtils {
         }
 
         InputSource src = null;
-        StreamResult result = null;
+        OutputStream out = null;
+        final PipelineEvents.Span event = events.startTransform(input, filters);
+        Transformer transformer = null;
+        XMLReader parser = null;
         try {
-            Transformer transformer = transformerFactory.newTransformer();
-            if (logger != null) {
-                transformer = withLogger(transformer, logger);
-            }
-            XMLReader reader = getXMLReader();
+            transformer = borrowIdentityTransformer();
+            parser = borrowXMLReader();
+            XMLReader reader = parser;
             for (final XMLFilter filter : filters) {
                 // ContentHandler must be reset so e.g. Saxon 9.1 will reassign ContentHandler
                 // when reusing filter with multiple Transformers.
@@ -593,8 +645,11 @@ public final class XMLUtils {
             }
             src = new InputSource(input.toString());
             final Source source = new SAXSource(reader, src);
-            result = new StreamResult(output.toString());
-            transformer.transform(source, result);
+            final boolean binary = keepBinaryFormat && DetectingXMLReader.isBinaryDirectory(input.toString())
+                    && BinaryXMLReader.isBinary(new File(input));
+            out = new BufferedOutputStream(new FileOutputStream(outputFile));
+            transformer.transform(source, binary ? getBinaryResult(out) : getTextResult(out));
+            releaseIdentityTransformer(transformer);
         } catch (final UncheckedXPathException e) {
             throw new DITAOTException("Failed to transform " + input, e);
         } catch (final RuntimeException e) {
@@ -604,16 +659,22 @@ public final class XMLUtils {
         } catch (final Exception e) {
             throw new DITAOTException("Failed to transform " + input + ": " + e.getMessage(), e);
         } finally {
+            if (parser != null) {
+                releaseXMLReader(parser);
+            }
             try {
                 close(src);
             } catch (final IOException e) {
                 // NOOP
             }
-            try {
-                close(result);
-            } catch (final IOException e) {
-                // NOOP
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (final IOException e) {
+                    // NOOP
+                }
             }
+            event.finish();
         }
     }
 
@@ -715,22 +776,211 @@ public final class XMLUtils {
     }
 
     /**
-     * Get preferred SAX parser.
+     * Get preferred SAX parser. The parser reads binary SAX event documents in temporary directories of jobs that
+     * use the binary temporary file format.
      *
      * @return XML parser instance.
      * @throws org.xml.sax.SAXException if instantiating XMLReader failed
      */
     public static XMLReader getXMLReader() throws SAXException {
+        XMLReader reader = newXMLReader();
+        if (Configuration.DEBUG) {
+            reader = new DebugXMLReader(reader);
+        }
+        return new DetectingXMLReader(reader, true);
+    }
+
+    /**
+     * Borrow preferred SAX parser from the pool of the current thread. If the pool is empty, a new parser is created.
+     * The parser must be returned with {@link #releaseXMLReader(XMLReader)} by the same thread after parsing is done
+     * and it must not be used after it has been returned.
+     *
+     * @return XML parser instance
+     * @throws org.xml.sax.SAXException if instantiating XMLReader failed
+     * @since 3.5
+     */
+    public static XMLReader borrowXMLReader() throws SAXException {
+        final Deque<XMLReader> pool = readerPool.get();
+        final XMLReader reader = pool.poll();
+        return reader != null ? reader : getXMLReader();
+    }
+
+    /**
+     * Reset parser to its initial state and return it to the pool of the current thread. Handlers, entity resolver
+     * and lexical handler are removed and namespace features are restored to their defaults. Parsers that cannot be
+     * reset are discarded.
+     *
+     * @param reader parser borrowed with {@link #borrowXMLReader()}
+     * @since 3.5
+     */
+    public static void releaseXMLReader(final XMLReader reader) {
+        final Deque<XMLReader> pool = readerPool.get();
+        if (pool.size() >= MAX_POOLED_READERS) {
+            return;
+        }
         try {
-            final XMLReader reader = saxParserFactory.newSAXParser().getXMLReader();
-            return Configuration.DEBUG ? new DebugXMLReader(reader) : reader;
+            reader.setContentHandler(null);
+            reader.setDTDHandler(null);
+            reader.setErrorHandler(null);
+            reader.setEntityResolver(null);
+            reader.setProperty("http://xml.org/sax/properties/lexical-handler", null);
+            reader.setFeature(FEATURE_NAMESPACE, true);
+            reader.setFeature(FEATURE_NAMESPACE_PREFIX, false);
+        } catch (final SAXException | RuntimeException e) {
+            return;
+        }
+        pool.push(reader);
+    }
+
+    /**
+     * Borrow identity transformer of the current thread. Transformers are not reentrant, so a transformer is
+     * removed from the thread until it is released and nested transformations get a new instance.
+     */
+    private Transformer borrowIdentityTransformer() throws TransformerConfigurationException {
+        final Transformer transformer = identityTransformer.get();
+        if (transformer != null) {
+            identityTransformer.remove();
+            return transformer;
+        }
+        final Transformer created = transformerFactory.newTransformer();
+        return logger != null ? withLogger(created, logger) : created;
+    }
+
+    /**
+     * Return identity transformer after a successful transformation for reuse by the current thread.
+     */
+    private void releaseIdentityTransformer(final Transformer transformer) {
+        transformer.clearParameters();
+        identityTransformer.set(transformer);
+    }
+
+    /**
+     * Create new XML parser that does not detect binary SAX event documents.
+     */
+    static XMLReader newXMLReader() throws SAXException {
+        try {
+            return saxParserFactory.newSAXParser().getXMLReader();
         } catch (ParserConfigurationException e) {
             throw new SAXException(e);
         }
     }
 
     /**
-     * Get DOM parser.
+     * Get result that serializes to binary SAX event format.
+     *
+     * @param out output stream to write to
+     * @return binary serialization result
+     */
+    public static Result getBinaryResult(final OutputStream out) {
+        final BinaryXMLWriter writer = new BinaryXMLWriter(out);
+        final SAXResult result = new SAXResult(writer);
+        result.setLexicalHandler(writer);
+        return result;
+    }
+
+    /**
+     * Get result that serializes to UTF-8 XML with {@link Utf8XMLWriter}.
+     *
+     * @param out output stream to write to
+     * @return XML serialization result
+     * @since 3.5
+     */
+    public static Result getTextResult(final OutputStream out) {
+        final Utf8XMLWriter writer = new Utf8XMLWriter(out);
+        final SAXResult result = new SAXResult(writer);
+        result.setLexicalHandler(writer);
+        return result;
+    }
+
+    /**
+     * Parse document into a DOM that shares repeated attribute values and whitespace. Used for large documents that
+     * are kept in memory and modified, e.g. maps.
+     *
+     * @param input input document
+     * @param errorHandler error handler, may be {@code null}
+     * @return parsed document
+     * @see CompactDOMBuilder
+     * @since 3.5
+     */
+    public static Document parseCompact(final InputSource input, final ErrorHandler errorHandler)
+            throws IOException, SAXException {
+        final CompactDOMBuilder builder = new CompactDOMBuilder();
+        final XMLReader reader = borrowXMLReader();
+        try {
+            if (errorHandler != null) {
+                reader.setErrorHandler(errorHandler);
+            }
+            reader.setContentHandler(builder);
+            reader.setProperty("http://xml.org/sax/properties/lexical-handler", builder);
+            reader.parse(input);
+        } finally {
+            releaseXMLReader(reader);
+        }
+        final Document doc = builder.getDocument();
+        if (input.getSystemId() != null) {
+            doc.setDocumentURI(input.getSystemId());
+        }
+        return doc;
+    }
+
+    /**
+     * Serialize DOM node as UTF-8 XML with {@link Utf8XMLWriter}.
+     *
+     * @param node document or element to serialize
+     * @param out output stream to write to, will not be closed
+     * @throws TransformerException if serialization failed
+     * @since 3.5
+     */
+    public static void writeDocument(final Node node, final OutputStream out) throws TransformerException {
+        getTransformerFactory().newTransformer().transform(new DOMSource(node), getTextResult(out));
+    }
+
+    /**
+     * Read document type declaration from document prolog. Parsing is stopped at the root element.
+     *
+     * @param input input document
+     * @param resolver entity resolver, may be {@code null}
+     * @return public and system identifier, {@code null} if document has no document type declaration
+     */
+    public static String[] readDoctype(final InputSource input, final EntityResolver resolver)
+            throws IOException, SAXException {
+        final String[] doctype = new String[2];
+        final boolean[] found = {false};
+        final XMLReader reader = borrowXMLReader();
+        if (resolver != null) {
+            reader.setEntityResolver(resolver);
+        }
+        reader.setProperty("http://xml.org/sax/properties/lexical-handler", new DefaultHandler2() {
+            @Override
+            public void startDTD(final String name, final String publicId, final String systemId) {
+                doctype[0] = publicId;
+                doctype[1] = systemId;
+                found[0] = true;
+            }
+        });
+        reader.setContentHandler(new DefaultHandler() {
+            @Override
+            public void startElement(final String uri, final String localName, final String qName,
+                                     final Attributes atts) throws SAXException {
+                throw new StopParsingException();
+            }
+        });
+        try {
+            reader.parse(input);
+        } catch (final StopParsingException e) {
+            // root element reached
+        } finally {
+            releaseXMLReader(reader);
+        }
+        return found[0] ? doctype : null;
+    }
+
+    private static final class StopParsingException extends SAXException {
+    }
+
+    /**
+     * Get DOM parser. The parser reads binary SAX event documents in temporary directories of jobs that use the
+     * binary temporary file format.
      *
      * @return DOM document builder instance.
      * @throws RuntimeException if instantiating DocumentBuilder failed
@@ -742,12 +992,81 @@ public final class XMLUtils {
         } catch (final ParserConfigurationException e) {
             throw new RuntimeException(e);
         }
+        builder = new DetectingDocumentBuilder(builder);
         if (Configuration.DEBUG) {
             builder = new DebugDocumentBuilder(builder);
         }
         return builder;
     }
 
+    /**
+     * Get transformer factory. If the default transformer factory is Saxon, extension functions and collation URI
+     * resolvers are registered once into a template configuration, and each returned factory gets its own copy of
+     * it. The copies share the name pool, so documents can be shared between factories, but factory settings that
+     * Saxon stores in the configuration, such as the URI resolver and error listener, are not shared. Source documents
+     * are parsed with {@link DetectingXMLReader}.
+     *
+     * @return new transformer factory instance
+     */
+    public static TransformerFactory getTransformerFactory() {
+        synchronized (XMLUtils.class) {
+            if (saxonConfiguration == null) {
+                final TransformerFactory tf = TransformerFactory.newInstance();
+                if (!(tf instanceof SaxonTransformerFactory)) {
+                    return tf;
+                }
+                final net.sf.saxon.Configuration conf = ((SaxonTransformerFactory) tf).getConfiguration();
+                configureSaxonExtensions(conf);
+                configureSaxonCollationResolvers(conf);
+                conf.setSourceParserClass(DetectingXMLReader.class.getName());
+                saxonConfiguration = conf;
+            }
+            return new TransformerFactoryImpl(saxonConfiguration.copy());
+        }
+    }
+
+    /**
+     * Registers Saxon full integrated function definitions.
+     * The intgrated function should be an instance of net.sf.saxon.lib.ExtensionFunctionDefinition abstract class.
+     * @see <a href="https://www.saxonica.com/html/documentation/extensibility/integratedfunctions/ext-full-J.html">Saxon
+     *      Java extension functions: full interface</a>
+     */
+    public static void configureSaxonExtensions(final net.sf.saxon.Configuration conf) {
+        for (ExtensionFunctionDefinition def : ServiceLoader.load(ExtensionFunctionDefinition.class)) {
+            try {
+                conf.registerExtensionFunction(def.getClass().newInstance());
+            } catch (InstantiationException e) {
+                throw new RuntimeException("Failed to register " + def.getFunctionQName().getDisplayName()
+                        + ". Cannot create instance of " + def.getClass().getName() + ": " + e.getMessage(), e);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Registers collation URI resolvers.
+     *
+     * @param conf Saxon configuration to configure
+     */
+    public static void configureSaxonCollationResolvers(final net.sf.saxon.Configuration conf) {
+        for (DelegatingCollationUriResolver resolver : ServiceLoader.load(DelegatingCollationUriResolver.class)) {
+            try {
+                final DelegatingCollationUriResolver newResolver = resolver.getClass().newInstance();
+                final CollationURIResolver currentResolver = conf.getCollationURIResolver();
+                if (currentResolver != null) {
+                    newResolver.setBaseResolver(currentResolver);
+                }
+                conf.setCollationURIResolver(newResolver);
+            } catch (InstantiationException e) {
+                throw new RuntimeException("Failed to register " + resolver.getClass().getSimpleName()
+                        + ". Cannot create instance of " + resolver.getClass().getName() + ": " + e.getMessage(), e);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
     /**
      * Convenience builder for {@link org.xml.sax.Attributes SAX Attributes}.
      */
@@ -959,6 +1278,61 @@ public final class XMLUtils {
         }
     }
 
+    /**
+     * DocumentBuilder wrapper that builds binary SAX event documents with an identity transformation.
+     */
+    private static final class DetectingDocumentBuilder extends DocumentBuilder {
+        private final DocumentBuilder b;
+        DetectingDocumentBuilder(final DocumentBuilder b) {
+            this.b = b;
+        }
+
+        @Override
+        public Document parse(InputSource is) throws SAXException, IOException {
+            return DetectingXMLReader.parse(is, true, b::parse, src -> {
+                final Document doc = b.newDocument();
+                try {
+                    final Transformer serializer = getTransformerFactory().newTransformer();
+                    serializer.transform(new SAXSource(new BinaryXMLReader(), src), new DOMResult(doc));
+                } catch (final TransformerException e) {
+                    throw new SAXException(e);
+                }
+                doc.setDocumentURI(src.getSystemId());
+                return doc;
+            });
+        }
+
+        @Override
+        public boolean isNamespaceAware() {
+            return b.isNamespaceAware();
+        }
+
+        @Override
+        public boolean isValidating() {
+            return b.isValidating();
+        }
+
+        @Override
+        public void setEntityResolver(EntityResolver er) {
+            b.setEntityResolver(er);
+        }
+
+        @Override
+        public void setErrorHandler(ErrorHandler eh) {
+            b.setErrorHandler(eh);
+        }
+
+        @Override
+        public Document newDocument() {
+            return b.newDocument();
+        }
+
+        @Override
+        public DOMImplementation getDOMImplementation() {
+            return b.getDOMImplementation();
+        }
+    }
+
     /**
      * Debug DocumentBuilder wrapper that logs calls to parse, not intended for end users.
      */
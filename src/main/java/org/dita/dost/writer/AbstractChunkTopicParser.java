@@ -418,6 +418,10 @@ public abstract class AbstractChunkTopicParser extends AbstractXMLWriter {
         if (!ditaTopicFile.isAbsolute()) {
             return null;
         }
+        final String indexed = job.getElementIdIndex().getFirstId(ditaTopicFile.toURI());
+        if (indexed != null) {
+            return indexed.isEmpty() ? null : indexed;
+        }
         final StringBuilder firstTopicId = new StringBuilder();
         final TopicIdParser parser = new TopicIdParser(firstTopicId);
         try {
@@ -7,17 +7,12 @@
  */
 package org.dita.dost.writer;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.IOException;
+import java.io.OutputStream;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.transform.Result;
-import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
 
 import org.dita.dost.exception.DITAOTException;
 import org.dita.dost.exception.DITAOTXMLErrorHandler;
@@ -26,8 +21,7 @@ import org.dita.dost.reader.AbstractReader;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.XMLUtils;
 import org.w3c.dom.Document;
-
-import static org.dita.dost.util.XMLUtils.close;
+import org.xml.sax.InputSource;
 
 /**
  * Reads XML into DOM, modifies it, and serializes back into XML.
@@ -43,10 +37,9 @@ public abstract class AbstractDomFilter implements AbstractReader {
         logger.info("Processing " + filename.toURI());
         Document doc;
         try {
-            final DocumentBuilder builder = XMLUtils.getDocumentBuilder();
-            builder.setErrorHandler(new DITAOTXMLErrorHandler(filename.getPath(), logger));
             logger.debug("Reading " + filename.toURI());
-            doc = builder.parse(filename);
+            doc = XMLUtils.parseCompact(new InputSource(filename.toURI().toString()),
+                    new DITAOTXMLErrorHandler(filename.getPath(), logger));
         } catch (final RuntimeException e) {
             throw e;
         } catch (final Exception e) {
@@ -56,25 +49,15 @@ public abstract class AbstractDomFilter implements AbstractReader {
         final Document resDoc = process(doc);
 
         if (resDoc != null) {
-            Result res = null;
-            try {
-                res = new StreamResult(new FileOutputStream(filename));
-                final DOMSource ds = new DOMSource(resDoc);
-                final Transformer serializer = TransformerFactory.newInstance().newTransformer();
-                logger.debug("Writing " + filename.toURI());
-                serializer.transform(ds, res);
+            logger.debug("Writing " + filename.toURI());
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(filename))) {
+                XMLUtils.writeDocument(resDoc, out);
             } catch (final RuntimeException e) {
                 throw e;
             } catch (final TransformerException e) {
                 throw new DITAOTException("Failed to serialize " + filename.getAbsolutePath() + ": " + e.getMessageAndLocation(), e);
             } catch (final Exception e) {
                 throw new DITAOTException("Failed to serialize " + filename.getAbsolutePath() + ": " + e.getMessage(), e);
-            } finally {
-                try {
-                    close(res);
-                } catch (final IOException e) {
-                    logger.error("Failed to close result: " + e.getMessage(), e);
-                }
             }
         }
     }
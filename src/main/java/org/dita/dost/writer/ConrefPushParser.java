@@ -53,9 +53,7 @@ public final class ConrefPushParser extends AbstractDomFilter {
         for (final MoveKey key : movetable.keySet()) {
             logger.warn(MessageUtils.getMessage("DOTJ043W", key.idPath, filename.getPath()).toString());
         }
-        if (hasConref || hasKeyref) {
-            updateList(filename);
-        }
+        updateList(filename);
     }
 
     @Override
@@ -73,6 +71,8 @@ public final class ConrefPushParser extends AbstractDomFilter {
         try {
             final URI relativePath = toURI(filename.getAbsolutePath().substring(new File(normalize(tempDir.toString())).getPath().length() + 1));
             final FileInfo f = job.getOrCreateFileInfo(relativePath);
+            // pushed content is not included in content feature flags
+            f.hasContentFlags = false;
             if (hasConref) {
                 f.hasConref = true;
             }
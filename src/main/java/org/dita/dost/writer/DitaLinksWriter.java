@@ -11,6 +11,7 @@ package org.dita.dost.writer;
 import org.dita.dost.exception.DITAOTException;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.StringUtils;
+import org.dita.dost.util.XMLUtils;
 import org.w3c.dom.*;
 import org.xml.sax.Attributes;
 import org.xml.sax.ContentHandler;
@@ -55,7 +56,7 @@ public final class DitaLinksWriter extends AbstractXMLFilter {
         super();
         topicSpecList = new ArrayList<>();
         try {
-            serializer = TransformerFactory.newInstance().newTransformer();
+            serializer = XMLUtils.getTransformerFactory().newTransformer();
         } catch (final TransformerConfigurationException e) {
             throw new RuntimeException("Failed to configure DOM to SAX transformer: " + e.getMessage(), e);
         }
@@ -12,9 +12,6 @@ import org.dita.dost.writer.CoderefResolver;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.SAXException;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-
 public class AllRange implements Range {
 
     ContentHandler handler;
@@ -26,17 +23,29 @@ public class AllRange implements Range {
     }
 
     @Override
-    public void copyLines(BufferedReader codeReader) throws IOException, SAXException {
-        boolean first = true;
-        String line;
-        while ((line = codeReader.readLine()) != null) {
-            if (first) {
-                first = false;
-            } else {
+    public void copyLines(final IncludeSource source) throws SAXException {
+        copyLines(source, 0, source.getLineCount(), true);
+    }
+
+    /**
+     * Copy lines to target handler.
+     *
+     * @param source line indexed source
+     * @param start first line, inclusive
+     * @param end last line, exclusive
+     * @param first first copied line, i.e. no newline is written before the first line
+     */
+    void copyLines(final IncludeSource source, final int start, final int end, final boolean first)
+            throws SAXException {
+        final char[] text = source.getText();
+        boolean newline = !first;
+        for (int i = Math.max(start, 0); i < Math.min(end, source.getLineCount()); i++) {
+            if (newline) {
                 handler.characters(CoderefResolver.XML_NEWLINE, 0, CoderefResolver.XML_NEWLINE.length);
+            } else {
+                newline = true;
             }
-            final char[] ch = line.toCharArray();
-            handler.characters(ch, 0, ch.length);
+            handler.characters(text, source.getLineStart(i), source.getLineLength(i));
         }
     }
 }
@@ -8,46 +8,45 @@
 
 package org.dita.dost.writer.include;
 
-import org.dita.dost.writer.CoderefResolver;
 import org.xml.sax.SAXException;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-
 public class AnchorRange extends AllRange implements Range {
 
     private final String start;
     private final String end;
-    private int include;
 
     public AnchorRange(final String start, final String end) {
         this.start = start;
         this.end = end;
-        include = start != null ? -1 : 1;
     }
 
+    /**
+     * Copy lines between start and end anchor lines, exclusive. After an end anchor, the next start anchor
+     * starts a new range. Without a start anchor, lines are copied from the beginning of the source.
+     */
     @Override
-    public void copyLines(final BufferedReader codeReader) throws IOException, SAXException {
+    public void copyLines(final IncludeSource source) throws SAXException {
+        final int lineCount = source.getLineCount();
         boolean first = true;
-        String line;
-        while ((line = codeReader.readLine()) != null) {
-            if (include == -1 && start != null) {
-                include = line.contains(start) ? 0 : -1;
-            } else if (include > -1 && end != null) {
-                include = line.contains(end) ? -1 : include;
-            }
-            if (include > 0) {
-                if (first) {
-                    first = false;
-                } else {
-                    handler.characters(CoderefResolver.XML_NEWLINE, 0, CoderefResolver.XML_NEWLINE.length);
+        int line = 0;
+        while (line < lineCount) {
+            final int startLine;
+            if (start != null) {
+                final int i = source.indexOf(start, line);
+                if (i == -1) {
+                    break;
                 }
-                final char[] ch = line.toCharArray();
-                handler.characters(ch, 0, ch.length);
+                startLine = i + 1;
+            } else {
+                startLine = 0;
             }
-            if (include >= 0) {
-                include++;
+            final int endLine = end != null ? source.indexOf(end, startLine) : -1;
+            copyLines(source, startLine, endLine != -1 ? endLine : lineCount, first);
+            first = first && startLine >= (endLine != -1 ? endLine : lineCount);
+            if (endLine == -1 || start == null) {
+                break;
             }
+            line = endLine + 1;
         }
     }
 }
@@ -78,6 +78,8 @@ public class IncludeResolver extends AbstractXMLFilter {
 
     private Deque<Boolean> ignoreDepth = new ArrayDeque<>();
     private Deque<Deque<StackItem>> includeStack = new ArrayDeque<>();
+    /** Include sources read by this resolver, released with the resolver at the end of the coderef stage. */
+    private final IncludeSourceCache sources = new IncludeSourceCache();
 
     private static class StackItem {
         public final String cls;
@@ -155,7 +157,7 @@ public class IncludeResolver extends AbstractXMLFilter {
                         final String parse = getParse(atts.getValue(ATTRIBUTE_NAME_PARSE));
                         switch (parse) {
                             case "text":
-                                include = new IncludeText(job, currentFile, getContentHandler(), logger).include(atts);
+                                include = new IncludeText(job, currentFile, getContentHandler(), logger, sources).include(atts);
                                 break;
                             case "xml":
                                 include = new IncludeXml(job, currentFile, getContentHandler(), logger).include(atts);
@@ -0,0 +1,204 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.writer.include;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decoded text file with a line index. Lines are split like {@link java.io.BufferedReader#readLine()} splits them.
+ *
+ * <p>Sources are cached with {@link IncludeSourceCache} so that including different ranges of the same file reads
+ * and decodes the file only once. Sources are immutable and thread-safe.</p>
+ *
+ * @since 3.5
+ */
+public final class IncludeSource {
+
+    /** Files larger than this are decoded from a memory mapped buffer. */
+    private static final long MAP_THRESHOLD = 1024 * 1024;
+
+    private final char[] text;
+    /** Start offset of each line. */
+    private final int[] lineStarts;
+    /** End offset of each line, excluding line terminator. */
+    private final int[] lineEnds;
+    private final int lineCount;
+    /** Lines that contain an anchor token, keyed by token. */
+    private final Map<String, int[]> tokenLines = new ConcurrentHashMap<>();
+    final long lastModified;
+    final long fileLength;
+
+    IncludeSource(final char[] text, final int length, final long lastModified, final long fileLength) {
+        this.text = text;
+        this.lastModified = lastModified;
+        this.fileLength = fileLength;
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        int count = 0;
+        int start = 0;
+        int i = 0;
+        while (i < length) {
+            final char c = text[i];
+            if (c == '\n' || c == '\r') {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                    ends = Arrays.copyOf(ends, count * 2);
+                }
+                starts[count] = start;
+                ends[count] = i;
+                count++;
+                i++;
+                if (c == '\r' && i < length && text[i] == '\n') {
+                    i++;
+                }
+                start = i;
+            } else {
+                i++;
+            }
+        }
+        if (start < length) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count + 1);
+                ends = Arrays.copyOf(ends, count + 1);
+            }
+            starts[count] = start;
+            ends[count] = length;
+            count++;
+        }
+        this.lineStarts = Arrays.copyOf(starts, count);
+        this.lineEnds = Arrays.copyOf(ends, count);
+        this.lineCount = count;
+    }
+
+    /**
+     * Read and decode file. Malformed input is reported as an error.
+     */
+    static IncludeSource read(final Path path, final Charset charset) throws IOException {
+        final File file = path.toFile();
+        final long lastModified = file.lastModified();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final ByteBuffer bytes = size > MAP_THRESHOLD
+                    ? channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+                    : ByteBuffer.wrap(Files.readAllBytes(path));
+            final CharBuffer chars = charset.newDecoder().decode(bytes);
+            final char[] text = chars.hasArray() && chars.arrayOffset() == 0 && chars.position() == 0
+                    ? chars.array()
+                    : chars.toString().toCharArray();
+            return new IncludeSource(text, chars.remaining(), lastModified, size);
+        }
+    }
+
+    /**
+     * Get approximate memory use of decoded text and line index in bytes.
+     */
+    long getSize() {
+        return text.length * 2L + lineCount * 8L;
+    }
+
+    /**
+     * Get number of lines.
+     */
+    int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Get source text. Contents of the returned array must not be modified.
+     */
+    char[] getText() {
+        return text;
+    }
+
+    /**
+     * Get line start offset in source text.
+     */
+    int getLineStart(final int line) {
+        return lineStarts[line];
+    }
+
+    /**
+     * Get line length, excluding line terminator.
+     */
+    int getLineLength(final int line) {
+        return lineEnds[line] - lineStarts[line];
+    }
+
+    /**
+     * Find next line that contains token.
+     *
+     * @param token token to search for, must not contain line terminators
+     * @param fromLine first line to search
+     * @return line number, or {@code -1} if no line from {@code fromLine} onwards contains the token
+     */
+    int indexOf(final String token, final int fromLine) {
+        final int[] lines = tokenLines.computeIfAbsent(token, this::findLines);
+        int i = Arrays.binarySearch(lines, fromLine);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return i < lines.length ? lines[i] : -1;
+    }
+
+    private int[] findLines(final String token) {
+        int[] lines = new int[8];
+        int count = 0;
+        int line = 0;
+        int pos = 0;
+        while (line < lineCount) {
+            final int i = indexOf(token, pos, lineEnds[lineCount - 1]);
+            if (i == -1) {
+                break;
+            }
+            while (lineEnds[line] < i + token.length()) {
+                line++;
+            }
+            if (count == lines.length) {
+                lines = Arrays.copyOf(lines, count * 2);
+            }
+            lines[count++] = line;
+            line++;
+            if (line < lineCount) {
+                pos = lineStarts[line];
+            }
+        }
+        return Arrays.copyOf(lines, count);
+    }
+
+    private int indexOf(final String token, final int from, final int to) {
+        if (token.isEmpty()) {
+            return from;
+        }
+        final char first = token.charAt(0);
+        final int last = to - token.length();
+        outer:
+        for (int i = from; i <= last; i++) {
+            if (text[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < token.length(); j++) {
+                if (text[i + j] != token.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.writer.include;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Cache of decoded include sources by file and charset. A cached source is reread if the size or modification time
+ * of the file has changed. The cache is owned by a single include resolver, so sources are released when the
+ * resolver is no longer used. Instances are thread-safe.
+ *
+ * @since 3.5
+ */
+final class IncludeSourceCache {
+
+    /** Default cache size in bytes of decoded text and line index. */
+    private static final long DEFAULT_MAX_WEIGHT = Runtime.getRuntime().maxMemory() / 32;
+
+    private final Cache<Key, IncludeSource> cache;
+
+    IncludeSourceCache() {
+        this(DEFAULT_MAX_WEIGHT);
+    }
+
+    /**
+     * Create new cache.
+     *
+     * @param maxWeight maximum cache size in bytes of decoded text and line index
+     */
+    IncludeSourceCache(final long maxWeight) {
+        cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Key key, IncludeSource source) -> (int) Math.min(Integer.MAX_VALUE, source.getSize()))
+                .build();
+    }
+
+    /**
+     * Get cached source or read it from file.
+     *
+     * @param file absolute source file
+     * @param charset source charset
+     * @return decoded source
+     * @throws IOException if reading or decoding the file failed
+     */
+    IncludeSource get(final File file, final Charset charset) throws IOException {
+        final Key key = new Key(file.toPath().normalize(), charset);
+        try {
+            IncludeSource source = cache.get(key, () -> IncludeSource.read(key.path, charset));
+            if (source.lastModified != file.lastModified() || source.fileLength != file.length()) {
+                cache.asMap().remove(key, source);
+                source = cache.get(key, () -> IncludeSource.read(key.path, charset));
+            }
+            return source;
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to read " + file + ": " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Remove all cached sources.
+     */
+    void clear() {
+        cache.invalidateAll();
+    }
+
+    private static final class Key {
+        final Path path;
+        final Charset charset;
+
+        Key(final Path path, final Charset charset) {
+            this.path = path;
+            this.charset = charset;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return path.equals(key.path) && charset.equals(key.charset);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, charset);
+        }
+    }
+}
@@ -15,11 +15,9 @@ import org.dita.dost.util.Job;
 import org.xml.sax.Attributes;
 import org.xml.sax.ContentHandler;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.net.URI;
 import java.nio.charset.Charset;
-import java.nio.file.Files;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -28,16 +26,24 @@ import static org.dita.dost.util.URLUtils.*;
 
 final class IncludeText {
 
+    /** RFC 5147 line fragment. */
+    private static final Pattern LINE_FRAGMENT = Pattern.compile("^line=(?:(\\d+)|(\\d+)?,(\\d+)?)$");
+    private static final Pattern LINE_RANGE_FRAGMENT = Pattern.compile("^line-range\\((\\d+)(?:,\\s*(\\d+))?\\)$");
+    private static final Pattern TOKEN_FRAGMENT = Pattern.compile("^token=([^,\\s)]*)(?:,\\s*([^,\\s)]+))?$");
+
     private final Job job;
     private final URI currentFile;
     private final ContentHandler contentHandler;
     private final DITAOTLogger logger;
+    private final IncludeSourceCache sources;
 
-    IncludeText(Job job, URI currentFile, ContentHandler contentHandler, DITAOTLogger logger) {
+    IncludeText(Job job, URI currentFile, ContentHandler contentHandler, DITAOTLogger logger,
+                IncludeSourceCache sources) {
         this.job = job;
         this.currentFile = currentFile;
         this.contentHandler = contentHandler;
         this.logger = logger;
+        this.sources = sources;
     }
 
     boolean include(final Attributes atts) {
@@ -46,8 +52,8 @@ final class IncludeText {
         final Range range = getRange(hrefValue);
         final File codeFile = getFile(hrefValue);
         if (codeFile != null) {
-            try (BufferedReader codeReader = Files.newBufferedReader(codeFile.toPath(), charset)) {
-                range.copyLines(codeReader);
+            try {
+                range.copyLines(sources.get(codeFile, charset));
             } catch (final Exception e) {
                 logger.error("Failed to process include {}", codeFile, e);
                 return false;
@@ -81,8 +87,7 @@ final class IncludeText {
 
         final String fragment = uri.getFragment();
         if (fragment != null) {
-            // RFC 5147
-            final Matcher m = Pattern.compile("^line=(?:(\\d+)|(\\d+)?,(\\d+)?)$").matcher(fragment);
+            final Matcher m = LINE_FRAGMENT.matcher(fragment);
             if (m.matches()) {
                 if (m.group(1) != null) {
                     start = Integer.parseInt(m.group(1));
@@ -97,7 +102,7 @@ final class IncludeText {
                 }
                 return new LineNumberRange(start, end).handler(contentHandler);
             } else {
-                final Matcher mc = Pattern.compile("^line-range\\((\\d+)(?:,\\s*(\\d+))?\\)$").matcher(fragment);
+                final Matcher mc = LINE_RANGE_FRAGMENT.matcher(fragment);
                 if (mc.matches()) {
                     start = Integer.parseInt(mc.group(1)) - 1;
                     if (mc.group(2) != null) {
@@ -105,7 +110,7 @@ final class IncludeText {
                     }
                     return new LineNumberRange(start, end).handler(contentHandler);
                 } else {
-                    final Matcher mi = Pattern.compile("^token=([^,\\s)]*)(?:,\\s*([^,\\s)]+))?$").matcher(fragment);
+                    final Matcher mi = TOKEN_FRAGMENT.matcher(fragment);
                     if (mi.matches()) {
                         if (mi.group(1) != null && mi.group(1).length() != 0) {
                             startId = mi.group(1);
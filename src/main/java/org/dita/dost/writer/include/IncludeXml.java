@@ -11,6 +11,7 @@ package org.dita.dost.writer.include;
 import org.dita.dost.exception.DITAOTXMLErrorHandler;
 import org.dita.dost.log.DITAOTLogger;
 import org.dita.dost.util.Job;
+import org.dita.dost.util.XMLUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.xml.sax.Attributes;
@@ -20,7 +21,6 @@ import org.xml.sax.SAXException;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.sax.SAXResult;
 import java.io.IOException;
@@ -61,7 +61,7 @@ final class IncludeXml {
                 src = doc;
             }
 
-            final Transformer serializer = TransformerFactory.newInstance().newTransformer();
+            final Transformer serializer = XMLUtils.getTransformerFactory().newTransformer();
             final DOMSource source = new DOMSource(src);
             final SAXResult result = new SAXResult(new IncludeFilter(contentHandler));
             serializer.transform(source, result);
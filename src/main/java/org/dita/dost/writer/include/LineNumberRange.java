@@ -11,9 +11,6 @@ package org.dita.dost.writer.include;
 import org.dita.dost.writer.CoderefResolver;
 import org.xml.sax.SAXException;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-
 public class LineNumberRange extends AllRange implements Range {
 
     private final int start;
@@ -25,20 +22,11 @@ public class LineNumberRange extends AllRange implements Range {
     }
 
     @Override
-    public void copyLines(final BufferedReader codeReader) throws IOException, SAXException {
-        boolean first = true;
-        String line = codeReader.readLine();
-        for (int i = 0; line != null; i++) {
-            if (i >= start && i <= end) {
-                if (first) {
-                    first = false;
-                } else {
-                    handler.characters(CoderefResolver.XML_NEWLINE, 0, CoderefResolver.XML_NEWLINE.length);
-                }
-                final char[] ch = line.toCharArray();
-                handler.characters(ch, 0, ch.length);
-            }
-            line = codeReader.readLine();
+    public void copyLines(final IncludeSource source) throws SAXException {
+        if (end == Integer.MAX_VALUE) {
+            copyLines(source, start, source.getLineCount(), true);
+        } else {
+            copyLines(source, start, end + 1, true);
         }
     }
 }
@@ -11,16 +11,13 @@ package org.dita.dost.writer.include;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.SAXException;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-
 public interface Range {
     /**
-     * Copy lines from reader to target handler
+     * Copy lines from source to target handler
      *
-     * @param codeReader line reader
+     * @param source line indexed source
      */
-    void copyLines(final BufferedReader codeReader) throws IOException, SAXException;
+    void copyLines(final IncludeSource source) throws SAXException;
 
     /**
      * Set target handler
@@ -44,6 +44,16 @@ See the accompanying LICENSE file for applicable license.
     "/>
   </xsl:function>
 
+  <!-- Class -->
+
+  <!-- Fallback when Java extension function is not available -->
+  <xsl:function name="dita-ot:has-class" as="xs:boolean"
+                use-when="not(function-available('dita-ot:has-class', 2))">
+    <xsl:param name="node" as="node()?"/>
+    <xsl:param name="class" as="xs:string"/>
+    <xsl:sequence select="contains($node/@class, concat(' ', normalize-space($class), ' '))"/>
+  </xsl:function>
+
   <!-- ID -->
 
   <xsl:function name="dita-ot:has-topic-id" as="xs:boolean">
@@ -254,19 +254,19 @@ See the accompanying LICENSE file for applicable license.
               <xsl:variable name="target" as="element()*">
                 <xsl:choose>
                   <xsl:when test="exists($elemid)">
-                    <xsl:sequence select="key('id', $elemid)[contains(@class, $lastClassToken)][ancestor::*[contains(@class, ' topic/topic ')][1][@id = $topicid]]"/>
+                    <xsl:sequence select="conref:element-by-id(., $elemid)[contains(@class, $lastClassToken)][ancestor::*[contains(@class, ' topic/topic ')][1][@id = $topicid]]"/>
                   </xsl:when>
                   <xsl:when test="exists($topicid) and contains($current-element/@class, ' topic/topic ')">
-                    <xsl:sequence select="key('id', $topicid)[contains(@class, ' topic/topic ')][contains(@class, $lastClassToken)]"/>
+                    <xsl:sequence select="conref:element-by-id(., $topicid)[contains(@class, ' topic/topic ')][contains(@class, $lastClassToken)]"/>
                   </xsl:when>
                   <xsl:when test="exists($topicid) and contains($current-element/@class, ' map/topicref ')">
-                    <xsl:sequence select="key('id', $topicid)[contains(@class, ' map/topicref ')][contains(@class, $lastClassToken)]"/>  
+                    <xsl:sequence select="conref:element-by-id(., $topicid)[contains(@class, ' map/topicref ')][contains(@class, $lastClassToken)]"/>  
                   </xsl:when>
                   <xsl:when test="exists($topicid) and contains(root($current-element)/*/@class, ' map/map ')">
-                    <xsl:sequence select="key('id', $topicid)[contains(@class, $lastClassToken)]"/>
+                    <xsl:sequence select="conref:element-by-id(., $topicid)[contains(@class, $lastClassToken)]"/>
                   </xsl:when>
                   <xsl:when test="exists($topicid)">
-                    <xsl:sequence select="key('id', $topicid)[contains(@class, $lastClassToken)]"/>
+                    <xsl:sequence select="conref:element-by-id(., $topicid)[contains(@class, $lastClassToken)]"/>
                   </xsl:when>
                   <xsl:otherwise>
                     <xsl:sequence select="//*[contains(@class, ' topic/topic ')][1][contains(@class, $lastClassToken)]"/>
@@ -666,6 +666,16 @@ See the accompanying LICENSE file for applicable license.
     </xsl:element>
   </xsl:template>
 
+  <!-- Elements with given ID in the document of the context node. Uses the ID index extension function when available. -->
+  <xsl:function name="conref:element-by-id" as="element()*">
+    <xsl:param name="doc" as="node()"/>
+    <xsl:param name="id" as="xs:string"/>
+    <xsl:sequence select="dita-ot:element-by-id($doc, $id)"
+                  use-when="function-available('dita-ot:element-by-id', 2)"/>
+    <xsl:sequence select="key('id', $id, root($doc))"
+                  use-when="not(function-available('dita-ot:element-by-id', 2))"/>
+  </xsl:function>
+
   <xsl:function name="conref:isValid" as="xs:boolean">
     <xsl:param name="domains" as="xs:string?"/>
     <xsl:param name="failWeakConstraints" as="xs:boolean"/>
@@ -0,0 +1,21 @@
+<?xml version="1.0" encoding="UTF-8"?>
+<!--
+This file is part of the DITA Open Toolkit project.
+
+Copyright 2020 Jarno Elovirta
+
+See the accompanying LICENSE file for applicable license.
+-->
+<!-- Normalize input map for navigation once instead of in every topic transformation. -->
+<xsl:stylesheet xmlns:xsl="http://www.w3.org/1999/XSL/Transform"
+                version="2.0">
+
+  <xsl:import href="plugin:org.dita.html5:xsl/dita2html5Impl.xsl"/>
+
+  <xsl:output method="xml" encoding="UTF-8" indent="no"/>
+
+  <xsl:template match="/">
+    <xsl:apply-templates select="." mode="normalize-map"/>
+  </xsl:template>
+
+</xsl:stylesheet>
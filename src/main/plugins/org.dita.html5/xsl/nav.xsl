@@ -19,9 +19,18 @@ See the accompanying LICENSE file for applicable license.
   <xsl:param name="FILEDIR" as="xs:string?"/>
   <xsl:param name="FILENAME" as="xs:string?"/>
   <xsl:param name="input.map.url" as="xs:string?"/>
+  <!-- Input map normalized with mode normalize-map in html5.nav-map target -->
+  <xsl:param name="nav-map.url" as="xs:string?"/>
   
   <xsl:variable name="input.map" as="document-node()?">
-    <xsl:apply-templates select="document($input.map.url)" mode="normalize-map"/>
+    <xsl:choose>
+      <xsl:when test="normalize-space($nav-map.url)">
+        <xsl:sequence select="document($nav-map.url)"/>
+      </xsl:when>
+      <xsl:otherwise>
+        <xsl:apply-templates select="document($input.map.url)" mode="normalize-map"/>
+      </xsl:otherwise>
+    </xsl:choose>
   </xsl:variable>
 
   <xsl:attribute-set name="toc">
@@ -55,7 +64,16 @@ See the accompanying LICENSE file for applicable license.
   </xsl:template>
   
   <xsl:variable name="current-file" select="dita-ot:normalize-href(if ($FILEDIR = '.') then $FILENAME else concat($FILEDIR, '/', $FILENAME))" as="xs:string?"/>
-  <xsl:variable name="current-topicrefs" select="$input.map//*[contains(@class, ' map/topicref ')][dita-ot:get-path($PATH2PROJ, .) = $current-file]" as="element()*"/>
+  <xsl:key name="nav-path" match="*[contains(@class, ' map/topicref ')]" use="dita-ot:get-path('', .)"/>
+  <xsl:variable name="current-topicrefs" as="element()*">
+    <xsl:if test="exists($input.map) and exists($current-file)">
+      <xsl:variable name="prefix" select="replace(string($PATH2PROJ), '^(\.\./)+', '')" as="xs:string"/>
+      <xsl:sequence select="(if (starts-with($current-file, $prefix))
+                              then key('nav-path', substring($current-file, string-length($prefix) + 1), $input.map)[not(@scope = 'external')]
+                              else ()) |
+                            key('nav-path', $current-file, $input.map)[@scope = 'external']"/>
+    </xsl:if>
+  </xsl:variable>
   <xsl:variable name="current-topicref" select="$current-topicrefs[1]" as="element()?"/>
   
   <xsl:template match="*[contains(@class, ' map/map ')]" mode="toc-pull">
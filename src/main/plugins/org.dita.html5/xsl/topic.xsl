@@ -178,7 +178,7 @@ See the accompanying LICENSE file for applicable license.
   <xsl:variable name="msgprefix">DOTX</xsl:variable>
   
   <!-- these elements are never processed in a conventional presentation. can be overridden. -->
-  <xsl:template match="*[contains(@class, ' topic/no-topic-nesting ')]"/>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/no-topic-nesting')]"/>
   
   
   <!-- =========== ROOT RULE (just fall through; no side effects for new delivery contexts =========== -->
@@ -194,7 +194,7 @@ See the accompanying LICENSE file for applicable license.
        In an override stylesheet, the same call to "chapter-setup" must be issued to
        maintain the consistency of overall look'n'feel of the output HTML.
        Match on the first DITA element -or- the first root 'topic' element. -->
-  <xsl:template match="/dita | *[contains(@class, ' topic/topic ')]">
+  <xsl:template match="/dita | *[dita-ot:has-class(., 'topic/topic')]">
     <xsl:choose>
       <xsl:when test="not(parent::*)">
         <xsl:apply-templates select="." mode="root_element"/>
@@ -211,17 +211,17 @@ See the accompanying LICENSE file for applicable license.
   </xsl:template>
   
   <!-- child topics get a div wrapper and fall through -->
-  <xsl:template match="*[contains(@class, ' topic/topic ')]" mode="child.topic" name="child.topic">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/topic')]" mode="child.topic" name="child.topic">
     <xsl:param name="nestlevel" as="xs:integer">
         <xsl:choose>
             <!-- Limit depth for historical reasons, could allow any depth. Previously limit was 5. -->
-            <xsl:when test="count(ancestor::*[contains(@class, ' topic/topic ')]) > 9">9</xsl:when>
-            <xsl:otherwise><xsl:sequence select="count(ancestor::*[contains(@class, ' topic/topic ')])"/></xsl:otherwise>
+            <xsl:when test="count(ancestor::*[dita-ot:has-class(., 'topic/topic')]) > 9">9</xsl:when>
+            <xsl:otherwise><xsl:sequence select="count(ancestor::*[dita-ot:has-class(., 'topic/topic')])"/></xsl:otherwise>
         </xsl:choose>
     </xsl:param>
     <article class="nested{$nestlevel}">
       <xsl:attribute name="aria-labelledby">
-        <xsl:apply-templates select="*[contains(@class,' topic/title ')]" mode="return-aria-label-id"/>
+        <xsl:apply-templates select="*[dita-ot:has-class(., 'topic/title')]" mode="return-aria-label-id"/>
       </xsl:attribute>
       <xsl:call-template name="gen-topic">
         <xsl:with-param name="nestlevel" select="$nestlevel"/>
@@ -233,8 +233,8 @@ See the accompanying LICENSE file for applicable license.
     <xsl:param name="nestlevel" as="xs:integer">
         <xsl:choose>
             <!-- Limit depth for historical reasons, could allow any depth. Previously limit was 5. -->
-            <xsl:when test="count(ancestor::*[contains(@class, ' topic/topic ')]) > 9">9</xsl:when>
-            <xsl:otherwise><xsl:sequence select="count(ancestor::*[contains(@class, ' topic/topic ')])"/></xsl:otherwise>
+            <xsl:when test="count(ancestor::*[dita-ot:has-class(., 'topic/topic')]) > 9">9</xsl:when>
+            <xsl:otherwise><xsl:sequence select="count(ancestor::*[dita-ot:has-class(., 'topic/topic')])"/></xsl:otherwise>
         </xsl:choose>
     </xsl:param>
    <xsl:choose>
@@ -242,7 +242,7 @@ See the accompanying LICENSE file for applicable license.
        <!-- Do not reset xml:lang if it is already set on <html> -->
        <!-- Moved outputclass to the body tag -->
        <!-- Keep ditaval based styling at this point (replace DITA-OT 1.6 and earlier call to gen-style) -->
-       <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]/@outputclass" mode="add-ditaval-style"/>
+       <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]/@outputclass" mode="add-ditaval-style"/>
      </xsl:when>
      <xsl:otherwise>
        <xsl:call-template name="commonattributes">
@@ -260,11 +260,11 @@ See the accompanying LICENSE file for applicable license.
   <!-- 1st level - topic/title -->
   <!-- Condensed topic title into single template without priorities; use $headinglevel to set heading.
        If desired, somebody could pass in the value to manually set the heading level -->
-  <xsl:template match="*[contains(@class, ' topic/topic ')]/*[contains(@class, ' topic/title ')]">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/topic')]/*[dita-ot:has-class(., 'topic/title')]">
     <xsl:param name="headinglevel" as="xs:integer">
         <xsl:choose>
-            <xsl:when test="count(ancestor::*[contains(@class, ' topic/topic ')]) > 6">6</xsl:when>
-            <xsl:otherwise><xsl:sequence select="count(ancestor::*[contains(@class, ' topic/topic ')])"/></xsl:otherwise>
+            <xsl:when test="count(ancestor::*[dita-ot:has-class(., 'topic/topic')]) > 6">6</xsl:when>
+            <xsl:otherwise><xsl:sequence select="count(ancestor::*[dita-ot:has-class(., 'topic/topic')])"/></xsl:otherwise>
         </xsl:choose>
     </xsl:param>
     <xsl:element name="h{$headinglevel}">
@@ -277,29 +277,29 @@ See the accompanying LICENSE file for applicable license.
     </xsl:element>
   </xsl:template>
   
-  <xsl:template match="*[contains(@class, ' topic/topic ')]/*[contains(@class, ' topic/title ')]" mode="return-aria-label-id">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/topic')]/*[dita-ot:has-class(., 'topic/title')]" mode="return-aria-label-id">
     <xsl:choose>
       <xsl:when test="@id">
         <xsl:sequence select="dita-ot:generate-id(parent::*/@id, @id)"/>
       </xsl:when>
       <xsl:otherwise>
         <xsl:text>ariaid-title</xsl:text>
-        <xsl:number count="*[contains(@class, ' topic/title ')][parent::*[contains(@class,' topic/topic ')]]" level="any"/>
+        <xsl:number count="*[dita-ot:has-class(., 'topic/title')][parent::*[dita-ot:has-class(., 'topic/topic')]]" level="any"/>
       </xsl:otherwise>
     </xsl:choose>
   </xsl:template>
   
   <!-- Hide titlealts - they need to get pulled into the proper places -->
-  <xsl:template match="*[contains(@class, ' topic/titlealts ')]"/>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/titlealts')]"/>
   
   
   <!-- =========== BODY/SECTION (not sensitive to nesting depth) =========== -->
   
-  <xsl:template match="*[contains(@class, ' topic/body ')]" name="topic.body">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/body')]" name="topic.body">
   <div>
     <xsl:call-template name="commonattributes"/>
     <xsl:call-template name="setidaname"/>
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]" mode="out-of-line"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]" mode="out-of-line"/>
     <!-- here, you can generate a toc based on what's a child of body -->
     <!--xsl:call-template name="gen-sect-ptoc"/--><!-- Works; not always wanted, though; could add a param to enable it.-->
   
@@ -311,30 +311,30 @@ See the accompanying LICENSE file for applicable license.
   
     <!-- Added for DITA 1.1 "Shortdesc proposal" -->
     <!-- get the abstract para -->
-    <xsl:apply-templates select="preceding-sibling::*[contains(@class, ' topic/abstract ')]" mode="outofline"/>
+    <xsl:apply-templates select="preceding-sibling::*[dita-ot:has-class(., 'topic/abstract')]" mode="outofline"/>
     
     <!-- get the shortdesc para -->
-    <xsl:apply-templates select="preceding-sibling::*[contains(@class, ' topic/shortdesc ')]" mode="outofline"/>
+    <xsl:apply-templates select="preceding-sibling::*[dita-ot:has-class(., 'topic/shortdesc')]" mode="outofline"/>
     
     <!-- Insert pre-req links - after shortdesc - unless there is a prereq section about -->
-    <xsl:apply-templates select="following-sibling::*[contains(@class, ' topic/related-links ')]" mode="prereqs"/>
+    <xsl:apply-templates select="following-sibling::*[dita-ot:has-class(., 'topic/related-links')]" mode="prereqs"/>
   
     <xsl:apply-templates/>
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
   </div>
   </xsl:template>
   
   <!-- Added for DITA 1.1 "Shortdesc proposal" -->
-  <xsl:template match="*[contains(@class, ' topic/abstract ')]">
-    <xsl:if test="not(following-sibling::*[contains(@class, ' topic/body ')])">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/abstract')]">
+    <xsl:if test="not(following-sibling::*[dita-ot:has-class(., 'topic/body')])">
       <xsl:apply-templates select="." mode="outofline"/>
-      <xsl:apply-templates select="following-sibling::*[contains(@class, ' topic/related-links ')]" mode="prereqs"/>
+      <xsl:apply-templates select="following-sibling::*[dita-ot:has-class(., 'topic/related-links')]" mode="prereqs"/>
     </xsl:if>
   </xsl:template>
   
   <!-- Added for DITA 1.1 "Shortdesc proposal" -->
   <!-- called abstract processing - para at start of topic -->
-  <xsl:template match="*[contains(@class, ' topic/abstract ')]" mode="outofline">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/abstract')]" mode="outofline">
     <div>
       <xsl:call-template name="commonattributes"/>
       <xsl:apply-templates/>
@@ -343,21 +343,21 @@ See the accompanying LICENSE file for applicable license.
   
   <!-- Updated for DITA 1.1 "Shortdesc proposal" -->
   <!-- Added for SF 1363055: Shortdesc disappears when optional body is removed -->
-  <xsl:template match="*[contains(@class, ' topic/shortdesc ')]">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/shortdesc')]">
     <xsl:choose>
-      <xsl:when test="parent::*[contains(@class, ' topic/abstract ')]">
+      <xsl:when test="parent::*[dita-ot:has-class(., 'topic/abstract')]">
         <xsl:apply-templates select="." mode="outofline.abstract"/>
       </xsl:when>
-      <xsl:when test="not(following-sibling::*[contains(@class, ' topic/body ')])">    
+      <xsl:when test="not(following-sibling::*[dita-ot:has-class(., 'topic/body')])">    
         <xsl:apply-templates select="." mode="outofline"/>
-        <xsl:apply-templates select="following-sibling::*[contains(@class, ' topic/related-links ')]" mode="prereqs"/>
+        <xsl:apply-templates select="following-sibling::*[dita-ot:has-class(., 'topic/related-links')]" mode="prereqs"/>
       </xsl:when>
       <xsl:otherwise></xsl:otherwise>
     </xsl:choose>
   </xsl:template>
   
   <!-- called shortdesc processing when it is in abstract -->
-  <xsl:template match="*[contains(@class, ' topic/shortdesc ')]" mode="outofline.abstract">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/shortdesc')]" mode="outofline.abstract">
     <xsl:choose>    
       <xsl:when test="exists(preceding-sibling::*[dita-ot:is-block(.)] | following-sibling::*[dita-ot:is-block(.)])">
         <p>
@@ -378,7 +378,7 @@ See the accompanying LICENSE file for applicable license.
   </xsl:template>
   
   <!-- called shortdesc processing - para at start of topic -->
-  <xsl:template match="*[contains(@class, ' topic/shortdesc ')]" mode="outofline">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/shortdesc')]" mode="outofline">
     <p>
       <xsl:call-template name="commonattributes"/>
       <xsl:apply-templates/>
@@ -386,28 +386,28 @@ See the accompanying LICENSE file for applicable license.
   </xsl:template>
   
   <!-- section processor - div with no generated title -->
-  <xsl:template match="*[contains(@class, ' topic/section ')]" name="topic.section">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/section')]" name="topic.section">
     <section class="section">
       <xsl:call-template name="commonattributes"/>
       <xsl:call-template name="gen-toc-id"/>
       <xsl:call-template name="setidaname"/>
-      <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]" mode="out-of-line"/>
+      <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]" mode="out-of-line"/>
       <xsl:apply-templates select="." mode="dita2html:section-heading"/>
-      <xsl:apply-templates select="*[not(contains(@class, ' topic/title '))] | text() | comment() | processing-instruction()"/>
-      <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+      <xsl:apply-templates select="*[not(dita-ot:has-class(., 'topic/title'))] | text() | comment() | processing-instruction()"/>
+      <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
     </section>
   </xsl:template>
   
   <!-- example processor - div with no generated title -->
-  <xsl:template match="*[contains(@class, ' topic/example ')]" name="topic.example">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/example')]" name="topic.example">
     <div class="example">
       <xsl:call-template name="commonattributes"/>
       <xsl:call-template name="gen-toc-id"/>
       <xsl:call-template name="setidaname"/>
-      <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]" mode="out-of-line"/>
+      <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]" mode="out-of-line"/>
       <xsl:apply-templates select="." mode="dita2html:section-heading"/>
-      <xsl:apply-templates select="*[not(contains(@class, ' topic/title '))] | text() | comment() | processing-instruction()"/>
-      <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+      <xsl:apply-templates select="*[not(dita-ot:has-class(., 'topic/title'))] | text() | comment() | processing-instruction()"/>
+      <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
     </div>
   </xsl:template>
   
@@ -415,7 +415,7 @@ See the accompanying LICENSE file for applicable license.
   
   <!-- =========== BASIC BODY ELEMENTS =========== -->
   
-  <xsl:template match="*[contains(@class, ' topic/div ')]">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/div')]">
     <div>
       <xsl:call-template name="commonattributes"/>
       <xsl:call-template name="setid"/>
@@ -424,7 +424,7 @@ See the accompanying LICENSE file for applicable license.
   </xsl:template>
   
   <!-- paragraphs -->
-  <xsl:template match="*[contains(@class, ' topic/p ')]" name="topic.p">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/p')]" name="topic.p">
    <!-- To ensure XHTML validity, need to determine whether the DITA kids are block elements.
         If so, use div_class="p" instead of p -->
    <xsl:choose>
@@ -454,7 +454,7 @@ See the accompanying LICENSE file for applicable license.
        To override all notes, match the note element's class attribute directly, as in this rule.
        To override a single note type, match the class with mode="process.note.(selected-type)"
        To override all notes except danger and caution, match the class with mode="process.note.common-processing" -->
-  <xsl:template match="*[contains(@class, ' topic/note ')]" name="topic.note">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/note')]" name="topic.note">
     <xsl:call-template name="spec-title"/>
     <xsl:choose>
       <xsl:when test="@type = 'note'">
@@ -558,11 +558,11 @@ See the accompanying LICENSE file for applicable license.
   <!-- long quote (bibliographic association).
        @reftitle contains the citation for the excerpt.
        With a link if @href is used.  -->
-  <xsl:template match="*[contains(@class, ' topic/lq ')]" name="topic.lq">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/lq')]" name="topic.lq">
     <blockquote>
       <xsl:call-template name="commonattributes"/>
       <xsl:call-template name="setidaname"/>
-      <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]" mode="out-of-line"/>
+      <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]" mode="out-of-line"/>
       <xsl:apply-templates/>
       <xsl:choose>
         <xsl:when test="@href">
@@ -586,7 +586,7 @@ See the accompanying LICENSE file for applicable license.
         </xsl:when>
         <xsl:otherwise><!--nop - do nothing--></xsl:otherwise>
       </xsl:choose>
-      <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+      <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
     </blockquote>
   </xsl:template>
   
@@ -594,14 +594,14 @@ See the accompanying LICENSE file for applicable license.
   <!-- =========== SINGLE PART LISTS =========== -->
   
   <!-- Ignore empty lists with all content filtered out -->
-  <xsl:template match="*[contains(@class, ' topic/ol ')][empty(*[contains(@class,' topic/li ')])]" priority="10"/>
-  <xsl:template match="*[contains(@class, ' topic/ul ')][empty(*[contains(@class,' topic/li ')])]" priority="10"/>
-  <xsl:template match="*[contains(@class, ' topic/sl ')][empty(*[contains(@class,' topic/sli ')])]" priority="10"/>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/ol')][empty(*[dita-ot:has-class(., 'topic/li')])]" priority="10"/>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/ul')][empty(*[dita-ot:has-class(., 'topic/li')])]" priority="10"/>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/sl')][empty(*[dita-ot:has-class(., 'topic/sli')])]" priority="10"/>
   
   <!-- Unordered List -->
   <!-- handle all levels thru browser processing -->
-  <xsl:template match="*[contains(@class, ' topic/ul ')]" name="topic.ul">
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]" mode="out-of-line"/>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/ul')]" name="topic.ul">
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]" mode="out-of-line"/>
     <xsl:call-template name="setaname"/>
     <ul>
       <xsl:call-template name="commonattributes"/>
@@ -609,13 +609,13 @@ See the accompanying LICENSE file for applicable license.
       <xsl:call-template name="setid"/>
       <xsl:apply-templates/>
     </ul>
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
   </xsl:template>
   
   <!-- Simple List -->
   <!-- handle all levels thru browser processing -->
-  <xsl:template match="*[contains(@class, ' topic/sl ')]" name="topic.sl">
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]" mode="out-of-line"/>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/sl')]" name="topic.sl">
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]" mode="out-of-line"/>
     <xsl:call-template name="setaname"/>
     <ul class="simple">
       <xsl:call-template name="commonattributes">
@@ -625,14 +625,14 @@ See the accompanying LICENSE file for applicable license.
       <xsl:call-template name="setid"/>
       <xsl:apply-templates/>
     </ul>
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
   </xsl:template>
   
   <!-- Ordered List - 1st level - Handle levels 1 to 9 thru OL-TYPE attribution -->
   <!-- Updated to use a single template, use count and mod to set the list type -->
-  <xsl:template match="*[contains(@class, ' topic/ol ')]" name="topic.ol">
-    <xsl:variable name="olcount" select="count(ancestor-or-self::*[contains(@class, ' topic/ol ')])"/>
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]" mode="out-of-line"/>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/ol')]" name="topic.ol">
+    <xsl:variable name="olcount" select="count(ancestor-or-self::*[dita-ot:has-class(., 'topic/ol')])"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]" mode="out-of-line"/>
     <xsl:call-template name="setaname"/>
     <ol>
       <xsl:call-template name="commonattributes"/>
@@ -645,11 +645,11 @@ See the accompanying LICENSE file for applicable license.
       <xsl:call-template name="setid"/>
       <xsl:apply-templates/>
     </ol>
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
   </xsl:template>
   
   <!-- list item -->
-  <xsl:template match="*[contains(@class, ' topic/li ')]" name="topic.li">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/li')]" name="topic.li">
   <li>
     <xsl:choose>
       <xsl:when test="parent::*/@compact = 'no'">
@@ -668,7 +668,7 @@ See the accompanying LICENSE file for applicable license.
   </li>
   </xsl:template>
   <!-- simple list item -->
-  <xsl:template match="*[contains(@class, ' topic/sli ')]" name="topic.sli">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/sli')]" name="topic.sli">
     <li>
       <xsl:choose>
         <xsl:when test="parent::*/@compact = 'no'">
@@ -689,9 +689,9 @@ See the accompanying LICENSE file for applicable license.
   </xsl:template>
     
   <!-- list item section is like li/lq but without presentation (indent) -->
-  <xsl:template match="*[contains(@class, ' topic/itemgroup ')]" name="topic.itemgroup">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/itemgroup')]" name="topic.itemgroup">
     <!-- insert a space before all but the first itemgroups in a LI -->
-    <xsl:variable name="itemgroupcount"><xsl:number count="*[contains(@class, ' topic/itemgroup ')]"/></xsl:variable>
+    <xsl:variable name="itemgroupcount"><xsl:number count="*[dita-ot:has-class(., 'topic/itemgroup')]"/></xsl:variable>
     <xsl:if test="$itemgroupcount > 1">
       <xsl:text> </xsl:text>
     </xsl:if>
@@ -699,8 +699,8 @@ See the accompanying LICENSE file for applicable license.
          Maintain that for now, though may want to update in the future to keep a wrapper in all cases.
          Considering using div instead of span, with a default inline CSS style. -->
     <xsl:choose>
-      <xsl:when test="*[contains(@class, ' ditaot-d/ditaval-startprop ')]/revprop |
-                      *[contains(@class, ' ditaot-d/ditaval-startprop ')]/@outputclass">
+      <xsl:when test="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]/revprop |
+                      *[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]/@outputclass">
         <span>
           <xsl:call-template name="commonattributes"/>
           <xsl:apply-templates/>
@@ -715,11 +715,11 @@ See the accompanying LICENSE file for applicable license.
   <!-- =========== DEFINITION LIST =========== -->
   
   <!-- DL -->
-  <xsl:template match="*[contains(@class,' topic/dl ')][empty(*[contains(@class,' topic/dlentry ')])]" priority="10"/>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/dl')][empty(*[dita-ot:has-class(., 'topic/dlentry')])]" priority="10"/>
   
-  <xsl:template match="*[contains(@class, ' topic/dl ')]" name="topic.dl">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/dl')]" name="topic.dl">
     <xsl:call-template name="setaname"/>
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]" mode="out-of-line"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]" mode="out-of-line"/>
     <dl>
       <!-- handle DL compacting - default=yes -->
       <xsl:if test="@compact = 'no'">
@@ -730,18 +730,18 @@ See the accompanying LICENSE file for applicable license.
       <xsl:call-template name="setid"/>
       <xsl:apply-templates/>
     </dl>
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
   </xsl:template>
   
   <!-- DL entry -->
-  <xsl:template match="*[contains(@class, ' topic/dlentry ')]" name="topic.dlentry">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/dlentry')]" name="topic.dlentry">
     <xsl:apply-templates/>
   </xsl:template>
   
   <!-- SF Patch 2185423: condensed code so that dt processing is not repeated for keyref or when $dtcount!=1
        Code could be reduced further by compressing the flagging templates. -->
-  <xsl:template match="*[contains(@class, ' topic/dt ')]" mode="output-dt">
-    <xsl:variable name="is-first-dt" select="empty(preceding-sibling::*[contains(@class, ' topic/dt ')])"/>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/dt')]" mode="output-dt">
+    <xsl:variable name="is-first-dt" select="empty(preceding-sibling::*[dita-ot:has-class(., 'topic/dt')])"/>
     <xsl:variable name="dt-class">
       <xsl:choose>
         <!-- handle non-compact list items -->
@@ -752,7 +752,7 @@ See the accompanying LICENSE file for applicable license.
     <dt>
       <!-- Get xml:lang and ditaval styling from DLENTRY, then override with local -->
       <xsl:apply-templates select="../@xml:lang"/> 
-      <xsl:apply-templates select="../*[contains(@class, ' ditaot-d/ditaval-startprop ')]/@outputclass" mode="add-ditaval-style"/>
+      <xsl:apply-templates select="../*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]/@outputclass" mode="add-ditaval-style"/>
       <xsl:for-each select="..">
         <xsl:call-template name="commonattributes"/>
       </xsl:for-each>
@@ -775,14 +775,14 @@ See the accompanying LICENSE file for applicable license.
         </xsl:otherwise>
       </xsl:choose>
       <!-- Use flags from parent dlentry, if present -->
-      <xsl:apply-templates select="../*[contains(@class, ' ditaot-d/ditaval-startprop ')]" mode="out-of-line"/>
+      <xsl:apply-templates select="../*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]" mode="out-of-line"/>
       <xsl:apply-templates/>
-      <xsl:apply-templates select="../*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+      <xsl:apply-templates select="../*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
     </dt>
   </xsl:template>
   
   <!-- DL term -->
-  <xsl:template match="*[contains(@class, ' topic/dt ')]" name="topic.dt">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/dt')]" name="topic.dt">
     <xsl:choose>
       <xsl:when test="@keyref and @href">
         <a>
@@ -797,8 +797,8 @@ See the accompanying LICENSE file for applicable license.
   </xsl:template>
   
   <!-- DL description -->
-  <xsl:template match="*[contains(@class, ' topic/dd ')]" name="topic.dd">
-    <xsl:variable name="is-first-dd" select="empty(preceding-sibling::*[contains(@class, ' topic/dd ')])"/>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/dd')]" name="topic.dd">
+    <xsl:variable name="is-first-dd" select="empty(preceding-sibling::*[dita-ot:has-class(., 'topic/dd')])"/>
     <dd>
       <xsl:for-each select="..">
         <xsl:call-template name="commonattributes"/>
@@ -811,46 +811,46 @@ See the accompanying LICENSE file for applicable license.
         </xsl:with-param>
       </xsl:call-template>
       <xsl:call-template name="setidaname"/>
-      <xsl:apply-templates select="../*[contains(@class, ' ditaot-d/ditaval-startprop ')]" mode="out-of-line"/>
+      <xsl:apply-templates select="../*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]" mode="out-of-line"/>
       <xsl:apply-templates/>
-      <xsl:apply-templates select="../*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+      <xsl:apply-templates select="../*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
     </dd>
   </xsl:template>
   
   <!-- DL heading -->
-  <xsl:template match="*[contains(@class, ' topic/dlhead ')]" name="topic.dlhead">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/dlhead')]" name="topic.dlhead">
    <xsl:apply-templates/>
   </xsl:template>
   
   <!-- DL heading, term -->
-  <xsl:template match="*[contains(@class, ' topic/dthd ')]" name="topic.dthd">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/dthd')]" name="topic.dthd">
     <dt>
       <!-- Get ditaval style and xml:lang from DLHEAD, then override with local -->
-      <xsl:apply-templates select="../*[contains(@class, ' ditaot-d/ditaval-startprop ')]/@outputclass" mode="add-ditaval-style"/>
+      <xsl:apply-templates select="../*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]/@outputclass" mode="add-ditaval-style"/>
       <xsl:apply-templates select="../@xml:lang"/>
       <xsl:call-template name="commonattributes"/>
       <xsl:call-template name="setidaname"/>
-      <xsl:apply-templates select="../*[contains(@class, ' ditaot-d/ditaval-startprop ')]" mode="out-of-line"/>
+      <xsl:apply-templates select="../*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]" mode="out-of-line"/>
       <strong>
         <xsl:apply-templates/>
       </strong>
-      <xsl:apply-templates select="../*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+      <xsl:apply-templates select="../*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
     </dt>
   </xsl:template>
   
   <!-- DL heading, description -->
-  <xsl:template match="*[contains(@class, ' topic/ddhd ')]" name="topic.ddhd">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/ddhd')]" name="topic.ddhd">
     <dd>
       <!-- Get ditaval style and xml:lang from DLHEAD, then override with local -->
-      <xsl:apply-templates select="../*[contains(@class, ' ditaot-d/ditaval-startprop ')]/@outputclass" mode="add-ditaval-style"/>
+      <xsl:apply-templates select="../*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]/@outputclass" mode="add-ditaval-style"/>
       <xsl:apply-templates select="../@xml:lang"/>
       <xsl:call-template name="commonattributes"/>
       <xsl:call-template name="setidaname"/>
-      <xsl:apply-templates select="../*[contains(@class, ' ditaot-d/ditaval-startprop ')]" mode="out-of-line"/>
+      <xsl:apply-templates select="../*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]" mode="out-of-line"/>
       <strong>
         <xsl:apply-templates/>
       </strong>
-      <xsl:apply-templates select="../*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+      <xsl:apply-templates select="../*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
     </dd>
   </xsl:template>
   
@@ -859,7 +859,7 @@ See the accompanying LICENSE file for applicable license.
   <!-- phrase presentational style - have to use a low priority otherwise topic/ph always wins -->
   <!-- should not need priority, default is low enough -->
   
-  <xsl:template match="*[contains(@class, ' topic/ph ')]" name="topic.ph">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/ph')]" name="topic.ph">
     <xsl:choose>
       <xsl:when test="@keyref and @href">
         <xsl:apply-templates select="." mode="turning-to-link">
@@ -879,7 +879,7 @@ See the accompanying LICENSE file for applicable license.
   <!-- keyword presentational style - have to use priority else topic/keyword always wins -->
   <!-- should not need priority, default is low enough -->
   
-  <xsl:template match="*[contains(@class, ' topic/keyword ')]" name="topic.keyword">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/keyword')]" name="topic.keyword">
     <xsl:choose>
       <xsl:when test="@keyref and @href">
         <xsl:apply-templates select="." mode="turning-to-link">
@@ -898,14 +898,14 @@ See the accompanying LICENSE file for applicable license.
   
   <!-- trademarks  -->
   <!-- prepare a key for each trademark tag -->
-  <xsl:key name="tm"  match="*[contains(@class, ' topic/tm ')]" use="."/>
+  <xsl:key name="tm"  match="*[dita-ot:has-class(., 'topic/tm')]" use="."/>
   
   <!-- process the TM tag -->
   <!-- removed priority 1 : should not be needed -->
-  <xsl:template match="*[contains(@class, ' topic/tm ')]" name="topic.tm">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/tm')]" name="topic.tm">
     <xsl:param name="root" select="root()" as="document-node()" tunnel="yes"/>
   
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]" mode="out-of-line"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]" mode="out-of-line"/>
     <xsl:apply-templates/> <!-- output the TM content -->
   
       <!-- Test for TM area's language -->
@@ -920,12 +920,12 @@ See the accompanying LICENSE file for applicable license.
         <!-- Determine if this is in a title, and should be marked -->
         <!-- TODO: should return boolean -->
         <xsl:variable name="usetitle">
-          <xsl:if test="ancestor::*[contains(@class, ' topic/title ')]/parent::*[contains(@class, ' topic/topic ')]">
+          <xsl:if test="ancestor::*[dita-ot:has-class(., 'topic/title')]/parent::*[dita-ot:has-class(., 'topic/topic')]">
             <xsl:choose>
               <!-- Not the first one in a title -->
               <xsl:when test="generate-id(.) != generate-id($root/key('tm', .)[1])">skip</xsl:when>
               <!-- First one in the topic, BUT it appears in a shortdesc or body -->
-              <xsl:when test="//*[contains(@class, ' topic/shortdesc ') or contains(@class, ' topic/body ')]//*[contains(@class, ' topic/tm ')][@trademark = $tmvalue]">skip</xsl:when>
+              <xsl:when test="//*[dita-ot:has-class(., 'topic/shortdesc') or dita-ot:has-class(., 'topic/body')]//*[dita-ot:has-class(., 'topic/tm')][@trademark = $tmvalue]">skip</xsl:when>
               <xsl:otherwise>use</xsl:otherwise>
             </xsl:choose>
           </xsl:if>
@@ -936,11 +936,11 @@ See the accompanying LICENSE file for applicable license.
         <xsl:variable name="usebody">
           <xsl:choose>
             <!-- If in a title or prolog, skip -->
-            <xsl:when test="ancestor::*[contains(@class, ' topic/title ') or contains(@class, ' topic/prolog ')]/parent::*[contains(@class, ' topic/topic ')]">skip</xsl:when>
+            <xsl:when test="ancestor::*[dita-ot:has-class(., 'topic/title') or dita-ot:has-class(., 'topic/prolog')]/parent::*[dita-ot:has-class(., 'topic/topic')]">skip</xsl:when>
             <!-- If first in the document, use it -->
             <xsl:when test="generate-id(.) = generate-id($root/key('tm', .)[1])">use</xsl:when>
             <!-- If there is another before this that is in the body or shortdesc, skip -->
-            <xsl:when test="preceding::*[contains(@class, ' topic/tm ')][@trademark = $tmvalue][ancestor::*[contains(@class, ' topic/body ') or contains(@class, ' topic/shortdesc ')]]">skip</xsl:when>
+            <xsl:when test="preceding::*[dita-ot:has-class(., 'topic/tm')][@trademark = $tmvalue][ancestor::*[dita-ot:has-class(., 'topic/body') or dita-ot:has-class(., 'topic/shortdesc')]]">skip</xsl:when>
             <!-- Otherwise, any before this must be in a title or ignored section -->
             <xsl:otherwise>use</xsl:otherwise>
           </xsl:choose>
@@ -956,7 +956,7 @@ See the accompanying LICENSE file for applicable license.
           </xsl:choose>
         </xsl:if>
       </xsl:if>
-      <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+      <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
   </xsl:template>
   
   <!-- TODO: this should return boolean, not "tm" or something else -->
@@ -967,7 +967,7 @@ See the accompanying LICENSE file for applicable license.
   
   <!-- phrase "semantic" classes -->
   <!-- citations -->
-  <xsl:template match="*[contains(@class, ' topic/cite ')]" name="topic.cite">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/cite')]" name="topic.cite">
     <xsl:choose>
       <xsl:when test="@keyref and @href">
         <xsl:apply-templates select="." mode="turning-to-link">
@@ -985,14 +985,14 @@ See the accompanying LICENSE file for applicable license.
   </xsl:template>
   
   <!-- quotes - only do 1 level, no flip-flopping -->
-  <xsl:template match="*[contains(@class, ' topic/q ')]" name="topic.q">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/q')]" name="topic.q">
     <q>
       <xsl:call-template name="commonattributes"/>
       <xsl:apply-templates/>
     </q>
   </xsl:template>
   
-  <xsl:template match="*[contains(@class, ' topic/term ')]" mode="output-term">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/term')]" mode="output-term">
     <!-- Deprecated since 2.1 -->
     <xsl:param name="displaytext"/>
     
@@ -1015,7 +1015,7 @@ See the accompanying LICENSE file for applicable license.
     <xsl:param name="m_glossid" select="''" as="xs:string"/>
     <xsl:param name="m_entry-file-contents" as="node()?"/>
     <xsl:param name="m_reflang" select="'en-US'" as="xs:string"/>
-    <xsl:variable name="glossentries" select="$m_entry-file-contents/descendant-or-self::*[contains(@class, ' glossentry/glossentry ')]" as="element()*"/>
+    <xsl:variable name="glossentries" select="$m_entry-file-contents/descendant-or-self::*[dita-ot:has-class(., 'glossentry/glossentry')]" as="element()*"/>
     <xsl:choose>
       <xsl:when test="$m_glossid = '' and $glossentries[lang($m_reflang)]">
         <xsl:sequence select="$glossentries[lang($m_reflang)][1]"/>
@@ -1048,11 +1048,11 @@ See the accompanying LICENSE file for applicable license.
       <xsl:when test="exists($m_matched-target)">
         <xsl:variable name="glossentry" select="$m_matched-target"/>
         <xsl:choose>
-          <xsl:when test="$glossentry//*[contains(@class, ' glossentry/glossSurfaceForm ')][normalize-space(.) != '']">
-            <xsl:apply-templates select="$glossentry//*[contains(@class, ' glossentry/glossSurfaceForm ')][normalize-space(.) != '']" mode="dita-ot:text-only"/>
+          <xsl:when test="$glossentry//*[dita-ot:has-class(., 'glossentry/glossSurfaceForm')][normalize-space(.) != '']">
+            <xsl:apply-templates select="$glossentry//*[dita-ot:has-class(., 'glossentry/glossSurfaceForm')][normalize-space(.) != '']" mode="dita-ot:text-only"/>
           </xsl:when>
           <xsl:otherwise>
-            <xsl:apply-templates select="$glossentry//*[contains(@class, ' glossentry/glossterm ')]" mode="dita-ot:text-only"/>
+            <xsl:apply-templates select="$glossentry//*[dita-ot:has-class(., 'glossentry/glossterm')]" mode="dita-ot:text-only"/>
           </xsl:otherwise>
         </xsl:choose>
       </xsl:when>
@@ -1071,24 +1071,24 @@ See the accompanying LICENSE file for applicable license.
       <xsl:when test="exists($m_matched-target)">
         <xsl:variable name="glossentry" select="$m_matched-target" as="element()?"/>
         <xsl:choose>
-          <xsl:when test="$glossentry/*[contains(@class, ' glossentry/glossdef ')]">
-            <xsl:apply-templates select="$glossentry/*[contains(@class, ' glossentry/glossdef ')]" mode="dita-ot:text-only"/>
+          <xsl:when test="$glossentry/*[dita-ot:has-class(., 'glossentry/glossdef')]">
+            <xsl:apply-templates select="$glossentry/*[dita-ot:has-class(., 'glossentry/glossdef')]" mode="dita-ot:text-only"/>
           </xsl:when>
-          <xsl:when test="$glossentry//*[contains(@class, ' glossentry/glossSurfaceForm ')][normalize-space(.) != '']">
+          <xsl:when test="$glossentry//*[dita-ot:has-class(., 'glossentry/glossSurfaceForm')][normalize-space(.) != '']">
             <!-- Second choice: surface form, as it may contain *slightly* more information than the original term -->
-            <xsl:apply-templates select="$glossentry//*[contains(@class, ' glossentry/glossSurfaceForm ')][normalize-space(.) != '']" mode="dita-ot:text-only"/>
+            <xsl:apply-templates select="$glossentry//*[dita-ot:has-class(., 'glossentry/glossSurfaceForm')][normalize-space(.) != '']" mode="dita-ot:text-only"/>
           </xsl:when>
           <xsl:otherwise>
             <!-- Fall back to term if there is no definition and no surface form -->
-            <xsl:apply-templates select="$glossentry//*[contains(@class, ' glossentry/glossterm ')]" mode="dita-ot:text-only"/>
+            <xsl:apply-templates select="$glossentry//*[dita-ot:has-class(., 'glossentry/glossterm')]" mode="dita-ot:text-only"/>
           </xsl:otherwise>
         </xsl:choose>
       </xsl:when>
       <xsl:when test="normalize-space(.) = '' and
-                      (boolean(ancestor::*[contains(@class, ' topic/copyright ')]) or generate-id(.) = generate-id(key('keyref', @keyref)[1]))">
+                      (boolean(ancestor::*[dita-ot:has-class(., 'topic/copyright')]) or generate-id(.) = generate-id(key('keyref', @keyref)[1]))">
         <!-- Already generating a message when looking for the term, do not generate a "missing glossentry" message here too -->
       </xsl:when>
-      <xsl:when test="boolean(ancestor::*[contains(@class, ' topic/copyright ')]) or generate-id(.) = generate-id(key('keyref', @keyref)[1])">
+      <xsl:when test="boolean(ancestor::*[dita-ot:has-class(., 'topic/copyright')]) or generate-id(.) = generate-id(key('keyref', @keyref)[1])">
         <!-- Didn't look up term because it was specified, but this is the first occurrence
              and the glossentry was not found, so generate "missing glossentry" message -->
         <xsl:apply-templates select="." mode="ditamsg:no-glossentry-for-key">
@@ -1105,17 +1105,17 @@ See the accompanying LICENSE file for applicable license.
       <xsl:when test="exists($m_matched-target)">
         <xsl:variable name="glossentry" select="$m_matched-target"/>
         <xsl:choose>
-          <xsl:when test="$glossentry//*[contains(@class, ' glossentry/glossStatus ')][@value = 'preferred'][1]/preceding-sibling::*[contains(@class, ' glossentry/glossAcronym ') or contains(@class, ' glossentry/glossAbbreviation ')][normalize-space(.) != '']">
-            <xsl:apply-templates select="$glossentry//*[contains(@class, ' glossentry/glossStatus ')][@value = 'preferred'][1]/preceding-sibling::*[contains(@class, ' glossentry/glossAcronym ') or contains(@class, ' glossentry/glossAbbreviation ')][normalize-space(.) != '']" mode="dita-ot:text-only"/>
+          <xsl:when test="$glossentry//*[dita-ot:has-class(., 'glossentry/glossStatus')][@value = 'preferred'][1]/preceding-sibling::*[dita-ot:has-class(., 'glossentry/glossAcronym') or dita-ot:has-class(., 'glossentry/glossAbbreviation')][normalize-space(.) != '']">
+            <xsl:apply-templates select="$glossentry//*[dita-ot:has-class(., 'glossentry/glossStatus')][@value = 'preferred'][1]/preceding-sibling::*[dita-ot:has-class(., 'glossentry/glossAcronym') or dita-ot:has-class(., 'glossentry/glossAbbreviation')][normalize-space(.) != '']" mode="dita-ot:text-only"/>
           </xsl:when>
-          <xsl:when test="$glossentry//*[contains(@class, ' glossentry/glossStatus ')][@value != 'prohibited' and @value != 'obsolete'][1]/preceding-sibling::*[contains(@class, ' glossentry/glossAcronym ') or contains(@class, ' glossentry/glossAbbreviation ')][normalize-space(.) != '']">
-            <xsl:apply-templates select="$glossentry//*[contains(@class, ' glossentry/glossStatus ')][@value != 'prohibited' and @value != 'obsolete'][1]/preceding-sibling::*[contains(@class, ' glossentry/glossAcronym ') or contains(@class, ' glossentry/glossAbbreviation ')][normalize-space(.) != '']" mode="dita-ot:text-only"/>
+          <xsl:when test="$glossentry//*[dita-ot:has-class(., 'glossentry/glossStatus')][@value != 'prohibited' and @value != 'obsolete'][1]/preceding-sibling::*[dita-ot:has-class(., 'glossentry/glossAcronym') or dita-ot:has-class(., 'glossentry/glossAbbreviation')][normalize-space(.) != '']">
+            <xsl:apply-templates select="$glossentry//*[dita-ot:has-class(., 'glossentry/glossStatus')][@value != 'prohibited' and @value != 'obsolete'][1]/preceding-sibling::*[dita-ot:has-class(., 'glossentry/glossAcronym') or dita-ot:has-class(., 'glossentry/glossAbbreviation')][normalize-space(.) != '']" mode="dita-ot:text-only"/>
           </xsl:when>
-          <xsl:when test="$glossentry//*[contains(@class, ' glossentry/glossAlt ')][1]/*[contains(@class, ' glossentry/glossAcronym ') or contains(@class, ' glossentry/glossAbbreviation ')][not(following-sibling::glossStatus)][normalize-space(.) != '']">
-            <xsl:apply-templates select="$glossentry//*[contains(@class, ' glossentry/glossAlt ')][1]/*[contains(@class, ' glossentry/glossAcronym ') or contains(@class, ' glossentry/glossAbbreviation ')][count(following-sibling::glossStatus) = 0][normalize-space(.) != '']" mode="dita-ot:text-only"/>
+          <xsl:when test="$glossentry//*[dita-ot:has-class(., 'glossentry/glossAlt')][1]/*[dita-ot:has-class(., 'glossentry/glossAcronym') or dita-ot:has-class(., 'glossentry/glossAbbreviation')][not(following-sibling::glossStatus)][normalize-space(.) != '']">
+            <xsl:apply-templates select="$glossentry//*[dita-ot:has-class(., 'glossentry/glossAlt')][1]/*[dita-ot:has-class(., 'glossentry/glossAcronym') or dita-ot:has-class(., 'glossentry/glossAbbreviation')][count(following-sibling::glossStatus) = 0][normalize-space(.) != '']" mode="dita-ot:text-only"/>
           </xsl:when>
           <xsl:otherwise>
-            <xsl:apply-templates select="$glossentry/*[contains(@class, ' glossentry/glossterm ')]" mode="dita-ot:text-only"/>
+            <xsl:apply-templates select="$glossentry/*[dita-ot:has-class(., 'glossentry/glossterm')]" mode="dita-ot:text-only"/>
           </xsl:otherwise>
         </xsl:choose>
       </xsl:when>
@@ -1129,9 +1129,9 @@ See the accompanying LICENSE file for applicable license.
   </xsl:template>
   
   <!-- Note: processing for the term specialization abbreviated-form is located in abbrev-d.xsl. -->
-  <xsl:key name="keyref" match="*[contains(@class, ' topic/term ')]" use="@keyref"/>
+  <xsl:key name="keyref" match="*[dita-ot:has-class(., 'topic/term')]" use="@keyref"/>
   <!-- terms and abbreviated-forms -->
-  <xsl:template match="*[contains(@class, ' topic/term ')]" name="topic.term">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/term')]" name="topic.term">
     <xsl:variable name="keys" select="@keyref" as="attribute()?"/>
     <xsl:choose>
       <xsl:when test="@keyref and @href">
@@ -1168,7 +1168,7 @@ See the accompanying LICENSE file for applicable license.
             <xsl:when test="normalize-space(.) != '' and empty(processing-instruction('ditaot')[. = 'gentext'])">
               <xsl:apply-templates mode="dita-ot:text-only"/>
             </xsl:when>
-            <xsl:when test="exists(ancestor::*[contains(@class, ' topic/copyright ')]) or generate-id(.) = generate-id(key('keyref', @keyref)[1])">
+            <xsl:when test="exists(ancestor::*[dita-ot:has-class(., 'topic/copyright')]) or generate-id(.) = generate-id(key('keyref', @keyref)[1])">
               <xsl:apply-templates select="." mode="getMatchingSurfaceForm">
                 <xsl:with-param name="m_matched-target" select="$matched-target"/>
                 <xsl:with-param name="m_keys" select="$keys"/>
@@ -1217,7 +1217,7 @@ See the accompanying LICENSE file for applicable license.
   <!-- =========== BOOLEAN-STATE DATA TYPES =========== -->
   <!-- Use color to indicate these types for now -->
   <!-- output the tag & it's state -->
-  <xsl:template match="*[contains(@class, ' topic/boolean ')]" name="topic.boolean">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/boolean')]" name="topic.boolean">
    <span style="color:green">
     <xsl:call-template name="commonattributes"/>
     <xsl:call-template name="setidaname"/>
@@ -1226,7 +1226,7 @@ See the accompanying LICENSE file for applicable license.
   </xsl:template>
   
   <!-- output the tag, it's name & value -->
-  <xsl:template match="*[contains(@class, ' topic/state ')]" name="topic.state">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/state')]" name="topic.state">
   <span style="color:red">
     <xsl:call-template name="commonattributes"/>
     <xsl:call-template name="setidaname"/>
@@ -1236,9 +1236,9 @@ See the accompanying LICENSE file for applicable license.
   
   
   <!-- PRE -->
-  <xsl:template match="*[contains(@class, ' topic/pre ')]" name="topic.pre">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/pre')]" name="topic.pre">
     <xsl:if test="contains(@frame, 'top')"><hr /></xsl:if>
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]" mode="out-of-line"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]" mode="out-of-line"/>
     <xsl:call-template name="spec-title-nospace"/>
     <pre>
       <xsl:attribute name="class" select="name()"/>
@@ -1247,12 +1247,12 @@ See the accompanying LICENSE file for applicable license.
       <xsl:call-template name="setidaname"/>
       <xsl:apply-templates/>
     </pre>
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
     <xsl:if test="contains(@frame, 'bot')"><hr /></xsl:if>
   </xsl:template>
   
   <!-- lines - body font -->
-  <xsl:template match="*[contains(@class, ' topic/lines ')]" name="topic.lines">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/lines')]" name="topic.lines">
     <xsl:if test="contains(@frame, 'top')"><hr /></xsl:if>
     <xsl:call-template name="spec-title-nospace"/>
     <p>
@@ -1264,7 +1264,7 @@ See the accompanying LICENSE file for applicable license.
     <xsl:if test="contains(@frame, 'bot')"><hr /></xsl:if>
   </xsl:template>
   
-  <xsl:template match="*[contains(@class, ' topic/lines ')]//text()">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/lines')]//text()">
     <xsl:analyze-string select="replace(., '  ', '&#xA0;&#xA0;')" regex="&#xA;">
       <xsl:matching-substring>
         <br/>
@@ -1276,11 +1276,11 @@ See the accompanying LICENSE file for applicable license.
   </xsl:template>
 
   <!-- =========== FIGURE =========== -->
-  <xsl:template match="*[contains(@class, ' topic/fig ')]" name="topic.fig">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/fig')]" name="topic.fig">
     <xsl:variable name="default-fig-class">
       <xsl:apply-templates select="." mode="dita2html:get-default-fig-class"/>
     </xsl:variable>
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]" mode="out-of-line"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]" mode="out-of-line"/>
     <figure>
       <xsl:if test="$default-fig-class != ''">
         <xsl:attribute name="class" select="$default-fig-class"/>
@@ -1291,9 +1291,9 @@ See the accompanying LICENSE file for applicable license.
       <xsl:call-template name="setscale"/>
       <xsl:call-template name="setidaname"/>
       <xsl:call-template name="place-fig-lbl"/>
-      <xsl:apply-templates select="node() except *[contains(@class, ' topic/title ') or contains(@class, ' topic/desc ')]"/>
+      <xsl:apply-templates select="node() except *[dita-ot:has-class(., 'topic/title') or dita-ot:has-class(., 'topic/desc')]"/>
     </figure>
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
   </xsl:template>
   
   <!-- Determine the default XHTML class attribute for a figure -->
@@ -1309,7 +1309,7 @@ See the accompanying LICENSE file for applicable license.
   </xsl:template>
   
   <!-- should not need priority, default is low enough; was set to 1 -->
-  <xsl:template match="*[contains(@class, ' topic/figgroup ')]" name="topic.figgroup">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/figgroup')]" name="topic.figgroup">
     <!-- Figgroup can contain blocks, maybe this should be a div?
          Changing to <div> with DITA-OT 2.3 -->
     <div>
@@ -1323,10 +1323,10 @@ See the accompanying LICENSE file for applicable license.
   
   <!-- =========== IMAGE/OBJECT =========== -->
   
-  <xsl:template match="*[contains(@class, ' topic/image ')]" name="topic.image">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/image')]" name="topic.image">
     <!-- build any pre break indicated by style -->
     <xsl:choose>
-      <xsl:when test="parent::*[contains(@class, ' topic/fig ')][contains(@frame, 'top ')]">
+      <xsl:when test="parent::*[dita-ot:has-class(., 'topic/fig')][contains(@frame, 'top ')]">
         <!-- NOP if there is already a break implied by a parent property -->
       </xsl:when>
       <xsl:when test="@placement = 'break'">
@@ -1368,7 +1368,7 @@ See the accompanying LICENSE file for applicable license.
   </xsl:template>
   
   <xsl:template name="topic-image">
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]" mode="out-of-line"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]" mode="out-of-line"/>
     <img>
       <xsl:call-template name="commonattributes">
         <xsl:with-param name="default-output-class">
@@ -1383,8 +1383,8 @@ See the accompanying LICENSE file for applicable license.
       </xsl:call-template>
       <xsl:call-template name="setid"/>
       <xsl:choose>
-        <xsl:when test="*[contains(@class, ' topic/longdescref ')]">
-          <xsl:apply-templates select="*[contains(@class, ' topic/longdescref ')]"/>
+        <xsl:when test="*[dita-ot:has-class(., 'topic/longdescref')]">
+          <xsl:apply-templates select="*[dita-ot:has-class(., 'topic/longdescref')]"/>
         </xsl:when>
         <xsl:otherwise>
           <xsl:apply-templates select="@longdescref"/>
@@ -1393,8 +1393,8 @@ See the accompanying LICENSE file for applicable license.
       <xsl:apply-templates select="@href|@height|@width"/>
       <xsl:apply-templates select="@scale"/>
       <xsl:choose>
-        <xsl:when test="*[contains(@class, ' topic/alt ')]">
-          <xsl:variable name="alt-content"><xsl:apply-templates select="*[contains(@class, ' topic/alt ')]" mode="text-only"/></xsl:variable>
+        <xsl:when test="*[dita-ot:has-class(., 'topic/alt')]">
+          <xsl:variable name="alt-content"><xsl:apply-templates select="*[dita-ot:has-class(., 'topic/alt')]" mode="text-only"/></xsl:variable>
           <xsl:attribute name="alt" select="normalize-space($alt-content)"/>
         </xsl:when>
         <xsl:when test="@alt">
@@ -1402,21 +1402,21 @@ See the accompanying LICENSE file for applicable license.
         </xsl:when>
       </xsl:choose>
     </img>
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
   </xsl:template>
   
-  <xsl:template match="*[contains(@class, ' topic/alt ')]">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/alt')]">
     <xsl:apply-templates select="." mode="text-only"/>
   </xsl:template>
   
   <!-- Process image attributes. Using priority, in case default @href is added at some point. -->
   <!-- 20090303: Removed priority; does not appear to be needed. -->
-  <xsl:template match="*[contains(@class, ' topic/image ')]/@href">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/image')]/@href">
     <xsl:attribute name="src" select="."/>
   </xsl:template>
   
   <!-- AM: handling for scale attribute -->
-  <xsl:template match="*[contains(@class, ' topic/image ')]/@scale">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/image')]/@scale">
       <xsl:variable name="width" select="../@dita-ot:image-width"/>
       <xsl:variable name="height" select="../@dita-ot:image-height"/>
       <xsl:if test="not(../@width) and not(../@height)">
@@ -1425,7 +1425,7 @@ See the accompanying LICENSE file for applicable license.
       </xsl:if>
   </xsl:template>
   
-  <xsl:template match="*[contains(@class, ' topic/image ')]/@height">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/image')]/@height">
     <xsl:variable name="height-in-pixel">
       <xsl:call-template name="length-to-pixels">
         <xsl:with-param name="dimen" select="."/>
@@ -1445,7 +1445,7 @@ See the accompanying LICENSE file for applicable license.
     </xsl:if>  
   </xsl:template>
   
-  <xsl:template match="*[contains(@class, ' topic/image ')]/@width">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/image')]/@width">
     <xsl:variable name="width-in-pixel">
       <xsl:call-template name="length-to-pixels">
         <xsl:with-param name="dimen" select="."/>
@@ -1465,7 +1465,7 @@ See the accompanying LICENSE file for applicable license.
     </xsl:if>  
   </xsl:template>
   
-  <xsl:template match="*[contains(@class, ' topic/image ')]/@longdescref">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/image')]/@longdescref">
     <xsl:attribute name="longdesc">
       <xsl:choose>
         <!-- Guess whether link target is a DITA topic or something else -->
@@ -1482,7 +1482,7 @@ See the accompanying LICENSE file for applicable license.
     </xsl:attribute>
   </xsl:template>
   
-    <xsl:template match="*[contains(@class, ' topic/image ')]/*[contains(@class, ' topic/longdescref ')]">
+    <xsl:template match="*[dita-ot:has-class(., 'topic/image')]/*[dita-ot:has-class(., 'topic/longdescref')]">
     <xsl:if test="@href and not (@href = '')">
       <xsl:attribute name="longdesc">
         <xsl:choose>
@@ -1502,10 +1502,10 @@ See the accompanying LICENSE file for applicable license.
   
   
   <!-- object, desc, & param -->
-  <xsl:template match="*[contains(@class, ' topic/object ')]" name="topic.object">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/object')]" name="topic.object">
    <object>
     <xsl:copy-of select="@id | @declare | @codebase | @type | @archive | @height | @usemap | @tabindex | @classid | @data | @codetype | @standby | @width | @name"/>
-    <xsl:if test="@longdescref or *[contains(@class, ' topic/longdescref ')]">
+    <xsl:if test="@longdescref or *[dita-ot:has-class(., 'topic/longdescref')]">
       <xsl:apply-templates select="." mode="ditamsg:longdescref-on-object"/>
     </xsl:if>
     <xsl:apply-templates/>
@@ -1516,28 +1516,28 @@ See the accompanying LICENSE file for applicable license.
      <xsl:copy-of select="@height | @width"/>
      <xsl:attribute name="type"><xsl:text>application/x-shockwave-flash</xsl:text></xsl:attribute>
      <xsl:attribute name="pluginspage"><xsl:text>http://www.macromedia.com/go/getflashplayer</xsl:text></xsl:attribute>
-     <xsl:if test="*[contains(@class, ' topic/param ')]/@name = 'movie'">
-      <xsl:attribute name="src" select="*[contains(@class, ' topic/param ')][@name = 'movie']/@value"/>
+     <xsl:if test="*[dita-ot:has-class(., 'topic/param')]/@name = 'movie'">
+      <xsl:attribute name="src" select="*[dita-ot:has-class(., 'topic/param')][@name = 'movie']/@value"/>
      </xsl:if>
-     <xsl:if test="*[contains(@class, ' topic/param ')]/@name = 'quality'">
-      <xsl:attribute name="quality" select="*[contains(@class, ' topic/param ')][@name = 'quality']/@value"/>
+     <xsl:if test="*[dita-ot:has-class(., 'topic/param')]/@name = 'quality'">
+      <xsl:attribute name="quality" select="*[dita-ot:has-class(., 'topic/param')][@name = 'quality']/@value"/>
      </xsl:if>
-     <xsl:if test="*[contains(@class, ' topic/param ')]/@name = 'bgcolor'">
-      <xsl:attribute name="bgcolor" select="*[contains(@class, ' topic/param ')][@name = 'bgcolor']/@value"/>
+     <xsl:if test="*[dita-ot:has-class(., 'topic/param')]/@name = 'bgcolor'">
+      <xsl:attribute name="bgcolor" select="*[dita-ot:has-class(., 'topic/param')][@name = 'bgcolor']/@value"/>
      </xsl:if>
     </embed>
    </xsl:if>
    </object>
   </xsl:template>
   
-  <xsl:template match="*[contains(@class, ' topic/param ')]" name="topic.param">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/param')]" name="topic.param">
    <param>
     <xsl:copy-of select="@name | @id | @value"/>
    </param>
   </xsl:template>
   
   <!-- need to add test for object/desc to avoid conflicts -->
-  <xsl:template match="*[contains(@class, ' topic/object ')]/*[contains(@class, ' topic/desc ')]" name="topic.object_desc">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/object')]/*[dita-ot:has-class(., 'topic/desc')]" name="topic.object_desc">
    <span>
     <xsl:copy-of select="@name | @id | value"/>
     <xsl:apply-templates/>
@@ -1545,7 +1545,7 @@ See the accompanying LICENSE file for applicable license.
   </xsl:template>
   
   <!-- =========== FOOTNOTE =========== -->
-  <xsl:template match="*[contains(@class, ' topic/fn ')]" name="topic.fn">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/fn')]" name="topic.fn">
     <xsl:param name="xref"/>
     <!-- when FN has an ID, it can only be referenced, otherwise, output an a-name & a counter -->
     <xsl:if test="not(@id) or $xref = 'yes'">
@@ -1563,19 +1563,19 @@ See the accompanying LICENSE file for applicable license.
   
   <!-- =========== REQUIRED CLEANUP and REVIEW COMMENT =========== -->
   
-  <xsl:template match="*[contains(@class, ' topic/required-cleanup ')]" mode="default-required-cleanup-style">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/required-cleanup')]" mode="default-required-cleanup-style">
     <xsl:call-template name="style">
       <xsl:with-param name="contents">background-color: #FFFF99; color:#CC3333; border: 1pt black solid;</xsl:with-param>
     </xsl:call-template>
   </xsl:template>
   
-  <xsl:template match="*[contains(@class, ' topic/draft-comment ')]" mode="default-draft-comment-style">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/draft-comment')]" mode="default-draft-comment-style">
     <xsl:call-template name="style">
       <xsl:with-param name="contents">background-color: #99FF99; border: 1pt black solid;</xsl:with-param>
     </xsl:call-template>
   </xsl:template>
   
-  <xsl:template match="*[contains(@class, ' topic/required-cleanup ')]" name="topic.required-cleanup">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/required-cleanup')]" name="topic.required-cleanup">
     <xsl:if test="$DRAFT = 'yes'">
       <xsl:apply-templates select="." mode="ditamsg:required-cleanup-in-content"/>
       <div>
@@ -1594,7 +1594,7 @@ See the accompanying LICENSE file for applicable license.
     </xsl:if>
   </xsl:template>
   
-  <xsl:template match="*[contains(@class, ' topic/draft-comment ')]" name="topic.draft-comment">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/draft-comment')]" name="topic.draft-comment">
    <xsl:if test="$DRAFT = 'yes'">
      <xsl:apply-templates select="." mode="ditamsg:draft-comment-in-content"/>
      <div>
@@ -1625,7 +1625,7 @@ See the accompanying LICENSE file for applicable license.
   
   <!-- TBD: this needs practical implementation.  currently the support merely
        echoes the content back, indicating any nesting.  Useful view for authoring!-->
-  <xsl:template match="*[contains(@class, ' topic/indexterm ')]" name="topic.indexterm">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/indexterm')]" name="topic.indexterm">
    <xsl:if test="$INDEXSHOW = 'yes'">
      <xsl:choose>
        <xsl:when test="@keyref and @href">
@@ -1647,14 +1647,14 @@ See the accompanying LICENSE file for applicable license.
    </xsl:if>
   </xsl:template>
   
-  <xsl:template match="*[contains(@class, ' topic/indextermref ')]"/>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/indextermref')]"/>
   
   
   <!-- ===================================================================== -->
   
   <!-- =========== PROLOG =========== -->
   <!-- all handled in get-meta.xsl -->
-  <xsl:template match="*[contains(@class, ' topic/prolog ')]"/>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/prolog')]"/>
   
   
   <!-- ===================================================================== -->
@@ -1714,7 +1714,7 @@ See the accompanying LICENSE file for applicable license.
     <xsl:param name="default-output-class"/>
     <xsl:apply-templates select="@xml:lang"/>
     <xsl:apply-templates select="@dir"/>
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]/@outputclass" mode="add-ditaval-style"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]/@outputclass" mode="add-ditaval-style"/>
     <xsl:apply-templates select="." mode="set-output-class">
       <xsl:with-param name="default" select="$default-output-class"/>
     </xsl:apply-templates>
@@ -1760,7 +1760,7 @@ See the accompanying LICENSE file for applicable license.
       <!-- If draft is on, add revisions to default class. Simplifies processing in DITA-OT 1.6 and earlier
            that created an extra div or span around revised content, just to hold @class with revs. -->
       <xsl:if test="$DRAFT = 'yes'">
-        <xsl:sequence select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]/revprop/@val"/>
+        <xsl:sequence select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]/revprop/@val"/>
       </xsl:if>
     </xsl:variable>
     <xsl:variable name="using-output-class" as="xs:string*">
@@ -1944,9 +1944,9 @@ See the accompanying LICENSE file for applicable license.
     <xsl:param name="defaulttitle"/> <!-- get param by reference -->
     <xsl:variable name="heading">
        <xsl:choose>
-        <xsl:when test="*[contains(@class, ' topic/title ')]">
-          <xsl:apply-templates select="*[contains(@class, ' topic/title ')][1]" mode="text-only"/>
-          <xsl:if test="*[contains(@class, ' topic/title ')][2]">
+        <xsl:when test="*[dita-ot:has-class(., 'topic/title')]">
+          <xsl:apply-templates select="*[dita-ot:has-class(., 'topic/title')][1]" mode="text-only"/>
+          <xsl:if test="*[dita-ot:has-class(., 'topic/title')][2]">
             <xsl:apply-templates select="." mode="ditamsg:section-with-multiple-titles"/>
           </xsl:if>
         </xsl:when>
@@ -1957,7 +1957,7 @@ See the accompanying LICENSE file for applicable license.
        </xsl:choose>
     </xsl:variable>
   
-    <xsl:variable name="headCount" select="count(ancestor::*[contains(@class, ' topic/topic ')]) + 1"/>
+    <xsl:variable name="headCount" select="count(ancestor::*[dita-ot:has-class(., 'topic/topic')]) + 1"/>
     <xsl:variable name="headLevel">
       <xsl:choose>
         <xsl:when test="$headCount > 6">h6</xsl:when>
@@ -1972,10 +1972,10 @@ See the accompanying LICENSE file for applicable license.
           <!-- hack: a title with whitespace ALWAYS overrides as null -->
           <xsl:comment>no heading</xsl:comment>
         </xsl:if>
-        <xsl:apply-templates select="*[contains(@class, ' topic/title ')][1]">
+        <xsl:apply-templates select="*[dita-ot:has-class(., 'topic/title')][1]">
           <xsl:with-param name="headLevel" select="$headLevel"/>
         </xsl:apply-templates>
-        <xsl:if test="@spectitle and not(*[contains(@class, ' topic/title ')])">
+        <xsl:if test="@spectitle and not(*[dita-ot:has-class(., 'topic/title')])">
           <xsl:element name="{$headLevel}">
             <xsl:attribute name="class">sectiontitle</xsl:attribute>
             <xsl:value-of select="@spectitle"/>
@@ -1991,10 +1991,10 @@ See the accompanying LICENSE file for applicable license.
     </xsl:choose>
   </xsl:template>
   
-  <xsl:template match="*[contains(@class, ' topic/section ')]/*[contains(@class, ' topic/title ')] | 
-    *[contains(@class, ' topic/example ')]/*[contains(@class, ' topic/title ')]" name="topic.section_title">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/section')]/*[dita-ot:has-class(., 'topic/title')] | 
+    *[dita-ot:has-class(., 'topic/example')]/*[dita-ot:has-class(., 'topic/title')]" name="topic.section_title">
     <xsl:param name="headLevel">
-      <xsl:variable name="headCount" select="count(ancestor::*[contains(@class, ' topic/topic ')])+1"/>
+      <xsl:variable name="headCount" select="count(ancestor::*[dita-ot:has-class(., 'topic/topic')])+1"/>
       <xsl:choose>
         <xsl:when test="$headCount > 6">h6</xsl:when>
         <xsl:otherwise>h<xsl:value-of select="$headCount"/></xsl:otherwise>
@@ -2044,12 +2044,12 @@ See the accompanying LICENSE file for applicable license.
   <!-- render any contained footnotes as endnotes.  Links back to reference point -->
   <xsl:template name="gen-endnotes">
     <!-- Skip any footnotes that are in draft elements when draft = no -->
-    <xsl:apply-templates select="//*[contains(@class, ' topic/fn ')][not( (ancestor::*[contains(@class, ' topic/draft-comment ')] or ancestor::*[contains(@class, ' topic/required-cleanup ')]) and $DRAFT = 'no')]" mode="genEndnote"/>
+    <xsl:apply-templates select="//*[dita-ot:has-class(., 'topic/fn')][not( (ancestor::*[dita-ot:has-class(., 'topic/draft-comment')] or ancestor::*[dita-ot:has-class(., 'topic/required-cleanup')]) and $DRAFT = 'no')]" mode="genEndnote"/>
   
   </xsl:template>
   
   <!-- Catch footnotes that should appear at the end of the topic, and output them. -->
-  <xsl:template match="*[contains(@class, ' topic/fn ')]" mode="genEndnote">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/fn')]" mode="genEndnote">
     <div class="p">
       <xsl:variable name="fnid"><xsl:number from="/" level="any"/></xsl:variable>
       <xsl:variable name="callout" select="@callout"/>
@@ -2058,7 +2058,7 @@ See the accompanying LICENSE file for applicable license.
       <xsl:call-template name="commonattributes"/>
       <xsl:choose>
         <xsl:when test="@id and not(@id = '')">
-          <xsl:variable name="topicid" select="ancestor::*[contains(@class, ' topic/topic ')][1]/@id"/>
+          <xsl:variable name="topicid" select="ancestor::*[dita-ot:has-class(., 'topic/topic')][1]/@id"/>
           <xsl:variable name="refid" select="concat($topicid, '/', @id)"/>
           <xsl:choose>
             <xsl:when test="key('xref', $refid)">
@@ -2095,12 +2095,12 @@ See the accompanying LICENSE file for applicable license.
   </xsl:template>
     
   <!-- set up keys based on xref's "type" attribute: %info-types;|hd|fig|table|li|fn -->
-  <xsl:key name="topic" match="*[contains(@class, ' topic/topic ')]" use="@id"/> <!-- uses "title" -->
-  <xsl:key name="fig"   match="*[contains(@class, ' topic/fig ')]"   use="@id"/> <!-- uses "title" -->
-  <xsl:key name="table" match="*[contains(@class, ' topic/table ')]" use="@id"/> <!-- uses "title" -->
-  <xsl:key name="li"    match="*[contains(@class, ' topic/li ')]"    use="@id"/> <!-- uses "?" -->
-  <xsl:key name="fn"    match="*[contains(@class, ' topic/fn ')]"    use="@id"/> <!-- uses "callout?" -->
-  <xsl:key name="xref"  match="*[contains(@class, ' topic/xref ')]"  use="substring-after(@href, '#')"/> <!-- find xref which refers to footnote. -->
+  <xsl:key name="topic" match="*[dita-ot:has-class(., 'topic/topic')]" use="@id"/> <!-- uses "title" -->
+  <xsl:key name="fig"   match="*[dita-ot:has-class(., 'topic/fig')]"   use="@id"/> <!-- uses "title" -->
+  <xsl:key name="table" match="*[dita-ot:has-class(., 'topic/table')]" use="@id"/> <!-- uses "title" -->
+  <xsl:key name="li"    match="*[dita-ot:has-class(., 'topic/li')]"    use="@id"/> <!-- uses "?" -->
+  <xsl:key name="fn"    match="*[dita-ot:has-class(., 'topic/fn')]"    use="@id"/> <!-- uses "callout?" -->
+  <xsl:key name="xref"  match="*[dita-ot:has-class(., 'topic/xref')]"  use="substring-after(@href, '#')"/> <!-- find xref which refers to footnote. -->
   
   <!-- ========== FORMATTER DECLARATIONS AND GLOBALS ========== -->
   
@@ -2115,24 +2115,24 @@ See the accompanying LICENSE file for applicable license.
    | control of formatting; such logic is part of the pertinent template rule.
    +-->
   
-  <xsl:template match="*[contains(@class, ' topic/fig ')]/*[contains(@class, ' topic/title ')]" mode="figtitle">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/fig')]/*[dita-ot:has-class(., 'topic/title')]" mode="figtitle">
    <xsl:apply-templates/>
   </xsl:template>
-  <xsl:template match="*[contains(@class, ' topic/fig ')]/*[contains(@class, ' topic/desc ')]" mode="figdesc">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/fig')]/*[dita-ot:has-class(., 'topic/desc')]" mode="figdesc">
    <xsl:apply-templates/>
   </xsl:template>
-  <xsl:template match="*[contains(@class, ' topic/fig ')]/*[contains(@class, ' topic/desc ')]" mode="get-output-class">figdesc</xsl:template>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/fig')]/*[dita-ot:has-class(., 'topic/desc')]" mode="get-output-class">figdesc</xsl:template>
   
   <!-- These 2 rules are not actually used, but could be picked up by an override -->
-  <xsl:template match="*[contains(@class, ' topic/fig ')]/*[contains(@class, ' topic/title ')]" name="topic.fig_title">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/fig')]/*[dita-ot:has-class(., 'topic/title')]" name="topic.fig_title">
     <span><xsl:apply-templates/></span>
   </xsl:template>
   <!-- These rules are not actually used, but could be picked up by an override -->
-  <xsl:template match="*[contains(@class, ' topic/fig ')]/*[contains(@class, ' topic/desc ')]" name="topic.fig_desc">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/fig')]/*[dita-ot:has-class(., 'topic/desc')]" name="topic.fig_desc">
     <span><xsl:apply-templates/></span>
   </xsl:template>
   
-  <xsl:template match="*[contains(@class, ' topic/figgroup ')]/*[contains(@class, ' topic/title ')]" name="topic.figgroup_title">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/figgroup')]/*[dita-ot:has-class(., 'topic/title')]" name="topic.figgroup_title">
    <xsl:apply-templates/>
   </xsl:template>
   
@@ -2276,7 +2276,7 @@ See the accompanying LICENSE file for applicable license.
     
   <!-- If there is no copyright in the document, make the standard one -->
   <xsl:template name="generateDefaultCopyright">
-    <xsl:if test="not(//*[contains(@class, ' topic/copyright ')])">
+    <xsl:if test="not(//*[dita-ot:has-class(., 'topic/copyright')])">
       <meta name="copyright">
         <xsl:attribute name="content">
           <xsl:text>(C) </xsl:text>
@@ -2361,8 +2361,8 @@ See the accompanying LICENSE file for applicable license.
     <!-- Title processing - special handling for short descriptions -->
     <title>
       <xsl:call-template name="gen-user-panel-title-pfx"/> <!-- hook for a user-XSL title prefix -->
-      <xsl:variable name="maintitle"><xsl:apply-templates select="/*[contains(@class, ' topic/topic ')]/*[contains(@class, ' topic/title ')]" mode="text-only"/></xsl:variable>
-      <xsl:variable name="ditamaintitle"><xsl:apply-templates select="/dita/*[contains(@class, ' topic/topic ')][1]/*[contains(@class, ' topic/title ')]" mode="text-only"/></xsl:variable>
+      <xsl:variable name="maintitle"><xsl:apply-templates select="/*[dita-ot:has-class(., 'topic/topic')]/*[dita-ot:has-class(., 'topic/title')]" mode="text-only"/></xsl:variable>
+      <xsl:variable name="ditamaintitle"><xsl:apply-templates select="/dita/*[dita-ot:has-class(., 'topic/topic')][1]/*[dita-ot:has-class(., 'topic/title')]" mode="text-only"/></xsl:variable>
       <xsl:choose>
         <xsl:when test="string-length($maintitle) > 0"><xsl:value-of select="normalize-space($maintitle)"/></xsl:when>
         <xsl:when test="string-length($ditamaintitle) > 0"><xsl:value-of select="normalize-space($ditamaintitle)"/></xsl:when>
@@ -2400,14 +2400,14 @@ See the accompanying LICENSE file for applicable license.
   <!-- Add all attributes. To add your own additional attributes, use mode="addAttributesToBody". -->
   <xsl:template match="*" mode="addAttributesToHtmlBodyElement">
     <!-- Already put xml:lang on <html>; do not copy to body with commonattributes -->
-    <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]/@outputclass" mode="add-ditaval-style"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]/@outputclass" mode="add-ditaval-style"/>
     <!--output parent or first "topic" tag's outputclass as class -->
     <xsl:if test="@outputclass">
       <xsl:attribute name="class" select="@outputclass"/>
     </xsl:if>
     <xsl:if test="self::dita">
-      <xsl:if test="*[contains(@class, ' topic/topic ')][1]/@outputclass">
-        <xsl:attribute name="class" select="*[contains(@class, ' topic/topic ')][1]/@outputclass"/>
+      <xsl:if test="*[dita-ot:has-class(., 'topic/topic')][1]/@outputclass">
+        <xsl:attribute name="class" select="*[dita-ot:has-class(., 'topic/topic')][1]/@outputclass"/>
       </xsl:if>
     </xsl:if>
     <xsl:call-template name="setid"/>
@@ -2431,8 +2431,8 @@ See the accompanying LICENSE file for applicable license.
       <xsl:call-template name="gen-user-header"/>  <!-- include user's XSL running header here -->
       <xsl:call-template name="processHDR"/>
       <xsl:if test="$INDEXSHOW = 'yes'">
-        <xsl:apply-templates select="/*/*[contains(@class, ' topic/prolog ')]/*[contains(@class, ' topic/metadata ')]/*[contains(@class, ' topic/keywords ')]/*[contains(@class, ' topic/indexterm ')] |
-                                     /dita/*[1]/*[contains(@class, ' topic/prolog ')]/*[contains(@class, ' topic/metadata ')]/*[contains(@class, ' topic/keywords ')]/*[contains(@class, ' topic/indexterm ')]"/>
+        <xsl:apply-templates select="/*/*[dita-ot:has-class(., 'topic/prolog')]/*[dita-ot:has-class(., 'topic/metadata')]/*[dita-ot:has-class(., 'topic/keywords')]/*[dita-ot:has-class(., 'topic/indexterm')] |
+                                     /dita/*[1]/*[dita-ot:has-class(., 'topic/prolog')]/*[dita-ot:has-class(., 'topic/metadata')]/*[dita-ot:has-class(., 'topic/keywords')]/*[dita-ot:has-class(., 'topic/indexterm')]"/>
       </xsl:if>
     </xsl:variable>
 
@@ -2456,10 +2456,10 @@ See the accompanying LICENSE file for applicable license.
     <main xsl:use-attribute-sets="main">
       <article xsl:use-attribute-sets="article">
         <xsl:attribute name="aria-labelledby">
-          <xsl:apply-templates select="*[contains(@class,' topic/title ')] |
-                                       self::dita/*[1]/*[contains(@class,' topic/title ')]" mode="return-aria-label-id"/>
+          <xsl:apply-templates select="*[dita-ot:has-class(., 'topic/title')] |
+                                       self::dita/*[1]/*[dita-ot:has-class(., 'topic/title')]" mode="return-aria-label-id"/>
         </xsl:attribute>
-        <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]" mode="out-of-line"/>
+        <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]" mode="out-of-line"/>
         <xsl:apply-templates/> <!-- this will include all things within topic; therefore, -->
                                <!-- title content will appear here by fall-through -->
                                <!-- followed by prolog (but no fall-through is permitted for it) -->
@@ -2467,7 +2467,7 @@ See the accompanying LICENSE file for applicable license.
                                <!-- followed by related links -->
                                <!-- followed by child topics by fall-through -->
         <xsl:call-template name="gen-endnotes"/>    <!-- include footnote-endnotes -->
-        <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+        <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
       </article>
     </main>
   </xsl:template>
@@ -2491,7 +2491,7 @@ See the accompanying LICENSE file for applicable license.
   
   <xsl:template name="generateBreadcrumbs">
     <!-- Insert previous/next/ancestor breadcrumbs links at the top of the html5. -->
-    <xsl:apply-templates select="*[contains(@class, ' topic/related-links ')]" mode="breadcrumb"/>
+    <xsl:apply-templates select="*[dita-ot:has-class(., 'topic/related-links')]" mode="breadcrumb"/>
   </xsl:template>
   
   <xsl:template name="processHDR">
@@ -2528,27 +2528,27 @@ See the accompanying LICENSE file for applicable license.
   </xsl:template>
 
   <!-- Add for "New <data> element (#9)" in DITA 1.1 -->
-  <xsl:template match="*[contains(@class, ' topic/data ')] |
-                       *[contains(@class, ' topic/data-about ')]" />
+  <xsl:template match="*[dita-ot:has-class(., 'topic/data')] |
+                       *[dita-ot:has-class(., 'topic/data-about')]" />
 
   <!-- Add for "Support foreign content vocabularies such as 
     MathML and SVG with <unknown> (#35) " in DITA 1.1 -->
-  <xsl:template match="*[contains(@class, ' topic/foreign ') or contains(@class, ' topic/unknown ')]"/>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/foreign') or dita-ot:has-class(., 'topic/unknown')]"/>
 
   <!-- Add for index-base element. This template is used to prevent
     any processing applied on index-base element -->
-  <xsl:template match="*[contains(@class, ' topic/index-base ')]"/>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/index-base')]"/>
 
   <!-- Add for text element.  -->
-  <xsl:template match="*[contains(@class, ' topic/text ')]">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/text')]">
     <xsl:apply-templates/>
   </xsl:template>
   
   <!-- By default, ignore desc and force pull-processing -->
-  <xsl:template match="*[contains(@class, ' topic/desc ')]" name="topic.desc" priority="-10"/>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/desc')]" name="topic.desc" priority="-10"/>
   
   <!-- Add for bodydiv  and sectiondiv-->
-  <xsl:template match="*[contains(@class, ' topic/bodydiv ') or contains(@class, ' topic/sectiondiv ')]">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/bodydiv') or dita-ot:has-class(., 'topic/sectiondiv')]">
     <div>
       <xsl:call-template name="commonattributes"/>
       <xsl:call-template name="setid"/>
@@ -2651,17 +2651,17 @@ See the accompanying LICENSE file for applicable license.
   <xsl:include href="plugin:org.dita.html5:xsl/simpletable.xsl"/>
   
   <xsl:key name="enumerableByClass"
-    match="*[contains(@class, ' topic/fig ')][*[contains(@class, ' topic/title ')]] |
-    *[contains(@class, ' topic/table ')][*[contains(@class, ' topic/title ')]] |
-    *[contains(@class,' topic/fn ') and empty(@callout)]"
+    match="*[dita-ot:has-class(., 'topic/fig')][*[dita-ot:has-class(., 'topic/title')]] |
+    *[dita-ot:has-class(., 'topic/table')][*[dita-ot:has-class(., 'topic/title')]] |
+    *[dita-ot:has-class(., 'topic/fn') and empty(@callout)]"
     use="tokenize(@class, '\s+')"/>
   
   <xsl:template name="generateCharset">
     <meta charset="UTF-8"/>
   </xsl:template>  
   
-  <xsl:template match="*[contains(@class,' topic/title ')]" mode="gen-metadata"/>
-  <xsl:template match="*[contains(@class,' topic/shortdesc ')]" mode="gen-metadata">
+  <xsl:template match="*[dita-ot:has-class(., 'topic/title')]" mode="gen-metadata"/>
+  <xsl:template match="*[dita-ot:has-class(., 'topic/shortdesc')]" mode="gen-metadata">
     <xsl:variable name="shortmeta">
       <xsl:apply-templates select="*|text()" mode="text-only"/>
     </xsl:variable>
@@ -2687,7 +2687,7 @@ See the accompanying LICENSE file for applicable license.
       </xsl:call-template>
       <xsl:call-template name="setidaname"/>
       <!-- Normal flags go before the generated title; revision flags only go on the content. -->
-      <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]/prop" mode="ditaval-outputflag"/>
+      <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]/prop" mode="ditaval-outputflag"/>
       <span class="note__title">
         <xsl:copy-of select="$title"/>
         <xsl:call-template name="getVariable">
@@ -2695,10 +2695,10 @@ See the accompanying LICENSE file for applicable license.
         </xsl:call-template>
       </span>
       <xsl:text> </xsl:text>
-      <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-startprop ')]/revprop" mode="ditaval-outputflag"/>
+      <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-startprop')]/revprop" mode="ditaval-outputflag"/>
       <xsl:apply-templates/>
       <!-- Normal end flags and revision end flags both go out after the content. -->
-      <xsl:apply-templates select="*[contains(@class, ' ditaot-d/ditaval-endprop ')]" mode="out-of-line"/>
+      <xsl:apply-templates select="*[dita-ot:has-class(., 'ditaot-d/ditaval-endprop')]" mode="out-of-line"/>
     </div>
   </xsl:template>
   
@@ -2716,13 +2716,13 @@ See the accompanying LICENSE file for applicable license.
   <xsl:template name="place-fig-lbl">
     <xsl:param name="stringName"/>
     <!-- Number of fig/title's including this one -->
-    <xsl:variable name="fig-count-actual" select="count(preceding::*[contains(@class, ' topic/fig ')]/*[contains(@class, ' topic/title ')])+1"/>
+    <xsl:variable name="fig-count-actual" select="count(preceding::*[dita-ot:has-class(., 'topic/fig')]/*[dita-ot:has-class(., 'topic/title')])+1"/>
     <xsl:variable name="ancestorlang">
       <xsl:call-template name="getLowerCaseLang"/>
     </xsl:variable>
     <xsl:choose>
       <!-- title -or- title & desc -->
-      <xsl:when test="*[contains(@class, ' topic/title ')]">
+      <xsl:when test="*[dita-ot:has-class(., 'topic/title')]">
         <figcaption>
           <span class="fig--title-label">
             <xsl:choose>      <!-- Hungarian: "1. Figure " -->
@@ -2744,11 +2744,11 @@ See the accompanying LICENSE file for applicable license.
               </xsl:otherwise>
             </xsl:choose>
           </span>
-          <xsl:apply-templates select="*[contains(@class, ' topic/title ')]" mode="figtitle"/>
-          <xsl:if test="*[contains(@class, ' topic/desc ')]">
+          <xsl:apply-templates select="*[dita-ot:has-class(., 'topic/title')]" mode="figtitle"/>
+          <xsl:if test="*[dita-ot:has-class(., 'topic/desc')]">
             <xsl:text>. </xsl:text>
           </xsl:if>
-          <xsl:for-each select="*[contains(@class, ' topic/desc ')]">
+          <xsl:for-each select="*[dita-ot:has-class(., 'topic/desc')]">
             <span class="figdesc">
               <xsl:call-template name="commonattributes"/>
               <xsl:apply-templates select="." mode="figdesc"/>
@@ -2757,8 +2757,8 @@ See the accompanying LICENSE file for applicable license.
         </figcaption>
       </xsl:when>
       <!-- desc -->
-      <xsl:when test="*[contains(@class, ' topic/desc ')]">
-        <xsl:for-each select="*[contains(@class, ' topic/desc ')]">
+      <xsl:when test="*[dita-ot:has-class(., 'topic/desc')]">
+        <xsl:for-each select="*[dita-ot:has-class(., 'topic/desc')]">
           <figcaption>
             <xsl:call-template name="commonattributes"/>
             <xsl:apply-templates select="." mode="figdesc"/>
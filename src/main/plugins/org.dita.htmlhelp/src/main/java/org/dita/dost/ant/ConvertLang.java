@@ -14,20 +14,29 @@ import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
-import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.Map.Entry;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.xml.parsers.DocumentBuilder;
 
@@ -36,6 +45,7 @@ import org.apache.tools.ant.Task;
 import org.dita.dost.log.DITAOTLogger;
 import org.dita.dost.log.DITAOTAntLogger;
 import org.dita.dost.util.FileUtils;
+import org.dita.dost.util.ParallelUtils;
 import org.dita.dost.util.XMLUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -79,10 +89,6 @@ public final class ConvertLang extends Task {
     private final Map<String, String>langMap = new HashMap<>();
     //entity map(e.g 38 = &amp;)
     private final Map<String, String>entityMap = new HashMap<>();
-    //Exceptions that should not generate entities
-    private Set<Integer> entityExceptionSet;
-    //Charset currently stored in exception list
-    private String exceptionCharset;
 
 
     private DITAOTLogger logger;
@@ -104,14 +110,10 @@ public final class ConvertLang extends Task {
         createLangMap();
         //initialize entity map
         createEntityMap();
-        //Initialize entitye exceptions
-        entityExceptionSet = new HashSet<>(128);
         //initialize charset map
         createCharsetMap();
-        //change charset of html files
-        convertHtmlCharset();
-        //update entity and lang code
-        updateAllEntitiesAndLangs();
+        //change charset, entities and lang code of html help files
+        convertAll();
     }
 
     private void createLangMap() {
@@ -217,230 +219,202 @@ public final class ConvertLang extends Task {
         return source.substring(0, startPos) + source.substring(endPos);
     }
 
-    private void convertHtmlCharset() {
-        final File outputDir = new File(outputdir);
-        final File[] files = outputDir.listFiles();
-        if (files != null) {
-            for (final File file : files) {
-                //Recursive method
-                convertCharset(file);
-            }
+    private String replaceXmlTags(final String value) {
+        if (value.contains(tag1)) {
+            return replaceXmlTag(value, tag1);
+        } else if (value.contains(tag2)) {
+            return replaceXmlTag(value, tag2);
+        } else if (value.contains(tag3)) {
+            return replaceXmlTag(value, tag3);
         }
+        return value;
     }
-    //Recursive method
-    private void convertCharset(final File inputFile) {
-        if (inputFile.isDirectory()) {
-            final File[] files = inputFile.listFiles();
-            if (files != null) {
-                for (final File file : files) {
-                    convertCharset(file);
-                }
-            }
-        } else if (FileUtils.isHTMLFile(inputFile.getName())||
-                FileUtils.isHHCFile(inputFile.getName())||
-                FileUtils.isHHKFile(inputFile.getName())) {
-
-            final String fileName = inputFile.getAbsolutePath();
-            final File outputFile = new File(fileName + FILE_EXTENSION_TEMP);
-            log("Processing " + fileName, Project.MSG_INFO);
-            BufferedReader reader = null;
-            Writer writer = null;
-            try {
-                //prepare for the input and output
-                final FileInputStream inputStream = new FileInputStream(inputFile);
-                final InputStreamReader streamReader = new InputStreamReader(inputStream, UTF8);
-                reader = new BufferedReader(streamReader);
-
-                final FileOutputStream outputStream = new FileOutputStream(outputFile);
-                final OutputStreamWriter streamWriter = new OutputStreamWriter(outputStream, UTF8);
-                writer = new BufferedWriter(streamWriter);
-
-                String value = reader.readLine();
-                while(value != null) {
-                    //meta tag contains charset found
-                    if (value.contains("<meta http-equiv") && value.contains("charset")) {
-                        final int insertPoint = value.indexOf("charset=") + "charset=".length();
-                        final String subString = value.substring(0, insertPoint);
-                        final int remainIndex = value.indexOf(UTF8) + UTF8.length();
-                        final String remainString = value.substring(remainIndex);
-                        //change the charset
-                        final String newValue = (FileUtils.isHHCFile(inputFile.getName()) || FileUtils.isHHKFile(inputFile.getName()) ?
-                                                 subString + charsetMap.get(ATTRIBUTE_FORMAT_VALUE_WINDOWS) + remainString :
-                                                 subString + charsetMap.get(ATTRIBUTE_FORMAT_VALUE_HTML) + remainString);
-                        //write into the output file
-                        writer.write(newValue);
-                        //add line break
-                        writer.write(LINE_SEPARATOR);
-                    } else {
-                        if (value.contains(tag1)) {
-                            value = replaceXmlTag(value, tag1);
-                        } else if (value.contains(tag2)) {
-                            value = replaceXmlTag(value, tag2);
-                        } else if (value.contains(tag3)) {
-                            value = replaceXmlTag(value, tag3);
-                        }
 
-                        //other values
-                        writer.write(value);
-                        writer.write(LINE_SEPARATOR);
-                    }
-                    value = reader.readLine();
-                }
-            } catch (final FileNotFoundException e) {
-                logger.error(e.getMessage(), e) ;
-            } catch (final UnsupportedEncodingException e) {
-                throw new RuntimeException(e);
-            } catch (final IOException e) {
-                logger.error(e.getMessage(), e) ;
-            } finally {
-                if (reader != null) {
-                    try {
-                        reader.close();
-                    } catch (final IOException e) {
-                        logger.error("Failed to close input stream: " + e.getMessage());
-                    }
-                }
-                if (writer != null) {
-                    try {
-                        writer.close();
-                    } catch (final IOException e) {
-                        logger.error("Failed to close output stream: " + e.getMessage());
-                    }
-                }
-            }
-            try {
-                deleteQuietly(inputFile);
-                moveFile(outputFile, inputFile);
-            } catch (final Exception e) {
-                logger.error("Failed to replace " + inputFile + ": " + e.getMessage());
-            }
+    /**
+     * Convert all html help files in output directory in parallel.
+     */
+    private void convertAll() {
+        final List<File> files;
+        try (Stream<Path> paths = Files.walk(new File(outputdir).toPath())) {
+            files = paths
+                    .filter(Files::isRegularFile)
+                    .map(Path::toFile)
+                    .filter(f -> getFormat(f) != null)
+                    .collect(Collectors.toList());
+        } catch (final IOException e) {
+            logger.error("Failed to list " + outputdir + ": " + e.getMessage(), e);
+            return;
+        }
+        final Map<String, String[]> entityTables = new HashMap<>();
+        for (final String format : Arrays.asList(ATTRIBUTE_FORMAT_VALUE_HTML, ATTRIBUTE_FORMAT_VALUE_WINDOWS)) {
+            entityTables.put(format, createEntityTable(charsetMap.get(format)));
         }
+        ParallelUtils.forEach(files, file -> {
+            final String format = getFormat(file);
+            convert(file, format, entityTables.get(format));
+        });
     }
 
-    private void updateAllEntitiesAndLangs() {
-        final File outputDir = new File(outputdir);
-        final File[] files = outputDir.listFiles();
-        if (files != null) {
-            for (final File file : files) {
-                //Recursive method
-                updateEntityAndLang(file);
-            }
+    /**
+     * Get target format of html help file.
+     *
+     * @return target format, {@code null} if file is not converted
+     */
+    private String getFormat(final File file) {
+        final String name = file.getName();
+        if (FileUtils.isHTMLFile(name)) {
+            return ATTRIBUTE_FORMAT_VALUE_HTML;
+        } else if (FileUtils.isHHPFile(name) || FileUtils.isHHCFile(name) || FileUtils.isHHKFile(name)) {
+            return ATTRIBUTE_FORMAT_VALUE_WINDOWS;
         }
+        return null;
     }
-    //Recursive method
-    private void updateEntityAndLang(final File inputFile) {
-        //directory case
-        if (inputFile.isDirectory()) {
-            final File[] files = inputFile.listFiles();
-            if (files != null) {
-                for (final File file : files) {
-                    updateEntityAndLang(file);
+
+    /**
+     * Convert html help file from UTF-8 to target charset in a single pass. Meta charset declarations are updated
+     * in HTML, HHC and HHK files, the language setting is updated in HHP, HHC and HHK files, and characters are
+     * written as named entities where available. Other characters that cannot be encoded in the target charset are
+     * written as character references, except in HHP files. Malformed UTF-8 input is decoded as replacement
+     * characters. If the file cannot be read or written, it is left unchanged.
+     *
+     * @param inputFile file to convert in place
+     * @param format target format
+     * @param entityTable entities by character code
+     */
+    private void convert(final File inputFile, final String format, final String[] entityTable) {
+        final String name = inputFile.getName();
+        final boolean markup = FileUtils.isHTMLFile(name) || FileUtils.isHHCFile(name) || FileUtils.isHHKFile(name);
+        final boolean project = FileUtils.isHHPFile(name) || FileUtils.isHHCFile(name) || FileUtils.isHHKFile(name);
+        final Charset charset = Charset.forName(charsetMap.get(format));
+        final CharsetEncoder encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        final CharsetEncoder checker = charset.newEncoder();
+        final File outputFile = new File(inputFile.getAbsolutePath() + FILE_EXTENSION_TEMP);
+        log("Processing " + inputFile.getAbsolutePath(), Project.MSG_INFO);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(inputFile),
+                StandardCharsets.UTF_8));
+             Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), encoder))) {
+            String value;
+            while ((value = reader.readLine()) != null) {
+                if (markup) {
+                    value = convertCharsetLine(value, format);
+                }
+                if (project) {
+                    value = replaceXmlTags(value);
+                    if (value.contains("Language=")) {
+                        value = "Language=" + getLanguageId();
+                    }
                 }
+                writeEntities(writer, value, entityTable, checker, markup);
+                writer.write(LINE_SEPARATOR);
             }
+        } catch (final IOException e) {
+            logger.error("Failed to convert " + inputFile + ": " + e.getMessage(), e);
+            deleteQuietly(outputFile);
+            return;
+        } catch (final RuntimeException e) {
+            deleteQuietly(outputFile);
+            throw e;
         }
-        //html file case
-        else if (FileUtils.isHTMLFile(inputFile.getName())) {
-            //do converting work
-            convertEntityAndCharset(inputFile, ATTRIBUTE_FORMAT_VALUE_HTML);
+        try {
+            Files.move(outputFile.toPath(), inputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (final Exception e) {
+            logger.error("Failed to replace " + inputFile + ": " + e.getMessage());
+        }
+    }
 
+    /**
+     * Update meta charset declaration or remove XML declaration from a line.
+     */
+    private String convertCharsetLine(final String value, final String format) {
+        //meta tag contains charset found
+        if (value.contains("<meta http-equiv") && value.contains("charset")) {
+            final int insertPoint = value.indexOf("charset=") + "charset=".length();
+            final String subString = value.substring(0, insertPoint);
+            final int remainIndex = value.indexOf(UTF8) + UTF8.length();
+            final String remainString = value.substring(remainIndex);
+            //change the charset
+            return subString + charsetMap.get(format) + remainString;
         }
-        //hhp/hhc/hhk file case
-        else if (FileUtils.isHHPFile(inputFile.getName()) ||
-                FileUtils.isHHCFile(inputFile.getName()) ||
-                FileUtils.isHHKFile(inputFile.getName())) {
-            //do converting work
-            convertEntityAndCharset(inputFile, ATTRIBUTE_FORMAT_VALUE_WINDOWS);
-            //update language setting of hhp file
-            final String fileName = inputFile.getAbsolutePath();
-            final File outputFile = new File(fileName + FILE_EXTENSION_TEMP);
-            //get new charset
-            final String charset = charsetMap.get(ATTRIBUTE_FORMAT_VALUE_WINDOWS);
-            BufferedReader reader = null;
-            BufferedWriter writer = null;
-            try {
-                //prepare for the input and output
-                final FileInputStream inputStream = new FileInputStream(inputFile);
-                final InputStreamReader streamReader = new InputStreamReader(inputStream, charset);
-                //wrapped into reader
-                reader = new BufferedReader(streamReader);
-
-                final FileOutputStream outputStream = new FileOutputStream(outputFile);
-
-                //convert charset
-                final OutputStreamWriter streamWriter = new OutputStreamWriter(outputStream, charset);
-                //wrapped into writer
-                writer = new BufferedWriter(streamWriter);
-
-                String value = reader.readLine();
-                while(value != null) {
-                    if (value.contains(tag1)) {
-                        value = replaceXmlTag(value, tag1);
-                    } else if (value.contains(tag2)) {
-                        value = replaceXmlTag(value, tag2);
-                    } else if (value.contains(tag3)) {
-                        value = replaceXmlTag(value, tag3);
-                    }
+        return replaceXmlTags(value);
+    }
 
-                    //meta tag contains charset found
-                    if (value.contains("Language=")) {
-                        String newValue = langMap.get(langcode);
-                        if (newValue == null) {
-                            newValue = langMap.get(langcode.split("-")[0]);
-                        }
-                        if (newValue != null) {
-                            writer.write("Language=" + newValue);
-                            writer.write(LINE_SEPARATOR);
-                        } else {
-                            throw new IllegalArgumentException("Unsupported language code '" + langcode + "', unable to map to a Locale ID.");
-                        }
+    private String getLanguageId() {
+        String newValue = langMap.get(langcode);
+        if (newValue == null) {
+            newValue = langMap.get(langcode.split("-")[0]);
+        }
+        if (newValue == null) {
+            throw new IllegalArgumentException("Unsupported language code '" + langcode + "', unable to map to a Locale ID.");
+        }
+        return newValue;
+    }
 
-                    } else {
-                        //other values
-                        writer.write(value);
-                        writer.write(LINE_SEPARATOR);
-                    }
-                    value = reader.readLine();
-                }
-            } catch (final FileNotFoundException e) {
-                logger.error(e.getMessage(), e) ;
-            } catch (final UnsupportedEncodingException e) {
-                throw new RuntimeException(e);
-            } catch (final IOException e) {
-                logger.error(e.getMessage(), e) ;
-            } finally {
-                if (reader != null) {
-                    try {
-                        reader.close();
-                    } catch (final IOException e) {
-                        logger.error("Failed to close input stream: " + e.getMessage());
-                    }
-                }
-                if (writer != null) {
-                    try {
-                        writer.close();
-                    } catch (final IOException e) {
-                        logger.error("Failed to close output stream: " + e.getMessage());
-                    }
-                }
+    /**
+     * Write text with entity and character reference escapes.
+     *
+     * @param writer target charset writer
+     * @param value text to write
+     * @param entityTable entities by character code
+     * @param checker encoder used to test if characters can be encoded in target charset
+     * @param escapeUnmappable write unmappable characters as character references
+     */
+    private void writeEntities(final Writer writer, final String value, final String[] entityTable,
+                               final CharsetEncoder checker, final boolean escapeUnmappable) throws IOException {
+        int start = 0;
+        for (int i = 0; i < value.length(); ) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                i++;
+                continue;
+            }
+            final int codePoint = value.codePointAt(i);
+            final int length = Character.charCount(codePoint);
+            final String replacement;
+            if (codePoint < entityTable.length && entityTable[codePoint] != null) {
+                replacement = entityTable[codePoint];
+            } else if (escapeUnmappable && (length == 1
+                    ? !Character.isSurrogate(c) && !checker.canEncode(c)
+                    : !checker.canEncode(value.substring(i, i + length)))) {
+                replacement = "&#" + codePoint + ";";
+            } else {
+                replacement = null;
             }
-            try {
-                deleteQuietly(inputFile);
-                moveFile(outputFile, inputFile);
-            } catch (final Exception e) {
-                logger.error("Failed to replace " + inputFile + ": " + e.getMessage());
+            if (replacement != null) {
+                writer.write(value, start, i - start);
+                writer.write(replacement);
+                start = i + length;
             }
+            i += length;
         }
-
+        writer.write(value, start, value.length() - start);
     }
 
-    private void updateExceptionCharacters(final String charset) {
-        if (exceptionCharset != null && exceptionCharset.equals(charset)) {
-            return;
+    /**
+     * Create entity table for target charset. Characters in the exception list of the charset are not escaped.
+     *
+     * @param charset target charset name
+     * @return entities by character code
+     */
+    private String[] createEntityTable(final String charset) {
+        final Set<Integer> exceptions = getExceptionCharacters(charset);
+        int max = 0;
+        for (final String key : entityMap.keySet()) {
+            max = Math.max(max, Integer.parseInt(key));
         }
-        exceptionCharset = charset;
-        if (!entityExceptionSet.isEmpty()) {
-            entityExceptionSet.clear();
+        final String[] table = new String[max + 1];
+        for (final Entry<String, String> e : entityMap.entrySet()) {
+            final int charCode = Integer.parseInt(e.getKey());
+            if (!exceptions.contains(charCode)) {
+                table[charCode] = e.getValue();
+            }
         }
+        return table;
+    }
+
+    private Set<Integer> getExceptionCharacters(final String charset) {
+        final Set<Integer> entityExceptionSet = new HashSet<>(128);
         if (charset.equals(CODEPAGE_ISO_8859_2) || charset.equals(CODEPAGE_1250) ||
                 charset.equals(CODEPAGE_ISO_8859_1) || charset.equals(CODEPAGE_1252)) {
             entityExceptionSet.add(193); entityExceptionSet.add(225);//A-acute
@@ -507,70 +481,7 @@ public final class ConvertLang extends Task {
             entityExceptionSet.add(936); entityExceptionSet.add(968);
             entityExceptionSet.add(937); entityExceptionSet.add(969);//Omega
         }
-    }
-
-    private void convertEntityAndCharset(final File inputFile, final String format) {
-        final String fileName = inputFile.getAbsolutePath();
-        final File outputFile = new File(fileName + FILE_EXTENSION_TEMP);
-        BufferedReader reader = null;
-        BufferedWriter writer = null;
-        try {
-            //prepare for the input and output
-            final FileInputStream inputStream = new FileInputStream(inputFile);
-            final InputStreamReader streamReader = new InputStreamReader(inputStream, UTF8);
-            //wrapped into reader
-            reader = new BufferedReader(streamReader);
-
-            final FileOutputStream outputStream = new FileOutputStream(outputFile);
-            //get new charset
-            final String charset = charsetMap.get(format);
-            //convert charset
-            final OutputStreamWriter streamWriter = new OutputStreamWriter(outputStream, charset);
-            //wrapped into writer
-            writer = new BufferedWriter(streamWriter);
-            updateExceptionCharacters(charset);
-
-            //read a character
-            int charCode = reader.read();
-            while(charCode != -1) {
-                final String key = String.valueOf(charCode);
-                //Is an entity char
-                if (entityMap.containsKey(key) &&
-                        !entityExceptionSet.contains(charCode)) {
-                    //get related entity
-                    final String value = entityMap.get(key);
-                    //write entity into output file
-                    writer.write(value);
-                } else {
-                    //normal process
-                    writer.write(charCode);
-                }
-                charCode = reader.read();
-            }
-        } catch (final IOException e) {
-            logger.error(e.getMessage(), e) ;
-        } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (final IOException e) {
-                    logger.error("Failed to close input stream: " + e.getMessage());
-                }
-            }
-            if (writer != null) {
-                try {
-                    writer.close();
-                } catch (final IOException e) {
-                    logger.error("Failed to close output stream: " + e.getMessage());
-                }
-            }
-        }
-        try {
-            deleteQuietly(inputFile);
-            moveFile(outputFile, inputFile);
-        } catch (final Exception e) {
-            logger.error("Failed to replace " + inputFile + ": " + e.getMessage());
-        }
+        return entityExceptionSet;
     }
 
     public void setBasedir(final String basedir) {
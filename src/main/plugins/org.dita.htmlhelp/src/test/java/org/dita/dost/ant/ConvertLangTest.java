@@ -0,0 +1,96 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.ant;
+
+import org.apache.tools.ant.Project;
+import org.dita.dost.TestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+public class ConvertLangTest {
+
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+    private File tempDir;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDir = TestUtils.createTempDir(ConvertLangTest.class);
+    }
+
+    @Test
+    public void convert_entities() throws IOException {
+        assertEquals("<p>&copy;&trade;&euro;</p>" + LINE_SEPARATOR,
+                convert("topic.html", "<p>\u00A9\u2122\u20AC</p>"));
+    }
+
+    @Test
+    public void convert_encodable() throws IOException {
+        assertEquals("<p>\u00E4\u00F6</p>" + LINE_SEPARATOR,
+                convert("topic.html", "<p>\u00E4\u00F6</p>"));
+    }
+
+    @Test
+    public void convert_unmappable() throws IOException {
+        assertEquals("<p>&#337;&#1046;</p>" + LINE_SEPARATOR,
+                convert("topic.html", "<p>\u0151\u0416</p>"));
+    }
+
+    @Test
+    public void convert_supplementary() throws IOException {
+        assertEquals("<p>a&#128512;b&#66376;</p>" + LINE_SEPARATOR,
+                convert("topic.html", "<p>a\uD83D\uDE00b\uD800\uDF48</p>"));
+    }
+
+    @Test
+    public void convert_malformed() throws IOException {
+        final byte[] content = {'<', 'p', '>', 'a', (byte) 0xFF, 'b', '<', '/', 'p', '>'};
+        assertEquals("<p>a&#65533;b</p>" + LINE_SEPARATOR,
+                convert("topic.html", content));
+    }
+
+    @Test
+    public void convert_project() throws IOException {
+        assertEquals("[OPTIONS]" + LINE_SEPARATOR + "Language=0x0409 English (United States)" + LINE_SEPARATOR,
+                convert("help.hhp", "[OPTIONS]\nLanguage=0x0000"));
+    }
+
+    private String convert(final String name, final String content) throws IOException {
+        return convert(name, content.getBytes(UTF_8));
+    }
+
+    private String convert(final String name, final byte[] content) throws IOException {
+        final File file = new File(tempDir, name);
+        Files.write(file.toPath(), content);
+
+        final ConvertLang task = new ConvertLang();
+        task.setProject(new Project());
+        task.setBasedir(tempDir.getAbsolutePath());
+        task.setOutputdir(tempDir.getAbsolutePath());
+        task.setLangcode("en-us");
+        task.setMessage("Convert");
+        task.execute();
+
+        return new String(Files.readAllBytes(file.toPath()), ISO_8859_1);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        TestUtils.forceDelete(tempDir);
+    }
+}
@@ -1,6 +1,8 @@
 package com.idiominc.ws.opentopic.fo.i18n;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 
@@ -37,13 +39,29 @@ See the accompanying LICENSE file for applicable license.
 public class Alphabet {
     private final String name;
 
-    private final Set<Character> charset = new HashSet<Character>();
+    /** Unicode code points in the alphabet. */
+    private final Set<Integer> charset = new HashSet<Integer>();
 
 
     public Alphabet(final String theName, final Character[] theChars) {
         this.name = theName;
         for (final Character aChar : theChars) {
-            this.charset.add(aChar);
+            this.charset.add((int) aChar);
+        }
+    }
+
+
+    /**
+     * Create alphabet from Unicode code points.
+     *
+     * @param theName alphabet name
+     * @param theCodePoints code points in the alphabet
+     * @since 3.5
+     */
+    public Alphabet(final String theName, final int[] theCodePoints) {
+        this.name = theName;
+        for (final int aCodePoint : theCodePoints) {
+            this.charset.add(aCodePoint);
         }
     }
 
@@ -54,12 +72,50 @@ public class Alphabet {
 
 
     public boolean isContain(final char theChar) {
-        return this.charset.contains(new Character(theChar));
+        return this.charset.contains((int) theChar);
     }
 
 
+    /**
+     * Test if alphabet contains a Unicode code point.
+     *
+     * @param theCodePoint code point
+     * @return {@code true} if alphabet contains the code point, otherwise {@code false}
+     * @since 3.5
+     */
+    public boolean containsCodePoint(final int theCodePoint) {
+        return this.charset.contains(theCodePoint);
+    }
+
+
+    /**
+     * Get chars in the Basic Multilingual Plane.
+     *
+     * @return BMP chars in the alphabet
+     */
     public Character[] getAllChars() {
-        final Character[] characters = (Character[]) charset.toArray(new Character[charset.size()]);
-        return characters;
+        final List<Character> characters = new ArrayList<Character>();
+        for (final Integer aCodePoint : charset) {
+            if (Character.isBmpCodePoint(aCodePoint)) {
+                characters.add((char) aCodePoint.intValue());
+            }
+        }
+        return characters.toArray(new Character[characters.size()]);
+    }
+
+
+    /**
+     * Get Unicode code points.
+     *
+     * @return code points in the alphabet
+     * @since 3.5
+     */
+    public int[] getAllCodePoints() {
+        final int[] codePoints = new int[charset.size()];
+        int i = 0;
+        for (final Integer aCodePoint : charset) {
+            codePoints[i++] = aCodePoint;
+        }
+        return codePoints;
     }
 }
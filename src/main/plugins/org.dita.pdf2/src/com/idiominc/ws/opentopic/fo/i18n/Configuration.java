@@ -4,8 +4,10 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
 
 import com.idiominc.ws.opentopic.fo.i18n.Alphabet;
 
@@ -43,11 +45,17 @@ public class Configuration {
     private static final String BAD_CONF_MESSAGE = "Bad configuration file format!";
 
     private final Alphabet[] alphabets;
+    /** Alphabet index plus one for each BMP char, zero if no alphabet contains the char. */
+    private final short[] alphabetTable;
+    /** Alphabets of supplementary code points listed in alphabets. */
+    private final Map<Integer, Alphabet> supplementaryTable;
 
 
     public Configuration(final Document theConfigurationFile)
             throws ConfigurationException {
         this.alphabets = initAlphabets(theConfigurationFile);
+        this.alphabetTable = initAlphabetTable(this.alphabets);
+        this.supplementaryTable = initSupplementaryTable(this.alphabets);
     }
 
 
@@ -62,14 +70,65 @@ public class Configuration {
      *      or <code>null</code> if no alphabets contains given char.
      */
     public Alphabet getAlphabetForChar(final char theChar) {
-        Alphabet result = null;
-        for (final Alphabet alphabet : this.alphabets) {
-            if (alphabet.isContain(theChar)) {
-                result = alphabet;
-                break;
+        final int index = this.alphabetTable[theChar];
+        return index != 0 ? this.alphabets[index - 1] : null;
+    }
+
+
+    /**
+     * Searches alphabets for a Unicode code point. A supplementary code point that is not listed in any alphabet
+     * belongs to the alphabet that contains both of its surrogate chars, so that ranges over the surrogate block
+     * keep covering supplementary characters.
+     *
+     * @param theCodePoint code point
+     * @return first found alphabet that contains given code point
+     *      or <code>null</code> if no alphabets contains given code point.
+     * @since 3.5
+     */
+    public Alphabet getAlphabetForCodePoint(final int theCodePoint) {
+        if (Character.isBmpCodePoint(theCodePoint)) {
+            return getAlphabetForChar((char) theCodePoint);
+        }
+        final Alphabet alphabet = this.supplementaryTable.get(theCodePoint);
+        if (alphabet != null) {
+            return alphabet;
+        }
+        final Alphabet high = getAlphabetForChar(Character.highSurrogate(theCodePoint));
+        return high != null && high == getAlphabetForChar(Character.lowSurrogate(theCodePoint)) ? high : null;
+    }
+
+
+    /**
+     * Build char to alphabet lookup table. The first alphabet that contains a char wins.
+     */
+    private static short[] initAlphabetTable(final Alphabet[] theAlphabets)
+            throws ConfigurationException {
+        if (theAlphabets.length >= Short.MAX_VALUE) {
+            throw new ConfigurationException(BAD_CONF_MESSAGE);
+        }
+        final short[] table = new short[Character.MAX_VALUE + 1];
+        for (int i = theAlphabets.length - 1; i >= 0; i--) {
+            for (final Character aChar : theAlphabets[i].getAllChars()) {
+                table[aChar] = (short) (i + 1);
+            }
+        }
+        return table;
+    }
+
+
+    /**
+     * Build supplementary code point to alphabet lookup table. The first alphabet that contains a code point wins.
+     */
+    private static Map<Integer, Alphabet> initSupplementaryTable(final Alphabet[] theAlphabets) {
+        final Map<Integer, Alphabet> table = new HashMap<Integer, Alphabet>();
+        for (int i = theAlphabets.length - 1; i >= 0; i--) {
+            for (final int aCodePoint : theAlphabets[i].getAllCodePoints()) {
+                if (!Character.isBmpCodePoint(aCodePoint)) {
+                    table.put(aCodePoint, theAlphabets[i]);
+                }
             }
         }
-        return result;
+        return table;
     }
 
 
@@ -99,8 +158,8 @@ public class Configuration {
                 final Node alphabetChildNode = alphabetChildNodes.item(j);
                 final String childNodeName = alphabetChildNode.getNodeName();
                 if ("character-set".equals(childNodeName)) {
-                    final Character[] chars = processCharacterSetNode(alphabetChildNode);
-                    alphabetList.add(new Alphabet(charSetName, chars));
+                    final int[] codePoints = processCharacterSetNode(alphabetChildNode);
+                    alphabetList.add(new Alphabet(charSetName, codePoints));
                 } else {
                     //                    System.out.println("Unprocessed element [" + childNodeName + "]");
                 }
@@ -110,20 +169,16 @@ public class Configuration {
     }
 
 
-    private Character[] processCharacterSetNode(final Node theNode)
+    private int[] processCharacterSetNode(final Node theNode)
             throws ConfigurationException {
-        final List<Character> characterList = new ArrayList<Character>();
+        final List<Integer> characterList = new ArrayList<Integer>();
 
         final NodeList ranges = theNode.getChildNodes();
         for (int i = 0; i < ranges.getLength(); i++) {
             final Node node = ranges.item(i);
 
             if ("character".equals(node.getNodeName())) {
-                final char[] aChars = node.getFirstChild().getNodeValue().toCharArray();
-                if (aChars.length != 1) {
-                    throw new ConfigurationException(BAD_CONF_MESSAGE);
-                }
-                characterList.add(new Character(aChars[0]));
+                characterList.add(getCodePoint(node));
             } else if ("character-range".equals(node.getNodeName())) {
                 Node start = null;
                 Node end = null;
@@ -143,24 +198,34 @@ public class Configuration {
                     throw new ConfigurationException(BAD_CONF_MESSAGE);
                 }
 
-                final char[] startChars = start.getFirstChild().getNodeValue().toCharArray();
-                final char[] endChars = end.getFirstChild().getNodeValue().toCharArray();
-
-                if (startChars.length != 1 || endChars.length != 1) {
-                    throw new ConfigurationException(BAD_CONF_MESSAGE);
-                }
-
-                final char startChar = startChars[0];
-                final char endChar = endChars[0];
+                final int startCodePoint = getCodePoint(start);
+                final int endCodePoint = getCodePoint(end);
 
-                for (char ch = startChar; ch <= endChar; ch++) {
-                    characterList.add(new Character(ch));
+                for (int codePoint = startCodePoint; codePoint <= endCodePoint; codePoint++) {
+                    characterList.add(codePoint);
                 }
             } else {
                 //                System.out.println("Unprocessed element [" + node + "]");
             }
         }
 
-        return (Character[]) characterList.toArray(new Character[characterList.size()]);
+        final int[] codePoints = new int[characterList.size()];
+        for (int i = 0; i < codePoints.length; i++) {
+            codePoints[i] = characterList.get(i);
+        }
+        return codePoints;
+    }
+
+
+    /**
+     * Read single code point from element content.
+     */
+    private int getCodePoint(final Node theNode)
+            throws ConfigurationException {
+        final String value = theNode.getFirstChild().getNodeValue();
+        if (value.isEmpty() || value.codePointCount(0, value.length()) != 1) {
+            throw new ConfigurationException(BAD_CONF_MESSAGE);
+        }
+        return value.codePointAt(0);
     }
 }
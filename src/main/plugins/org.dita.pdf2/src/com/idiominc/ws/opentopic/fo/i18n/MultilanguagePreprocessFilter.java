@@ -0,0 +1,222 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package com.idiominc.ws.opentopic.fo.i18n;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.SAXNotSupportedException;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+import static com.idiominc.ws.opentopic.fo.i18n.MultilanguagePreprocessor.*;
+
+/**
+ * Streaming multilanguage preprocessor. Document is passed through as is, except for text which is split into
+ * {@code text-fragment} elements by alphabet. Adjacent character events are buffered so that text is split the same
+ * way as a DOM text node. Text is split by code point, so surrogate pairs are never split between fragments.
+ *
+ * @since 3.5
+ */
+final class MultilanguagePreprocessFilter extends XMLFilterImpl implements LexicalHandler {
+
+    private static final String PROPERTY_LEXICAL_HANDLER = "http://xml.org/sax/properties/lexical-handler";
+
+    private final Configuration configuration;
+    private final StringBuilder buf = new StringBuilder();
+    private final AttributesImpl atts = new AttributesImpl();
+    private LexicalHandler lexicalHandler;
+    private int depth;
+    private boolean inCDATA;
+
+    MultilanguagePreprocessFilter(final Configuration configuration) {
+        this.configuration = configuration;
+        atts.addAttribute("", CHAR_SET, CHAR_SET, "CDATA", "");
+    }
+
+    @Override
+    public void setProperty(final String name, final Object value)
+            throws SAXNotRecognizedException, SAXNotSupportedException {
+        if (PROPERTY_LEXICAL_HANDLER.equals(name)) {
+            lexicalHandler = (LexicalHandler) value;
+            super.setProperty(name, this);
+        } else {
+            super.setProperty(name, value);
+        }
+    }
+
+    @Override
+    public Object getProperty(final String name) throws SAXNotRecognizedException, SAXNotSupportedException {
+        if (PROPERTY_LEXICAL_HANDLER.equals(name)) {
+            return lexicalHandler;
+        }
+        return super.getProperty(name);
+    }
+
+    // ContentHandler methods
+
+    @Override
+    public void startDocument() throws SAXException {
+        buf.setLength(0);
+        depth = 0;
+        inCDATA = false;
+        super.startDocument();
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        flush();
+        super.endDocument();
+    }
+
+    @Override
+    public void startPrefixMapping(final String prefix, final String uri) throws SAXException {
+        flush();
+        super.startPrefixMapping(prefix, uri);
+    }
+
+    @Override
+    public void startElement(final String uri, final String localName, final String qName, final Attributes atts)
+            throws SAXException {
+        flush();
+        if (depth == 0) {
+            super.startPrefixMapping(PREFIX, NAMESPACE_URL);
+        }
+        depth++;
+        super.startElement(uri, localName, qName, atts);
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+        flush();
+        super.endElement(uri, localName, qName);
+        depth--;
+        if (depth == 0) {
+            super.endPrefixMapping(PREFIX);
+        }
+    }
+
+    @Override
+    public void characters(final char[] ch, final int start, final int length) throws SAXException {
+        if (inCDATA) {
+            super.characters(ch, start, length);
+        } else {
+            buf.append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void ignorableWhitespace(final char[] ch, final int start, final int length) throws SAXException {
+        buf.append(ch, start, length);
+    }
+
+    @Override
+    public void processingInstruction(final String target, final String data) throws SAXException {
+        flush();
+        super.processingInstruction(target, data);
+    }
+
+    // LexicalHandler methods
+
+    @Override
+    public void startDTD(final String name, final String publicId, final String systemId) throws SAXException {
+        if (lexicalHandler != null) {
+            lexicalHandler.startDTD(name, publicId, systemId);
+        }
+    }
+
+    @Override
+    public void endDTD() throws SAXException {
+        if (lexicalHandler != null) {
+            lexicalHandler.endDTD();
+        }
+    }
+
+    @Override
+    public void startEntity(final String name) throws SAXException {
+        if (lexicalHandler != null) {
+            lexicalHandler.startEntity(name);
+        }
+    }
+
+    @Override
+    public void endEntity(final String name) throws SAXException {
+        if (lexicalHandler != null) {
+            lexicalHandler.endEntity(name);
+        }
+    }
+
+    @Override
+    public void startCDATA() throws SAXException {
+        flush();
+        inCDATA = true;
+        if (lexicalHandler != null) {
+            lexicalHandler.startCDATA();
+        }
+    }
+
+    @Override
+    public void endCDATA() throws SAXException {
+        inCDATA = false;
+        if (lexicalHandler != null) {
+            lexicalHandler.endCDATA();
+        }
+    }
+
+    @Override
+    public void comment(final char[] ch, final int start, final int length) throws SAXException {
+        flush();
+        if (lexicalHandler != null) {
+            lexicalHandler.comment(ch, start, length);
+        }
+    }
+
+    // Private methods
+
+    /**
+     * Write buffered text split into alphabet runs.
+     */
+    private void flush() throws SAXException {
+        final int length = buf.length();
+        if (length == 0) {
+            return;
+        }
+        int runStart = 0;
+        Alphabet currentAlphabet = null;
+        for (int i = 0; i < length; ) {
+            final int codePoint = Character.codePointAt(buf, i);
+            final Alphabet alphabet = configuration.getAlphabetForCodePoint(codePoint);
+            if (alphabet != currentAlphabet) {
+                writeRun(currentAlphabet, runStart, i);
+                currentAlphabet = alphabet;
+                runStart = i;
+            }
+            i += Character.charCount(codePoint);
+        }
+        writeRun(currentAlphabet, runStart, length);
+        buf.setLength(0);
+    }
+
+    private void writeRun(final Alphabet alphabet, final int start, final int end) throws SAXException {
+        if (start == end) {
+            return;
+        }
+        final char[] ch = new char[end - start];
+        buf.getChars(start, end, ch, 0);
+        if (alphabet != null) {
+            atts.setValue(0, alphabet.getName());
+            final String qName = PREFIX + ":" + TEXT_FRAGMENT;
+            getContentHandler().startElement(NAMESPACE_URL, TEXT_FRAGMENT, qName, atts);
+            getContentHandler().characters(ch, 0, ch.length);
+            getContentHandler().endElement(NAMESPACE_URL, TEXT_FRAGMENT, qName);
+        } else {
+            getContentHandler().characters(ch, 0, ch.length);
+        }
+    }
+}
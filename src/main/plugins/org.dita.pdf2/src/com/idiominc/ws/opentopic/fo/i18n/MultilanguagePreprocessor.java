@@ -2,6 +2,7 @@ package com.idiominc.ws.opentopic.fo.i18n;
 
 import org.dita.dost.util.XMLUtils;
 import org.w3c.dom.*;
+import org.xml.sax.XMLFilter;
 
 import javax.xml.parsers.DocumentBuilder;
 import java.util.ArrayList;
@@ -40,10 +41,10 @@ This file is part of the DITA Open Toolkit project.
 See the accompanying LICENSE file for applicable license.
  */
 public class MultilanguagePreprocessor {
-    private static final String NAMESPACE_URL = "http://www.idiominc.com/opentopic/i18n";
-    private static final String PREFIX = "opentopic-i18n";
-    private static final String TEXT_FRAGMENT = "text-fragment";
-    private static final String CHAR_SET = "char-set";
+    static final String NAMESPACE_URL = "http://www.idiominc.com/opentopic/i18n";
+    static final String PREFIX = "opentopic-i18n";
+    static final String TEXT_FRAGMENT = "text-fragment";
+    static final String CHAR_SET = "char-set";
 
     private final Configuration configuration;
 
@@ -75,6 +76,18 @@ public class MultilanguagePreprocessor {
      }
 
 
+     /**
+      * Create streaming preprocessor. The returned filter passes the document through and splits text into
+      * text fragments by alphabet.
+      *
+      * @return multilanguage preprocessing filter
+      * @since 3.5
+      */
+     public XMLFilter createFilter() {
+         return new MultilanguagePreprocessFilter(configuration);
+     }
+
+
      private Node[] processCurrNode(final Node theNode, final Document theTargetDocument) {
          if (theNode.getNodeType() == Node.TEXT_NODE) {
              return processTextNode((Text) theNode, theTargetDocument);
@@ -103,10 +116,8 @@ public class MultilanguagePreprocessor {
 
              Alphabet currentAlphabet = null;
 
-             final char[] chars = nodeValue.toCharArray();
-             for (int i = 0; i < chars.length; i++) {
-                 final char aChar = chars[i];
-                 final Alphabet alphabetForChar = configuration.getAlphabetForChar(aChar);
+             for (int i = 0; i < nodeValue.length(); i += Character.charCount(nodeValue.codePointAt(i))) {
+                 final Alphabet alphabetForChar = configuration.getAlphabetForCodePoint(nodeValue.codePointAt(i));
                  if (null != alphabetForChar && alphabetForChar.equals(currentAlphabet)) {
                      continue;
                  } else if (null == alphabetForChar && null == currentAlphabet) {
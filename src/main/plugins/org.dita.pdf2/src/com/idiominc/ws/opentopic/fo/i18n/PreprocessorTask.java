@@ -7,12 +7,15 @@ import org.apache.tools.ant.Task;
 import org.apache.tools.ant.types.XMLCatalog;
 import org.dita.dost.util.XMLUtils;
 import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLFilter;
+import org.xml.sax.XMLReader;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import java.io.File;
@@ -67,12 +70,14 @@ public class PreprocessorTask extends Task {
              final DocumentBuilder documentBuilder = XMLUtils.getDocumentBuilder();
              documentBuilder.setEntityResolver(xmlcatalog);
 
-             final Document doc = documentBuilder.parse(input);
              final Document conf = documentBuilder.parse(config);
              final MultilanguagePreprocessor preprocessor = new MultilanguagePreprocessor(new Configuration(conf));
-             final Document document = preprocessor.process(doc);
+             final XMLReader reader = XMLUtils.getXMLReader();
+             reader.setEntityResolver(xmlcatalog);
+             final XMLFilter filter = preprocessor.createFilter();
+             filter.setParent(reader);
 
-             final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+             final TransformerFactory transformerFactory = XMLUtils.getTransformerFactory();
              transformerFactory.setURIResolver(xmlcatalog);
              final Transformer transformer;
              if (style != null) {
@@ -84,14 +89,20 @@ public class PreprocessorTask extends Task {
              transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
              transformer.setOutputProperty(OutputKeys.INDENT, "no");
              transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-             if (doc.getDoctype() != null) {
-                 transformer.setOutputProperty(OutputKeys.DOCTYPE_PUBLIC, doc.getDoctype().getPublicId());
-                 transformer.setOutputProperty(OutputKeys.DOCTYPE_SYSTEM, doc.getDoctype().getSystemId());
+             final InputSource src = new InputSource(input.toURI().toString());
+             final String[] doctype = XMLUtils.readDoctype(src, xmlcatalog);
+             if (doctype != null) {
+                 if (doctype[0] != null) {
+                     transformer.setOutputProperty(OutputKeys.DOCTYPE_PUBLIC, doctype[0]);
+                 }
+                 if (doctype[1] != null) {
+                     transformer.setOutputProperty(OutputKeys.DOCTYPE_SYSTEM, doctype[1]);
+                 }
              }
 
              out = new FileOutputStream(output);
              final StreamResult streamResult = new StreamResult(out);
-             transformer.transform(new DOMSource(document), streamResult);
+             transformer.transform(new SAXSource(filter, src), streamResult);
          } catch (final RuntimeException e) {
              throw e;
          } catch (final Exception e) {
@@ -0,0 +1,323 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package com.idiominc.ws.opentopic.fo.index2;
+
+import com.idiominc.ws.opentopic.fo.index2.configuration.IndexConfiguration;
+import org.dita.dost.util.XMLUtils;
+import org.w3c.dom.*;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.SAXNotSupportedException;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+import static javax.xml.XMLConstants.*;
+
+/**
+ * Streaming index preprocessor. Document is passed through as is, except for index term elements which are
+ * buffered one at a time and replaced with pre-processed index entries. Index entries are collected during the pass
+ * and index groups are written as the last child of the root element.
+ *
+ * @since 3.5
+ */
+final class IndexPreprocessFilter extends XMLFilterImpl implements LexicalHandler {
+
+    private static final String PROPERTY_LEXICAL_HANDLER = "http://xml.org/sax/properties/lexical-handler";
+
+    private final IndexPreprocessor preprocessor;
+    private final IndexConfiguration configuration;
+    private final Locale locale;
+    private final List<IndexEntry> indexEntries = new ArrayList<>();
+    private final Deque<Boolean> draftStack = new ArrayDeque<>();
+    private final AttributesImpl prefixMappings = new AttributesImpl();
+    private LexicalHandler lexicalHandler;
+    private Document document;
+    /** Root of currently buffered index term, {@code null} if not inside an index term. */
+    private Element indexTerm;
+    /** Current element of buffered index term. */
+    private Element current;
+    private int depth;
+    private int excludedDraftDepth;
+
+    IndexPreprocessFilter(final IndexPreprocessor preprocessor, final IndexConfiguration configuration,
+                          final Locale locale) {
+        this.preprocessor = preprocessor;
+        this.configuration = configuration;
+        this.locale = locale;
+    }
+
+    @Override
+    public void setProperty(final String name, final Object value)
+            throws SAXNotRecognizedException, SAXNotSupportedException {
+        if (PROPERTY_LEXICAL_HANDLER.equals(name)) {
+            lexicalHandler = (LexicalHandler) value;
+            super.setProperty(name, this);
+        } else {
+            super.setProperty(name, value);
+        }
+    }
+
+    @Override
+    public Object getProperty(final String name) throws SAXNotRecognizedException, SAXNotSupportedException {
+        if (PROPERTY_LEXICAL_HANDLER.equals(name)) {
+            return lexicalHandler;
+        }
+        return super.getProperty(name);
+    }
+
+    // ContentHandler methods
+
+    @Override
+    public void startDocument() throws SAXException {
+        document = XMLUtils.getDocumentBuilder().newDocument();
+        indexEntries.clear();
+        draftStack.clear();
+        depth = 0;
+        excludedDraftDepth = 0;
+        indexTerm = null;
+        current = null;
+        super.startDocument();
+    }
+
+    @Override
+    public void startPrefixMapping(final String prefix, final String uri) throws SAXException {
+        if (current != null) {
+            final String qName = prefix.isEmpty() ? XMLNS_ATTRIBUTE : (XMLNS_ATTRIBUTE + ":" + prefix);
+            prefixMappings.addAttribute(XMLNS_ATTRIBUTE_NS_URI, prefix, qName, "CDATA", uri);
+        } else {
+            super.startPrefixMapping(prefix, uri);
+        }
+    }
+
+    @Override
+    public void endPrefixMapping(final String prefix) throws SAXException {
+        if (current == null) {
+            super.endPrefixMapping(prefix);
+        }
+    }
+
+    @Override
+    public void startElement(final String uri, final String localName, final String qName, final Attributes atts)
+            throws SAXException {
+        if (current != null) {
+            final Element elem = createElement(uri, qName, atts);
+            current.appendChild(elem);
+            current = elem;
+            return;
+        }
+        depth++;
+        if (excludedDraftDepth == 0 && preprocessor.checkElementName(atts)) {
+            indexTerm = createElement(uri, qName, atts);
+            current = indexTerm;
+            return;
+        }
+        final boolean excluded = !preprocessor.isIncludeDraft() && preprocessor.checkDraftNode(atts);
+        if (excluded) {
+            excludedDraftDepth++;
+        }
+        draftStack.push(excluded);
+        if (depth == 1) {
+            super.startPrefixMapping(preprocessor.getPrefix(), preprocessor.getNamespaceURI());
+        }
+        super.startElement(uri, localName, qName, atts);
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+        if (current != null) {
+            if (current == indexTerm) {
+                final Node[] nodes = preprocessor.processIndexNode(indexTerm, document, indexEntries::add);
+                indexTerm = null;
+                current = null;
+                for (final Node node : nodes) {
+                    writeNode(node);
+                }
+                depth--;
+            } else {
+                current = (Element) current.getParentNode();
+            }
+            return;
+        }
+        if (draftStack.pop()) {
+            excludedDraftDepth--;
+        }
+        if (depth == 1) {
+            final IndexEntry[] entries = indexEntries.toArray(new IndexEntry[0]);
+            writeNode(preprocessor.createIndexGroups(entries, configuration, document, locale));
+        }
+        super.endElement(uri, localName, qName);
+        if (depth == 1) {
+            super.endPrefixMapping(preprocessor.getPrefix());
+        }
+        depth--;
+    }
+
+    @Override
+    public void characters(final char[] ch, final int start, final int length) throws SAXException {
+        if (current != null) {
+            current.appendChild(document.createTextNode(new String(ch, start, length)));
+        } else {
+            super.characters(ch, start, length);
+        }
+    }
+
+    @Override
+    public void ignorableWhitespace(final char[] ch, final int start, final int length) throws SAXException {
+        if (current != null) {
+            current.appendChild(document.createTextNode(new String(ch, start, length)));
+        } else {
+            super.ignorableWhitespace(ch, start, length);
+        }
+    }
+
+    @Override
+    public void processingInstruction(final String target, final String data) throws SAXException {
+        if (current != null) {
+            current.appendChild(document.createProcessingInstruction(target, data));
+        } else {
+            super.processingInstruction(target, data);
+        }
+    }
+
+    // LexicalHandler methods
+
+    @Override
+    public void startDTD(final String name, final String publicId, final String systemId) throws SAXException {
+        if (lexicalHandler != null) {
+            lexicalHandler.startDTD(name, publicId, systemId);
+        }
+    }
+
+    @Override
+    public void endDTD() throws SAXException {
+        if (lexicalHandler != null) {
+            lexicalHandler.endDTD();
+        }
+    }
+
+    @Override
+    public void startEntity(final String name) throws SAXException {
+        if (lexicalHandler != null && current == null) {
+            lexicalHandler.startEntity(name);
+        }
+    }
+
+    @Override
+    public void endEntity(final String name) throws SAXException {
+        if (lexicalHandler != null && current == null) {
+            lexicalHandler.endEntity(name);
+        }
+    }
+
+    @Override
+    public void startCDATA() throws SAXException {
+        if (lexicalHandler != null && current == null) {
+            lexicalHandler.startCDATA();
+        }
+    }
+
+    @Override
+    public void endCDATA() throws SAXException {
+        if (lexicalHandler != null && current == null) {
+            lexicalHandler.endCDATA();
+        }
+    }
+
+    @Override
+    public void comment(final char[] ch, final int start, final int length) throws SAXException {
+        if (current != null) {
+            current.appendChild(document.createComment(new String(ch, start, length)));
+        } else if (lexicalHandler != null) {
+            lexicalHandler.comment(ch, start, length);
+        }
+    }
+
+    // Private methods
+
+    private Element createElement(final String uri, final String qName, final Attributes atts) {
+        final Element elem = document.createElementNS(uri.isEmpty() ? null : uri, qName);
+        for (int i = 0; i < prefixMappings.getLength(); i++) {
+            elem.setAttributeNS(XMLNS_ATTRIBUTE_NS_URI, prefixMappings.getQName(i), prefixMappings.getValue(i));
+        }
+        prefixMappings.clear();
+        for (int i = 0; i < atts.getLength(); i++) {
+            final String attUri = atts.getURI(i);
+            elem.setAttributeNS(attUri.isEmpty() ? null : attUri, atts.getQName(i), atts.getValue(i));
+        }
+        return elem;
+    }
+
+    /**
+     * Write DOM node as SAX events to the content handler.
+     */
+    private void writeNode(final Node node) throws SAXException {
+        switch (node.getNodeType()) {
+            case Node.ELEMENT_NODE:
+                writeElement((Element) node);
+                break;
+            case Node.TEXT_NODE:
+            case Node.CDATA_SECTION_NODE: {
+                final char[] ch = node.getNodeValue().toCharArray();
+                getContentHandler().characters(ch, 0, ch.length);
+                break;
+            }
+            case Node.PROCESSING_INSTRUCTION_NODE:
+                getContentHandler().processingInstruction(node.getNodeName(), node.getNodeValue());
+                break;
+            case Node.COMMENT_NODE:
+                if (lexicalHandler != null) {
+                    final char[] ch = node.getNodeValue().toCharArray();
+                    lexicalHandler.comment(ch, 0, ch.length);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void writeElement(final Element elem) throws SAXException {
+        final List<String> prefixes = new ArrayList<>();
+        final AttributesImpl atts = new AttributesImpl();
+        final NamedNodeMap attrs = elem.getAttributes();
+        for (int i = 0; i < attrs.getLength(); i++) {
+            final Attr attr = (Attr) attrs.item(i);
+            if (XMLNS_ATTRIBUTE_NS_URI.equals(attr.getNamespaceURI())) {
+                final String prefix = attr.getPrefix() != null ? attr.getLocalName() : DEFAULT_NS_PREFIX;
+                getContentHandler().startPrefixMapping(prefix, attr.getValue());
+                prefixes.add(prefix);
+            } else {
+                atts.addAttribute(attr.getNamespaceURI() != null ? attr.getNamespaceURI() : NULL_NS_URI,
+                        attr.getLocalName() != null ? attr.getLocalName() : attr.getName(),
+                        attr.getName(), "CDATA", attr.getValue());
+            }
+        }
+        final String uri = elem.getNamespaceURI() != null ? elem.getNamespaceURI() : NULL_NS_URI;
+        final String elemPrefix = elem.getPrefix() != null ? elem.getPrefix() : DEFAULT_NS_PREFIX;
+        if (!uri.isEmpty() && !prefixes.contains(elemPrefix)) {
+            getContentHandler().startPrefixMapping(elemPrefix, uri);
+            prefixes.add(elemPrefix);
+        }
+        final String localName = elem.getLocalName() != null ? elem.getLocalName() : elem.getNodeName();
+        getContentHandler().startElement(uri, localName, elem.getNodeName(), atts);
+        for (Node child = elem.getFirstChild(); child != null; child = child.getNextSibling()) {
+            writeNode(child);
+        }
+        getContentHandler().endElement(uri, localName, elem.getNodeName());
+        for (final String prefix : prefixes) {
+            getContentHandler().endPrefixMapping(prefix);
+        }
+    }
+}
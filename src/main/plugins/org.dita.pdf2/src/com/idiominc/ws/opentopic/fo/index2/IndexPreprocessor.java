@@ -7,6 +7,8 @@ import com.idiominc.ws.opentopic.fo.index2.configuration.IndexConfiguration;
 import com.idiominc.ws.opentopic.fo.index2.util.IndexStringProcessor;
 import com.idiominc.ws.opentopic.fo.index2.util.IndexDitaProcessor;
 import org.w3c.dom.*;
+import org.xml.sax.Attributes;
+import org.xml.sax.XMLFilter;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -118,12 +120,37 @@ public final class IndexPreprocessor {
     }
 
     public void createAndAddIndexGroups(final IndexEntry[] theIndexEntries, final IndexConfiguration theConfiguration, final Document theDocument, final Locale theLocale) {
+        final Element rootElement = theDocument.getDocumentElement();
+        rootElement.appendChild(createIndexGroups(theIndexEntries, theConfiguration, theDocument, theLocale));
+    }
+
+    /**
+     * Create streaming index preprocessor. The returned filter passes the document through, replaces index terms with
+     * pre-processed index entries, and appends index groups to the end of the root element.
+     *
+     * @param theConfiguration index configuration
+     * @param theLocale index locale
+     * @return index preprocessing filter
+     * @since 3.5
+     */
+    public XMLFilter createFilter(final IndexConfiguration theConfiguration, final Locale theLocale) {
+        return new IndexPreprocessFilter(this, theConfiguration, theLocale);
+    }
+
+    /**
+     * Create index groups element.
+     *
+     * @param theIndexEntries index entries
+     * @param theConfiguration index configuration
+     * @param theDocument document used to create nodes
+     * @param theLocale index locale
+     * @return index groups element
+     */
+    Element createIndexGroups(final IndexEntry[] theIndexEntries, final IndexConfiguration theConfiguration, final Document theDocument, final Locale theLocale) {
         final IndexComparator indexEntryComparator = new IndexComparator(theLocale);
 
         final IndexGroup[] indexGroups = indexGroupProcessor.process(theIndexEntries, theConfiguration, theLocale);
 
-        final Element rootElement = theDocument.getDocumentElement();
-
         final Element indexGroupsElement = theDocument.createElementNS(namespace_url, "index.groups");
         indexGroupsElement.setPrefix(prefix);
 
@@ -145,9 +172,20 @@ public final class IndexPreprocessor {
             indexGroupsElement.appendChild(groupElement);
         }
 
-        rootElement.appendChild(indexGroupsElement);
+        return indexGroupsElement;
+    }
+
+    String getPrefix() {
+        return prefix;
     }
 
+    String getNamespaceURI() {
+        return namespace_url;
+    }
+
+    boolean isIncludeDraft() {
+        return includeDraft;
+    }
 
     /**
      * Processes curr node. Copies node to the target document if its is not a text node of index entry element.
@@ -181,7 +219,15 @@ public final class IndexPreprocessor {
         }
     }
 
-    private Node[] processIndexNode(final Node theNode, final Document theTargetDocument, final IndexEntryFoundListener theIndexEntryFoundListener) {
+    /**
+     * Processes index term element and creates nodes with "prefix" in given "namespace_url" from the parsed index entries.
+     *
+     * @param theNode                    index term element
+     * @param theTargetDocument          target document used to import and create nodes
+     * @param theIndexEntryFoundListener listener to notify that new index entry was found
+     * @return the array of nodes after processing index term
+     */
+    Node[] processIndexNode(final Node theNode, final Document theTargetDocument, final IndexEntryFoundListener theIndexEntryFoundListener) {
         theNode.normalize();
 
         boolean ditastyle = false;
@@ -251,12 +297,30 @@ public final class IndexPreprocessor {
                 || INDEXING_D_INDEX_SEE.matches(node)
                 || INDEXING_D_INDEX_SEE_ALSO.matches(node);
     }
+
+    /**
+     * Check if element is an index term element or specialization of one.
+     *
+     * @param atts element attributes
+     * @return {@code true} if element is an index term element, otherwise {@code false}
+     */
+    boolean checkElementName(final Attributes atts) {
+        return TOPIC_INDEXTERM.matches(atts)
+                || INDEXING_D_INDEX_SORT_AS.matches(atts)
+                || INDEXING_D_INDEX_SEE.matches(atts)
+                || INDEXING_D_INDEX_SEE_ALSO.matches(atts);
+    }
     
     private boolean checkDraftNode(final Node node) {
         return TOPIC_DRAFT_COMMENT.matches(node)
                 || TOPIC_REQUIRED_CLEANUP.matches(node);
     }
 
+    boolean checkDraftNode(final Attributes atts) {
+        return TOPIC_DRAFT_COMMENT.matches(atts)
+                || TOPIC_REQUIRED_CLEANUP.matches(atts);
+    }
+
     /**
      * Processes index string and creates nodes with "prefix" in given "namespace_url" from the parsed index entry text.
      *
@@ -8,15 +8,18 @@ import org.apache.tools.ant.types.XMLCatalog;
 import org.dita.dost.log.DITAOTAntLogger;
 import org.dita.dost.util.XMLUtils;
 import static org.dita.dost.util.Constants.*;
-import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLFilter;
+import org.xml.sax.XMLReader;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.stream.StreamResult;
 import java.io.FileOutputStream;
+import java.io.OutputStream;
 import java.util.Locale;
 
 /*
@@ -75,19 +78,8 @@ extends Task {
             final DocumentBuilder documentBuilder = XMLUtils.getDocumentBuilder();
             documentBuilder.setEntityResolver(xmlcatalog);
 
-            final Document doc = documentBuilder.parse(input);
-            final IndexPreprocessor preprocessor = new IndexPreprocessor(this.prefix, this.namespace_url, this.draft);
-            preprocessor.setLogger(new DITAOTAntLogger(getProject()));
-
-            // Walks through source document and builds an array of IndexEntry and builds
-            // new Document with pre-processed index entries included.
-            final IndexPreprocessResult result = preprocessor.process(doc);
-
-            final Document resultDoc = result.getDocument();
-
             // Parse index configuration from file specified from ANT script
             final IndexConfiguration configuration = IndexConfiguration.parse(documentBuilder.parse(this.indexConfig));
-            final IndexEntry[] indexEntries = result.getIndexEntries();
 
             Locale loc;
             // Split passed locale string to lang and country codes
@@ -96,38 +88,46 @@ extends Task {
             } else {
                 loc = new Locale(this.locale);
             }
-            // Append index groups to the end of document
-            preprocessor.createAndAddIndexGroups(indexEntries, configuration, resultDoc, loc);
 
-            if (processingFaild) {
-                setActiveProjectProperty("ws.runtime.index.preprocess.fail","true");
-            }
+            final IndexPreprocessor preprocessor = new IndexPreprocessor(this.prefix, this.namespace_url, this.draft);
+            preprocessor.setLogger(new DITAOTAntLogger(getProject()));
+
+            // Streams source document through, replaces index terms with pre-processed index entries
+            // and appends index groups to the end of document
+            final XMLReader reader = XMLUtils.getXMLReader();
+            reader.setEntityResolver(xmlcatalog);
+            final XMLFilter filter = preprocessor.createFilter(configuration, loc);
+            filter.setParent(reader);
+
             // Serialize processed document
-            final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+            final TransformerFactory transformerFactory = XMLUtils.getTransformerFactory();
             final Transformer transformer = transformerFactory.newTransformer();
             transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
             transformer.setOutputProperty(OutputKeys.INDENT, "no");
             transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
             transformer.setOutputProperty(OutputKeys.STANDALONE, "yes");
-            if (doc.getDoctype() != null) {
-                if (null != doc.getDoctype().getPublicId()) {
-                    transformer.setOutputProperty(OutputKeys.DOCTYPE_PUBLIC, doc.getDoctype().getPublicId());
+            final String[] doctype = XMLUtils.readDoctype(new InputSource(this.input), xmlcatalog);
+            if (doctype != null) {
+                if (null != doctype[0]) {
+                    transformer.setOutputProperty(OutputKeys.DOCTYPE_PUBLIC, doctype[0]);
                 }
-                if (null != doc.getDoctype().getSystemId()) {
-                    transformer.setOutputProperty(OutputKeys.DOCTYPE_SYSTEM, doc.getDoctype().getSystemId());
+                if (null != doctype[1]) {
+                    transformer.setOutputProperty(OutputKeys.DOCTYPE_SYSTEM, doctype[1]);
                 }
             }
-            final FileOutputStream out = new FileOutputStream(this.output);
-            final StreamResult streamResult = new StreamResult(out);
-            transformer.transform(new DOMSource(resultDoc), streamResult);
-            out.close();
+            try (OutputStream out = new FileOutputStream(this.output)) {
+                transformer.transform(new SAXSource(filter, new InputSource(this.input)), new StreamResult(out));
+            }
+
+            if (processingFaild) {
+                setActiveProjectProperty("ws.runtime.index.preprocess.fail","true");
+            }
         } catch (final Exception e) {
             e.printStackTrace();
             throw new BuildException(e);
         }
     }
 
-
     private void checkParameters()
             throws BuildException {
         if (null == locale || null == input || null == output || null == indexConfig) {
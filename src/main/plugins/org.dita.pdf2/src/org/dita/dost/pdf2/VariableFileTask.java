@@ -17,7 +17,6 @@ import java.util.List;
 import javax.xml.parsers.*;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 
@@ -91,7 +90,7 @@ public final class VariableFileTask extends Task {
                 root.appendChild(lang);
             }
 
-            final Transformer serializer = TransformerFactory.newInstance().newTransformer();
+            final Transformer serializer = XMLUtils.getTransformerFactory().newTransformer();
             serializer.transform(new DOMSource(d), new StreamResult(file));
         } catch (final RuntimeException e) {
             throw e;
@@ -0,0 +1,135 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package com.idiominc.ws.opentopic.fo.i18n;
+
+import org.dita.dost.TestUtils;
+import org.dita.dost.util.XMLUtils;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xmlunit.builder.DiffBuilder;
+import org.xmlunit.builder.Input;
+import org.xmlunit.diff.Diff;
+
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
+import java.io.File;
+import java.io.StringReader;
+
+import static com.idiominc.ws.opentopic.fo.i18n.MultilanguagePreprocessor.NAMESPACE_URL;
+import static com.idiominc.ws.opentopic.fo.i18n.MultilanguagePreprocessor.PREFIX;
+import static org.junit.Assert.*;
+
+public class MultilanguagePreprocessFilterTest {
+
+    private static final File resourceDir = TestUtils.getResourceDir(MultilanguagePreprocessFilterTest.class);
+
+    private static Configuration configuration;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        configuration = new Configuration(XMLUtils.getDocumentBuilder().parse(new File(resourceDir, "config.xml")));
+    }
+
+    @Test
+    public void getAlphabetForCodePoint() {
+        assertEquals("Latin", configuration.getAlphabetForCodePoint('a').getName());
+        assertEquals("Cyrillic", configuration.getAlphabetForCodePoint(0x0416).getName());
+        assertNull(configuration.getAlphabetForCodePoint(' '));
+        assertEquals("Emoji", configuration.getAlphabetForCodePoint(0x1F600).getName());
+        assertEquals("Emoji", configuration.getAlphabetForCodePoint(0x1F680).getName());
+        assertEquals("Wide", configuration.getAlphabetForCodePoint(0x1F700).getName());
+        assertEquals("Wide", configuration.getAlphabetForCodePoint(0x20000).getName());
+        assertEquals("Wide", configuration.getAlphabetForChar('\uD83D').getName());
+    }
+
+    @Test
+    public void filter_mixedScripts() throws Exception {
+        assertFiltered("<p>" +
+                        fragment("Latin", "abc") + " " + fragment("Cyrillic", "\u0416\u0436") + " " +
+                        fragment("Latin", "d") + "1" + fragment("Cyrillic", "\u0430") +
+                        "</p>",
+                "abc \u0416\u0436 d1\u0430");
+    }
+
+    @Test
+    public void filter_supplementary() throws Exception {
+        assertFiltered("<p>" +
+                        fragment("Latin", "a") + fragment("Emoji", "\uD83D\uDE00\uD83D\uDE80") +
+                        fragment("Wide", "\uD840\uDC00") + " " + fragment("Latin", "b") +
+                        "</p>",
+                "a\uD83D\uDE00\uD83D\uDE80\uD840\uDC00 b");
+    }
+
+    @Test
+    public void filter_supplementarySplitBetweenEvents() throws Exception {
+        assertFiltered("<p>" +
+                        fragment("Latin", "a") + fragment("Emoji", "\uD83D\uDE00") + fragment("Latin", "b") +
+                        "</p>",
+                "a\uD83D", "\uDE00b");
+    }
+
+    @Test
+    public void filter_sameAsDocumentProcessing() throws Exception {
+        final String src = "<doc><p>abc \u0416\u0436 <b>d\uD83D\uDE00</b>\uD840\uDC00 x\uD83D\uDF00</p><!-- c --></doc>";
+        final Document exp = new MultilanguagePreprocessor(configuration)
+                .process(XMLUtils.getDocumentBuilder().parse(new InputSource(new StringReader(src))));
+
+        final MultilanguagePreprocessFilter filter = new MultilanguagePreprocessFilter(configuration);
+        filter.setParent(XMLUtils.getXMLReader());
+        final DOMResult act = new DOMResult();
+        TransformerFactory.newInstance().newTransformer()
+                .transform(new SAXSource(filter, new InputSource(new StringReader(src))), act);
+
+        final Diff diff = DiffBuilder.compare(new DOMSource(exp))
+                .withTest(new DOMSource(act.getNode()))
+                .checkForIdentical()
+                .build();
+        assertFalse(diff.toString(), diff.hasDifferences());
+    }
+
+    private void assertFiltered(final String exp, final String... text) throws Exception {
+        final MultilanguagePreprocessFilter filter = new MultilanguagePreprocessFilter(configuration);
+        final TransformerHandler serializer = ((SAXTransformerFactory) TransformerFactory.newInstance())
+                .newTransformerHandler();
+        final DOMResult act = new DOMResult();
+        serializer.setResult(act);
+        filter.setContentHandler(serializer);
+
+        filter.startDocument();
+        filter.startElement("", "p", "p", new AttributesImpl());
+        for (final String t : text) {
+            characters(filter, t);
+        }
+        filter.endElement("", "p", "p");
+        filter.endDocument();
+
+        final String expDoc = exp.replaceFirst("^<p>", "<p xmlns:" + PREFIX + "='" + NAMESPACE_URL + "'>");
+        final Diff diff = DiffBuilder.compare(Input.fromString(expDoc))
+                .withTest(Input.fromNode(act.getNode()))
+                .checkForIdentical()
+                .build();
+        assertFalse(diff.toString(), diff.hasDifferences());
+    }
+
+    private static void characters(final MultilanguagePreprocessFilter filter, final String text) throws SAXException {
+        final char[] ch = text.toCharArray();
+        filter.characters(ch, 0, ch.length);
+    }
+
+    private static String fragment(final String charSet, final String text) {
+        return "<" + PREFIX + ":text-fragment char-set='" + charSet + "'>" + text + "</" + PREFIX + ":text-fragment>";
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package com.idiominc.ws.opentopic.fo.index2;
+
+import com.idiominc.ws.opentopic.fo.index2.configuration.IndexConfiguration;
+import org.dita.dost.TestUtils;
+import org.dita.dost.util.XMLUtils;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLFilter;
+import org.xmlunit.builder.DiffBuilder;
+import org.xmlunit.diff.Diff;
+
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.sax.SAXSource;
+import java.io.File;
+import java.util.Locale;
+
+import static org.dita.dost.util.Constants.ARGS_DRAFT_NO;
+import static org.dita.dost.util.Constants.ARGS_DRAFT_YES;
+import static org.junit.Assert.assertFalse;
+
+public class IndexPreprocessFilterTest {
+
+    private static final File resourceDir = TestUtils.getResourceDir(IndexPreprocessFilterTest.class);
+    private static final File srcFile = new File(resourceDir, "src" + File.separator + "document.xml");
+    private static final String PREFIX = "opentopic-index";
+    private static final String NAMESPACE = "http://www.idiominc.com/opentopic/index";
+
+    private static IndexConfiguration configuration;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        configuration = IndexConfiguration.parse(XMLUtils.getDocumentBuilder()
+                .parse(new File(resourceDir, "index-config.xml")));
+    }
+
+    @Test
+    public void filter() throws Exception {
+        assertSameAsDocumentProcessing(ARGS_DRAFT_NO);
+    }
+
+    @Test
+    public void filter_draft() throws Exception {
+        assertSameAsDocumentProcessing(ARGS_DRAFT_YES);
+    }
+
+    private void assertSameAsDocumentProcessing(final String draft) throws Exception {
+        final Document exp = processDocument(draft);
+        final Document act = processStream(draft);
+
+        final Diff diff = DiffBuilder.compare(exp)
+                .withTest(act)
+                .checkForIdentical()
+                .build();
+        assertFalse(diff.toString(), diff.hasDifferences());
+    }
+
+    /**
+     * Process index terms with the DOM based preprocessor used before streaming.
+     */
+    private Document processDocument(final String draft) throws Exception {
+        final IndexPreprocessor preprocessor = new IndexPreprocessor(PREFIX, NAMESPACE, draft);
+        preprocessor.setLogger(new TestUtils.TestLogger(false));
+        final IndexPreprocessResult result = preprocessor.process(XMLUtils.getDocumentBuilder().parse(srcFile));
+        preprocessor.createAndAddIndexGroups(result.getIndexEntries(), configuration, result.getDocument(),
+                Locale.ENGLISH);
+        return result.getDocument();
+    }
+
+    private Document processStream(final String draft) throws Exception {
+        final IndexPreprocessor preprocessor = new IndexPreprocessor(PREFIX, NAMESPACE, draft);
+        preprocessor.setLogger(new TestUtils.TestLogger(false));
+        final XMLFilter filter = preprocessor.createFilter(configuration, Locale.ENGLISH);
+        filter.setParent(XMLUtils.getXMLReader());
+        final DOMResult result = new DOMResult();
+        TransformerFactory.newInstance().newTransformer()
+                .transform(new SAXSource(filter, new InputSource(srcFile.toURI().toString())), result);
+        return (Document) result.getNode();
+    }
+}
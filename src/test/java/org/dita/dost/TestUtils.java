@@ -576,7 +576,7 @@ public class TestUtils {
             this.strict = strict;
         }
 
-        private List<Message> buf = new ArrayList<Message>();
+        private final List<Message> buf = Collections.synchronizedList(new ArrayList<>());
 
         public void info(final String msg) {
             buf.add(new Message(Message.Level.INFO, msg, null));
@@ -0,0 +1,99 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.ant;
+
+import org.apache.tools.ant.Project;
+import org.dita.dost.TestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DITAOTCopyTest {
+
+    private File tempDir;
+    private File src;
+    private File dst;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDir = TestUtils.createTempDir(DITAOTCopyTest.class);
+        src = new File(tempDir, "src");
+        dst = new File(tempDir, "dst");
+        Files.createDirectories(src.toPath());
+        Files.write(new File(src, "a.png").toPath(), "a".getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(src, "b.png").toPath(), "b".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void copy() throws IOException {
+        final DITAOTCopy task = createTask();
+        task.execute();
+
+        assertEquals("a", read(new File(dst, "a.png")));
+        assertEquals("b", read(new File(dst, "b.png")));
+    }
+
+    @Test
+    public void copyRelativePaths() throws IOException {
+        final DITAOTCopy task = createTask();
+        task.setRelativePaths("images/B.png,a.png,other/a.png");
+        task.execute();
+
+        assertEquals("a", read(new File(dst, "a.png")));
+        assertEquals("b", read(new File(dst, "images" + File.separator + "B.png")));
+        assertFalse(new File(dst, "other").exists());
+    }
+
+    @Test
+    public void link() throws IOException {
+        final DITAOTCopy task = createTask();
+        task.setLink(true);
+        task.execute();
+
+        assertEquals("a", read(new File(dst, "a.png")));
+        assertTrue(Files.isSameFile(new File(src, "a.png").toPath(), new File(dst, "a.png").toPath()));
+    }
+
+    @Test
+    public void skipIdentical() throws IOException {
+        createTask().execute();
+        final File out = new File(dst, "a.png");
+        Files.write(out.toPath(), "x".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(out.toPath(), Files.getLastModifiedTime(new File(src, "a.png").toPath()));
+
+        createTask().execute();
+        assertEquals("x", read(out));
+    }
+
+    private DITAOTCopy createTask() {
+        final Project project = new Project();
+        final DITAOTCopy task = new DITAOTCopy();
+        task.setProject(project);
+        task.setTodir(dst);
+        task.setIncludes(new File(src, "a.png").getPath() + "," + new File(src, "b.png").getPath());
+        return task;
+    }
+
+    private static String read(final File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        TestUtils.forceDelete(tempDir);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.ant;
+
+import org.apache.tools.ant.Project;
+import org.dita.dost.ant.ExtensibleAntInvoker.FileInfoFilterElem;
+import org.dita.dost.ant.ExtensibleAntInvoker.SaxPipeElem;
+import org.dita.dost.ant.ExtensibleAntInvoker.XmlFilterElem;
+import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.writer.AbstractXMLFilter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExtensibleAntInvokerTest {
+
+    private SaxPipeElem pipe;
+    private XmlFilterElem filter;
+
+    @Before
+    public void setUp() {
+        pipe = new SaxPipeElem();
+        pipe.setProject(new Project());
+        pipe.setFormat("dita");
+        filter = new XmlFilterElem();
+        filter.setClass(TestFilter.class);
+        pipe.addConfiguredFilter(filter);
+    }
+
+    @Test
+    public void getFilters_filesetAddsFiles() throws Exception {
+        final FileInfoFilterElem fileset = new FileInfoFilterElem();
+        fileset.setFormat("ditamap");
+        filter.addConfiguredDitaFileset(fileset);
+
+        final Predicate<FileInfo> predicate = pipe.getFilters().get(0).predicate;
+        assertTrue(predicate.test(file("dita", false)));
+        assertTrue(predicate.test(file("ditamap", false)));
+        assertFalse(predicate.test(file("image", false)));
+    }
+
+    @Test
+    public void getFilters_filesetRestrictsFiles() throws Exception {
+        final FileInfoFilterElem fileset = new FileInfoFilterElem();
+        fileset.setTable(true);
+        filter.addConfiguredDitaFileset(fileset);
+        filter.setRestrict(true);
+
+        final Predicate<FileInfo> predicate = pipe.getFilters().get(0).predicate;
+        assertTrue(predicate.test(file("dita", true)));
+        assertFalse(predicate.test(file("dita", false)));
+        assertFalse(predicate.test(file("ditamap", true)));
+    }
+
+    private static FileInfo file(final String format, final boolean hasTable) {
+        return new FileInfo.Builder()
+                .uri(URI.create("topic." + format))
+                .format(format)
+                .hasContentFlags(true)
+                .hasTable(hasTable)
+                .build();
+    }
+
+    public static final class TestFilter extends AbstractXMLFilter {
+    }
+}
@@ -59,6 +59,16 @@ public class ArgumentParserTest {
         assertEquals(Project.MSG_INFO, act.msgOutputLevel);
     }
 
+    @Test
+    public void metricsArgument() {
+        final ConversionArguments act = (ConversionArguments) parser.processArgs(new String[]{
+                "--input=src",
+                "--format=html5",
+                "--metrics=metrics.json"
+        });
+        assertEquals(new File("metrics.json").getAbsolutePath(), act.definedProps.get("dita.metrics.file"));
+    }
+
     @Test
     public void reinstallSubcommand() {
         final InstallArguments act = (InstallArguments) parser.processArgs(new String[]{
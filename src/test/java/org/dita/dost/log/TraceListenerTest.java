@@ -0,0 +1,64 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.log;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.dita.dost.TestUtils;
+import org.dita.dost.util.Metrics;
+import org.dita.dost.util.Metrics.Measurement;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+
+import static org.junit.Assert.assertEquals;
+
+public class TraceListenerTest {
+
+    private static File tempDir;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        tempDir = TestUtils.createTempDir(TraceListenerTest.class);
+    }
+
+    @Test
+    public void write() throws IOException {
+        final File out = new File(tempDir, "trace.json");
+        final TraceListener listener = new TraceListener(out);
+        final Metrics metrics = new Metrics();
+        try (Measurement module = metrics.startModule("target", "module")) {
+            try (Measurement file = metrics.startFile(URI.create("file:/foo.dita"))) {
+                file.read(10);
+            }
+        }
+        listener.write(metrics.getRecords());
+
+        final JsonNode act = new ObjectMapper().readTree(out).get("traceEvents");
+        assertEquals(3, act.size());
+        assertEquals("M", act.get(0).get("ph").asText());
+        assertEquals(Thread.currentThread().getId(), act.get(0).get("tid").asLong());
+        final JsonNode module = act.get(1);
+        assertEquals("module", module.get("name").asText());
+        assertEquals("module", module.get("cat").asText());
+        assertEquals("X", module.get("ph").asText());
+        assertEquals("target", module.get("args").get("target").asText());
+        final JsonNode file = act.get(2);
+        assertEquals("file:/foo.dita", file.get("name").asText());
+        assertEquals("module", file.get("args").get("module").asText());
+    }
+
+    @AfterClass
+    public static void tearDown() throws IOException {
+        TestUtils.forceDelete(tempDir);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.module;
+
+import org.dita.dost.TestUtils;
+import org.dita.dost.util.Job;
+import org.dita.dost.util.XMLUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.dita.dost.module.GenMapAndTopicListModule.ELEMENT_STUB;
+import static org.dita.dost.util.Constants.*;
+import static org.junit.Assert.assertEquals;
+
+public class MoveMetaModuleTest {
+
+    private static final int TOPIC_COUNT = 32;
+
+    private File tempDir;
+    private Job job;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDir = TestUtils.createTempDir(getClass());
+        job = new Job(tempDir);
+        job.setInputDir(tempDir.toURI());
+        for (int i = 0; i < TOPIC_COUNT; i++) {
+            addTopic("topic" + i + ".dita",
+                    "<topic class='- topic/topic ' id='topic" + i + "'>" +
+                            "<title class='- topic/title '>Topic " + i + "</title>" +
+                            "</topic>");
+        }
+        addTopic("multi.dita",
+                "<topic class='- topic/topic ' id='first'>" +
+                        "<title class='- topic/title '>First</title>" +
+                        "<topic class='- topic/topic ' id='second'>" +
+                        "<title class='- topic/title '>Second</title>" +
+                        "</topic>" +
+                        "</topic>");
+    }
+
+    @Test
+    public void pushMetadata_parallel() throws Exception {
+        final Document doc = XMLUtils.getDocumentBuilder().newDocument();
+        final Map<URI, Map<String, Element>> mapSet = new LinkedHashMap<>();
+        for (int i = 0; i < TOPIC_COUNT; i++) {
+            mapSet.put(URI.create("topic" + i + ".dita"), author(doc, "Author " + i));
+        }
+        mapSet.put(URI.create("multi.dita#first"), author(doc, "First author"));
+        mapSet.put(URI.create("multi.dita#second"), author(doc, "Second author"));
+
+        final MoveMetaModule module = new MoveMetaModule();
+        module.setLogger(new TestUtils.TestLogger());
+        module.setJob(job);
+        module.pushMetadata(mapSet);
+
+        for (int i = 0; i < TOPIC_COUNT; i++) {
+            assertEquals(Collections.singletonMap("topic" + i, "Author " + i),
+                    getAuthors(new File(tempDir, "topic" + i + ".dita")));
+        }
+        final Map<String, String> exp = new HashMap<>();
+        exp.put("first", "First author");
+        exp.put("second", "Second author");
+        assertEquals(exp, getAuthors(new File(tempDir, "multi.dita")));
+    }
+
+    private void addTopic(final String uri, final String content) throws IOException {
+        final File file = new File(tempDir, uri);
+        Files.write(file.toPath(), content.getBytes(UTF_8));
+        job.add(new Job.FileInfo.Builder()
+                .src(file.toURI())
+                .result(file.toURI())
+                .uri(URI.create(uri))
+                .format(ATTR_FORMAT_VALUE_DITA)
+                .build());
+    }
+
+    private Map<String, Element> author(final Document doc, final String name) {
+        final Element author = doc.createElement(TOPIC_AUTHOR.localName);
+        author.setAttribute(ATTRIBUTE_NAME_CLASS, TOPIC_AUTHOR.toString());
+        author.setTextContent(name);
+        final Element stub = doc.createElement(ELEMENT_STUB);
+        stub.appendChild(author);
+        return Collections.singletonMap(TOPIC_AUTHOR.matcher, stub);
+    }
+
+    /**
+     * Read author names by topic ID.
+     */
+    private Map<String, String> getAuthors(final File file) throws Exception {
+        final Document doc = XMLUtils.getDocumentBuilder().parse(file);
+        final Map<String, String> res = new HashMap<>();
+        for (final Element author : XMLUtils.<Element>toList(doc.getElementsByTagName(TOPIC_AUTHOR.localName))) {
+            final Element prolog = (Element) author.getParentNode();
+            final Element topic = (Element) prolog.getParentNode();
+            assertEquals(TOPIC_PROLOG.localName, prolog.getTagName());
+            res.put(topic.getAttribute(ATTRIBUTE_NAME_ID), author.getTextContent());
+        }
+        return res;
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        TestUtils.forceDelete(tempDir);
+    }
+}
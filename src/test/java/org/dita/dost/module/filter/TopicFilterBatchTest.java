@@ -0,0 +1,115 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.module.filter;
+
+import org.dita.dost.TestUtils;
+import org.dita.dost.TestUtils.CachingLogger;
+import org.dita.dost.TestUtils.CachingLogger.Message;
+import org.dita.dost.util.FilterUtils;
+import org.dita.dost.util.FilterUtils.Action;
+import org.dita.dost.util.FilterUtils.FilterKey;
+import org.dita.dost.util.Job;
+import org.dita.dost.util.XMLUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.dita.dost.util.Constants.ATTRIBUTE_NAME_AUDIENCE;
+import static org.dita.dost.util.Constants.ATTRIBUTE_NAME_PLATFORM;
+import static org.junit.Assert.*;
+
+public class TopicFilterBatchTest {
+
+    private static final String TOPIC = "<topic class=\"- topic/topic \" id=\"t\">" +
+            "<title class=\"- topic/title \">Title</title>" +
+            "<body class=\"- topic/body \">" +
+            "<p class=\"- topic/p \" audience=\"expert\">Expert</p>" +
+            "<p class=\"- topic/p \">Common</p>" +
+            "</body>" +
+            "</topic>";
+
+    private File tempDir;
+    private CachingLogger logger;
+    private TopicFilterBatch batch;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDir = TestUtils.createTempDir(TopicFilterBatchTest.class);
+        logger = new CachingLogger();
+        final XMLUtils xmlUtils = new XMLUtils();
+        xmlUtils.setLogger(logger);
+        batch = new TopicFilterBatch(new Job(tempDir), logger, xmlUtils);
+    }
+
+    @Test
+    public void copies() throws IOException {
+        final File src = new File(tempDir, "topic.dita");
+        Files.write(src.toPath(), TOPIC.getBytes(UTF_8));
+        final File windows = new File(tempDir, "topic-windows.dita");
+        final File novice = new File(tempDir, "topic-novice.dita");
+        final File mac = new File(tempDir, "topic-mac.dita");
+        batch.addCopy(src.toURI(), windows.toURI(), filter(ATTRIBUTE_NAME_PLATFORM, "windows"));
+        batch.addCopy(src.toURI(), novice.toURI(), filter(ATTRIBUTE_NAME_AUDIENCE, "expert"));
+        batch.addCopy(src.toURI(), mac.toURI(), filter(ATTRIBUTE_NAME_PLATFORM, "mac"));
+        batch.run();
+
+        final String windowsContent = read(windows);
+        assertTrue(windowsContent.contains("Expert"));
+        assertArrayEquals(Files.readAllBytes(windows.toPath()), Files.readAllBytes(mac.toPath()));
+        final String noviceContent = read(novice);
+        assertFalse(noviceContent.contains("Expert"));
+        assertTrue(noviceContent.contains("Common"));
+        assertEquals(TOPIC, read(src));
+
+        assertEquals(2, count(Message.Level.INFO, "Filtering " + src.toURI()));
+        assertEquals(1, count(Message.Level.DEBUG, "Copying " + windows.toURI() + " to " + mac.toURI()));
+    }
+
+    @Test
+    public void filterAfterCopy() throws IOException {
+        final File src = new File(tempDir, "topic.dita");
+        Files.write(src.toPath(), TOPIC.getBytes(UTF_8));
+        final File copy = new File(tempDir, "topic-copy.dita");
+        batch.addFilter(src.toURI(), filter(ATTRIBUTE_NAME_AUDIENCE, "expert"));
+        batch.addCopy(src.toURI(), copy.toURI(), filter(ATTRIBUTE_NAME_PLATFORM, "windows"));
+        batch.run();
+
+        assertTrue(read(copy).contains("Expert"));
+        assertFalse(read(src).contains("Expert"));
+    }
+
+    private static List<FilterUtils> filter(final String attribute, final String value) {
+        final FilterUtils f = new FilterUtils(
+                Collections.singletonMap(new FilterKey(QName.valueOf(attribute), value), Action.EXCLUDE), null, null);
+        f.setLogger(new TestUtils.TestLogger());
+        return Collections.singletonList(f);
+    }
+
+    private static String read(final File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), UTF_8);
+    }
+
+    private long count(final Message.Level level, final String prefix) {
+        return logger.getMessages().stream()
+                .filter(m -> m.level == level && m.message.startsWith(prefix))
+                .count();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        TestUtils.forceDelete(tempDir);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.module.saxon;
+
+import net.sf.saxon.Configuration;
+import net.sf.saxon.om.NodeInfo;
+import org.dita.dost.TestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.transform.Source;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.stream.StreamSource;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class DocumentCacheTest {
+
+    private File tempDir;
+    private DocumentCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDir = TestUtils.createTempDir(DocumentCacheTest.class);
+        Files.write(new File(tempDir, "topic.dita").toPath(),
+                "<topic id='a'><p id='b'/><section><p id='b'/></section></topic>".getBytes(StandardCharsets.UTF_8));
+        cache = new DocumentCache(new Configuration(),
+                (href, base) -> new StreamSource(href), null, tempDir);
+    }
+
+    @Test
+    public void resolve() throws Exception {
+        final Source first = cache.resolve("topic.dita", tempDir.toURI().toString());
+        final Source second = cache.resolve("topic.dita#a", tempDir.toURI().toString());
+        assertTrue(first instanceof NodeInfo);
+        assertSame(first, second);
+    }
+
+    @Test
+    public void resolveOutsideDirectory() throws Exception {
+        final Source act = cache.resolve("file:/foo/bar.dita", null);
+        assertTrue(act instanceof StreamSource);
+    }
+
+    @Test
+    public void invalidate() throws Exception {
+        final Source first = cache.resolve("topic.dita", tempDir.toURI().toString());
+        cache.invalidate(new File(tempDir, "topic.dita").toURI());
+        final Source second = cache.resolve("topic.dita", tempDir.toURI().toString());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void resolveChanged() throws Exception {
+        final Source first = cache.resolve("topic.dita", tempDir.toURI().toString());
+        Files.write(new File(tempDir, "topic.dita").toPath(),
+                "<topic id='changed'/>".getBytes(StandardCharsets.UTF_8));
+        final NodeInfo second = (NodeInfo) cache.resolve("topic.dita", tempDir.toURI().toString());
+        assertNotSame(first, second);
+        assertEquals(1, ElementByIdFunction.getElementsById(second.getTreeInfo(), "changed").size());
+    }
+
+    @Test
+    public void resolveConcurrently() throws Exception {
+        final List<Source> act = IntStream.range(0, 16).parallel()
+                .mapToObj(i -> {
+                    try {
+                        return cache.resolve("topic.dita", tempDir.toURI().toString());
+                    } catch (final TransformerException e) {
+                        throw new RuntimeException(e);
+                    }
+                })
+                .distinct()
+                .collect(Collectors.toList());
+        assertEquals(1, act.size());
+    }
+
+    @Test
+    public void elementById() throws Exception {
+        final NodeInfo doc = (NodeInfo) cache.resolve("topic.dita", tempDir.toURI().toString());
+        final List<NodeInfo> act = ElementByIdFunction.getElementsById(doc.getTreeInfo(), "b");
+        assertEquals(2, act.size());
+        assertEquals("p", act.get(0).getLocalPart());
+        assertTrue(ElementByIdFunction.getElementsById(doc.getTreeInfo(), "c").isEmpty());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        TestUtils.forceDelete(tempDir);
+    }
+}
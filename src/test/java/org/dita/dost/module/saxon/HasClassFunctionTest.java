@@ -0,0 +1,42 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.module.saxon;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HasClassFunctionTest {
+
+    @Test
+    public void hasClass() {
+        assertTrue(HasClassFunction.hasClass("- topic/p ", "topic/p"));
+        assertTrue(HasClassFunction.hasClass("- topic/ph hi-d/b ", "hi-d/b"));
+        assertTrue(HasClassFunction.hasClass("- topic/ph hi-d/b ", " topic/ph "));
+        assertTrue(HasClassFunction.hasClass("+ topic/foreign  svg-d/svg-container ", "svg-d/svg-container"));
+        assertTrue(HasClassFunction.hasClass("- topic/ph hi-d/b ", "topic/ph hi-d/b"));
+    }
+
+    @Test
+    public void hasClassTrailingSpace() {
+        assertFalse(HasClassFunction.hasClass("- topic/p", "topic/p"));
+        assertFalse(HasClassFunction.hasClass("- topic/ph hi-d/b", "hi-d/b"));
+        assertTrue(HasClassFunction.hasClass("- topic/ph hi-d/b", "topic/ph"));
+        assertFalse(HasClassFunction.hasClass("- topic/ph\thi-d/b ", "topic/ph"));
+    }
+
+    @Test
+    public void hasClassMissing() {
+        assertFalse(HasClassFunction.hasClass(null, "topic/p"));
+        assertFalse(HasClassFunction.hasClass("", "topic/p"));
+        assertFalse(HasClassFunction.hasClass("- topic/ph hi-d/b ", "topic/p"));
+        assertFalse(HasClassFunction.hasClass("- topic/ph hi-d/b ", "-"));
+        assertFalse(HasClassFunction.hasClass("- topic/ph ", "topic/ph hi-d/b"));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.reader;
+
+import org.dita.dost.TestUtils;
+import org.dita.dost.util.SaxCache.SaxEvent;
+import org.dita.dost.util.SaxCache.StartElementEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.xml.sax.SAXException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DocumentPrefetcherTest {
+
+    private File tempDir;
+    private File a;
+    private File b;
+    private File c;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDir = TestUtils.createTempDir(DocumentPrefetcherTest.class);
+        a = write("a.dita", "<topic id='a'/>");
+        b = write("b.dita", "<topic id='b'><title/></topic>");
+        c = write("c.dita", "<topic id='c'");
+    }
+
+    @Test
+    public void take() throws Exception {
+        try (DocumentPrefetcher prefetcher = new DocumentPrefetcher(Arrays.asList(a, b), 1, new TestUtils.TestLogger())) {
+            final List<SaxEvent> act = prefetcher.take(a);
+            assertEquals(2, act.size());
+            assertEquals("a", ((StartElementEvent) act.get(0)).atts.getValue("id"));
+            assertEquals(4, prefetcher.take(new File(tempDir, "x/../b.dita")).size());
+            assertNull(prefetcher.take(a));
+        }
+    }
+
+    @Test
+    public void takeSkipped() throws Exception {
+        try (DocumentPrefetcher prefetcher = new DocumentPrefetcher(Arrays.asList(a, b), 2, new TestUtils.TestLogger())) {
+            assertEquals(4, prefetcher.take(b).size());
+            assertNull(prefetcher.take(a));
+        }
+    }
+
+    @Test(expected = SAXException.class)
+    public void takeInvalid() throws Exception {
+        try (DocumentPrefetcher prefetcher = new DocumentPrefetcher(Arrays.asList(c), 2, new TestUtils.TestLogger(false))) {
+            prefetcher.take(c);
+        }
+    }
+
+    private File write(final String name, final String content) throws IOException {
+        final File file = new File(tempDir, name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        TestUtils.forceDelete(tempDir);
+    }
+}
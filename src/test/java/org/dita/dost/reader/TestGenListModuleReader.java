@@ -86,6 +86,62 @@ public class TestGenListModuleReader {
                 .build());
     }
 
+    @Test
+    public void contentFlags() throws SAXException {
+        reader.startDocument();
+        reader.startElement("", "topic", "topic", new AttributesBuilder()
+                .add("class", "- topic/topic ")
+                .add("id", "abc")
+                .build());
+        reader.startElement("", "p", "p", new AttributesBuilder()
+                .add("class", "- topic/p ")
+                .add("audience", "expert")
+                .build());
+        reader.endElement("", "p", "p");
+        reader.startElement("", "xref", "xref", new AttributesBuilder()
+                .add("class", "- topic/xref ")
+                .add("href", "#./p")
+                .build());
+        reader.endElement("", "xref", "xref");
+        reader.startElement("", "tgroup", "tgroup", new AttributesBuilder()
+                .add("class", "- topic/tgroup ")
+                .add("cols", "1")
+                .build());
+        reader.endElement("", "tgroup", "tgroup");
+        reader.endElement("", "topic", "topic");
+        reader.endDocument();
+
+        final GenListModuleReader.ContentFlags act = reader.getContentFlags();
+        assertTrue(act.hasProfiling);
+        assertTrue(act.hasFragmentLink);
+        assertTrue(act.hasTable);
+        assertFalse(act.hasIndexterm);
+        assertFalse(act.hasCodeblock);
+    }
+
+    @Test
+    public void contentFlags_specializedProps() throws SAXException {
+        reader.startDocument();
+        reader.startElement("", "topic", "topic", new AttributesBuilder()
+                .add("class", "- topic/topic ")
+                .add("id", "abc")
+                .add("domains", "a(props deliveryTarget) a(props os)")
+                .build());
+        reader.startElement("", "image", "image", new AttributesBuilder()
+                .add("class", "- topic/image ")
+                .add("os", "linux")
+                .build());
+        reader.endElement("", "image", "image");
+        reader.endElement("", "topic", "topic");
+        reader.endDocument();
+
+        final GenListModuleReader.ContentFlags act = reader.getContentFlags();
+        assertTrue(act.hasProfiling);
+
+        reader.reset();
+        assertFalse(reader.getContentFlags().hasProfiling);
+    }
+
     @Test
     public void testParse() throws Exception {
         final File rootFile = new File(inputDir, "root-map-01.ditamap");
@@ -0,0 +1,133 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import org.junit.Test;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public class BinaryXMLReaderTest {
+
+    private static final String XML = "<topic xmlns:ditaarch='http://dita.oasis-open.org/architecture/2005/'"
+            + " class='- topic/topic ' id='a'><?workdir /tmp?><title class='- topic/title '>T\u00e4st</title>"
+            + "<body class='- topic/body '><p class='- topic/p '>x &lt; y</p></body></topic>";
+
+    @Test
+    public void parse() throws Exception {
+        final byte[] binary = write();
+        assertTrue(BinaryXMLReader.isBinary(new BufferedInputStream(new ByteArrayInputStream(binary))));
+
+        final List<String> act = new ArrayList<>();
+        final BinaryXMLReader reader = new BinaryXMLReader();
+        reader.setContentHandler(new RecordingHandler(act));
+        reader.parse(new InputSource(new ByteArrayInputStream(binary)));
+
+        assertEquals(Arrays.asList(
+                "startPrefixMapping ditaarch",
+                "startElement topic [class=- topic/topic , id=a]",
+                "processingInstruction workdir /tmp",
+                "startElement title [class=- topic/title ]",
+                "characters T\u00e4st",
+                "endElement title",
+                "startElement body [class=- topic/body ]",
+                "startElement p [class=- topic/p ]",
+                "characters x < y",
+                "endElement p",
+                "endElement body",
+                "endElement topic",
+                "endPrefixMapping ditaarch"), act);
+    }
+
+    @Test
+    public void detect() throws Exception {
+        final List<String> exp = new ArrayList<>();
+        final DetectingXMLReader xmlReader = new DetectingXMLReader(XMLUtils.newXMLReader());
+        xmlReader.setContentHandler(new RecordingHandler(exp));
+        xmlReader.parse(new InputSource(new ByteArrayInputStream(XML.getBytes(UTF_8))));
+
+        final List<String> act = new ArrayList<>();
+        final DetectingXMLReader binaryReader = new DetectingXMLReader(XMLUtils.newXMLReader());
+        binaryReader.setContentHandler(new RecordingHandler(act));
+        binaryReader.parse(new InputSource(new ByteArrayInputStream(write())));
+
+        assertEquals(exp, act);
+    }
+
+    @Test
+    public void isBinary() throws Exception {
+        assertFalse(BinaryXMLReader.isBinary(new BufferedInputStream(new ByteArrayInputStream(XML.getBytes(UTF_8)))));
+        assertFalse(BinaryXMLReader.isBinary(new BufferedInputStream(new ByteArrayInputStream(new byte[0]))));
+    }
+
+    private byte[] write() throws Exception {
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        final DetectingXMLReader reader = new DetectingXMLReader(XMLUtils.newXMLReader());
+        reader.setContentHandler(new BinaryXMLWriter(buf));
+        reader.parse(new InputSource(new ByteArrayInputStream(XML.getBytes(UTF_8))));
+        return buf.toByteArray();
+    }
+
+    private static final class RecordingHandler extends DefaultHandler {
+        private final List<String> events;
+
+        RecordingHandler(final List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void startPrefixMapping(final String prefix, final String uri) {
+            events.add("startPrefixMapping " + prefix);
+        }
+
+        @Override
+        public void endPrefixMapping(final String prefix) {
+            events.add("endPrefixMapping " + prefix);
+        }
+
+        @Override
+        public void startElement(final String uri, final String localName, final String qName, final Attributes atts) {
+            final List<String> attributes = new ArrayList<>();
+            for (int i = 0; i < atts.getLength(); i++) {
+                attributes.add(atts.getQName(i) + "=" + atts.getValue(i));
+            }
+            events.add("startElement " + localName + " " + attributes);
+        }
+
+        @Override
+        public void endElement(final String uri, final String localName, final String qName) {
+            events.add("endElement " + localName);
+        }
+
+        @Override
+        public void characters(final char[] ch, final int start, final int length) {
+            final String text = new String(ch, start, length);
+            final int last = events.size() - 1;
+            if (last >= 0 && events.get(last).startsWith("characters ")) {
+                events.set(last, events.get(last) + text);
+            } else {
+                events.add("characters " + text);
+            }
+        }
+
+        @Override
+        public void processingInstruction(final String target, final String data) {
+            events.add("processingInstruction " + target + " " + data);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class CompactDOMBuilderTest {
+
+    @Test
+    public void build() throws Exception {
+        final Document doc = parse("<!DOCTYPE map [<!-- dtd -->]><!-- c -->"
+                + "<map xmlns:ditaarch='http://dita.oasis-open.org/architecture/2005/' class='- map/map '>\n"
+                + "  <topicref class='- map/topicref ' href='a.dita'/>\n"
+                + "  <topicref class='- map/topicref ' href='b.dita'>&amp;<![CDATA[<x>]]><?pi data?></topicref>\n"
+                + "</map>");
+
+        assertEquals(Node.COMMENT_NODE, doc.getFirstChild().getNodeType());
+        final Element root = doc.getDocumentElement();
+        assertEquals("http://dita.oasis-open.org/architecture/2005/", root.getAttribute("xmlns:ditaarch"));
+        assertEquals(5, root.getChildNodes().getLength());
+
+        final Element first = (Element) root.getChildNodes().item(1);
+        final Element second = (Element) root.getChildNodes().item(3);
+        assertEquals("a.dita", first.getAttribute("href"));
+        assertSame(first.getAttribute("class"), second.getAttribute("class"));
+        assertSame(root.getChildNodes().item(0).getNodeValue(), root.getChildNodes().item(2).getNodeValue());
+
+        assertEquals(3, second.getChildNodes().getLength());
+        assertEquals("&", second.getFirstChild().getNodeValue());
+        assertEquals(Node.CDATA_SECTION_NODE, second.getChildNodes().item(1).getNodeType());
+        assertEquals("<x>", second.getChildNodes().item(1).getNodeValue());
+        assertEquals("data", second.getLastChild().getNodeValue());
+    }
+
+    @Test
+    public void namespaces() throws Exception {
+        final Document doc = parse("<a xmlns='urn:a'><x:b xmlns:x='urn:x' x:c='d'/></a>");
+        final Element root = doc.getDocumentElement();
+        assertEquals("urn:a", root.getNamespaceURI());
+        final Element child = (Element) root.getFirstChild();
+        assertEquals("urn:x", child.getNamespaceURI());
+        assertEquals("b", child.getLocalName());
+        assertEquals("d", child.getAttributeNS("urn:x", "c"));
+    }
+
+    private static Document parse(final String xml) throws Exception {
+        final CompactDOMBuilder builder = new CompactDOMBuilder();
+        final XMLReader reader = XMLUtils.getXMLReader();
+        reader.setContentHandler(builder);
+        reader.setProperty("http://xml.org/sax/properties/lexical-handler", builder);
+        reader.parse(new InputSource(new StringReader(xml)));
+        return builder.getDocument();
+    }
+}
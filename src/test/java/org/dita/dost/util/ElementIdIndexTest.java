@@ -0,0 +1,95 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import org.dita.dost.TestUtils;
+import org.dita.dost.util.ElementIdIndex.Element;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ElementIdIndexTest {
+
+    private static final List<Element> ELEMENTS = Arrays.asList(
+            new Element("root", "- topic/topic ", null),
+            new Element("p", "- topic/p ", "root"),
+            new Element("nested", "- topic/topic ", "root"));
+
+    private File tempDir;
+    private File topic;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDir = TestUtils.createTempDir(ElementIdIndexTest.class);
+        topic = new File(tempDir, "topic.dita");
+        Files.write(topic.toPath(), "<topic/>".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void get() {
+        final ElementIdIndex index = new ElementIdIndex(tempDir);
+        index.put(URI.create("topic.dita"), ELEMENTS);
+
+        assertEquals(ELEMENTS, index.get(topic.toURI()));
+        assertEquals("root", index.getFirstId(URI.create("topic.dita")));
+        assertTrue(index.hasTopicId(topic.toURI(), "nested"));
+        assertFalse(index.hasTopicId(topic.toURI(), "p"));
+        assertNull(index.get(URI.create("missing.dita")));
+        assertNull(index.hasTopicId(URI.create("missing.dita"), "root"));
+    }
+
+    @Test
+    public void getChanged() throws IOException {
+        final ElementIdIndex index = new ElementIdIndex(tempDir);
+        index.put(topic.toURI(), ELEMENTS);
+        Files.write(topic.toPath(), "<topic id='changed'/>".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(index.get(topic.toURI()));
+        assertNull(index.getFirstId(topic.toURI()));
+    }
+
+    @Test
+    public void getRewrittenWithSameStamp() throws IOException {
+        final ElementIdIndex index = new ElementIdIndex(tempDir);
+        index.put(topic.toURI(), ELEMENTS);
+        final long lastModified = topic.lastModified();
+        Files.write(topic.toPath(), "<title/>".getBytes(StandardCharsets.UTF_8));
+        assertTrue(topic.setLastModified(lastModified));
+
+        assertNull(index.get(topic.toURI()));
+    }
+
+    @Test
+    public void writeAndRead() throws IOException {
+        final ElementIdIndex index = new ElementIdIndex(tempDir);
+        index.put(URI.create("topic.dita"), ELEMENTS);
+        assertTrue(index.isModified());
+        final File file = new File(tempDir, Job.ELEMENT_ID_INDEX_FILE);
+        index.write(file);
+        assertFalse(index.isModified());
+
+        final ElementIdIndex act = ElementIdIndex.read(file, tempDir);
+        assertEquals(ELEMENTS, act.get(URI.create("topic.dita")));
+        assertFalse(act.isModified());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        TestUtils.forceDelete(tempDir);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import org.apache.commons.io.IOUtils;
+import org.dita.dost.TestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.xml.sax.InputSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+
+public class FilePrefetcherTest {
+
+    private File tempDir;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDir = TestUtils.createTempDir(FilePrefetcherTest.class);
+    }
+
+    @Test
+    public void take() throws IOException {
+        final URI first = write("first.dita", "<first/>");
+        final URI second = write("second.dita", "<second/>");
+        final URI third = write("third.dita", "<third/>");
+        try (final FilePrefetcher prefetcher = new FilePrefetcher(2, new TestUtils.TestLogger())) {
+            prefetcher.prefetch(Arrays.asList(first, second, third));
+            assertNull(prefetcher.take(third));
+
+            final InputSource in = prefetcher.take(second);
+            assertEquals(second.toString(), in.getSystemId());
+            assertEquals("<second/>", IOUtils.toString(in.getByteStream(), UTF_8));
+            assertNull(prefetcher.take(first));
+
+            prefetcher.prefetch(singletonList(third));
+            assertEquals("<third/>", IOUtils.toString(prefetcher.take(third).getByteStream(), UTF_8));
+        }
+    }
+
+    @Test
+    public void take_missing() {
+        final URI missing = new File(tempDir, "missing.dita").toURI();
+        try (final FilePrefetcher prefetcher = new FilePrefetcher(2, new TestUtils.TestLogger())) {
+            prefetcher.prefetch(singletonList(missing));
+            assertNull(prefetcher.take(missing));
+        }
+    }
+
+    private URI write(final String name, final String content) throws IOException {
+        final File file = new File(tempDir, name);
+        Files.write(file.toPath(), content.getBytes(UTF_8));
+        return file.toURI();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        TestUtils.forceDelete(tempDir);
+    }
+}
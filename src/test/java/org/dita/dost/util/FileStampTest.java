@@ -0,0 +1,87 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import org.dita.dost.TestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.dita.dost.util.FileStamp.NO_CHECKSUM;
+import static org.dita.dost.util.FileStamp.RACY_WINDOW;
+import static org.junit.Assert.*;
+
+public class FileStampTest {
+
+    private File tempDir;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDir = TestUtils.createTempDir(FileStampTest.class);
+        file = new File(tempDir, "topic.dita");
+        Files.write(file.toPath(), "<topic/>".getBytes(UTF_8));
+    }
+
+    @Test
+    public void of_old() {
+        assertTrue(file.setLastModified(System.currentTimeMillis() - 10 * RACY_WINDOW));
+        final FileStamp stamp = FileStamp.of(file);
+        assertEquals(NO_CHECKSUM, stamp.checksum);
+        assertSame(stamp, stamp.check(file));
+    }
+
+    @Test
+    public void of_recent() {
+        final FileStamp stamp = FileStamp.of(file);
+        assertNotEquals(NO_CHECKSUM, stamp.checksum);
+        assertSame(stamp, stamp.check(file));
+    }
+
+    @Test
+    public void of_missing() {
+        assertNull(FileStamp.of(new File(tempDir, "missing.dita")));
+    }
+
+    @Test
+    public void check_rewrittenWithSameAttributes() throws IOException {
+        final FileStamp stamp = FileStamp.of(file);
+        final long lastModified = file.lastModified();
+        Files.write(file.toPath(), "<title/>".getBytes(UTF_8));
+        assertTrue(file.setLastModified(lastModified));
+        assertNull(stamp.check(file));
+    }
+
+    @Test
+    public void check_changed() throws IOException {
+        final FileStamp stamp = FileStamp.of(file);
+        Files.write(file.toPath(), "<topic></topic>".getBytes(UTF_8));
+        assertNull(stamp.check(file));
+    }
+
+    @Test
+    public void check_refresh() {
+        final FileStamp recent = FileStamp.of(file);
+        final long lastModified = System.currentTimeMillis() - 10 * RACY_WINDOW;
+        assertTrue(file.setLastModified(lastModified));
+        final FileStamp racy = new FileStamp(file.lastModified(), recent.length, recent.checksum);
+        final FileStamp refreshed = racy.check(file);
+        assertEquals(new FileStamp(racy.lastModified, racy.length, NO_CHECKSUM), refreshed);
+        assertSame(refreshed, refreshed.check(file));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        TestUtils.forceDelete(tempDir);
+    }
+}
@@ -61,6 +61,22 @@ public final class JobTest {
         assertNull(job.getFileInfo((URI) null));
     }
 
+    @Test
+    public void testMayContain() throws URISyntaxException {
+        final Job.FileInfo.Builder builder = new Job.FileInfo.Builder()
+                .uri(new URI("bar.dita"))
+                .hasTable(true);
+        final Job.FileInfo unknown = builder.build();
+        assertTrue(unknown.mayContain(unknown.hasIndexterm));
+
+        final Job.FileInfo known = builder.hasContentFlags(true).build();
+        assertTrue(known.mayContain(known.hasTable));
+        assertFalse(known.mayContain(known.hasIndexterm));
+
+        final Job.FileInfo conref = builder.hasConref(true).build();
+        assertTrue(conref.mayContain(conref.hasIndexterm));
+    }
+
     @Test
     public void testGetInputMap() {
         assertEquals(toURI("foo"), job.getInputMap());
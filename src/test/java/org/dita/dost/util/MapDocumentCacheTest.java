@@ -0,0 +1,84 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import org.dita.dost.TestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public class MapDocumentCacheTest {
+
+    private File tempDir;
+    private File file;
+    private Document doc;
+
+    @Before
+    public void setUp() throws Exception {
+        tempDir = TestUtils.createTempDir(MapDocumentCacheTest.class);
+        file = new File(tempDir, "map.ditamap");
+        Files.write(file.toPath(), "<map/>".getBytes(UTF_8));
+        doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+    }
+
+    @Test
+    public void take() {
+        final MapDocumentCache cache = new MapDocumentCache();
+        cache.put(file, doc);
+        assertSame(doc, cache.take(file));
+        assertNull(cache.take(file));
+    }
+
+    @Test
+    public void takeChanged() throws IOException {
+        final MapDocumentCache cache = new MapDocumentCache();
+        cache.put(file, doc);
+        Files.write(file.toPath(), "<map></map>".getBytes(UTF_8));
+        assertNull(cache.take(file));
+    }
+
+    @Test
+    public void takeRewrittenWithSameStamp() throws IOException {
+        final MapDocumentCache cache = new MapDocumentCache();
+        cache.put(file, doc);
+        final long lastModified = file.lastModified();
+        Files.write(file.toPath(), "<foo/>".getBytes(UTF_8));
+        assertTrue(file.setLastModified(lastModified));
+        assertNull(cache.take(file));
+    }
+
+    @Test
+    public void takeMissing() {
+        final MapDocumentCache cache = new MapDocumentCache();
+        assertNull(cache.take(file));
+        cache.put(new File(tempDir, "missing.ditamap"), doc);
+        assertNull(cache.take(new File(tempDir, "missing.ditamap")));
+    }
+
+    @Test
+    public void invalidate() {
+        final MapDocumentCache cache = new MapDocumentCache();
+        cache.put(file, doc);
+        cache.invalidate(file);
+        assertNull(cache.take(file));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        TestUtils.forceDelete(tempDir);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.dita.dost.TestUtils;
+import org.dita.dost.util.Metrics.Measurement;
+import org.dita.dost.util.Metrics.Record;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MetricsTest {
+
+    private static File tempDir;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        tempDir = TestUtils.createTempDir(MetricsTest.class);
+    }
+
+    @Test
+    public void disabled() {
+        final Metrics metrics = Metrics.DISABLED;
+        try (Measurement module = metrics.startModule("target", "module")) {
+            try (Measurement file = metrics.startFile(URI.create("file:/foo.dita"))) {
+                file.read(10).written(20);
+            }
+        }
+        assertFalse(metrics.isEnabled());
+        assertTrue(metrics.getRecords().isEmpty());
+    }
+
+    @Test
+    public void records() {
+        final Metrics metrics = new Metrics();
+        try (Measurement module = metrics.startModule("target", "module")) {
+            try (Measurement file = metrics.startFile(URI.create("file:/foo.dita"))) {
+                file.read(10).written(20);
+            }
+            try (Measurement file = metrics.startFile(URI.create("file:/bar.dita"))) {
+                file.read(1).written(2);
+            }
+        }
+        final List<Record> act = metrics.getRecords();
+        assertEquals(3, act.size());
+        final Record foo = act.get(0);
+        assertEquals("file", foo.type);
+        assertEquals("target", foo.target);
+        assertEquals("module", foo.module);
+        assertEquals(URI.create("file:/foo.dita"), foo.file);
+        assertEquals(10, foo.bytesRead);
+        assertEquals(20, foo.bytesWritten);
+        final Record module = act.get(2);
+        assertEquals("module", module.type);
+        assertNull(module.file);
+        assertEquals(11, module.bytesRead);
+        assertEquals(22, module.bytesWritten);
+        assertTrue(module.wallTime >= foo.wallTime);
+    }
+
+    @Test
+    public void writeJson() throws IOException {
+        final Metrics metrics = new Metrics();
+        try (Measurement module = metrics.startModule("target", "module")) {
+            try (Measurement file = metrics.startFile(URI.create("file:/foo.dita"))) {
+                file.read(10).written(20);
+            }
+        }
+        final File out = new File(tempDir, "metrics.json");
+        metrics.write(out);
+
+        final JsonNode act = new ObjectMapper().readTree(out);
+        assertEquals(2, act.size());
+        assertEquals("file", act.get(0).get("type").asText());
+        assertEquals("file:/foo.dita", act.get(0).get("file").asText());
+        assertEquals(10, act.get(0).get("bytesRead").asLong());
+        assertEquals("module", act.get(1).get("type").asText());
+        assertFalse(act.get(1).has("file"));
+    }
+
+    @Test
+    public void writeCsv() throws IOException {
+        final Metrics metrics = new Metrics();
+        try (Measurement module = metrics.startModule("target", "module,1")) {
+            try (Measurement file = metrics.startFile(URI.create("file:/foo.dita"))) {
+                file.read(10).written(20);
+            }
+        }
+        final File out = new File(tempDir, "metrics.csv");
+        metrics.write(out);
+
+        final List<String> act = Files.readAllLines(out.toPath(), StandardCharsets.UTF_8);
+        assertEquals(3, act.size());
+        assertEquals("type,target,module,file,thread,wallTime,cpuTime,allocatedBytes,bytesRead,bytesWritten", act.get(0));
+        assertTrue(act.get(1).startsWith("file,target,\"module,1\",file:/foo.dita,"));
+        assertTrue(act.get(1).endsWith(",10,20"));
+    }
+
+    @AfterClass
+    public static void tearDown() throws IOException {
+        TestUtils.forceDelete(tempDir);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ParallelUtilsTest {
+
+    @Test
+    public void forEach() {
+        final List<Integer> items = range(100);
+        final Set<Integer> act = ConcurrentHashMap.newKeySet();
+        ParallelUtils.forEach(items, act::add);
+        assertEquals(100, act.size());
+    }
+
+    @Test
+    public void forEach_nested() {
+        final AtomicInteger count = new AtomicInteger();
+        ParallelUtils.forEach(range(10), i -> ParallelUtils.forEach(range(10), j -> count.incrementAndGet()));
+        assertEquals(100, count.get());
+    }
+
+    @Test
+    public void forEach_failure() {
+        final AtomicInteger count = new AtomicInteger();
+        try {
+            ParallelUtils.forEach(range(10), i -> {
+                count.incrementAndGet();
+                if (i % 5 == 0) {
+                    throw new IllegalStateException(Integer.toString(i));
+                }
+            });
+            fail();
+        } catch (final IllegalStateException e) {
+            assertEquals(10, count.get());
+            assertEquals(1, e.getSuppressed().length);
+        }
+    }
+
+    @Test
+    public void getExecutor() {
+        final int act = CompletableFuture.supplyAsync(() -> 1, ParallelUtils.getExecutor()).join();
+        assertEquals(1, act);
+    }
+
+    private static List<Integer> range(final int size) {
+        final List<Integer> res = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            res.add(i);
+        }
+        return res;
+    }
+}
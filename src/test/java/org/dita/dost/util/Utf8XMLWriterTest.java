@@ -0,0 +1,116 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import org.junit.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.AttributesImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+public class Utf8XMLWriterTest {
+
+    private static final String DECL = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>";
+
+    @Test
+    public void escape() throws Exception {
+        assertEquals(DECL + "<a b=\"&lt;&amp;&gt;&quot;'&#xA;&#x9;&#xD;\">&lt;&amp;&gt;\"'\n\t&#xD;&#x85;</a>",
+                parse("<a b='&lt;&amp;>\"&apos;&#xA;&#x9;&#xD;'>&lt;&amp;>\"'\n\t&#xD;&#x85;</a>"));
+    }
+
+    @Test
+    public void unicode() throws Exception {
+        assertEquals(DECL + "<a b=\"\u00E4\">\u00E4\u20AC\uD83D\uDE00</a>",
+                parse("<a b='\u00E4'>\u00E4\u20AC\uD83D\uDE00</a>"));
+    }
+
+    @Test
+    public void markup() throws Exception {
+        assertEquals(DECL + "<a><b/><c> </c><?pi data?><?empty?><!-- comment -->&lt;cdata&gt;</a>",
+                parse("<!DOCTYPE a [<!-- in DTD -->]><a><b></b><c> </c><?pi data?><?empty?><!-- comment -->"
+                        + "<![CDATA[<cdata>]]></a>"));
+    }
+
+    @Test
+    public void namespaces() throws Exception {
+        assertEquals(DECL + "<a xmlns=\"urn:a\" xmlns:x=\"urn:x\" x:y=\"z\"><b/><c xmlns=\"\"/><x:d/></a>",
+                parse("<a xmlns='urn:a' xmlns:x='urn:x' x:y='z'><b xmlns='urn:a'/><c xmlns=''/>"
+                        + "<x:d xmlns:x='urn:x'/></a>"));
+    }
+
+    @Test
+    public void unprefixedAttributes() throws Exception {
+        assertEquals(DECL + "<topic><svg xmlns=\"http://www.w3.org/2000/svg\" width=\"10\"><rect height=\"2\"/></svg></topic>",
+                parse("<topic><svg xmlns=\"http://www.w3.org/2000/svg\" width=\"10\"><rect height=\"2\"/></svg></topic>"));
+    }
+
+    @Test
+    public void namespaceFixup() throws Exception {
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        final Utf8XMLWriter writer = new Utf8XMLWriter(buf);
+        final AttributesImpl atts = new AttributesImpl();
+        atts.addAttribute("urn:y", "b", "y:b", "CDATA", "c");
+        writer.startDocument();
+        writer.startElement("urn:x", "a", "x:a", atts);
+        writer.endElement("urn:x", "a", "x:a");
+        writer.endDocument();
+        assertEquals(DECL + "<x:a xmlns:x=\"urn:x\" xmlns:y=\"urn:y\" y:b=\"c\"/>", buf.toString("UTF-8"));
+    }
+
+    @Test(expected = SAXException.class)
+    public void unpairedSurrogate() throws Exception {
+        final Utf8XMLWriter writer = new Utf8XMLWriter(new ByteArrayOutputStream());
+        writer.startDocument();
+        writer.characters(new char[] {'\ud83d'}, 0, 1);
+        writer.endDocument();
+    }
+
+    @Test
+    public void splitSurrogatePair() throws Exception {
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        final Utf8XMLWriter writer = new Utf8XMLWriter(buf);
+        writer.startDocument();
+        writer.startElement("", "a", "a", new AttributesImpl());
+        writer.characters(new char[] {'b', '\ud83d'}, 0, 2);
+        writer.characters(new char[] {'\ude00', 'c'}, 0, 2);
+        writer.endElement("", "a", "a");
+        writer.endDocument();
+        assertEquals(DECL + "<a>b\uD83D\uDE00c</a>", buf.toString("UTF-8"));
+    }
+
+    @Test(expected = SAXException.class)
+    public void splitUnpairedSurrogate() throws Exception {
+        final Utf8XMLWriter writer = new Utf8XMLWriter(new ByteArrayOutputStream());
+        writer.startDocument();
+        writer.characters(new char[] {'\ud83d'}, 0, 1);
+        writer.characters(new char[] {'a'}, 0, 1);
+    }
+
+    @Test(expected = SAXException.class)
+    public void nonCharacter() throws Exception {
+        final Utf8XMLWriter writer = new Utf8XMLWriter(new ByteArrayOutputStream());
+        writer.startDocument();
+        writer.characters(new char[] {'\uffff'}, 0, 1);
+    }
+
+    private static String parse(final String xml) throws Exception {
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        final Utf8XMLWriter writer = new Utf8XMLWriter(buf);
+        final XMLReader reader = XMLUtils.getXMLReader();
+        reader.setContentHandler(writer);
+        reader.setProperty("http://xml.org/sax/properties/lexical-handler", writer);
+        reader.parse(new InputSource(new StringReader(xml)));
+        return new String(buf.toByteArray(), UTF_8);
+    }
+}
@@ -7,12 +7,14 @@
  */
 package org.dita.dost.util;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -28,6 +30,7 @@ import org.xml.sax.SAXException;
 import org.junit.Test;
 
 import static org.dita.dost.TestUtils.assertXMLEqual;
+import static org.junit.Assert.assertEquals;
 
 public class XMLSerializerTest {
 
@@ -81,6 +84,27 @@ public class XMLSerializerTest {
                 new InputSource(new StringReader(buf.toString())));
     }
 
+    @Test
+    public void testOutputStream() throws SAXException, IOException {
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        final XMLSerializer serializer = XMLSerializer.newInstance(buf);
+
+        serializer.writeStartDocument();
+        serializer.writeStartElement("topic");
+        serializer.writeAttribute("class", "- topic/topic ");
+        serializer.writeStartElement("http://example.com/baz", "ns:foo");
+        serializer.writeCharacters("& \u00E4");
+        serializer.writeEndElement(); // ns:foo
+        serializer.writeComment("bar");
+        serializer.writeEndDocument();
+        serializer.close();
+
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+                "<topic class=\"- topic/topic \"><ns:foo xmlns:ns=\"http://example.com/baz\">&amp; \u00E4</ns:foo>" +
+                "<!--bar--></topic>",
+                new String(buf.toByteArray(), StandardCharsets.UTF_8));
+    }
+
     @Test
     public void testEndDocument() throws SAXException, IOException {
         final StringWriter buf = new StringWriter();
@@ -11,6 +11,9 @@ import static javax.xml.XMLConstants.*;
 import static org.junit.Assert.*;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
 import java.io.StringReader;
 import java.util.Arrays;
 import java.util.Deque;
@@ -22,14 +25,25 @@ import javax.xml.transform.*;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
+import net.sf.saxon.jaxp.SaxonTransformerFactory;
+import net.sf.saxon.lib.CollationURIResolver;
+import net.sf.saxon.om.StructuredQName;
+import net.sf.saxon.trans.SymbolicName;
+import org.dita.dost.TestUtils;
 import org.dita.dost.TestUtils.CachingLogger;
 import org.dita.dost.TestUtils.CachingLogger.Message;
+import org.dita.dost.module.DelegatingCollationUriResolverTest;
 import org.w3c.dom.Element;
 import org.w3c.dom.Document;
 import org.w3c.dom.DOMImplementation;
 import org.w3c.dom.Attr;
 import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.ext.DefaultHandler2;
 import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
 import org.junit.Test;
 
 public class XMLUtilsTest {
@@ -251,4 +265,138 @@ public class XMLUtilsTest {
                 logger.getMessages());
     }
 
+    @Test
+    public void getTransformerFactory() {
+        final SaxonTransformerFactory first = (SaxonTransformerFactory) XMLUtils.getTransformerFactory();
+        final SaxonTransformerFactory second = (SaxonTransformerFactory) XMLUtils.getTransformerFactory();
+        assertNotSame(first, second);
+        assertNotSame(first.getConfiguration(), second.getConfiguration());
+        assertSame(first.getConfiguration().getNamePool(), second.getConfiguration().getNamePool());
+        final SymbolicName.F functionName = new SymbolicName.F(new StructuredQName("x", "y", "z"), 0);
+        assertTrue(first.getConfiguration().getIntegratedFunctionLibrary().isAvailable(functionName));
+        assertTrue(second.getConfiguration().getIntegratedFunctionLibrary().isAvailable(functionName));
+        assertTrue(second.getConfiguration().getCollationURIResolver().getClass()
+                .isAssignableFrom(DelegatingCollationUriResolverTest.class));
+    }
+
+    @Test
+    public void getTransformerFactory_isolatedSettings() {
+        final TransformerFactory first = XMLUtils.getTransformerFactory();
+        final TransformerFactory second = XMLUtils.getTransformerFactory();
+        final URIResolver firstResolver = (href, base) -> null;
+        final URIResolver secondResolver = (href, base) -> null;
+        final ErrorListener firstListener = new CachingErrorListener();
+        final ErrorListener secondListener = new CachingErrorListener();
+        first.setURIResolver(firstResolver);
+        first.setErrorListener(firstListener);
+        second.setURIResolver(secondResolver);
+        second.setErrorListener(secondListener);
+
+        assertSame(firstResolver, first.getURIResolver());
+        assertSame(firstListener, first.getErrorListener());
+        assertSame(secondResolver, second.getURIResolver());
+        assertSame(secondListener, second.getErrorListener());
+        final TransformerFactory third = XMLUtils.getTransformerFactory();
+        assertNotSame(firstResolver, third.getURIResolver());
+        assertNotSame(secondResolver, third.getURIResolver());
+    }
+
+    @Test
+    public void configureSaxonCollationResolvers() {
+        final SaxonTransformerFactory tf = newSaxonTransformerFactory();
+        XMLUtils.configureSaxonCollationResolvers(tf.getConfiguration());
+        final CollationURIResolver collationURIResolver = tf.getConfiguration().getCollationURIResolver();
+        assertTrue(collationURIResolver.getClass().isAssignableFrom(DelegatingCollationUriResolverTest.class));
+    }
+
+    @Test
+    public void configureSaxonExtensions() {
+        final SaxonTransformerFactory tf = newSaxonTransformerFactory();
+        XMLUtils.configureSaxonExtensions(tf.getConfiguration());
+        final SymbolicName.F functionName = new SymbolicName.F(new StructuredQName("x", "y", "z"), 0);
+        assertTrue(tf.getConfiguration().getIntegratedFunctionLibrary().isAvailable(functionName));
+    }
+
+    private SaxonTransformerFactory newSaxonTransformerFactory() {
+        return (SaxonTransformerFactory) TransformerFactory.newInstance("net.sf.saxon.jaxp.SaxonTransformerFactory",
+                getClass().getClassLoader());
+    }
+
+    private static final class CachingErrorListener implements ErrorListener {
+        private final List<TransformerException> errors = new LinkedList<>();
+
+        @Override
+        public void warning(final TransformerException exception) {
+            errors.add(exception);
+        }
+
+        @Override
+        public void error(final TransformerException exception) {
+            errors.add(exception);
+        }
+
+        @Override
+        public void fatalError(final TransformerException exception) {
+            errors.add(exception);
+        }
+    }
+
+    @Test
+    public void binaryFormatDetection() throws Exception {
+        final File binaryDir = TestUtils.createTempDir(XMLUtilsTest.class);
+        final File xmlDir = new File(binaryDir.getParentFile(), binaryDir.getName() + "-xml");
+        try {
+            final File binaryFile = writeBinary(new File(binaryDir, "topic.dita"));
+            final File xmlDirFile = writeBinary(new File(xmlDir, "topic.dita"));
+            final Job binaryJob = new Job(binaryDir);
+            binaryJob.setTempFileFormat(Constants.TEMP_FILE_FORMAT_BINARY);
+            new Job(xmlDir);
+
+            assertEquals("topic", XMLUtils.getDocumentBuilder().parse(binaryFile).getDocumentElement().getTagName());
+            try {
+                XMLUtils.getDocumentBuilder().parse(xmlDirFile);
+                fail();
+            } catch (final SAXException e) {
+                // binary document in a job that uses XML format
+            }
+
+            binaryJob.setTempFileFormat(Constants.TEMP_FILE_FORMAT_XML);
+            try {
+                XMLUtils.getDocumentBuilder().parse(binaryFile);
+                fail();
+            } catch (final SAXException e) {
+                // binary format no longer used
+            }
+        } finally {
+            TestUtils.forceDelete(binaryDir);
+            TestUtils.forceDelete(xmlDir);
+        }
+    }
+
+    private File writeBinary(final File file) throws Exception {
+        assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        try (OutputStream out = new FileOutputStream(file)) {
+            final XMLReader reader = XMLUtils.newXMLReader();
+            reader.setContentHandler(new BinaryXMLWriter(out));
+            reader.parse(new InputSource(new StringReader("<topic id='a'><title>Title</title></topic>")));
+        }
+        return file;
+    }
+
+    @Test
+    public void borrowXMLReader() throws Exception {
+        final XMLReader first = XMLUtils.borrowXMLReader();
+        first.setContentHandler(new DefaultHandler());
+        first.setProperty("http://xml.org/sax/properties/lexical-handler", new DefaultHandler2());
+        first.parse(new InputSource(new StringReader("<root/>")));
+        XMLUtils.releaseXMLReader(first);
+
+        final XMLReader second = XMLUtils.borrowXMLReader();
+        assertSame(first, second);
+        assertNull(second.getContentHandler());
+        assertNull(second.getProperty("http://xml.org/sax/properties/lexical-handler"));
+        assertNotSame(second, XMLUtils.borrowXMLReader());
+        XMLUtils.releaseXMLReader(second);
+    }
+
 }
@@ -0,0 +1,128 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2020 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.writer.include;
+
+import org.dita.dost.TestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.MalformedInputException;
+import java.nio.file.Files;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public class IncludeSourceTest {
+
+    private File tempDir;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDir = TestUtils.createTempDir(IncludeSourceTest.class);
+    }
+
+    @Test
+    public void lines() throws IOException {
+        final IncludeSource src = read("a\nb\r\nc\r\rd\n");
+        assertEquals(5, src.getLineCount());
+        assertEquals("a", line(src, 0));
+        assertEquals("b", line(src, 1));
+        assertEquals("c", line(src, 2));
+        assertEquals("", line(src, 3));
+        assertEquals("d", line(src, 4));
+    }
+
+    @Test
+    public void linesWithoutTrailingNewline() throws IOException {
+        final IncludeSource src = read("a\nb");
+        assertEquals(2, src.getLineCount());
+        assertEquals("b", line(src, 1));
+        assertEquals(0, read("").getLineCount());
+    }
+
+    @Test
+    public void indexOf() throws IOException {
+        final IncludeSource src = read("x\n// START\ny\n// END START\nz");
+        assertEquals(1, src.indexOf("START", 0));
+        assertEquals(3, src.indexOf("START", 2));
+        assertEquals(-1, src.indexOf("START", 4));
+        assertEquals(3, src.indexOf("END", 0));
+        assertEquals(-1, src.indexOf("missing", 0));
+    }
+
+    @Test
+    public void ranges() throws Exception {
+        final IncludeSource src = read("a\n// START\nb\nc\n// END\nd\n// START\ne");
+        assertEquals("a\n// START\nb\nc\n// END\nd\n// START\ne", copy(new AllRange(), src));
+        assertEquals("b\nc", copy(new LineNumberRange(2, 3), src));
+        assertEquals("b\nc\ne", copy(new AnchorRange("START", "END"), src));
+        assertEquals("a\n// START\nb\nc", copy(new AnchorRange(null, "END"), src));
+    }
+
+    @Test
+    public void get() throws IOException {
+        final File file = new File(tempDir, "cached.txt");
+        Files.write(file.toPath(), "a\nb".getBytes(UTF_8));
+        final IncludeSourceCache cache = new IncludeSourceCache();
+        final IncludeSource src = cache.get(file, UTF_8);
+        assertSame(src, cache.get(file, UTF_8));
+        assertNotSame(src, cache.get(file, ISO_8859_1));
+
+        Files.write(file.toPath(), "a\nb\nc".getBytes(UTF_8));
+        assertEquals(3, cache.get(file, UTF_8).getLineCount());
+
+        final IncludeSource changed = cache.get(file, UTF_8);
+        cache.clear();
+        assertNotSame(changed, cache.get(file, UTF_8));
+    }
+
+    @Test
+    public void getSize() {
+        final IncludeSource src = new IncludeSource("ab\ncd".toCharArray(), 5, 0L, 5L);
+        assertEquals(5 * 2 + 2 * 8, src.getSize());
+    }
+
+    @Test(expected = MalformedInputException.class)
+    public void malformed() throws IOException {
+        final File file = new File(tempDir, "malformed.txt");
+        Files.write(file.toPath(), new byte[]{'a', (byte) 0xFF, 'b'});
+        IncludeSource.read(file.toPath(), UTF_8);
+    }
+
+    private IncludeSource read(final String content) throws IOException {
+        final File file = File.createTempFile("source", ".txt", tempDir);
+        Files.write(file.toPath(), content.getBytes(UTF_8));
+        return IncludeSource.read(file.toPath(), UTF_8);
+    }
+
+    private static String line(final IncludeSource src, final int line) {
+        return new String(src.getText(), src.getLineStart(line), src.getLineLength(line));
+    }
+
+    private static String copy(final Range range, final IncludeSource src) throws Exception {
+        final StringBuilder buf = new StringBuilder();
+        range.handler(new DefaultHandler() {
+            @Override
+            public void characters(final char[] ch, final int start, final int length) {
+                buf.append(ch, start, length);
+            }
+        });
+        range.copyLines(src);
+        return buf.toString();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        TestUtils.forceDelete(tempDir);
+    }
+}